@@ -0,0 +1,100 @@
+package com.tayronadev.infraestructura.email;
+
+import com.tayronadev.dominio.notificacion.modelo.NotificacionCita;
+import com.tayronadev.dominio.notificacion.modelo.TipoNotificacion;
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de renderizar una notificación de cita.
+ * <ul>
+ *   <li>{@code sinPrecalentar}: primer correo con un motor recién creado, que
+ *   analiza la plantilla y el fragmento base (lo que pagaba el primer envío de cada tipo).</li>
+ *   <li>{@code precalentado}: correo con las plantillas ya en caché y las
+ *   variables de empresa precalculadas (régimen normal tras el arranque).</li>
+ * </ul>
+ * Ejecutar con {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderizadorCorreoBenchmark {
+
+    @Param({"CITA_CONFIRMADA", "CITA_RECHAZADA", "CITA_CANCELADA"})
+    private TipoNotificacion tipo;
+
+    private NotificacionCita notificacion;
+
+    @Setup(Level.Trial)
+    public void prepararNotificacion() {
+        notificacion = NotificacionCita.builder()
+                .destinatarioEmail("juan@email.com")
+                .destinatarioNombre("Juan Pérez")
+                .nombreProveedor("Proveedor ABC")
+                .nit("900123456-1")
+                .citaId("cita-123")
+                .tipoCita("ENTREGA")
+                .tipoCitaDescripcion("Entrega de mercancía")
+                .fechaHoraCita(LocalDateTime.of(2030, 1, 7, 10, 0))
+                .tipoNotificacion(tipo)
+                .observaciones("Presentarse con la guía")
+                .build();
+    }
+
+    /** Renderizador creado y precalentado una vez por ejecución */
+    @State(Scope.Benchmark)
+    public static class Precalentado {
+        RenderizadorCorreo renderizador;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            renderizador = crearRenderizador();
+            renderizador.precalentar();
+        }
+    }
+
+    /** Renderizador nuevo, con la caché de plantillas vacía, en cada invocación */
+    @State(Scope.Thread)
+    public static class EnFrio {
+        RenderizadorCorreo renderizador;
+
+        @Setup(Level.Invocation)
+        public void preparar() {
+            renderizador = crearRenderizador();
+        }
+    }
+
+    @Benchmark
+    public String precalentado(Precalentado estado) {
+        return estado.renderizador.renderizar(notificacion);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10, batchSize = 1)
+    @Measurement(iterations = 50, batchSize = 1)
+    public String sinPrecalentar(EnFrio estado) {
+        return estado.renderizador.renderizar(notificacion);
+    }
+
+    private static RenderizadorCorreo crearRenderizador() {
+        var resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        var motor = new SpringTemplateEngine();
+        motor.setTemplateResolver(resolver);
+        return new RenderizadorCorreo(motor, "Zona Franca", "+57 601 000 0000", "Km 1 Vía Siberia");
+    }
+}
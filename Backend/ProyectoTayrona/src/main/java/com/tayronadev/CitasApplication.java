@@ -3,13 +3,16 @@ package com.tayronadev;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Clase principal de la aplicación de agendamiento de citas.
- * Habilita el procesamiento asíncrono para el envío de notificaciones.
+ * Habilita el procesamiento asíncrono para el envío de notificaciones
+ * y las tareas programadas (escritura en lote de auditoría).
  */
 @SpringBootApplication
 @EnableAsync
+@EnableScheduling
 public class CitasApplication {
 
     public static void main(String[] args) {
@@ -1,17 +1,21 @@
 package com.tayronadev.api.auditoria.controllers;
 
+import com.tayronadev.api.auditoria.dto.response.ActividadDiariaResponse;
 import com.tayronadev.api.auditoria.dto.response.RegistroCambioEstadoResponse;
 import com.tayronadev.api.auditoria.dto.response.ResumenAuditoriaResponse;
 import com.tayronadev.api.auditoria.mappers.AuditoriaDtoMapper;
 import com.tayronadev.api.common.ApiResponse;
+import com.tayronadev.api.common.CursorCodec;
 import com.tayronadev.dominio.auditoria.casosuso.ConsultarAuditoriaUseCase;
 import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
+import com.tayronadev.dominio.comun.SolicitudPagina;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -25,6 +29,9 @@ import java.util.List;
 @Slf4j
 public class AuditoriaController {
     
+    /** Cambios más recientes que se incluyen en el resumen de un usuario */
+    private static final int CAMBIOS_EN_RESUMEN = 10;
+    
     private final ConsultarAuditoriaUseCase consultarAuditoriaUseCase;
     private final AuditoriaDtoMapper mapper;
     
@@ -43,33 +50,35 @@ public class AuditoriaController {
     }
     
     /**
-     * Obtiene todos los registros de auditoría de un usuario específico.
+     * Obtiene una página de los registros de auditoría de un usuario específico,
+     * del más reciente al más antiguo por defecto.
      * Este es el filtro principal según el requerimiento.
      */
     @GetMapping("/usuario/{usuarioId}")
     public ResponseEntity<ApiResponse<List<RegistroCambioEstadoResponse>>> obtenerPorUsuario(
-            @PathVariable String usuarioId) {
+            @PathVariable String usuarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(defaultValue = "desc") String orden) {
         log.info("GET /api/auditoria/usuario/{} - Obteniendo registros por usuario", usuarioId);
         
-        var registros = consultarAuditoriaUseCase.obtenerPorUsuarioId(usuarioId);
-        var response = mapper.toResponseList(registros);
+        var pagina = consultarAuditoriaUseCase.obtenerPorUsuarioId(usuarioId, solicitud(cursor, tamano, orden))
+            .map(mapper::toResponse);
         
-        return ResponseEntity.ok(ApiResponse.success(
-            response,
-            String.format("Se encontraron %d registros para el usuario", response.size())
-        ));
+        return ResponseEntity.ok(ApiResponse.pagina(pagina));
     }
     
     /**
-     * Obtiene resumen de auditoría de un usuario
+     * Obtiene resumen de auditoría de un usuario. Los totales salen de los conteos
+     * precalculados y solo se leen los últimos cambios del historial.
      */
     @GetMapping("/usuario/{usuarioId}/resumen")
     public ResponseEntity<ApiResponse<ResumenAuditoriaResponse>> obtenerResumenPorUsuario(
             @PathVariable String usuarioId) {
         log.info("GET /api/auditoria/usuario/{}/resumen - Obteniendo resumen", usuarioId);
         
-        var registros = consultarAuditoriaUseCase.obtenerPorUsuarioId(usuarioId);
-        var totalCambios = consultarAuditoriaUseCase.contarPorUsuarioId(usuarioId);
+        var registros = consultarAuditoriaUseCase.obtenerUltimosPorUsuario(usuarioId, CAMBIOS_EN_RESUMEN);
+        var actividad = consultarAuditoriaUseCase.obtenerResumenActividad(usuarioId);
         
         // Obtener nombre del usuario del primer registro (si existe)
         String usuarioNombre = registros.isEmpty() ? "Desconocido" : registros.get(0).getUsuarioNombre();
@@ -77,63 +86,83 @@ public class AuditoriaController {
         var resumen = ResumenAuditoriaResponse.builder()
             .usuarioId(usuarioId)
             .usuarioNombre(usuarioNombre)
-            .totalCambiosRealizados(totalCambios)
-            .ultimosCambios(mapper.toResponseList(registros.stream().limit(10).toList()))
+            .totalCambiosRealizados(actividad.getTotalCambios())
+            .cambiosPorTipo(actividad.getCambiosPorTipo())
+            .ultimoCambio(actividad.getUltimoCambio())
+            .ultimosCambios(mapper.toResponseList(registros))
             .build();
         
         return ResponseEntity.ok(ApiResponse.success(resumen, "Resumen de auditoría"));
     }
     
     /**
-     * Obtiene todos los registros de auditoría de una cita específica
+     * Obtiene los cambios de un usuario por día y tipo de cambio en un rango de fechas
+     */
+    @GetMapping("/usuario/{usuarioId}/actividad")
+    public ResponseEntity<ApiResponse<List<ActividadDiariaResponse>>> obtenerActividadPorUsuario(
+            @PathVariable String usuarioId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        log.info("GET /api/auditoria/usuario/{}/actividad?desde={}&hasta={}", usuarioId, desde, hasta);
+        
+        var actividad = consultarAuditoriaUseCase.obtenerActividadDiaria(usuarioId, desde, hasta);
+        
+        return ResponseEntity.ok(ApiResponse.success(
+            mapper.toActividadResponseList(actividad),
+            "Actividad diaria del usuario"
+        ));
+    }
+    
+    /**
+     * Obtiene una página de los registros de auditoría de una cita específica
      */
     @GetMapping("/cita/{citaId}")
     public ResponseEntity<ApiResponse<List<RegistroCambioEstadoResponse>>> obtenerPorCita(
-            @PathVariable String citaId) {
+            @PathVariable String citaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(defaultValue = "desc") String orden) {
         log.info("GET /api/auditoria/cita/{} - Obteniendo registros por cita", citaId);
         
-        var registros = consultarAuditoriaUseCase.obtenerPorCitaId(citaId);
-        var response = mapper.toResponseList(registros);
+        var pagina = consultarAuditoriaUseCase.obtenerPorCitaId(citaId, solicitud(cursor, tamano, orden))
+            .map(mapper::toResponse);
         
-        return ResponseEntity.ok(ApiResponse.success(
-            response,
-            String.format("Se encontraron %d cambios para la cita", response.size())
-        ));
+        return ResponseEntity.ok(ApiResponse.pagina(pagina));
     }
     
     /**
-     * Obtiene registros de auditoría por tipo de cambio
+     * Obtiene una página de registros de auditoría por tipo de cambio
      */
     @GetMapping("/tipo/{tipoCambio}")
     public ResponseEntity<ApiResponse<List<RegistroCambioEstadoResponse>>> obtenerPorTipoCambio(
-            @PathVariable TipoCambio tipoCambio) {
+            @PathVariable TipoCambio tipoCambio,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(defaultValue = "desc") String orden) {
         log.info("GET /api/auditoria/tipo/{} - Obteniendo registros por tipo", tipoCambio);
         
-        var registros = consultarAuditoriaUseCase.obtenerPorTipoCambio(tipoCambio);
-        var response = mapper.toResponseList(registros);
+        var pagina = consultarAuditoriaUseCase.obtenerPorTipoCambio(tipoCambio, solicitud(cursor, tamano, orden))
+            .map(mapper::toResponse);
         
-        return ResponseEntity.ok(ApiResponse.success(
-            response,
-            String.format("Se encontraron %d registros de tipo %s", response.size(), tipoCambio)
-        ));
+        return ResponseEntity.ok(ApiResponse.pagina(pagina));
     }
     
     /**
-     * Obtiene registros de auditoría en un rango de fechas
+     * Obtiene una página de registros de auditoría en un rango de fechas
      */
     @GetMapping("/rango")
     public ResponseEntity<ApiResponse<List<RegistroCambioEstadoResponse>>> obtenerPorRangoFechas(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(defaultValue = "desc") String orden) {
         log.info("GET /api/auditoria/rango?desde={}&hasta={}", desde, hasta);
         
-        var registros = consultarAuditoriaUseCase.obtenerPorRangoFechas(desde, hasta);
-        var response = mapper.toResponseList(registros);
+        var pagina = consultarAuditoriaUseCase.obtenerPorRangoFechas(desde, hasta, solicitud(cursor, tamano, orden))
+            .map(mapper::toResponse);
         
-        return ResponseEntity.ok(ApiResponse.success(
-            response,
-            String.format("Se encontraron %d registros en el rango", response.size())
-        ));
+        return ResponseEntity.ok(ApiResponse.pagina(pagina));
     }
     
     /**
@@ -182,4 +211,18 @@ public class AuditoriaController {
             String.format("La cita tiene %d cambios registrados", conteo)
         ));
     }
-}
+    
+    /**
+     * Construye la solicitud de página por cursor sobre (fecha de cambio, id).
+     * El orden acepta "asc" o "desc".
+     */
+    private SolicitudPagina solicitud(String cursor, int tamano, String orden) {
+        if (!"asc".equalsIgnoreCase(orden) && !"desc".equalsIgnoreCase(orden)) {
+            throw new IllegalArgumentException("El orden debe ser 'asc' o 'desc'");
+        }
+        return new SolicitudPagina(
+                cursor != null ? CursorCodec.decodificar(cursor) : null,
+                tamano,
+                "desc".equalsIgnoreCase(orden));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.tayronadev.api.auditoria.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO de respuesta con los cambios de un tipo realizados por un usuario en un día.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActividadDiariaResponse {
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate fecha;
+    
+    private TipoCambio tipoCambio;
+    private long cantidad;
+}
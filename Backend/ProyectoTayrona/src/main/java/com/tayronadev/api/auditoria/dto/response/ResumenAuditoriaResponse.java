@@ -1,11 +1,15 @@
 package com.tayronadev.api.auditoria.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO de respuesta con resumen de auditoría.
@@ -19,5 +23,10 @@ public class ResumenAuditoriaResponse {
     private String usuarioId;
     private String usuarioNombre;
     private long totalCambiosRealizados;
+    private Map<TipoCambio, Long> cambiosPorTipo;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime ultimoCambio;
+    
     private List<RegistroCambioEstadoResponse> ultimosCambios;
 }
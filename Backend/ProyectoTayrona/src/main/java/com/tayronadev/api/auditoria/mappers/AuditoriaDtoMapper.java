@@ -1,6 +1,8 @@
 package com.tayronadev.api.auditoria.mappers;
 
+import com.tayronadev.api.auditoria.dto.response.ActividadDiariaResponse;
 import com.tayronadev.api.auditoria.dto.response.RegistroCambioEstadoResponse;
+import com.tayronadev.dominio.auditoria.consultas.ActividadDiaria;
 import com.tayronadev.dominio.auditoria.modelo.RegistroCambioEstado;
 import org.springframework.stereotype.Component;
 
@@ -44,4 +46,17 @@ public class AuditoriaDtoMapper {
             .map(this::toResponse)
             .toList();
     }
+    
+    /**
+     * Convierte la actividad diaria de un usuario a lista de DTOs
+     */
+    public List<ActividadDiariaResponse> toActividadResponseList(List<ActividadDiaria> actividad) {
+        return actividad.stream()
+            .map(dia -> ActividadDiariaResponse.builder()
+                .fecha(dia.getFecha())
+                .tipoCambio(dia.getTipoCambio())
+                .cantidad(dia.getCantidad())
+                .build())
+            .toList();
+    }
 }
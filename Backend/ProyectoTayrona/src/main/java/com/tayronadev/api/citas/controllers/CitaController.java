@@ -3,12 +3,17 @@ package com.tayronadev.api.citas.controllers;
 import com.tayronadev.api.citas.dto.request.CrearCitaRequest;
 import com.tayronadev.api.citas.dto.response.CitaResumenResponse;
 import com.tayronadev.api.citas.dto.response.CitaResponse;
+import com.tayronadev.api.citas.dto.response.EstadisticasCitasResponse;
 import com.tayronadev.api.citas.mappers.CitaDtoMapper;
 import com.tayronadev.api.common.ApiResponse;
+import com.tayronadev.api.common.CursorCodec;
+import com.tayronadev.api.common.VersionEtag;
 import com.tayronadev.dominio.citas.casosuso.ConsultarCitasUseCase;
 import com.tayronadev.dominio.citas.casosuso.CrearCitaUseCase;
+import com.tayronadev.dominio.citas.consultas.FiltroCitas;
 import com.tayronadev.dominio.citas.modelo.EstadoCita;
 import com.tayronadev.dominio.citas.modelo.TipoCita;
+import com.tayronadev.dominio.comun.SolicitudPagina;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +35,9 @@ import java.util.List;
 @Slf4j
 public class CitaController {
     
+    /** Días posteriores a la fecha inicial que cubren las estadísticas si no se indica el fin */
+    private static final int DIAS_ESTADISTICAS_POR_DEFECTO = 30;
+    
     private final CrearCitaUseCase crearCitaUseCase;
     private final ConsultarCitasUseCase consultarCitasUseCase;
     private final CitaDtoMapper mapper;
@@ -80,33 +88,35 @@ public class CitaController {
         var cita = consultarCitasUseCase.buscarPorId(id);
         var response = mapper.toCitaResponse(cita);
         
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return ResponseEntity.ok()
+                .eTag(VersionEtag.etag(cita.getVersion()))
+                .body(ApiResponse.success(response));
     }
     
     /**
      * Lista todas las citas pendientes
      */
     @GetMapping("/pendientes")
-    public ResponseEntity<ApiResponse<List<CitaResumenResponse>>> obtenerCitasPendientes() {
+    public ResponseEntity<ApiResponse<List<CitaResumenResponse>>> obtenerCitasPendientes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(defaultValue = "asc") String orden) {
         log.debug("Consultando citas pendientes");
         
-        var citas = consultarCitasUseCase.obtenerCitasPendientes();
-        var response = mapper.toCitaResumenResponseList(citas);
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return listar(FiltroCitas.builder().estado(EstadoCita.PENDIENTE).build(), cursor, tamano, orden);
     }
     
     /**
      * Lista todas las citas confirmadas
      */
     @GetMapping("/confirmadas")
-    public ResponseEntity<ApiResponse<List<CitaResumenResponse>>> obtenerCitasConfirmadas() {
+    public ResponseEntity<ApiResponse<List<CitaResumenResponse>>> obtenerCitasConfirmadas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(defaultValue = "asc") String orden) {
         log.debug("Consultando citas confirmadas");
         
-        var citas = consultarCitasUseCase.obtenerCitasConfirmadas();
-        var response = mapper.toCitaResumenResponseList(citas);
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return listar(FiltroCitas.builder().estado(EstadoCita.CONFIRMADA).build(), cursor, tamano, orden);
     }
     
     /**
@@ -114,13 +124,13 @@ public class CitaController {
      */
     @GetMapping("/estado/{estado}")
     public ResponseEntity<ApiResponse<List<CitaResumenResponse>>> obtenerCitasPorEstado(
-            @PathVariable EstadoCita estado) {
+            @PathVariable EstadoCita estado,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(defaultValue = "asc") String orden) {
         log.debug("Consultando citas por estado: {}", estado);
         
-        var citas = consultarCitasUseCase.buscarPorEstado(estado);
-        var response = mapper.toCitaResumenResponseList(citas);
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return listar(FiltroCitas.builder().estado(estado).build(), cursor, tamano, orden);
     }
     
     /**
@@ -128,13 +138,13 @@ public class CitaController {
      */
     @GetMapping("/tipo/{tipo}")
     public ResponseEntity<ApiResponse<List<CitaResumenResponse>>> obtenerCitasPorTipo(
-            @PathVariable TipoCita tipo) {
+            @PathVariable TipoCita tipo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(defaultValue = "asc") String orden) {
         log.debug("Consultando citas por tipo: {}", tipo);
         
-        var citas = consultarCitasUseCase.obtenerCitasActivasPorTipo(tipo);
-        var response = mapper.toCitaResumenResponseList(citas);
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return listar(FiltroCitas.activas().tipoCita(tipo).build(), cursor, tamano, orden);
     }
     
     /**
@@ -143,13 +153,13 @@ public class CitaController {
     @GetMapping("/tipo/{tipo}/estado/{estado}")
     public ResponseEntity<ApiResponse<List<CitaResumenResponse>>> obtenerCitasPorTipoYEstado(
             @PathVariable TipoCita tipo,
-            @PathVariable EstadoCita estado) {
+            @PathVariable EstadoCita estado,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(defaultValue = "asc") String orden) {
         log.debug("Consultando citas por tipo: {} y estado: {}", tipo, estado);
         
-        var citas = consultarCitasUseCase.buscarPorTipoYEstado(tipo, estado);
-        var response = mapper.toCitaResumenResponseList(citas);
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return listar(FiltroCitas.builder().tipoCita(tipo).estado(estado).build(), cursor, tamano, orden);
     }
     
     /**
@@ -157,13 +167,13 @@ public class CitaController {
      */
     @GetMapping("/proveedor/{nit}")
     public ResponseEntity<ApiResponse<List<CitaResumenResponse>>> obtenerCitasPorProveedor(
-            @PathVariable String nit) {
+            @PathVariable String nit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(defaultValue = "asc") String orden) {
         log.debug("Consultando citas del proveedor con NIT: {}", nit);
         
-        var citas = consultarCitasUseCase.buscarPorProveedor(nit);
-        var response = mapper.toCitaResumenResponseList(citas);
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return listar(FiltroCitas.builder().nit(nit).build(), cursor, tamano, orden);
     }
     
     /**
@@ -171,13 +181,13 @@ public class CitaController {
      */
     @GetMapping("/proveedor/{nit}/activas")
     public ResponseEntity<ApiResponse<List<CitaResumenResponse>>> obtenerCitasActivasPorProveedor(
-            @PathVariable String nit) {
+            @PathVariable String nit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(defaultValue = "asc") String orden) {
         log.debug("Consultando citas activas del proveedor con NIT: {}", nit);
         
-        var citas = consultarCitasUseCase.buscarCitasActivasProveedor(nit);
-        var response = mapper.toCitaResumenResponseList(citas);
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return listar(FiltroCitas.activas().nit(nit).build(), cursor, tamano, orden);
     }
     
     /**
@@ -185,13 +195,13 @@ public class CitaController {
      */
     @GetMapping("/fecha/{fecha}")
     public ResponseEntity<ApiResponse<List<CitaResumenResponse>>> obtenerCitasPorFecha(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(defaultValue = "asc") String orden) {
         log.debug("Consultando citas para la fecha: {}", fecha);
         
-        var citas = consultarCitasUseCase.buscarPorFecha(fecha);
-        var response = mapper.toCitaResumenResponseList(citas);
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return listar(FiltroCitas.delDia(fecha).build(), cursor, tamano, orden);
     }
     
     /**
@@ -200,13 +210,13 @@ public class CitaController {
     @GetMapping("/tipo/{tipo}/fecha/{fecha}")
     public ResponseEntity<ApiResponse<List<CitaResumenResponse>>> obtenerCitasPorTipoYFecha(
             @PathVariable TipoCita tipo,
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano,
+            @RequestParam(defaultValue = "asc") String orden) {
         log.debug("Consultando citas de tipo: {} para la fecha: {}", tipo, fecha);
         
-        var citas = consultarCitasUseCase.buscarPorTipoYFecha(tipo, fecha);
-        var response = mapper.toCitaResumenResponseList(citas);
-        
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return listar(FiltroCitas.delDia(fecha).tipoCita(tipo).build(), cursor, tamano, orden);
     }
     
     /**
@@ -232,4 +242,41 @@ public class CitaController {
         
         return ResponseEntity.ok(ApiResponse.success(conteo));
     }
-}
+    
+    /**
+     * Obtiene el número de citas por estado y tipo, en total y por día en el rango [desde, hasta].
+     * Sin fechas devuelve el detalle de hoy y los próximos 30 días.
+     */
+    @GetMapping("/estadisticas")
+    public ResponseEntity<ApiResponse<EstadisticasCitasResponse>> obtenerEstadisticas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        var inicio = desde != null ? desde : LocalDate.now();
+        var fin = hasta != null ? hasta : inicio.plusDays(DIAS_ESTADISTICAS_POR_DEFECTO);
+        log.debug("Consultando estadísticas de citas entre {} y {}", inicio, fin);
+        
+        var estadisticas = consultarCitasUseCase.obtenerEstadisticas(inicio, fin);
+        
+        return ResponseEntity.ok(ApiResponse.success(mapper.toEstadisticasResponse(estadisticas)));
+    }
+    
+    /**
+     * Consulta una página de resúmenes paginada por cursor sobre (fecha y hora, id).
+     * El orden acepta "asc" o "desc".
+     */
+    private ResponseEntity<ApiResponse<List<CitaResumenResponse>>> listar(FiltroCitas filtro, String cursor,
+                                                                          int tamano, String orden) {
+        if (!"asc".equalsIgnoreCase(orden) && !"desc".equalsIgnoreCase(orden)) {
+            throw new IllegalArgumentException("El orden debe ser 'asc' o 'desc'");
+        }
+        var solicitud = new SolicitudPagina(
+                cursor != null ? CursorCodec.decodificar(cursor) : null,
+                tamano,
+                "desc".equalsIgnoreCase(orden));
+        
+        var pagina = consultarCitasUseCase.buscarResumenes(filtro, solicitud)
+                .map(mapper::toCitaResumenResponse);
+        
+        return ResponseEntity.ok(ApiResponse.pagina(pagina));
+    }
+}
\ No newline at end of file
@@ -1,26 +1,34 @@
 package com.tayronadev.api.citas.controllers;
 
 import com.tayronadev.api.citas.dto.request.AsignarEstadoPostCitaRequest;
+import com.tayronadev.api.citas.dto.request.CambioEstadoLoteRequest;
 import com.tayronadev.api.citas.dto.request.CancelarCitaRequest;
 import com.tayronadev.api.citas.dto.request.ConfirmarCitaRequest;
 import com.tayronadev.api.citas.dto.request.RechazarCitaRequest;
+import com.tayronadev.api.citas.dto.response.CambioEstadoLoteResponse;
 import com.tayronadev.api.citas.dto.response.CitaResponse;
 import com.tayronadev.api.citas.mappers.CitaDtoMapper;
 import com.tayronadev.api.common.ApiResponse;
+import com.tayronadev.api.common.VersionEtag;
 import com.tayronadev.dominio.citas.casosuso.GestionarEstadoCitaUseCase;
+import com.tayronadev.dominio.citas.modelo.Cita;
 import com.tayronadev.dominio.citas.modelo.EstadoPostCita;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 /**
  * Controlador REST para gestionar los estados de las citas.
- * Maneja las operaciones de confirmar, rechazar, cancelar y asignar estados post-cita.
+ * Maneja las operaciones de confirmar, rechazar, cancelar y asignar estados post-cita,
+ * individualmente o en lote.
+ * Las operaciones sobre una cita aceptan If-Match con la ETag leída y responden
+ * con la ETag de la nueva versión; si la cita cambió entretanto responden 409.
  */
 @RestController
-@RequestMapping("/api/citas/{id}")
+@RequestMapping("/api/citas")
 @RequiredArgsConstructor
 @Slf4j
 public class CitaEstadoController {
@@ -31,86 +39,105 @@ public class CitaEstadoController {
     /**
      * Confirma una cita pendiente
      */
-    @PutMapping("/confirmar")
+    @PutMapping("/{id}/confirmar")
     public ResponseEntity<ApiResponse<CitaResponse>> confirmarCita(
             @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody(required = false) ConfirmarCitaRequest request) {
         
         log.info("Confirmando cita con ID: {}", id);
         
         String observaciones = request != null ? request.getObservaciones() : null;
-        var cita = gestionarEstadoUseCase.confirmarCita(id, observaciones);
-        var response = mapper.toCitaResponse(cita);
+        var cita = gestionarEstadoUseCase.confirmarCita(id, observaciones, VersionEtag.versionEsperada(ifMatch));
         
         log.info("Cita {} confirmada exitosamente", id);
         
-        return ResponseEntity.ok(ApiResponse.success(response, "Cita confirmada exitosamente"));
+        return responder(cita, "Cita confirmada exitosamente");
     }
     
     /**
      * Rechaza una cita pendiente
      */
-    @PutMapping("/rechazar")
+    @PutMapping("/{id}/rechazar")
     public ResponseEntity<ApiResponse<CitaResponse>> rechazarCita(
             @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody RechazarCitaRequest request) {
         
         log.info("Rechazando cita con ID: {}", id);
         
-        var cita = gestionarEstadoUseCase.rechazarCita(id, request.getMotivoRechazo());
-        var response = mapper.toCitaResponse(cita);
+        var cita = gestionarEstadoUseCase.rechazarCita(id, request.getMotivoRechazo(), VersionEtag.versionEsperada(ifMatch));
         
         log.info("Cita {} rechazada exitosamente", id);
         
-        return ResponseEntity.ok(ApiResponse.success(response, "Cita rechazada"));
+        return responder(cita, "Cita rechazada");
     }
     
     /**
      * Cancela una cita (pendiente o confirmada)
      */
-    @PutMapping("/cancelar")
+    @PutMapping("/{id}/cancelar")
     public ResponseEntity<ApiResponse<CitaResponse>> cancelarCita(
             @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody CancelarCitaRequest request) {
         
         log.info("Cancelando cita con ID: {}", id);
         
-        var cita = gestionarEstadoUseCase.cancelarCita(id, request.getMotivoCancelacion());
-        var response = mapper.toCitaResponse(cita);
+        var cita = gestionarEstadoUseCase.cancelarCita(id, request.getMotivoCancelacion(), VersionEtag.versionEsperada(ifMatch));
         
         log.info("Cita {} cancelada exitosamente", id);
         
-        return ResponseEntity.ok(ApiResponse.success(response, "Cita cancelada"));
+        return responder(cita, "Cita cancelada");
+    }
+    
+    /**
+     * Confirma, rechaza o cancela varias citas en una sola operación.
+     * Responde 200 con el resultado de cada cita, aunque algunas no admitan la transición.
+     */
+    @PostMapping("/lote/estado")
+    public ResponseEntity<ApiResponse<CambioEstadoLoteResponse>> cambiarEstadoEnLote(
+            @Valid @RequestBody CambioEstadoLoteRequest request) {
+        
+        log.info("Aplicando {} a {} citas en lote", request.getAccion(), request.getCitaIds().size());
+        
+        var resultados = gestionarEstadoUseCase.cambiarEstadoEnLote(
+                request.getCitaIds(), request.getAccion(), request.getObservaciones());
+        var response = mapper.toCambioEstadoLoteResponse(resultados);
+        
+        return ResponseEntity.ok(ApiResponse.success(response, String.format(
+                "%s: %d de %d citas procesadas", request.getAccion().getDescripcion(),
+                response.getExitosos(), response.getTotal())));
     }
     
     /**
      * Asigna un estado post-cita (solo para citas confirmadas)
      */
-    @PutMapping("/estado-post")
+    @PutMapping("/{id}/estado-post")
     public ResponseEntity<ApiResponse<CitaResponse>> asignarEstadoPostCita(
             @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody AsignarEstadoPostCitaRequest request) {
         
         log.info("Asignando estado post-cita {} a cita con ID: {}", request.getEstadoPostCita(), id);
         
+        var versionEsperada = VersionEtag.versionEsperada(ifMatch);
         var cita = switch (request.getEstadoPostCita()) {
-            case ENTREGADO -> gestionarEstadoUseCase.marcarComoEntregada(id);
-            case DEVUELTO -> gestionarEstadoUseCase.marcarComoDevuelta(id);
-            case TARDIA -> gestionarEstadoUseCase.marcarComoTardia(id);
+            case ENTREGADO -> gestionarEstadoUseCase.marcarComoEntregada(id, versionEsperada);
+            case DEVUELTO -> gestionarEstadoUseCase.marcarComoDevuelta(id, versionEsperada);
+            case TARDIA -> gestionarEstadoUseCase.marcarComoTardia(id, versionEsperada);
         };
         
-        var response = mapper.toCitaResponse(cita);
-        
         log.info("Estado post-cita asignado exitosamente a cita {}", id);
         
-        return ResponseEntity.ok(ApiResponse.success(response, 
-                "Estado post-cita '" + request.getEstadoPostCita().getDescripcion() + "' asignado"));
+        return responder(cita, 
+                "Estado post-cita '" + request.getEstadoPostCita().getDescripcion() + "' asignado");
     }
     
     /**
      * Verifica si una cita puede ser modificada por un administrador
      */
-    @GetMapping("/puede-modificar")
+    @GetMapping("/{id}/puede-modificar")
     public ResponseEntity<ApiResponse<Boolean>> puedeSerModificada(@PathVariable String id) {
         log.debug("Verificando si la cita {} puede ser modificada", id);
         
@@ -122,7 +149,7 @@ public class CitaEstadoController {
     /**
      * Verifica si una cita puede ser cancelada por el proveedor
      */
-    @GetMapping("/puede-cancelar")
+    @GetMapping("/{id}/puede-cancelar")
     public ResponseEntity<ApiResponse<Boolean>> puedeSerCancelada(@PathVariable String id) {
         log.debug("Verificando si la cita {} puede ser cancelada", id);
         
@@ -130,4 +157,13 @@ public class CitaEstadoController {
         
         return ResponseEntity.ok(ApiResponse.success(puedeCancelar));
     }
+    
+    /**
+     * Responde con la cita actualizada y la ETag de su nueva versión
+     */
+    private ResponseEntity<ApiResponse<CitaResponse>> responder(Cita cita, String mensaje) {
+        return ResponseEntity.ok()
+                .eTag(VersionEtag.etag(cita.getVersion()))
+                .body(ApiResponse.success(mapper.toCitaResponse(cita), mensaje));
+    }
 }
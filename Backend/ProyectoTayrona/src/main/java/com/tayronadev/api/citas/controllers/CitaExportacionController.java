@@ -0,0 +1,66 @@
+package com.tayronadev.api.citas.controllers;
+
+import com.tayronadev.api.citas.exportacion.ExportadorCitas;
+import com.tayronadev.api.citas.exportacion.FormatoExportacion;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Controlador REST para exportar citas de rangos de fechas amplios.
+ * La respuesta se escribe de forma incremental (NDJSON o CSV) mientras se leen las filas.
+ */
+@RestController
+@RequestMapping("/api/citas/exportar")
+@RequiredArgsConstructor
+@Slf4j
+public class CitaExportacionController {
+    
+    private final ExportadorCitas exportadorCitas;
+    
+    /**
+     * Exporta las citas programadas en el rango [desde, hasta).
+     * El formato acepta "ndjson" (por defecto) o "csv".
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportarCitas(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(defaultValue = "ndjson") String formato) {
+        
+        // Validar antes de empezar a escribir la respuesta para poder responder 400
+        if (!desde.isBefore(hasta)) {
+            throw new IllegalArgumentException("La fecha inicial debe ser anterior a la fecha final");
+        }
+        var formatoExportacion = parsearFormato(formato);
+        log.info("Solicitud de exportación {} de citas entre {} y {}", formatoExportacion, desde, hasta);
+        
+        var nombreArchivo = String.format("citas_%s_%s.%s",
+                desde.toLocalDate(), hasta.toLocalDate(), formatoExportacion.getExtension());
+        
+        return ResponseEntity.ok()
+                .contentType(formatoExportacion.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(nombreArchivo).build().toString())
+                .body(exportadorCitas.exportar(desde, hasta, formatoExportacion));
+    }
+    
+    private FormatoExportacion parsearFormato(String formato) {
+        return Arrays.stream(FormatoExportacion.values())
+                .filter(valor -> valor.name().equals(formato.toUpperCase(Locale.ROOT)))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Formato de exportación no soportado: " + formato));
+    }
+}
@@ -1,5 +1,7 @@
 package com.tayronadev.api.citas.controllers;
 
+import com.tayronadev.api.citas.disponibilidad.DifusorDisponibilidad;
+import com.tayronadev.api.citas.dto.response.CalendarioDisponibilidadResponse;
 import com.tayronadev.api.citas.dto.response.HorarioDisponibleResponse;
 import com.tayronadev.api.citas.dto.response.HorarioDisponibleResponse.HorarioSlot;
 import com.tayronadev.api.citas.dto.response.TipoCitaResponse;
@@ -8,20 +10,23 @@ import com.tayronadev.dominio.citas.casosuso.ConsultarCitasUseCase;
 import com.tayronadev.dominio.citas.casosuso.CrearCitaUseCase;
 import com.tayronadev.dominio.citas.modelo.Horario;
 import com.tayronadev.dominio.citas.modelo.TipoCita;
+import com.tayronadev.dominio.citas.servicios.CapacidadHorarios;
 import com.tayronadev.dominio.citas.servicios.ValidadorHorarios;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -36,8 +41,10 @@ import java.util.stream.Collectors;
 public class HorarioController {
     
     private final ValidadorHorarios validadorHorarios;
+    private final CapacidadHorarios capacidadHorarios;
     private final ConsultarCitasUseCase consultarCitasUseCase;
     private final CrearCitaUseCase crearCitaUseCase;
+    private final DifusorDisponibilidad difusorDisponibilidad;
     
     /**
      * Obtiene los tipos de cita disponibles con sus horarios permitidos
@@ -67,66 +74,61 @@ public class HorarioController {
         
         log.debug("Consultando horarios disponibles para tipo: {} en fecha: {}", tipoCita, fecha);
         
-        // Validar que no sea fin de semana
-        if (esFindeSemana(fecha)) {
-            var response = HorarioDisponibleResponse.builder()
-                    .tipoCita(tipoCita.name())
-                    .tipoCitaDescripcion(tipoCita.getDescripcion())
-                    .fecha(fecha)
-                    .horariosDisponibles(Collections.emptyList())
-                    .horariosOcupados(Collections.emptyList())
-                    .build();
-            return ResponseEntity.ok(ApiResponse.success(response, "No hay horarios disponibles en fines de semana"));
-        }
-        
-        // Obtener horarios permitidos para este tipo de cita
-        Set<Integer> horariosPermitidos = validadorHorarios.obtenerHorariosDisponibles(tipoCita);
+        var response = construirDisponibilidad(tipoCita, fecha);
         
-        // Obtener citas existentes para este tipo y fecha
-        var citasExistentes = consultarCitasUseCase.buscarPorTipoYFecha(tipoCita, fecha);
-        
-        // Determinar qué horarios ya están ocupados
-        Set<Integer> horariosOcupados = citasExistentes.stream()
-                .filter(cita -> !cita.getEstado().esFinal()) // Solo citas activas
-                .map(cita -> cita.getHorario().getFechaHora().getHour())
-                .collect(Collectors.toSet());
-        
-        // Construir lista de slots disponibles y ocupados
-        List<HorarioSlot> slotsDisponibles = new ArrayList<>();
-        List<HorarioSlot> slotsOcupados = new ArrayList<>();
-        
-        for (Integer hora : horariosPermitidos) {
-            boolean disponible = !horariosOcupados.contains(hora);
-            
-            // Verificar si el horario ya pasó (para la fecha de hoy)
-            if (fecha.equals(LocalDate.now()) && hora <= LocalDateTime.now().getHour()) {
-                disponible = false;
-            }
-            
-            var slot = HorarioSlot.builder()
-                    .hora(hora)
-                    .horaFormateada(String.format("%02d:00", hora))
-                    .disponible(disponible)
-                    .build();
-            
-            if (disponible) {
-                slotsDisponibles.add(slot);
-            } else {
-                slotsOcupados.add(slot);
-            }
+        if (!capacidadHorarios.esDiaHabil(fecha)) {
+            return ResponseEntity.ok(ApiResponse.success(response, "No hay horarios disponibles en fines de semana ni días no hábiles"));
         }
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    /**
+     * Obtiene la disponibilidad de todos los tipos de cita para varios días consecutivos
+     * (por defecto dos semanas desde hoy), calculada con una sola consulta de ocupación
+     */
+    @GetMapping("/calendario")
+    public ResponseEntity<ApiResponse<CalendarioDisponibilidadResponse>> obtenerCalendario(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(defaultValue = "14") int dias) {
+        
+        var inicio = desde != null ? desde : LocalDate.now();
+        log.debug("Consultando calendario de disponibilidad desde {} por {} días", inicio, dias);
+        
+        var ocupacion = consultarCitasUseCase.obtenerOcupacion(inicio, dias);
+        var diasCalendario = ocupacion.getFechas().stream()
+                .map(fecha -> CalendarioDisponibilidadResponse.DiaDisponibilidad.builder()
+                        .fecha(fecha)
+                        .habil(capacidadHorarios.esDiaHabil(fecha))
+                        .tiposCita(Arrays.stream(TipoCita.values())
+                                .map(tipo -> construirDisponibilidad(tipo, fecha, ocupacion.citasPorHora(tipo, fecha)))
+                                .toList())
+                        .build())
+                .toList();
         
-        var response = HorarioDisponibleResponse.builder()
-                .tipoCita(tipoCita.name())
-                .tipoCitaDescripcion(tipoCita.getDescripcion())
-                .fecha(fecha)
-                .horariosDisponibles(slotsDisponibles)
-                .horariosOcupados(slotsOcupados)
+        var response = CalendarioDisponibilidadResponse.builder()
+                .desde(inicio)
+                .hasta(inicio.plusDays(dias - 1))
+                .dias(diasCalendario)
                 .build();
         
         return ResponseEntity.ok(ApiResponse.success(response));
     }
     
+    /**
+     * Suscribe a los cambios de disponibilidad de un tipo de cita en una fecha (Server-Sent Events).
+     * Envía primero la disponibilidad actual ("disponibilidad") y luego cada horario
+     * cuya ocupación cambia ("cambio"), en lugar de consultar periódicamente.
+     */
+    @GetMapping(value = "/disponibles/{tipoCita}/{fecha}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirDisponibilidad(
+            @PathVariable TipoCita tipoCita,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        
+        log.debug("Suscripción a la disponibilidad de tipo: {} en fecha: {}", tipoCita, fecha);
+        
+        return difusorDisponibilidad.suscribir(tipoCita, fecha, () -> construirDisponibilidad(tipoCita, fecha));
+    }
+    
     /**
      * Verifica si un horario específico está disponible
      */
@@ -164,10 +166,59 @@ public class HorarioController {
     }
     
     /**
-     * Verifica si una fecha es fin de semana
+     * Calcula los horarios disponibles y ocupados de un tipo de cita en una fecha
      */
-    private boolean esFindeSemana(LocalDate fecha) {
-        DayOfWeek dia = fecha.getDayOfWeek();
-        return dia == DayOfWeek.SATURDAY || dia == DayOfWeek.SUNDAY;
+    private HorarioDisponibleResponse construirDisponibilidad(TipoCita tipoCita, LocalDate fecha) {
+        Map<Integer, Integer> citasPorHora = capacidadHorarios.esDiaHabil(fecha)
+                ? consultarCitasUseCase.obtenerCitasPorHora(tipoCita, fecha)
+                : Collections.emptyMap();
+        return construirDisponibilidad(tipoCita, fecha, citasPorHora);
+    }
+    
+    /**
+     * Combina las horas que se atienden en la fecha con su capacidad y las citas activas:
+     * una hora queda disponible mientras tenga muelles libres y no haya pasado
+     */
+    private HorarioDisponibleResponse construirDisponibilidad(TipoCita tipoCita, LocalDate fecha,
+                                                              Map<Integer, Integer> citasPorHora) {
+        // Fines de semana y días no hábiles no tienen horas configuradas
+        Set<Integer> horariosPermitidos = validadorHorarios.obtenerHorariosDisponibles(tipoCita, fecha);
+        
+        // Construir lista de slots disponibles y ocupados
+        List<HorarioSlot> slotsDisponibles = new ArrayList<>();
+        List<HorarioSlot> slotsOcupados = new ArrayList<>();
+        
+        for (Integer hora : horariosPermitidos) {
+            int capacidad = capacidadHorarios.capacidad(tipoCita, fecha, hora);
+            int cupos = Math.max(0, capacidad - citasPorHora.getOrDefault(hora, 0));
+            boolean disponible = cupos > 0;
+            
+            // Verificar si el horario ya pasó (para la fecha de hoy)
+            if (fecha.equals(LocalDate.now()) && hora <= LocalDateTime.now().getHour()) {
+                disponible = false;
+            }
+            
+            var slot = HorarioSlot.builder()
+                    .hora(hora)
+                    .horaFormateada(String.format("%02d:00", hora))
+                    .capacidad(capacidad)
+                    .cuposDisponibles(disponible ? cupos : 0)
+                    .disponible(disponible)
+                    .build();
+            
+            if (disponible) {
+                slotsDisponibles.add(slot);
+            } else {
+                slotsOcupados.add(slot);
+            }
+        }
+        
+        return HorarioDisponibleResponse.builder()
+                .tipoCita(tipoCita.name())
+                .tipoCitaDescripcion(tipoCita.getDescripcion())
+                .fecha(fecha)
+                .horariosDisponibles(slotsDisponibles)
+                .horariosOcupados(slotsOcupados)
+                .build();
     }
-}
+}
\ No newline at end of file
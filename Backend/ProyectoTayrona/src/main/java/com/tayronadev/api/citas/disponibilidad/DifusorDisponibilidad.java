@@ -0,0 +1,340 @@
+package com.tayronadev.api.citas.disponibilidad;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tayronadev.api.citas.dto.response.CambioDisponibilidadResponse;
+import com.tayronadev.dominio.citas.eventos.CambioEstadoCitaEvento;
+import com.tayronadev.dominio.citas.eventos.OcupacionRecargadaEvento;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import com.tayronadev.dominio.citas.servicios.CapacidadHorarios;
+import com.tayronadev.dominio.citas.servicios.IndiceOcupacionHorarios;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Difunde por Server-Sent Events los cambios de ocupación de horarios a las pantallas
+ * de agendamiento suscritas a un (TipoCita, fecha), para que no tengan que consultar
+ * la disponibilidad periódicamente.
+ * <p>
+ * Cada suscriptor recibe primero la disponibilidad completa (evento {@code disponibilidad})
+ * y después solo los horarios cuya ocupación cambia (evento {@code cambio}, con las citas
+ * activas y la capacidad del horario), una vez confirmada la transacción que los produjo.
+ * Los cambios hechos en esta instancia se difunden al momento; los hechos en otras instancias
+ * llegan cuando el índice de ocupación se recarga ({@code app.horarios.ocupacion.recarga-ms}),
+ * que difunde cada horario cuya ocupación cambió. Ese intervalo acota cuánto puede tardar una
+ * pantalla en ver una reserva hecha en otra instancia.
+ * <p>
+ * Cada suscripción tiene su propia cola de eventos, que un grupo acotado de hilos de difusión
+ * vacía en orden: la petición que cambió la cita no espera a los suscriptores, el JSON de cada
+ * cambio se serializa una sola vez y un cliente lento solo retrasa su propia cola. Si acumula
+ * más de {@code app.horarios.eventos.max-pendientes} eventos sin recibir se cierra su
+ * suscripción; el navegador (EventSource) reconecta y recibe de nuevo la disponibilidad
+ * completa. Un suscriptor inactivo no ocupa hilos; los latidos periódicos detectan y
+ * descartan las conexiones cerradas.
+ */
+@Component
+@Slf4j
+public class DifusorDisponibilidad {
+    
+    static final String EVENTO_DISPONIBILIDAD = "disponibilidad";
+    static final String EVENTO_CAMBIO = "cambio";
+    
+    private final ObjectMapper objectMapper;
+    private final IndiceOcupacionHorarios indiceOcupacion;
+    private final CapacidadHorarios capacidadHorarios;
+    private final Executor ejecutor;
+    private final long timeoutMs;
+    private final int maxPendientes;
+    private final ConcurrentMap<ClaveSuscripcion, Set<Suscripcion>> suscriptores = new ConcurrentHashMap<>();
+    private final AtomicInteger totalSuscriptores = new AtomicInteger();
+    private final Counter eventosEnviados;
+    private final Counter suscriptoresLentos;
+    
+    @Autowired
+    public DifusorDisponibilidad(ObjectMapper objectMapper,
+                                 MeterRegistry metricas,
+                                 IndiceOcupacionHorarios indiceOcupacion,
+                                 CapacidadHorarios capacidadHorarios,
+                                 @Value("${app.horarios.eventos.timeout:PT30M}") Duration timeout,
+                                 @Value("${app.horarios.eventos.hilos:4}") int hilos,
+                                 @Value("${app.horarios.eventos.max-pendientes:64}") int maxPendientes) {
+        this(objectMapper, metricas, indiceOcupacion, capacidadHorarios, timeout, maxPendientes,
+                crearEjecutor(hilos));
+    }
+    
+    DifusorDisponibilidad(ObjectMapper objectMapper, MeterRegistry metricas, IndiceOcupacionHorarios indiceOcupacion,
+                          CapacidadHorarios capacidadHorarios, Duration timeout, int maxPendientes, Executor ejecutor) {
+        this.objectMapper = objectMapper;
+        this.indiceOcupacion = indiceOcupacion;
+        this.capacidadHorarios = capacidadHorarios;
+        this.ejecutor = ejecutor;
+        this.timeoutMs = timeout.toMillis();
+        this.maxPendientes = maxPendientes;
+        
+        Gauge.builder("horarios.eventos.suscriptores", totalSuscriptores, AtomicInteger::get)
+                .description("Conexiones SSE suscritas a la disponibilidad de horarios")
+                .register(metricas);
+        this.eventosEnviados = Counter.builder("horarios.eventos.enviados")
+                .description("Eventos de disponibilidad entregados a suscriptores")
+                .register(metricas);
+        this.suscriptoresLentos = Counter.builder("horarios.eventos.lentos")
+                .description("Suscripciones cerradas por acumular demasiados eventos sin recibir")
+                .register(metricas);
+    }
+    
+    private static ExecutorService crearEjecutor(int hilos) {
+        var fabrica = new CustomizableThreadFactory("difusion-horarios-");
+        fabrica.setDaemon(true);
+        return Executors.newFixedThreadPool(hilos, fabrica);
+    }
+    
+    @PreDestroy
+    void detener() {
+        if (ejecutor instanceof ExecutorService servicio) {
+            servicio.shutdownNow();
+        }
+        suscriptores.values().forEach(suscripciones ->
+                suscripciones.forEach(suscripcion -> suscripcion.emisor.complete()));
+        suscriptores.clear();
+    }
+    
+    /**
+     * Abre una suscripción y le envía la disponibilidad actual del día. La suscripción se
+     * registra antes de leer la disponibilidad, de modo que ningún cambio posterior a la
+     * lectura se pierde; los cambios recibidos mientras tanto se envían después de ella.
+     */
+    public SseEmitter suscribir(TipoCita tipoCita, LocalDate fecha, Supplier<?> disponibilidadActual) {
+        return registrar(new SseEmitter(timeoutMs), tipoCita, fecha, disponibilidadActual);
+    }
+    
+    SseEmitter registrar(SseEmitter emisor, TipoCita tipoCita, LocalDate fecha, Supplier<?> disponibilidadActual) {
+        var clave = new ClaveSuscripcion(tipoCita, fecha);
+        var suscripcion = new Suscripcion(clave, emisor);
+        suscriptores.compute(clave, (c, suscripciones) -> {
+            var conjunto = suscripciones != null ? suscripciones : ConcurrentHashMap.<Suscripcion>newKeySet();
+            if (conjunto.add(suscripcion)) {
+                totalSuscriptores.incrementAndGet();
+            }
+            return conjunto;
+        });
+        emisor.onCompletion(() -> quitar(suscripcion));
+        emisor.onTimeout(() -> quitar(suscripcion));
+        emisor.onError(error -> quitar(suscripcion));
+        
+        String disponibilidad;
+        try {
+            disponibilidad = serializar(disponibilidadActual.get());
+        } catch (RuntimeException e) {
+            quitar(suscripcion);
+            throw e;
+        }
+        suscripcion.iniciar(SseEmitter.event().name(EVENTO_DISPONIBILIDAD)
+                .data(disponibilidad, MediaType.APPLICATION_JSON));
+        return emisor;
+    }
+    
+    /**
+     * Difunde la nueva ocupación del horario de una cita, una vez confirmada la transacción.
+     * El índice de ocupación atiende el evento antes, así que ya refleja el cambio.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarEstado(CambioEstadoCitaEvento evento) {
+        if (evento.ocupabaHorario() == evento.ocupaHorario()) {
+            return;
+        }
+        difundirOcupacion(evento.getTipoCita(), evento.getFechaHora());
+    }
+    
+    /**
+     * Difunde un horario cuya ocupación cambió al recargar el índice, por ejemplo por
+     * una cita creada o cancelada en otra instancia
+     */
+    @EventListener
+    public void alRecargarOcupacion(OcupacionRecargadaEvento evento) {
+        difundirOcupacion(evento.getTipoCita(), evento.getFechaHora());
+    }
+    
+    /**
+     * Envía a los suscriptores del día la ocupación actual del horario según el índice
+     */
+    private void difundirOcupacion(TipoCita tipoCita, LocalDateTime fechaHora) {
+        var clave = new ClaveSuscripcion(tipoCita, fechaHora.toLocalDate());
+        if (!suscriptores.containsKey(clave)) {
+            return;
+        }
+        int citasActivas = indiceOcupacion.citasActivas(tipoCita, fechaHora);
+        int capacidad = capacidadHorarios.capacidad(tipoCita, fechaHora);
+        var cambio = CambioDisponibilidadResponse.builder()
+                .tipoCita(tipoCita.name())
+                .fecha(clave.fecha())
+                .hora(fechaHora.getHour())
+                .horaFormateada(String.format("%02d:00", fechaHora.getHour()))
+                .citasActivas(citasActivas)
+                .capacidad(capacidad)
+                .disponible(citasActivas < capacidad)
+                .build();
+        difundir(clave, cambio);
+    }
+    
+    /**
+     * Envía un comentario a todas las conexiones para mantenerlas abiertas a través
+     * de proxies y descartar las que el cliente ya cerró
+     */
+    @Scheduled(fixedDelayString = "${app.horarios.eventos.latido-ms:30000}")
+    public void latir() {
+        if (totalSuscriptores.get() == 0) {
+            return;
+        }
+        suscriptores.values().forEach(suscripciones ->
+                suscripciones.forEach(suscripcion -> suscripcion.encolar(SseEmitter.event().comment("latido"))));
+    }
+    
+    int suscriptores() {
+        return totalSuscriptores.get();
+    }
+    
+    private void difundir(ClaveSuscripcion clave, CambioDisponibilidadResponse cambio) {
+        var suscripciones = suscriptores.get(clave);
+        if (suscripciones == null) {
+            return;
+        }
+        var datos = serializar(cambio);
+        suscripciones.forEach(suscripcion -> suscripcion.encolar(
+                SseEmitter.event().name(EVENTO_CAMBIO).data(datos, MediaType.APPLICATION_JSON)));
+        log.debug("Cambio de disponibilidad {} {} encolado para {} suscriptores",
+                clave, cambio.getHoraFormateada(), suscripciones.size());
+    }
+    
+    private void quitar(Suscripcion suscripcion) {
+        suscriptores.computeIfPresent(suscripcion.clave, (c, suscripciones) -> {
+            if (suscripciones.remove(suscripcion)) {
+                totalSuscriptores.decrementAndGet();
+            }
+            return suscripciones.isEmpty() ? null : suscripciones;
+        });
+    }
+    
+    private String serializar(Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento de disponibilidad", e);
+        }
+    }
+    
+    private record ClaveSuscripcion(TipoCita tipoCita, LocalDate fecha) {
+    }
+    
+    /**
+     * Conexión SSE con su cola de eventos pendientes. Como mucho un hilo de difusión vacía
+     * la cola a la vez, así que los eventos de una suscripción se envían en orden.
+     */
+    private final class Suscripcion {
+        
+        private final ClaveSuscripcion clave;
+        private final SseEmitter emisor;
+        private final Deque<SseEmitter.SseEventBuilder> pendientes = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger enCola = new AtomicInteger();
+        private final AtomicBoolean programada = new AtomicBoolean();
+        private volatile boolean iniciada;
+        private volatile boolean descartada;
+        
+        Suscripcion(ClaveSuscripcion clave, SseEmitter emisor) {
+            this.clave = clave;
+            this.emisor = emisor;
+        }
+        
+        /**
+         * Envía la disponibilidad completa antes que los cambios recibidos desde el registro
+         */
+        void iniciar(SseEmitter.SseEventBuilder disponibilidad) {
+            pendientes.offerFirst(disponibilidad);
+            enCola.incrementAndGet();
+            iniciada = true;
+            programar();
+        }
+        
+        void encolar(SseEmitter.SseEventBuilder evento) {
+            if (descartada) {
+                return;
+            }
+            if (enCola.incrementAndGet() > maxPendientes) {
+                log.debug("Suscripción a {} cerrada por no recibir a tiempo {} eventos", clave, maxPendientes);
+                suscriptoresLentos.increment();
+                descartar();
+                return;
+            }
+            pendientes.offer(evento);
+            if (iniciada) {
+                programar();
+            }
+        }
+        
+        private void descartar() {
+            descartada = true;
+            quitar(this);
+            programar();
+        }
+        
+        private void programar() {
+            if (programada.compareAndSet(false, true)) {
+                ejecutor.execute(this::drenar);
+            }
+        }
+        
+        private void drenar() {
+            do {
+                SseEmitter.SseEventBuilder evento;
+                while (!descartada && (evento = pendientes.poll()) != null) {
+                    enCola.decrementAndGet();
+                    enviar(evento);
+                }
+                if (descartada) {
+                    pendientes.clear();
+                    emisor.complete();
+                }
+                programada.set(false);
+            } while (!descartada && !pendientes.isEmpty() && programada.compareAndSet(false, true));
+        }
+        
+        private void enviar(SseEmitter.SseEventBuilder evento) {
+            try {
+                emisor.send(evento);
+                eventosEnviados.increment();
+            } catch (IOException | IllegalStateException e) {
+                // El cliente cerró la conexión o el emisor ya terminó
+                log.debug("Suscripción a {} descartada: {}", clave, e.getMessage());
+                descartada = true;
+                quitar(this);
+            }
+        }
+    }
+}
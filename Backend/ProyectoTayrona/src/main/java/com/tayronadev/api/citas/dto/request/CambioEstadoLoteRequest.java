@@ -0,0 +1,36 @@
+package com.tayronadev.api.citas.dto.request;
+
+import com.tayronadev.dominio.citas.modelo.AccionEstadoCita;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para aplicar la misma transición de estado a varias citas
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioEstadoLoteRequest {
+    
+    @NotEmpty(message = "Debe indicar al menos una cita")
+    @Size(max = 200, message = "No se pueden procesar más de 200 citas por solicitud")
+    private List<@NotBlank(message = "El ID de la cita no puede estar vacío") String> citaIds;
+    
+    @NotNull(message = "La acción es obligatoria")
+    private AccionEstadoCita accion;
+    
+    /**
+     * Observaciones al confirmar, o motivo (obligatorio) al rechazar o cancelar
+     */
+    @Size(max = 500, message = "Las observaciones no pueden exceder 500 caracteres")
+    private String observaciones;
+}
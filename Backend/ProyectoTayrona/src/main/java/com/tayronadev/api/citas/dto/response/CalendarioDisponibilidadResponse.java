@@ -0,0 +1,36 @@
+package com.tayronadev.api.citas.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO de respuesta con la disponibilidad de todos los tipos de cita en varios días
+ */
+@Value
+@Builder
+public class CalendarioDisponibilidadResponse {
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    LocalDate desde;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    LocalDate hasta; // Último día incluido
+    
+    List<DiaDisponibilidad> dias;
+    
+    /**
+     * Disponibilidad de un día para cada tipo de cita
+     */
+    @Value
+    @Builder
+    public static class DiaDisponibilidad {
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        LocalDate fecha;
+        Boolean habil; // false en fines de semana
+        List<HorarioDisponibleResponse> tiposCita;
+    }
+}
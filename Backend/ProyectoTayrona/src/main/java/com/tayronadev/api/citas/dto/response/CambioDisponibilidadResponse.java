@@ -0,0 +1,26 @@
+package com.tayronadev.api.citas.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * DTO del evento que avisa que cambió la ocupación de un horario
+ */
+@Value
+@Builder
+public class CambioDisponibilidadResponse {
+    
+    String tipoCita;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    LocalDate fecha;
+    
+    Integer hora;
+    String horaFormateada; // Ej: "08:00", "14:00"
+    Integer citasActivas;
+    Integer capacidad;
+    Boolean disponible;
+}
@@ -0,0 +1,19 @@
+package com.tayronadev.api.citas.dto.response;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta de un cambio de estado en lote
+ */
+@Value
+@Builder
+public class CambioEstadoLoteResponse {
+    
+    int total;
+    int exitosos;
+    int fallidos;
+    List<ResultadoCambioEstadoResponse> resultados;
+}
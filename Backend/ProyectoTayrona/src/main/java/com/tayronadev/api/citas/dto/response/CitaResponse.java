@@ -28,6 +28,7 @@ public class CitaResponse {
     
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     LocalDateTime fechaHora;
+    Integer muelle;
     
     String observaciones;
     
@@ -37,6 +38,9 @@ public class CitaResponse {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     LocalDateTime fechaUltimaModificacion;
     
+    /** Versión para If-Match; es la misma que se envía en la ETag */
+    Long version;
+    
     // Campos de utilidad para el frontend
     Boolean puedeSerModificada;
     Boolean puedeSerCancelada;
@@ -0,0 +1,41 @@
+package com.tayronadev.api.citas.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.tayronadev.dominio.citas.modelo.EstadoCita;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO de respuesta con el número de citas por estado y tipo, en total y por día
+ */
+@Value
+@Builder
+public class EstadisticasCitasResponse {
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    LocalDate desde;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    LocalDate hasta; // Último día incluido
+    
+    Map<EstadoCita, Map<TipoCita, Long>> totales; // Todas las fechas
+    List<ConteoDia> porDia; // Solo combinaciones con alguna cita
+    
+    /**
+     * Número de citas de un estado y tipo en un día
+     */
+    @Value
+    @Builder
+    public static class ConteoDia {
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        LocalDate fecha;
+        EstadoCita estado;
+        TipoCita tipoCita;
+        long cantidad;
+    }
+}
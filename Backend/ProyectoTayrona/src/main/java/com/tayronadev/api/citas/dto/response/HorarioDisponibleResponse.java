@@ -31,6 +31,8 @@ public class HorarioDisponibleResponse {
     public static class HorarioSlot {
         Integer hora;
         String horaFormateada; // Ej: "08:00", "14:00"
+        Integer capacidad;
+        Integer cuposDisponibles;
         Boolean disponible;
     }
 }
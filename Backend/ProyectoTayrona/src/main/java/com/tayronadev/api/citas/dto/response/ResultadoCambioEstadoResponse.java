@@ -0,0 +1,19 @@
+package com.tayronadev.api.citas.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * DTO de respuesta con el resultado de la transición para una cita del lote
+ */
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoCambioEstadoResponse {
+    
+    String citaId;
+    boolean exitoso;
+    String estado;
+    String mensaje;
+}
@@ -0,0 +1,110 @@
+package com.tayronadev.api.citas.exportacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tayronadev.api.citas.dto.response.CitaResponse;
+import com.tayronadev.api.citas.mappers.CitaDtoMapper;
+import com.tayronadev.dominio.citas.casosuso.ExportarCitasUseCase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Escribe la exportación de citas directamente en la respuesta HTTP.
+ * Cada cita se serializa y se escribe en cuanto se lee de la base de datos.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportadorCitas {
+    
+    private static final String ENCABEZADO_CSV = String.join(",",
+            "id", "tipoCita", "estado", "estadoPostCita", "fechaHora",
+            "nombreProveedor", "nit", "numeroOrdenCompra",
+            "responsableNombre", "responsableEmail", "responsableTelefono",
+            "tipoTransporte", "nombreTransportadora", "numeroGuia",
+            "conductorNombre", "conductorCedula", "placaVehiculo",
+            "observaciones", "fechaCreacion", "fechaUltimaModificacion");
+    
+    // Primeros caracteres con los que una hoja de cálculo evalúa la celda como fórmula
+    private static final String INICIO_FORMULA = "=+-@\t\r";
+    
+    // Filas escritas entre cada flush para que el cliente reciba datos de forma continua
+    private static final int FILAS_POR_FLUSH = 500;
+    
+    private final ExportarCitasUseCase exportarCitasUseCase;
+    private final CitaDtoMapper mapper;
+    private final ObjectMapper objectMapper;
+    
+    public StreamingResponseBody exportar(LocalDateTime desde, LocalDateTime hasta, FormatoExportacion formato) {
+        return salida -> {
+            var writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+            if (formato == FormatoExportacion.CSV) {
+                writer.write(ENCABEZADO_CSV);
+                writer.newLine();
+            }
+            var filas = new long[1];
+            try {
+                exportarCitasUseCase.exportarPorRangoFechas(desde, hasta, cita -> {
+                    var response = mapper.toCitaResponse(cita);
+                    try {
+                        writer.write(formato == FormatoExportacion.CSV ? toFilaCsv(response) : toLineaJson(response));
+                        writer.newLine();
+                        if (++filas[0] % FILAS_POR_FLUSH == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+    }
+    
+    private String toLineaJson(CitaResponse response) throws IOException {
+        return objectMapper.writeValueAsString(response);
+    }
+    
+    private String toFilaCsv(CitaResponse cita) {
+        var proveedor = cita.getProveedor();
+        var transporte = cita.getTransporte();
+        return Stream.of(
+                        cita.getId(), cita.getTipoCita(), cita.getEstado(), cita.getEstadoPostCita(), cita.getFechaHora(),
+                        proveedor.getNombreProveedor(), proveedor.getNit(), proveedor.getNumeroOrdenCompra(),
+                        proveedor.getResponsable().getNombre(), proveedor.getResponsable().getEmail(),
+                        proveedor.getResponsable().getTelefono(),
+                        transporte.getTipoTransporte(), transporte.getNombreTransportadora(), transporte.getNumeroGuia(),
+                        transporte.getConductorNombre(), transporte.getConductorCedula(), transporte.getPlacaVehiculo(),
+                        cita.getObservaciones(), cita.getFechaCreacion(), cita.getFechaUltimaModificacion())
+                .map(ExportadorCitas::campoCsv)
+                .collect(Collectors.joining(","));
+    }
+    
+    /**
+     * Escapa un campo según RFC 4180: se entrecomilla si contiene coma, comillas o saltos de línea.
+     * Los campos que una hoja de cálculo interpretaría como fórmula (empiezan por =, +, -, @,
+     * tabulador o retorno de carro) se prefijan con un apóstrofo para que se muestren como texto.
+     */
+    private static String campoCsv(Object valor) {
+        var texto = Objects.toString(valor, "");
+        if (!texto.isEmpty() && INICIO_FORMULA.indexOf(texto.charAt(0)) >= 0) {
+            texto = "'" + texto;
+        }
+        if (texto.contains(",") || texto.contains("\"") || texto.contains("\n") || texto.contains("\r")) {
+            return "\"" + texto.replace("\"", "\"\"") + "\"";
+        }
+        return texto;
+    }
+}
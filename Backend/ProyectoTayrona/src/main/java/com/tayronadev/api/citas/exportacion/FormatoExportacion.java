@@ -0,0 +1,19 @@
+package com.tayronadev.api.citas.exportacion;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos disponibles para exportar citas
+ */
+@Getter
+@RequiredArgsConstructor
+public enum FormatoExportacion {
+    
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+    
+    private final MediaType mediaType;
+    private final String extension;
+}
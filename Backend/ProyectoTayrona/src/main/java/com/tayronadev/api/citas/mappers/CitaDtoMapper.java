@@ -3,6 +3,8 @@ package com.tayronadev.api.citas.mappers;
 import com.tayronadev.api.citas.dto.request.CrearCitaRequest;
 import com.tayronadev.api.citas.dto.request.TransporteRequest;
 import com.tayronadev.api.citas.dto.response.*;
+import com.tayronadev.dominio.citas.consultas.CitaResumen;
+import com.tayronadev.dominio.citas.consultas.EstadisticasCitas;
 import com.tayronadev.dominio.citas.modelo.*;
 import com.tayronadev.dominio.citas.servicios.GestorEstadosCita;
 import lombok.RequiredArgsConstructor;
@@ -98,9 +100,11 @@ public class CitaDtoMapper {
                 .proveedor(toProveedorResponse(cita.getProveedor()))
                 .transporte(toTransporteResponse(cita.getTransporte()))
                 .fechaHora(cita.getHorario().getFechaHora())
+                .muelle(cita.getMuelle())
                 .observaciones(cita.getObservaciones().orElse(null))
                 .fechaCreacion(cita.getFechaCreacion())
                 .fechaUltimaModificacion(cita.getFechaUltimaModificacion())
+                .version(cita.getVersion())
                 .puedeSerModificada(gestorEstados.puedeSerModificadaPorAdministrador(cita))
                 .puedeSerCancelada(gestorEstados.puedeSerCanceladaPorProveedor(cita))
                 .build();
@@ -124,6 +128,24 @@ public class CitaDtoMapper {
                 .build();
     }
     
+    /**
+     * Convierte un resumen proyectado a DTO de resumen
+     */
+    public CitaResumenResponse toCitaResumenResponse(CitaResumen resumen) {
+        return CitaResumenResponse.builder()
+                .id(resumen.getId())
+                .tipoCita(resumen.getTipoCita().name())
+                .tipoCitaDescripcion(resumen.getTipoCita().getDescripcion())
+                .estado(resumen.getEstado().name())
+                .estadoDescripcion(resumen.getEstado().getDescripcion())
+                .estadoPostCita(resumen.getEstadoPostCita() != null ? resumen.getEstadoPostCita().name() : null)
+                .nombreProveedor(resumen.getNombreProveedor())
+                .nit(resumen.getNit())
+                .fechaHora(resumen.getFechaHora())
+                .fechaCreacion(resumen.getFechaCreacion())
+                .build();
+    }
+    
     /**
      * Convierte una lista de citas a lista de resúmenes
      */
@@ -133,6 +155,45 @@ public class CitaDtoMapper {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Convierte los resultados de un cambio de estado en lote a su DTO de respuesta
+     */
+    public CambioEstadoLoteResponse toCambioEstadoLoteResponse(List<ResultadoCambioEstado> resultados) {
+        var exitosos = (int) resultados.stream().filter(ResultadoCambioEstado::isExitoso).count();
+        return CambioEstadoLoteResponse.builder()
+                .total(resultados.size())
+                .exitosos(exitosos)
+                .fallidos(resultados.size() - exitosos)
+                .resultados(resultados.stream()
+                        .map(resultado -> ResultadoCambioEstadoResponse.builder()
+                                .citaId(resultado.getCitaId())
+                                .exitoso(resultado.isExitoso())
+                                .estado(resultado.getEstado() != null ? resultado.getEstado().name() : null)
+                                .mensaje(resultado.getMensaje())
+                                .build())
+                        .toList())
+                .build();
+    }
+    
+    /**
+     * Convierte las estadísticas de citas a su DTO de respuesta
+     */
+    public EstadisticasCitasResponse toEstadisticasResponse(EstadisticasCitas estadisticas) {
+        return EstadisticasCitasResponse.builder()
+                .desde(estadisticas.getDesde())
+                .hasta(estadisticas.getHasta())
+                .totales(estadisticas.getTotales())
+                .porDia(estadisticas.getPorDia().stream()
+                        .map(conteo -> EstadisticasCitasResponse.ConteoDia.builder()
+                                .fecha(conteo.getFecha())
+                                .estado(conteo.getEstado())
+                                .tipoCita(conteo.getTipoCita())
+                                .cantidad(conteo.getCantidad())
+                                .build())
+                        .toList())
+                .build();
+    }
+    
     private InformacionProveedorResponse toProveedorResponse(InformacionProveedor proveedor) {
         return InformacionProveedorResponse.builder()
                 .nombreProveedor(proveedor.getNombreProveedor())
@@ -1,10 +1,12 @@
 package com.tayronadev.api.common;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.tayronadev.dominio.comun.Pagina;
 import lombok.Builder;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Wrapper genérico para todas las respuestas de la API.
@@ -18,6 +20,7 @@ public class ApiResponse<T> {
     private final boolean success;
     private final String message;
     private final T data;
+    private final PaginacionResponse paginacion;
     private final LocalDateTime timestamp;
     
     /**
@@ -43,6 +46,18 @@ public class ApiResponse<T> {
                 .build();
     }
     
+    /**
+     * Crea una respuesta exitosa con una página de datos y su cursor siguiente
+     */
+    public static <T> ApiResponse<List<T>> pagina(Pagina<T> pagina) {
+        return ApiResponse.<List<T>>builder()
+                .success(true)
+                .data(pagina.getElementos())
+                .paginacion(PaginacionResponse.de(pagina))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+    
     /**
      * Crea una respuesta exitosa solo con mensaje (sin datos)
      */
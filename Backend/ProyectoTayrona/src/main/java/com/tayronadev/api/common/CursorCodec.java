@@ -0,0 +1,43 @@
+package com.tayronadev.api.common;
+
+import com.tayronadev.dominio.comun.Cursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Codifica cursores de paginación como texto opaco para los clientes.
+ * El formato interno (fecha|id en Base64 URL) no forma parte del contrato de la API.
+ */
+public final class CursorCodec {
+    
+    private static final String SEPARADOR = "|";
+    
+    private CursorCodec() {
+    }
+    
+    public static String codificar(Cursor cursor) {
+        var texto = cursor.getFecha() + SEPARADOR + cursor.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodifica un cursor recibido del cliente
+     *
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static Cursor decodificar(String valor) {
+        try {
+            var texto = new String(Base64.getUrlDecoder().decode(valor), StandardCharsets.UTF_8);
+            var separador = texto.indexOf(SEPARADOR);
+            if (separador < 1 || separador == texto.length() - 1) {
+                throw new IllegalArgumentException("Cursor de paginación inválido");
+            }
+            return new Cursor(LocalDateTime.parse(texto.substring(0, separador)), texto.substring(separador + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.tayronadev.api.common;
 
 import com.tayronadev.dominio.auditoria.excepciones.RegistroNoEncontradoException;
 import com.tayronadev.dominio.citas.excepciones.CitaNoEncontradaException;
+import com.tayronadev.dominio.citas.excepciones.ConflictoVersionCitaException;
 import com.tayronadev.dominio.citas.excepciones.EstadoCitaInvalidoException;
 import com.tayronadev.dominio.citas.excepciones.HorarioNoDisponibleException;
+import com.tayronadev.dominio.notificacion.excepciones.NotificacionNoEncontradaException;
 import com.tayronadev.dominio.usuario.excepcionesUsuario.ContraseñaExcepcion;
 import com.tayronadev.dominio.usuario.excepcionesUsuario.CorreoExcepcion;
 import com.tayronadev.dominio.usuario.excepcionesUsuario.InicioSesiónExcepcion;
@@ -118,6 +120,46 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
     
+    /**
+     * Maneja conflictos de versión: la cita cambió desde que el cliente la leyó
+     */
+    @ExceptionHandler(ConflictoVersionCitaException.class)
+    public ResponseEntity<ErrorResponse> handleConflictoVersionCita(
+            ConflictoVersionCitaException ex,
+            HttpServletRequest request) {
+        
+        log.warn("Conflicto de versión: {}", ex.getMessage());
+        
+        var response = ErrorResponse.of(
+                ex.getMessage(),
+                "Conflicto de Versión",
+                HttpStatus.CONFLICT.value(),
+                request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+    
+    /**
+     * Maneja precondiciones If-Match que no pueden cumplirse, como una ETag débil
+     */
+    @ExceptionHandler(PrecondicionFallidaException.class)
+    public ResponseEntity<ErrorResponse> handlePrecondicionFallida(
+            PrecondicionFallidaException ex,
+            HttpServletRequest request) {
+        
+        log.warn("Precondición fallida: {}", ex.getMessage());
+        
+        var response = ErrorResponse.of(
+                ex.getMessage(),
+                "Precondición Fallida",
+                HttpStatus.PRECONDITION_FAILED.value(),
+                request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+    
     /**
      * Maneja errores cuando no se encuentra un registro de auditoría
      */
@@ -138,6 +180,26 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
     
+    /**
+     * Maneja errores cuando no se encuentra una notificación pendiente
+     */
+    @ExceptionHandler(NotificacionNoEncontradaException.class)
+    public ResponseEntity<ErrorResponse> handleNotificacionNoEncontrada(
+            NotificacionNoEncontradaException ex,
+            HttpServletRequest request) {
+        
+        log.warn("Notificación pendiente no encontrada: {}", ex.getMessage());
+        
+        var response = ErrorResponse.of(
+                ex.getMessage(),
+                "Notificación No Encontrada",
+                HttpStatus.NOT_FOUND.value(),
+                request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+    
     /**
      * Correo inválido, no encontrado (login) o ya registrado (registro).
      */
@@ -0,0 +1,28 @@
+package com.tayronadev.api.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.tayronadev.dominio.comun.Pagina;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Metadatos de paginación por cursor incluidos en las respuestas de listados.
+ * Para pedir la página siguiente se envía siguienteCursor en el parámetro cursor.
+ */
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PaginacionResponse {
+    
+    int cantidad;
+    boolean tieneMas;
+    String siguienteCursor;
+    
+    public static PaginacionResponse de(Pagina<?> pagina) {
+        return PaginacionResponse.builder()
+                .cantidad(pagina.getElementos().size())
+                .tieneMas(pagina.tieneSiguiente())
+                .siguienteCursor(pagina.getSiguiente().map(CursorCodec::codificar).orElse(null))
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.tayronadev.api.common;
+
+/**
+ * Excepción lanzada cuando una precondición HTTP (If-Match) no se cumple
+ * antes de consultar el recurso
+ */
+public class PrecondicionFallidaException extends RuntimeException {
+    
+    public PrecondicionFallidaException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,42 @@
+package com.tayronadev.api.common;
+
+/**
+ * Traduce la versión de bloqueo optimista de un recurso a los encabezados
+ * HTTP ETag e If-Match. La ETag es la versión entre comillas ({@code "3"}).
+ */
+public final class VersionEtag {
+    
+    private VersionEtag() {
+    }
+    
+    public static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+    
+    /**
+     * Obtiene la versión esperada de un encabezado If-Match.
+     * Sin encabezado, o con {@code *}, no se exige versión.
+     * If-Match usa comparación fuerte (RFC 7232 §3.1): una ETag débil ({@code W/"3"})
+     * nunca coincide.
+     *
+     * @throws PrecondicionFallidaException si el encabezado contiene una ETag débil
+     * @throws IllegalArgumentException si el encabezado no contiene una versión válida
+     */
+    public static Long versionEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        var valor = ifMatch.trim();
+        if (valor.startsWith("W/")) {
+            throw new PrecondicionFallidaException("If-Match no admite ETags débiles: " + ifMatch);
+        }
+        if (valor.length() >= 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+            valor = valor.substring(1, valor.length() - 1);
+        }
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Encabezado If-Match inválido: " + ifMatch);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tayronadev.api.notificacion.controllers;
+
+import com.tayronadev.api.common.ApiResponse;
+import com.tayronadev.api.common.CursorCodec;
+import com.tayronadev.api.notificacion.dto.response.NotificacionPendienteResponse;
+import com.tayronadev.api.notificacion.mappers.NotificacionDtoMapper;
+import com.tayronadev.dominio.comun.SolicitudPagina;
+import com.tayronadev.dominio.notificacion.casosuso.ReintentarNotificacionesUseCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST para revisar las notificaciones que agotaron sus reintentos
+ * y devolverlas a la cola.
+ */
+@RestController
+@RequestMapping("/api/notificaciones")
+@RequiredArgsConstructor
+@Slf4j
+public class NotificacionController {
+    
+    private final ReintentarNotificacionesUseCase reintentarNotificacionesUseCase;
+    private final NotificacionDtoMapper mapper;
+    
+    /**
+     * Lista una página de las notificaciones fallidas (cartas muertas), de la más reciente
+     * a la más antigua. Para la página siguiente se envía el cursor de la respuesta.
+     */
+    @GetMapping("/fallidas")
+    public ResponseEntity<ApiResponse<List<NotificacionPendienteResponse>>> obtenerFallidas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        log.info("GET /api/notificaciones/fallidas - Obteniendo notificaciones fallidas");
+        
+        var solicitud = new SolicitudPagina(cursor != null ? CursorCodec.decodificar(cursor) : null, tamano, true);
+        var pagina = reintentarNotificacionesUseCase.obtenerFallidas(solicitud)
+            .map(mapper::toResponse);
+        
+        return ResponseEntity.ok(ApiResponse.pagina(pagina));
+    }
+    
+    /**
+     * Devuelve una notificación fallida a la cola de reintentos
+     */
+    @PostMapping("/fallidas/{id}/reintentar")
+    public ResponseEntity<ApiResponse<NotificacionPendienteResponse>> reintentar(@PathVariable String id) {
+        log.info("POST /api/notificaciones/fallidas/{}/reintentar", id);
+        
+        var notificacion = reintentarNotificacionesUseCase.reactivar(id);
+        
+        return ResponseEntity.ok(ApiResponse.success(mapper.toResponse(notificacion), "Notificación devuelta a la cola"));
+    }
+}
@@ -0,0 +1,35 @@
+package com.tayronadev.api.notificacion.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.tayronadev.dominio.notificacion.modelo.EstadoNotificacion;
+import com.tayronadev.dominio.notificacion.modelo.TipoNotificacion;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de respuesta para una notificación en la cola de reintentos.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificacionPendienteResponse {
+    
+    private String id;
+    private String citaId;
+    private TipoNotificacion tipoNotificacion;
+    private String observaciones;
+    private EstadoNotificacion estado;
+    private int intentos;
+    private String ultimoError;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime proximoIntento;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime fechaCreacion;
+}
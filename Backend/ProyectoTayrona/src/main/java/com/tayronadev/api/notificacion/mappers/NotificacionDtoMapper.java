@@ -0,0 +1,38 @@
+package com.tayronadev.api.notificacion.mappers;
+
+import com.tayronadev.api.notificacion.dto.response.NotificacionPendienteResponse;
+import com.tayronadev.dominio.notificacion.modelo.NotificacionPendiente;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Mapper para convertir notificaciones pendientes en DTOs de la API.
+ */
+@Component
+public class NotificacionDtoMapper {
+    
+    public NotificacionPendienteResponse toResponse(NotificacionPendiente notificacion) {
+        if (notificacion == null) {
+            return null;
+        }
+        
+        return NotificacionPendienteResponse.builder()
+            .id(notificacion.getId())
+            .citaId(notificacion.getCitaId())
+            .tipoNotificacion(notificacion.getTipoNotificacion())
+            .observaciones(notificacion.getObservaciones())
+            .estado(notificacion.getEstado())
+            .intentos(notificacion.getIntentos())
+            .ultimoError(notificacion.getUltimoError())
+            .proximoIntento(notificacion.getProximoIntento())
+            .fechaCreacion(notificacion.getFechaCreacion())
+            .build();
+    }
+    
+    public List<NotificacionPendienteResponse> toResponseList(List<NotificacionPendiente> notificaciones) {
+        return notificaciones.stream()
+            .map(this::toResponse)
+            .toList();
+    }
+}
@@ -1,21 +1,30 @@
 package com.tayronadev.dominio.auditoria.casosuso;
 
+import com.tayronadev.dominio.auditoria.consultas.ActividadDiaria;
+import com.tayronadev.dominio.auditoria.consultas.FiltroAuditoria;
+import com.tayronadev.dominio.auditoria.consultas.ResumenActividadUsuario;
 import com.tayronadev.dominio.auditoria.excepciones.RegistroNoEncontradoException;
 import com.tayronadev.dominio.auditoria.modelo.RegistroCambioEstado;
 import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
 import com.tayronadev.dominio.auditoria.repositorios.AuditoriaRepositorio;
+import com.tayronadev.dominio.auditoria.repositorios.ResumenAuditoriaRepositorio;
+import com.tayronadev.dominio.comun.Pagina;
+import com.tayronadev.dominio.comun.SolicitudPagina;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * Caso de uso para consultar registros de auditoría.
  * Proporciona diferentes métodos de consulta para los registros
- * de cambio de estado de las citas.
+ * de cambio de estado de las citas. Todos los listados se paginan por
+ * clave sobre (fecha de cambio, id): ninguno carga un historial completo.
+ * Los totales por usuario se leen de los conteos precalculados, sin contar registros.
  */
 @Service
 @Transactional(readOnly = true)
@@ -23,7 +32,11 @@ import java.util.List;
 @Slf4j
 public class ConsultarAuditoriaUseCase {
     
+    /** Días máximos de una consulta de actividad diaria */
+    static final int MAX_DIAS_ACTIVIDAD = 366;
+    
     private final AuditoriaRepositorio auditoriaRepositorio;
+    private final ResumenAuditoriaRepositorio resumenAuditoriaRepositorio;
     
     /**
      * Obtiene un registro de auditoría por su ID
@@ -34,39 +47,49 @@ public class ConsultarAuditoriaUseCase {
     }
     
     /**
-     * Obtiene todos los registros de auditoría para una cita específica
+     * Obtiene una página de los registros de auditoría de una cita específica
      */
-    public List<RegistroCambioEstado> obtenerPorCitaId(String citaId) {
+    public Pagina<RegistroCambioEstado> obtenerPorCitaId(String citaId, SolicitudPagina pagina) {
         log.debug("Consultando registros de auditoría para cita: {}", citaId);
-        return auditoriaRepositorio.buscarPorCitaId(citaId);
+        return auditoriaRepositorio.buscar(FiltroAuditoria.builder().citaId(citaId).build(), pagina);
     }
     
     /**
-     * Obtiene todos los registros de auditoría realizados por un usuario.
+     * Obtiene una página de los registros de auditoría realizados por un usuario.
      * Este es el filtro principal expuesto en la API.
      */
-    public List<RegistroCambioEstado> obtenerPorUsuarioId(String usuarioId) {
+    public Pagina<RegistroCambioEstado> obtenerPorUsuarioId(String usuarioId, SolicitudPagina pagina) {
         log.debug("Consultando registros de auditoría para usuario: {}", usuarioId);
-        return auditoriaRepositorio.buscarPorUsuarioId(usuarioId);
+        return auditoriaRepositorio.buscar(FiltroAuditoria.builder().usuarioId(usuarioId).build(), pagina);
+    }
+    
+    /**
+     * Obtiene los últimos N cambios de un usuario, sin leer el resto de su historial
+     */
+    public List<RegistroCambioEstado> obtenerUltimosPorUsuario(String usuarioId, int limite) {
+        log.debug("Consultando últimos {} registros de auditoría del usuario: {}", limite, usuarioId);
+        return auditoriaRepositorio.buscar(FiltroAuditoria.builder().usuarioId(usuarioId).build(),
+                new SolicitudPagina(null, limite, true)).getElementos();
     }
     
     /**
-     * Obtiene registros filtrados por tipo de cambio
+     * Obtiene una página de registros filtrados por tipo de cambio
      */
-    public List<RegistroCambioEstado> obtenerPorTipoCambio(TipoCambio tipoCambio) {
+    public Pagina<RegistroCambioEstado> obtenerPorTipoCambio(TipoCambio tipoCambio, SolicitudPagina pagina) {
         log.debug("Consultando registros de auditoría por tipo de cambio: {}", tipoCambio);
-        return auditoriaRepositorio.buscarPorTipoCambio(tipoCambio);
+        return auditoriaRepositorio.buscar(FiltroAuditoria.builder().tipoCambio(tipoCambio).build(), pagina);
     }
     
     /**
-     * Obtiene registros de auditoría en un rango de fechas
+     * Obtiene una página de registros de auditoría en un rango de fechas
      */
-    public List<RegistroCambioEstado> obtenerPorRangoFechas(LocalDateTime desde, LocalDateTime hasta) {
+    public Pagina<RegistroCambioEstado> obtenerPorRangoFechas(LocalDateTime desde, LocalDateTime hasta,
+                                                              SolicitudPagina pagina) {
         if (desde.isAfter(hasta)) {
             throw new IllegalArgumentException("La fecha 'desde' no puede ser posterior a 'hasta'");
         }
         log.debug("Consultando registros de auditoría entre {} y {}", desde, hasta);
-        return auditoriaRepositorio.buscarPorRangoFechas(desde, hasta);
+        return auditoriaRepositorio.buscar(FiltroAuditoria.builder().desde(desde).hasta(hasta).build(), pagina);
     }
     
     /**
@@ -77,14 +100,37 @@ public class ConsultarAuditoriaUseCase {
             throw new IllegalArgumentException("El límite debe ser mayor a 0");
         }
         log.debug("Consultando últimos {} registros de auditoría", limite);
-        return auditoriaRepositorio.obtenerUltimosRegistros(limite);
+        return auditoriaRepositorio.buscar(FiltroAuditoria.todos(), new SolicitudPagina(null, limite, true))
+            .getElementos();
+    }
+    
+    /**
+     * Obtiene los totales de cambios de un usuario por tipo de cambio
+     */
+    public ResumenActividadUsuario obtenerResumenActividad(String usuarioId) {
+        return resumenAuditoriaRepositorio.obtenerResumenUsuario(usuarioId);
+    }
+    
+    /**
+     * Obtiene los cambios de un usuario por día y tipo de cambio en un rango de fechas
+     */
+    public List<ActividadDiaria> obtenerActividadDiaria(String usuarioId, LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha 'desde' no puede ser posterior a 'hasta'");
+        }
+        if (desde.plusDays(MAX_DIAS_ACTIVIDAD).isBefore(hasta)) {
+            throw new IllegalArgumentException(
+                String.format("El rango de actividad no puede superar %d días", MAX_DIAS_ACTIVIDAD));
+        }
+        log.debug("Consultando actividad diaria del usuario {} entre {} y {}", usuarioId, desde, hasta);
+        return resumenAuditoriaRepositorio.obtenerActividadDiaria(usuarioId, desde, hasta);
     }
     
     /**
      * Cuenta el total de cambios realizados por un usuario
      */
     public long contarPorUsuarioId(String usuarioId) {
-        return auditoriaRepositorio.contarPorUsuarioId(usuarioId);
+        return obtenerResumenActividad(usuarioId).getTotalCambios();
     }
     
     /**
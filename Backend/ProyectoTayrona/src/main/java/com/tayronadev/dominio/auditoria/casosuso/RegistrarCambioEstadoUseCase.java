@@ -2,20 +2,23 @@ package com.tayronadev.dominio.auditoria.casosuso;
 
 import com.tayronadev.dominio.auditoria.modelo.RegistroCambioEstado;
 import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
-import com.tayronadev.dominio.auditoria.repositorios.AuditoriaRepositorio;
+import com.tayronadev.dominio.auditoria.repositorios.EscritorAuditoria;
 import com.tayronadev.dominio.citas.modelo.Cita;
 import com.tayronadev.dominio.citas.modelo.EstadoCita;
 import com.tayronadev.dominio.citas.modelo.EstadoPostCita;
-import com.tayronadev.dominio.usuario.modelo.User;
+import com.tayronadev.dominio.usuario.modelo.UsuarioSesion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 /**
  * Caso de uso para registrar cambios de estado en las citas.
  * Este caso de uso es invocado cada vez que un usuario cambia el estado
- * de una cita o asigna un estado post-cita.
+ * de una cita o asigna un estado post-cita. Los registros se entregan al
+ * {@link EscritorAuditoria}, que los escribe en lote según su modo configurado.
  */
 @Service
 @Transactional
@@ -23,7 +26,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class RegistrarCambioEstadoUseCase {
     
-    private final AuditoriaRepositorio auditoriaRepositorio;
+    private final EscritorAuditoria escritorAuditoria;
     
     /**
      * Registra un cambio de estado principal en una cita.
@@ -32,10 +35,10 @@ public class RegistrarCambioEstadoUseCase {
      * @param usuario El usuario que realizó el cambio
      * @param estadoAnterior El estado anterior de la cita
      * @param observaciones Observaciones opcionales del cambio
-     * @return El registro de auditoría creado
+     * @return El registro de auditoría anotado para escritura
      */
     public RegistroCambioEstado registrarCambioEstado(Cita cita, 
-                                                       User usuario,
+                                                       UsuarioSesion usuario,
                                                        EstadoCita estadoAnterior,
                                                        String observaciones) {
         TipoCambio tipoCambio = determinarTipoCambio(cita.getEstado());
@@ -50,12 +53,12 @@ public class RegistrarCambioEstadoUseCase {
             observaciones
         );
         
-        RegistroCambioEstado registroGuardado = auditoriaRepositorio.guardar(registro);
+        escritorAuditoria.registrar(registro);
         
         log.info("Registrado cambio de estado: Usuario '{}' cambió cita '{}' de {} a {}",
             usuario.getNombre(), cita.getId(), estadoAnterior, cita.getEstado());
         
-        return registroGuardado;
+        return registro;
     }
     
     /**
@@ -64,10 +67,10 @@ public class RegistrarCambioEstadoUseCase {
      * @param cita La cita a la que se le asignó el estado post-cita
      * @param usuario El usuario que realizó la asignación
      * @param estadoPostCita El estado post-cita asignado
-     * @return El registro de auditoría creado
+     * @return El registro de auditoría anotado para escritura
      */
     public RegistroCambioEstado registrarAsignacionEstadoPostCita(Cita cita,
-                                                                   User usuario,
+                                                                   UsuarioSesion usuario,
                                                                    EstadoPostCita estadoPostCita) {
         TipoCambio tipoCambio = determinarTipoCambioPostCita(estadoPostCita);
         
@@ -81,12 +84,40 @@ public class RegistrarCambioEstadoUseCase {
             null // Sin observaciones adicionales
         );
         
-        RegistroCambioEstado registroGuardado = auditoriaRepositorio.guardar(registro);
+        escritorAuditoria.registrar(registro);
         
         log.info("Registrada asignación de estado post-cita: Usuario '{}' asignó {} a cita '{}'",
             usuario.getNombre(), estadoPostCita, cita.getId());
         
-        return registroGuardado;
+        return registro;
+    }
+    
+    /**
+     * Registra la expiración automática de citas pendientes vencidas, atribuida
+     * al usuario del sistema. El escritor las agrupa en un único lote.
+     * 
+     * @param citas Las citas que pasaron de PENDIENTE a CANCELADA por vencimiento
+     * @return Los registros de auditoría anotados para escritura
+     */
+    public List<RegistroCambioEstado> registrarExpiraciones(List<Cita> citas) {
+        var usuario = UsuarioSesion.SISTEMA;
+        var registros = citas.stream()
+            .map(cita -> new RegistroCambioEstado(
+                cita.getId(),
+                usuario.getId(),
+                usuario.getNombre(),
+                TipoCambio.EXPIRACION,
+                EstadoCita.PENDIENTE.name(),
+                cita.getEstado().name(),
+                Cita.MOTIVO_EXPIRACION
+            ))
+            .toList();
+        
+        registros.forEach(escritorAuditoria::registrar);
+        
+        log.info("Registradas {} expiraciones automáticas de citas vencidas", registros.size());
+        
+        return registros;
     }
     
     /**
@@ -0,0 +1,17 @@
+package com.tayronadev.dominio.auditoria.consultas;
+
+import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Cantidad de cambios de un tipo que un usuario realizó en un día
+ */
+@Value
+public class ActividadDiaria {
+    
+    LocalDate fecha;
+    TipoCambio tipoCambio;
+    long cantidad;
+}
@@ -0,0 +1,29 @@
+package com.tayronadev.dominio.auditoria.consultas;
+
+import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Criterios para listar registros de auditoría. Los campos nulos no filtran.
+ * El rango de fechas incluye ambos extremos: [desde, hasta].
+ */
+@Value
+@Builder
+public class FiltroAuditoria {
+    
+    String citaId;
+    String usuarioId;
+    TipoCambio tipoCambio;
+    LocalDateTime desde;
+    LocalDateTime hasta;
+    
+    /**
+     * Filtro sin criterios: todos los registros
+     */
+    public static FiltroAuditoria todos() {
+        return builder().build();
+    }
+}
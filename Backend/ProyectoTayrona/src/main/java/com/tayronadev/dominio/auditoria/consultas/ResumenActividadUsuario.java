@@ -0,0 +1,23 @@
+package com.tayronadev.dominio.auditoria.consultas;
+
+import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Totales de cambios realizados por un usuario, leídos de los conteos precalculados.
+ * El último cambio es nulo si el usuario no ha realizado ninguno.
+ */
+@Value
+public class ResumenActividadUsuario {
+    
+    String usuarioId;
+    Map<TipoCambio, Long> cambiosPorTipo;
+    LocalDateTime ultimoCambio;
+    
+    public long getTotalCambios() {
+        return cambiosPorTipo.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -108,7 +108,8 @@ public class RegistroCambioEstado {
     public boolean esCambioEstadoPrincipal() {
         return tipoCambio == TipoCambio.CONFIRMACION ||
                tipoCambio == TipoCambio.RECHAZO ||
-               tipoCambio == TipoCambio.CANCELACION;
+               tipoCambio == TipoCambio.CANCELACION ||
+               tipoCambio == TipoCambio.EXPIRACION;
     }
     
     /**
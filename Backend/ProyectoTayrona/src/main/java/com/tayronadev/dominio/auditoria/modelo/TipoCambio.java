@@ -10,6 +10,7 @@ public enum TipoCambio {
     CONFIRMACION("La cita fue confirmada"),
     RECHAZO("La cita fue rechazada"),
     CANCELACION("La cita fue cancelada"),
+    EXPIRACION("La cita venció sin confirmarse"),
     
     // Cambios de estado post-cita
     ASIGNACION_ENTREGADO("Se asignó estado post-cita: ENTREGADO"),
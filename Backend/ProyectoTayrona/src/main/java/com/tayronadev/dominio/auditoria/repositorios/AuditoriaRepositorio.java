@@ -1,57 +1,29 @@
 package com.tayronadev.dominio.auditoria.repositorios;
 
+import com.tayronadev.dominio.auditoria.consultas.FiltroAuditoria;
 import com.tayronadev.dominio.auditoria.modelo.RegistroCambioEstado;
-import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
+import com.tayronadev.dominio.comun.Pagina;
+import com.tayronadev.dominio.comun.SolicitudPagina;
 
-import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 /**
  * Puerto (interfaz) del repositorio de auditoría.
- * Define las operaciones de persistencia para los registros de cambio de estado.
+ * Define las consultas sobre los registros de cambio de estado; los registros se
+ * escriben a través de {@link EscritorAuditoria}, que también suma sus conteos.
  */
 public interface AuditoriaRepositorio {
     
-    /**
-     * Guarda un nuevo registro de auditoría
-     */
-    RegistroCambioEstado guardar(RegistroCambioEstado registro);
-    
     /**
      * Busca un registro por su ID
      */
     Optional<RegistroCambioEstado> buscarPorId(String id);
     
     /**
-     * Obtiene todos los registros de auditoría para una cita específica
-     */
-    List<RegistroCambioEstado> buscarPorCitaId(String citaId);
-    
-    /**
-     * Obtiene todos los registros de auditoría realizados por un usuario
-     */
-    List<RegistroCambioEstado> buscarPorUsuarioId(String usuarioId);
-    
-    /**
-     * Obtiene registros filtrados por tipo de cambio
-     */
-    List<RegistroCambioEstado> buscarPorTipoCambio(TipoCambio tipoCambio);
-    
-    /**
-     * Obtiene registros de auditoría en un rango de fechas
-     */
-    List<RegistroCambioEstado> buscarPorRangoFechas(LocalDateTime desde, LocalDateTime hasta);
-    
-    /**
-     * Obtiene los últimos N registros de auditoría
-     */
-    List<RegistroCambioEstado> obtenerUltimosRegistros(int limite);
-    
-    /**
-     * Cuenta el total de cambios realizados por un usuario
+     * Busca una página de registros que cumplen el filtro, ordenados por (fecha de cambio, id).
+     * Con una solicitud descendente sin cursor devuelve los N registros más recientes.
      */
-    long contarPorUsuarioId(String usuarioId);
+    Pagina<RegistroCambioEstado> buscar(FiltroAuditoria filtro, SolicitudPagina pagina);
     
     /**
      * Cuenta el total de cambios realizados en una cita
@@ -0,0 +1,16 @@
+package com.tayronadev.dominio.auditoria.repositorios;
+
+import com.tayronadev.dominio.auditoria.modelo.RegistroCambioEstado;
+
+/**
+ * Puerto (interfaz) para anotar registros de auditoría. Es la única vía de escritura:
+ * la implementación puede acumular los registros y escribirlos en lote, por lo que no
+ * garantiza que el registro esté persistido al retornar.
+ */
+public interface EscritorAuditoria {
+
+    /**
+     * Anota un registro para ser escrito en la tabla de auditoría
+     */
+    void registrar(RegistroCambioEstado registro);
+}
@@ -0,0 +1,24 @@
+package com.tayronadev.dominio.auditoria.repositorios;
+
+import com.tayronadev.dominio.auditoria.consultas.ActividadDiaria;
+import com.tayronadev.dominio.auditoria.consultas.ResumenActividadUsuario;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Puerto (interfaz) de lectura de los conteos de auditoría precalculados.
+ * Los conteos los mantiene el {@link EscritorAuditoria} al escribir cada lote de registros.
+ */
+public interface ResumenAuditoriaRepositorio {
+    
+    /**
+     * Obtiene los totales de cambios del usuario por tipo de cambio
+     */
+    ResumenActividadUsuario obtenerResumenUsuario(String usuarioId);
+    
+    /**
+     * Obtiene los cambios del usuario por día y tipo en el rango [desde, hasta], ordenados por fecha
+     */
+    List<ActividadDiaria> obtenerActividadDiaria(String usuarioId, LocalDate desde, LocalDate hasta);
+}
@@ -1,19 +1,32 @@
 package com.tayronadev.dominio.citas.casosuso;
 
+import com.tayronadev.dominio.citas.consultas.CitaResumen;
+import com.tayronadev.dominio.citas.consultas.EstadisticasCitas;
+import com.tayronadev.dominio.citas.consultas.FiltroCitas;
+import com.tayronadev.dominio.citas.consultas.HorarioOcupado;
+import com.tayronadev.dominio.citas.consultas.OcupacionHorarios;
 import com.tayronadev.dominio.citas.excepciones.CitaNoEncontradaException;
 import com.tayronadev.dominio.citas.modelo.Cita;
 import com.tayronadev.dominio.citas.modelo.EstadoCita;
 import com.tayronadev.dominio.citas.modelo.TipoCita;
 import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
-import com.tayronadev.dominio.citas.servicios.CalculadorConflictos;
+import com.tayronadev.dominio.citas.servicios.ContadoresCitas;
+import com.tayronadev.dominio.citas.servicios.IndiceOcupacionHorarios;
+import com.tayronadev.dominio.comun.Pagina;
+import com.tayronadev.dominio.comun.SolicitudPagina;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 /**
  * Caso de uso para consultar citas
@@ -24,8 +37,15 @@ import java.util.List;
 @Slf4j
 public class ConsultarCitasUseCase {
     
+    /** Días máximos que se pueden pedir en una consulta de ocupación */
+    public static final int MAX_DIAS_CALENDARIO = 31;
+    
+    /** Días máximos del detalle por día de las estadísticas */
+    public static final int MAX_DIAS_ESTADISTICAS = 366;
+    
     private final CitaRepositorio citaRepositorio;
-    private final CalculadorConflictos calculadorConflictos;
+    private final IndiceOcupacionHorarios indiceOcupacion;
+    private final ContadoresCitas contadores;
     
     /**
      * Busca una cita por su ID
@@ -37,84 +57,55 @@ public class ConsultarCitasUseCase {
     }
     
     /**
-     * Obtiene todas las citas por estado
-     */
-    public List<Cita> buscarPorEstado(EstadoCita estado) {
-        log.debug("Buscando citas por estado: {}", estado);
-        return citaRepositorio.buscarPorEstado(estado);
-    }
-    
-    /**
-     * Obtiene citas por tipo y estado
-     */
-    public List<Cita> buscarPorTipoYEstado(TipoCita tipo, EstadoCita estado) {
-        log.debug("Buscando citas por tipo: {} y estado: {}", tipo, estado);
-        return citaRepositorio.buscarPorTipoYEstado(tipo, estado);
-    }
-    
-    /**
-     * Obtiene todas las citas de un proveedor por NIT
-     */
-    public List<Cita> buscarPorProveedor(String nit) {
-        log.debug("Buscando citas del proveedor con NIT: {}", nit);
-        return citaRepositorio.buscarPorNitProveedor(nit);
-    }
-    
-    /**
-     * Obtiene citas activas de un proveedor
-     */
-    public List<Cita> buscarCitasActivasProveedor(String nit) {
-        log.debug("Buscando citas activas del proveedor con NIT: {}", nit);
-        var todasLasCitas = citaRepositorio.obtenerTodas();
-        return calculadorConflictos.obtenerCitasActivasProveedor(nit, todasLasCitas);
-    }
-    
-    /**
-     * Obtiene citas por fecha específica
+     * Lista una página de resúmenes de citas según el filtro, sin cargar los agregados completos
      */
-    public List<Cita> buscarPorFecha(LocalDate fecha) {
-        log.debug("Buscando citas para la fecha: {}", fecha);
-        return citaRepositorio.buscarPorFecha(fecha);
+    public Pagina<CitaResumen> buscarResumenes(FiltroCitas filtro, SolicitudPagina pagina) {
+        log.debug("Buscando resúmenes de citas con filtro: {} y página: {}", filtro, pagina);
+        return citaRepositorio.buscarResumenes(filtro, pagina);
     }
     
     /**
-     * Obtiene citas por tipo en una fecha específica
+     * Obtiene el número de citas activas por hora de un tipo en una fecha.
+     * Se responde desde el índice en memoria; solo las fechas anteriores a su
+     * cobertura se consultan en la base de datos.
      */
-    public List<Cita> buscarPorTipoYFecha(TipoCita tipo, LocalDate fecha) {
-        log.debug("Buscando citas de tipo: {} para la fecha: {}", tipo, fecha);
-        return citaRepositorio.buscarPorTipoYFecha(tipo, fecha);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Integer, Integer> obtenerCitasPorHora(TipoCita tipo, LocalDate fecha) {
+        if (indiceOcupacion.cubre(fecha)) {
+            return indiceOcupacion.citasPorHora(tipo, fecha);
+        }
+        log.debug("Fecha {} fuera del índice de ocupación, consultando base de datos", fecha);
+        return citaRepositorio.buscarHorariosOcupados(fecha.atStartOfDay(), fecha.plusDays(1).atStartOfDay()).stream()
+                .filter(ocupado -> ocupado.getTipoCita() == tipo)
+                .collect(Collectors.toMap(ocupado -> ocupado.getFechaHora().getHour(),
+                        ocupado -> 1, Integer::sum, TreeMap::new));
     }
     
     /**
-     * Obtiene citas en un rango de fechas
+     * Obtiene la ocupación de todos los tipos de cita en un rango de días.
+     * Si el índice en memoria cubre el rango se responde desde él; si no, con una
+     * sola consulta sobre las citas activas del rango, en lugar de una por día.
+     *
+     * @throws IllegalArgumentException si el rango no tiene entre 1 y {@value #MAX_DIAS_CALENDARIO} días
      */
-    public List<Cita> buscarPorRangoFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
-        log.debug("Buscando citas entre {} y {}", fechaInicio, fechaFin);
-        return citaRepositorio.buscarPorRangoFechas(fechaInicio, fechaFin);
-    }
-    
-    /**
-     * Obtiene todas las citas pendientes
-     */
-    public List<Cita> obtenerCitasPendientes() {
-        log.debug("Obteniendo todas las citas pendientes");
-        return citaRepositorio.buscarPorEstado(EstadoCita.PENDIENTE);
-    }
-    
-    /**
-     * Obtiene todas las citas confirmadas
-     */
-    public List<Cita> obtenerCitasConfirmadas() {
-        log.debug("Obteniendo todas las citas confirmadas");
-        return citaRepositorio.buscarPorEstado(EstadoCita.CONFIRMADA);
-    }
-    
-    /**
-     * Obtiene citas activas por tipo
-     */
-    public List<Cita> obtenerCitasActivasPorTipo(TipoCita tipo) {
-        log.debug("Obteniendo citas activas de tipo: {}", tipo);
-        return citaRepositorio.buscarActivasPorTipo(tipo);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public OcupacionHorarios obtenerOcupacion(LocalDate desde, int dias) {
+        if (dias < 1 || dias > MAX_DIAS_CALENDARIO) {
+            throw new IllegalArgumentException("El calendario admite entre 1 y " + MAX_DIAS_CALENDARIO + " días");
+        }
+        if (indiceOcupacion.cubre(desde)) {
+            List<HorarioOcupado> ocupados = new ArrayList<>();
+            desde.datesUntil(desde.plusDays(dias)).forEach(fecha -> {
+                for (TipoCita tipo : TipoCita.values()) {
+                    indiceOcupacion.citasPorHora(tipo, fecha).forEach((hora, citas) ->
+                            ocupados.addAll(Collections.nCopies(citas, new HorarioOcupado(tipo, fecha.atTime(hora, 0)))));
+                }
+            });
+            return OcupacionHorarios.de(desde, dias, ocupados);
+        }
+        log.debug("Rango desde {} fuera del índice de ocupación, consultando base de datos", desde);
+        var ocupados = citaRepositorio.buscarHorariosOcupados(desde.atStartOfDay(), desde.plusDays(dias).atStartOfDay());
+        return OcupacionHorarios.de(desde, dias, ocupados);
     }
     
     /**
@@ -126,20 +117,34 @@ public class ConsultarCitasUseCase {
     }
     
     /**
-     * Cuenta citas activas por tipo
+     * Obtiene el número de citas por estado y tipo, en total y por día en el rango [desde, hasta].
+     * Se responde desde los contadores en memoria, que pueden ir hasta un intervalo de recarga
+     * por detrás de los cambios de otras instancias; mientras no se hayan cargado, con una
+     * sola consulta agrupada.
+     *
+     * @throws IllegalArgumentException si el rango está invertido o supera {@value #MAX_DIAS_ESTADISTICAS} días
      */
-    public long contarCitasActivasPorTipo(TipoCita tipo) {
-        log.debug("Contando citas activas de tipo: {}", tipo);
-        var todasLasCitas = citaRepositorio.obtenerTodas();
-        return calculadorConflictos.contarCitasActivas(tipo, todasLasCitas);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public EstadisticasCitas obtenerEstadisticas(LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha 'desde' no puede ser posterior a 'hasta'");
+        }
+        if (!hasta.isBefore(desde.plusDays(MAX_DIAS_ESTADISTICAS))) {
+            throw new IllegalArgumentException("Las estadísticas admiten hasta " + MAX_DIAS_ESTADISTICAS + " días");
+        }
+        if (contadores.estaCargado()) {
+            return contadores.estadisticas(desde, hasta);
+        }
+        log.debug("Contadores de citas sin cargar, calculando estadísticas en base de datos");
+        return EstadisticasCitas.de(desde, hasta, citaRepositorio.contarPorEstadoTipoYDia());
     }
     
     /**
-     * Busca conflictos de horario para un tipo y hora específica
+     * Cuenta citas activas por tipo
      */
-    public List<Cita> buscarConflictosHorario(TipoCita tipo, LocalDateTime fechaHora) {
-        log.debug("Buscando conflictos para tipo: {} en horario: {}", tipo, fechaHora);
-        return citaRepositorio.buscarConflictoHorario(tipo, fechaHora);
+    public long contarCitasActivasPorTipo(TipoCita tipo) {
+        log.debug("Contando citas activas de tipo: {}", tipo);
+        return citaRepositorio.contarActivasPorTipo(tipo);
     }
     
     /**
@@ -1,25 +1,37 @@
 package com.tayronadev.dominio.citas.casosuso;
 
+import com.tayronadev.dominio.citas.eventos.CambioEstadoCitaEvento;
 import com.tayronadev.dominio.citas.excepciones.HorarioNoDisponibleException;
 import com.tayronadev.dominio.citas.modelo.*;
 import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
 import com.tayronadev.dominio.citas.servicios.ValidadorHorarios;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
- * Caso de uso para crear una nueva cita
+ * Caso de uso para crear una nueva cita.
+ * Cada intento corre en su propia transacción: si dos solicitudes eligen a la vez el mismo
+ * muelle, el índice único rechaza a una de ellas, que vuelve a leer los muelles ocupados
+ * y prueba con el siguiente libre. Solo responde que el horario no está disponible cuando
+ * ya no queda ningún muelle.
  */
 @Service
-@Transactional
 @RequiredArgsConstructor
 @Slf4j
 public class CrearCitaUseCase {
     
     private final CitaRepositorio citaRepositorio;
     private final ValidadorHorarios validadorHorarios;
+    private final ApplicationEventPublisher eventos;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.citas.creacion.max-intentos:5}")
+    private int maxIntentos = 5;
     
     /**
      * Crea una nueva cita validando disponibilidad de horario
@@ -32,19 +44,44 @@ public class CrearCitaUseCase {
         log.info("Iniciando creación de cita para proveedor {} - Tipo: {} - Horario: {}", 
                 proveedor.getNombreProveedor(), tipoCita, horario.getFechaHora());
         
-        // Validar disponibilidad del horario
-        var citasExistentes = citaRepositorio.buscarActivasPorTipo(tipoCita);
-        validadorHorarios.validarDisponibilidad(horario, tipoCita, citasExistentes);
+        for (int intento = 1; ; intento++) {
+            try {
+                var citaGuardada = transactionTemplate.execute(estado ->
+                        registrarEnMuelleLibre(tipoCita, proveedor, transporte, horario));
+                
+                log.info("Cita creada exitosamente con ID: {} en el muelle {} para proveedor: {}", 
+                        citaGuardada.getId(), citaGuardada.getMuelle(), proveedor.getNombreProveedor());
+                
+                return citaGuardada;
+            } catch (MuelleTomado e) {
+                if (intento >= maxIntentos) {
+                    throw e.getCause();
+                }
+                log.debug("El muelle elegido para {} {} fue tomado por otra solicitud; intento {} de {}",
+                        tipoCita, horario.getFechaHora(), intento + 1, maxIntentos);
+            }
+        }
+    }
+    
+    private Cita registrarEnMuelleLibre(TipoCita tipoCita,
+                                        InformacionProveedor proveedor,
+                                        OpcionTransporte transporte,
+                                        Horario horario) {
+        // Validar cupo en el horario y asignar el primer muelle libre
+        var muellesOcupados = citaRepositorio.buscarMuellesOcupados(tipoCita, horario.getFechaHora());
+        int muelle = validadorHorarios.asignarMuelle(horario, tipoCita, muellesOcupados);
         
         // Crear la nueva cita
-        var nuevaCita = new Cita(tipoCita, proveedor, transporte, horario);
-        
-        // Guardar en repositorio
-        var citaGuardada = citaRepositorio.guardar(nuevaCita);
-        
-        log.info("Cita creada exitosamente con ID: {} para proveedor: {}", 
-                citaGuardada.getId(), proveedor.getNombreProveedor());
+        var nuevaCita = new Cita(tipoCita, proveedor, transporte, horario, muelle);
         
+        // Guardar en repositorio; si otra solicitud tomó el mismo muelle a la vez, el índice único lo rechaza
+        Cita citaGuardada;
+        try {
+            citaGuardada = citaRepositorio.registrar(nuevaCita);
+        } catch (HorarioNoDisponibleException e) {
+            throw new MuelleTomado(e);
+        }
+        eventos.publishEvent(CambioEstadoCitaEvento.creacion(citaGuardada));
         return citaGuardada;
     }
     
@@ -54,12 +91,27 @@ public class CrearCitaUseCase {
     @Transactional(readOnly = true)
     public boolean validarDisponibilidadHorario(TipoCita tipoCita, Horario horario) {
         try {
-            var citasExistentes = citaRepositorio.buscarActivasPorTipo(tipoCita);
-            validadorHorarios.validarDisponibilidad(horario, tipoCita, citasExistentes);
+            var muellesOcupados = citaRepositorio.buscarMuellesOcupados(tipoCita, horario.getFechaHora());
+            validadorHorarios.validarDisponibilidad(horario, tipoCita, muellesOcupados.size());
             return true;
         } catch (HorarioNoDisponibleException e) {
             log.debug("Horario no disponible: {}", e.getMessage());
             return false;
         }
     }
+    
+    /**
+     * Otra solicitud guardó a la vez una cita en el muelle elegido; revierte el intento
+     */
+    private static final class MuelleTomado extends RuntimeException {
+        
+        private MuelleTomado(HorarioNoDisponibleException causa) {
+            super(causa);
+        }
+        
+        @Override
+        public synchronized HorarioNoDisponibleException getCause() {
+            return (HorarioNoDisponibleException) super.getCause();
+        }
+    }
 }
\ No newline at end of file
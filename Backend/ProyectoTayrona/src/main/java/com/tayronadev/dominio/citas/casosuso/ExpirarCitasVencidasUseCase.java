@@ -0,0 +1,92 @@
+package com.tayronadev.dominio.citas.casosuso;
+
+import com.tayronadev.dominio.auditoria.casosuso.RegistrarCambioEstadoUseCase;
+import com.tayronadev.dominio.citas.eventos.CambioEstadoCitaEvento;
+import com.tayronadev.dominio.citas.modelo.EstadoCita;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Caso de uso que expira las citas que siguen pendientes después de su horario.
+ * Las procesa en lotes acotados, cada uno en su propia transacción: bloquea las vencidas
+ * con SKIP LOCKED, las cancela mediante el agregado, las guarda en una escritura por lotes
+ * y audita todas en un único lote. Varias instancias pueden ejecutarlo a la vez: cada una
+ * toma filas distintas y las que un usuario modifique en paralelo chocan con su versión.
+ * No notifica al proveedor: la cita ya pasó.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpirarCitasVencidasUseCase {
+
+    private final CitaRepositorio citaRepositorio;
+    private final RegistrarCambioEstadoUseCase registrarCambioEstado;
+    private final ApplicationEventPublisher eventos;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock reloj;
+
+    @Value("${app.citas.expiracion.lote:100}")
+    private int tamanoLote = 100;
+
+    @Value("${app.citas.expiracion.max-lotes:50}")
+    private int maxLotes = 50;
+
+    @Value("${app.citas.expiracion.gracia:PT0S}")
+    private Duration gracia = Duration.ZERO;
+
+    /**
+     * Expira lotes de citas vencidas hasta agotarlas o llegar al máximo de lotes por ejecución.
+     * Lo que quede se procesa en la siguiente ejecución.
+     *
+     * @return El número de citas expiradas
+     */
+    @Scheduled(initialDelayString = "${app.citas.expiracion.intervalo-ms:300000}",
+               fixedDelayString = "${app.citas.expiracion.intervalo-ms:300000}")
+    public int expirarVencidas() {
+        var ahora = LocalDateTime.now(reloj);
+        var limite = ahora.minus(gracia);
+        int total = 0;
+        try {
+            for (int lote = 0; lote < maxLotes; lote++) {
+                Integer expiradas = transactionTemplate.execute(estado -> expirarLote(limite, ahora));
+                total += expiradas != null ? expiradas : 0;
+                if (expiradas == null || expiradas < tamanoLote) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            // Los lotes ya confirmados se conservan; el resto se reintenta en la próxima ejecución
+            log.error("Falló la expiración de citas vencidas tras expirar {}", total, e);
+        }
+        if (total > 0) {
+            log.info("Expiradas {} citas pendientes con horario anterior a {}", total, limite);
+        }
+        return total;
+    }
+
+    private int expirarLote(LocalDateTime limite, LocalDateTime ahora) {
+        var vencidas = citaRepositorio.bloquearPendientesVencidas(limite, tamanoLote);
+        if (vencidas.isEmpty()) {
+            return 0;
+        }
+        vencidas.forEach(cita -> cita.expirar(ahora));
+
+        var guardadas = citaRepositorio.guardarTodas(vencidas);
+
+        guardadas.forEach(cita ->
+                eventos.publishEvent(CambioEstadoCitaEvento.transicion(cita, EstadoCita.PENDIENTE)));
+        registrarCambioEstado.registrarExpiraciones(guardadas);
+        return guardadas.size();
+    }
+}
@@ -0,0 +1,41 @@
+package com.tayronadev.dominio.citas.casosuso;
+
+import com.tayronadev.dominio.citas.modelo.Cita;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Caso de uso para exportar citas de un rango de fechas.
+ * Las citas se entregan una a una al consumidor, sin acumularlas en memoria.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportarCitasUseCase {
+    
+    private final CitaRepositorio citaRepositorio;
+    
+    /**
+     * Exporta las citas programadas en el rango semiabierto [desde, hasta)
+     *
+     * @return cantidad de citas exportadas
+     */
+    @Transactional(readOnly = true)
+    public long exportarPorRangoFechas(LocalDateTime desde, LocalDateTime hasta, Consumer<Cita> consumidor) {
+        if (!desde.isBefore(hasta)) {
+            throw new IllegalArgumentException("La fecha inicial debe ser anterior a la fecha final");
+        }
+        log.info("Iniciando exportación de citas entre {} y {}", desde, hasta);
+        
+        var total = citaRepositorio.recorrerPorRangoFechas(desde, hasta, consumidor);
+        
+        log.info("Exportación finalizada: {} citas entre {} y {}", total, desde, hasta);
+        return total;
+    }
+}
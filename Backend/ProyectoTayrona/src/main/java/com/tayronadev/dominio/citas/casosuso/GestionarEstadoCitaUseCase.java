@@ -1,19 +1,33 @@
 package com.tayronadev.dominio.citas.casosuso;
 
 import com.tayronadev.dominio.auditoria.casosuso.RegistrarCambioEstadoUseCase;
+import com.tayronadev.dominio.citas.eventos.CambioEstadoCitaEvento;
 import com.tayronadev.dominio.citas.excepciones.CitaNoEncontradaException;
+import com.tayronadev.dominio.citas.excepciones.EstadoCitaInvalidoException;
+import com.tayronadev.dominio.citas.modelo.AccionEstadoCita;
 import com.tayronadev.dominio.citas.modelo.Cita;
 import com.tayronadev.dominio.citas.modelo.EstadoCita;
 import com.tayronadev.dominio.citas.modelo.EstadoPostCita;
+import com.tayronadev.dominio.citas.modelo.ResultadoCambioEstado;
 import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
 import com.tayronadev.dominio.citas.servicios.GestorEstadosCita;
 import com.tayronadev.dominio.notificacion.casosuso.NotificarCambioEstadoCitaUseCase;
-import com.tayronadev.dominio.usuario.modelo.User;
 import com.tayronadev.dominio.usuario.servicios.UsuarioActualService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Caso de uso para gestionar los estados de las citas.
@@ -31,67 +45,124 @@ public class GestionarEstadoCitaUseCase {
     private final NotificarCambioEstadoCitaUseCase notificarCambioEstado;
     private final RegistrarCambioEstadoUseCase registrarCambioEstado;
     private final UsuarioActualService usuarioActualService;
+    private final ApplicationEventPublisher eventos;
     
     /**
-     * Confirma una cita pendiente y notifica al proveedor
+     * Confirma una cita pendiente y notifica al proveedor.
+     * Con versionEsperada, falla si la cita cambió desde que el cliente la leyó.
      */
-    public Cita confirmarCita(String citaId, String observaciones) {
-        var cita = obtenerCitaPorId(citaId);
+    public Cita confirmarCita(String citaId, String observaciones, Long versionEsperada) {
+        var cita = obtenerCitaPorId(citaId, versionEsperada);
         EstadoCita estadoAnterior = cita.getEstado();
         
         cita.confirmar(observaciones);
         var citaGuardada = citaRepositorio.guardar(cita);
+        eventos.publishEvent(CambioEstadoCitaEvento.transicion(citaGuardada, estadoAnterior));
         
         // Registrar en auditoría
         registrarCambioEnAuditoria(citaGuardada, estadoAnterior, observaciones);
         
-        // Notificar al proveedor (asíncrono)
-        notificarCambioEstado.ejecutar(citaGuardada, observaciones);
+        // Notificar al proveedor cuando el cambio se confirme
+        notificarDespuesDelCommit(List.of(citaGuardada), observaciones);
         
-        log.info("Cita {} confirmada y notificación enviada", citaId);
+        log.info("Cita {} confirmada; notificación pendiente del commit", citaId);
         return citaGuardada;
     }
     
     /**
      * Rechaza una cita pendiente y notifica al proveedor con el motivo
      */
-    public Cita rechazarCita(String citaId, String motivoRechazo) {
-        var cita = obtenerCitaPorId(citaId);
+    public Cita rechazarCita(String citaId, String motivoRechazo, Long versionEsperada) {
+        var cita = obtenerCitaPorId(citaId, versionEsperada);
         EstadoCita estadoAnterior = cita.getEstado();
         
         cita.rechazar(motivoRechazo);
         var citaGuardada = citaRepositorio.guardar(cita);
+        eventos.publishEvent(CambioEstadoCitaEvento.transicion(citaGuardada, estadoAnterior));
         
         // Registrar en auditoría
         registrarCambioEnAuditoria(citaGuardada, estadoAnterior, motivoRechazo);
         
-        // Notificar al proveedor (asíncrono)
-        notificarCambioEstado.ejecutar(citaGuardada, motivoRechazo);
+        // Notificar al proveedor cuando el cambio se confirme
+        notificarDespuesDelCommit(List.of(citaGuardada), motivoRechazo);
         
-        log.info("Cita {} rechazada y notificación enviada", citaId);
+        log.info("Cita {} rechazada; notificación pendiente del commit", citaId);
         return citaGuardada;
     }
     
     /**
      * Cancela una cita (pendiente o confirmada) y notifica al proveedor
      */
-    public Cita cancelarCita(String citaId, String motivoCancelacion) {
-        var cita = obtenerCitaPorId(citaId);
+    public Cita cancelarCita(String citaId, String motivoCancelacion, Long versionEsperada) {
+        var cita = obtenerCitaPorId(citaId, versionEsperada);
         EstadoCita estadoAnterior = cita.getEstado();
         
         cita.cancelar(motivoCancelacion);
         var citaGuardada = citaRepositorio.guardar(cita);
+        eventos.publishEvent(CambioEstadoCitaEvento.transicion(citaGuardada, estadoAnterior));
         
         // Registrar en auditoría
         registrarCambioEnAuditoria(citaGuardada, estadoAnterior, motivoCancelacion);
         
-        // Notificar al proveedor (asíncrono)
-        notificarCambioEstado.ejecutar(citaGuardada, motivoCancelacion);
+        // Notificar al proveedor cuando el cambio se confirme
+        notificarDespuesDelCommit(List.of(citaGuardada), motivoCancelacion);
         
-        log.info("Cita {} cancelada y notificación enviada", citaId);
+        log.info("Cita {} cancelada; notificación pendiente del commit", citaId);
         return citaGuardada;
     }
     
+    /**
+     * Aplica la misma transición a varias citas en una sola transacción.
+     * Las citas se cargan y bloquean en una consulta, se guardan en un lote y su auditoría
+     * se escribe junta; las notificaciones se encolan después del commit. Una cita que
+     * no existe o no admite la transición no detiene al resto: su resultado indica el motivo.
+     * Como las filas quedan bloqueadas desde la lectura, un cambio concurrente sobre una de
+     * ellas espera al lote en lugar de invalidarlo con un conflicto de versión al guardar.
+     *
+     * @return un resultado por cada ID distinto, en el orden recibido
+     */
+    public List<ResultadoCambioEstado> cambiarEstadoEnLote(List<String> citaIds,
+                                                           AccionEstadoCita accion,
+                                                           String observaciones) {
+        if (accion.requiereMotivo() && (observaciones == null || observaciones.isBlank())) {
+            throw new IllegalArgumentException("Para " + accion.getDescripcion().toLowerCase() + " citas el motivo es obligatorio");
+        }
+        var ids = new LinkedHashSet<>(citaIds);
+        var citasPorId = citaRepositorio.bloquearPorIds(ids).stream()
+                .collect(Collectors.toMap(Cita::getId, Function.identity()));
+        
+        Map<String, ResultadoCambioEstado> resultados = new HashMap<>();
+        Map<String, EstadoCita> estadosAnteriores = new HashMap<>();
+        List<Cita> modificadas = new ArrayList<>();
+        for (String id : ids) {
+            var cita = citasPorId.get(id);
+            if (cita == null) {
+                resultados.put(id, ResultadoCambioEstado.fallo(id, null, "Cita no encontrada"));
+                continue;
+            }
+            EstadoCita estadoAnterior = cita.getEstado();
+            try {
+                accion.aplicarA(cita, observaciones);
+                estadosAnteriores.put(id, estadoAnterior);
+                modificadas.add(cita);
+            } catch (EstadoCitaInvalidoException e) {
+                resultados.put(id, ResultadoCambioEstado.fallo(id, estadoAnterior, e.getMessage()));
+            }
+        }
+        
+        var guardadas = citaRepositorio.guardarTodas(modificadas);
+        for (Cita cita : guardadas) {
+            var estadoAnterior = estadosAnteriores.get(cita.getId());
+            eventos.publishEvent(CambioEstadoCitaEvento.transicion(cita, estadoAnterior));
+            registrarCambioEnAuditoria(cita, estadoAnterior, observaciones);
+            resultados.put(cita.getId(), ResultadoCambioEstado.exito(cita));
+        }
+        notificarDespuesDelCommit(guardadas, observaciones);
+        
+        log.info("Acción {} aplicada en lote: {} de {} citas", accion, guardadas.size(), ids.size());
+        return ids.stream().map(resultados::get).toList();
+    }
+    
     /**
      * Agrega observaciones a una cita
      */
@@ -104,8 +175,8 @@ public class GestionarEstadoCitaUseCase {
     /**
      * Marca una cita como entregada
      */
-    public Cita marcarComoEntregada(String citaId) {
-        var cita = obtenerCitaPorId(citaId);
+    public Cita marcarComoEntregada(String citaId, Long versionEsperada) {
+        var cita = obtenerCitaPorId(citaId, versionEsperada);
         cita.marcarComoEntregada();
         var citaGuardada = citaRepositorio.guardar(cita);
         
@@ -118,8 +189,8 @@ public class GestionarEstadoCitaUseCase {
     /**
      * Marca una cita como devuelta
      */
-    public Cita marcarComoDevuelta(String citaId) {
-        var cita = obtenerCitaPorId(citaId);
+    public Cita marcarComoDevuelta(String citaId, Long versionEsperada) {
+        var cita = obtenerCitaPorId(citaId, versionEsperada);
         cita.marcarComoDevuelta();
         var citaGuardada = citaRepositorio.guardar(cita);
         
@@ -132,8 +203,8 @@ public class GestionarEstadoCitaUseCase {
     /**
      * Marca una cita como tardía
      */
-    public Cita marcarComoTardia(String citaId) {
-        var cita = obtenerCitaPorId(citaId);
+    public Cita marcarComoTardia(String citaId, Long versionEsperada) {
+        var cita = obtenerCitaPorId(citaId, versionEsperada);
         cita.marcarComoTardia();
         var citaGuardada = citaRepositorio.guardar(cita);
         
@@ -166,33 +237,56 @@ public class GestionarEstadoCitaUseCase {
                 .orElseThrow(() -> new CitaNoEncontradaException(citaId));
     }
     
+    private Cita obtenerCitaPorId(String citaId, Long versionEsperada) {
+        var cita = obtenerCitaPorId(citaId);
+        cita.verificarVersion(versionEsperada);
+        return cita;
+    }
+    
+    /**
+     * Encola las notificaciones de las citas cuando la transacción confirma, para no avisar
+     * al proveedor de un cambio que luego se revierte (por ejemplo, al escribir la auditoría
+     * o al hacer flush antes del commit)
+     */
+    private void notificarDespuesDelCommit(List<Cita> citas, String observaciones) {
+        if (citas.isEmpty()) {
+            return;
+        }
+        Runnable notificar = () -> citas.forEach(cita -> notificarCambioEstado.ejecutar(cita, observaciones));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notificar.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notificar.run();
+            }
+        });
+    }
+    
     /**
      * Registra un cambio de estado en el sistema de auditoría.
-     * Solo se registra si hay un usuario autenticado.
+     * Solo se registra si hay un usuario autenticado; sus datos salen del token, sin consultar usuarios.
+     * En modo GARANTIZADO el registro se escribe antes del commit: si falla, el cambio de estado
+     * se revierte y la petición falla con él.
      */
     private void registrarCambioEnAuditoria(Cita cita, EstadoCita estadoAnterior, String observaciones) {
-        usuarioActualService.obtenerUsuarioActual().ifPresent(usuario -> {
-            try {
-                registrarCambioEstado.registrarCambioEstado(cita, usuario, estadoAnterior, observaciones);
-                log.debug("Cambio de estado registrado en auditoría para cita {}", cita.getId());
-            } catch (Exception e) {
-                log.error("Error al registrar auditoría para cita {}: {}", cita.getId(), e.getMessage());
-            }
+        usuarioActualService.obtenerSesionActual().ifPresent(usuario -> {
+            registrarCambioEstado.registrarCambioEstado(cita, usuario, estadoAnterior, observaciones);
+            log.debug("Cambio de estado anotado en auditoría para cita {}", cita.getId());
         });
     }
     
     /**
      * Registra una asignación de estado post-cita en el sistema de auditoría.
-     * Solo se registra si hay un usuario autenticado.
+     * Solo se registra si hay un usuario autenticado; sus datos salen del token, sin consultar usuarios.
+     * Como en registrarCambioEnAuditoria, un fallo de la auditoría revierte la asignación.
      */
     private void registrarCambioPostCitaEnAuditoria(Cita cita, EstadoPostCita estadoPostCita) {
-        usuarioActualService.obtenerUsuarioActual().ifPresent(usuario -> {
-            try {
-                registrarCambioEstado.registrarAsignacionEstadoPostCita(cita, usuario, estadoPostCita);
-                log.debug("Asignación de estado post-cita registrada en auditoría para cita {}", cita.getId());
-            } catch (Exception e) {
-                log.error("Error al registrar auditoría post-cita para cita {}: {}", cita.getId(), e.getMessage());
-            }
+        usuarioActualService.obtenerSesionActual().ifPresent(usuario -> {
+            registrarCambioEstado.registrarAsignacionEstadoPostCita(cita, usuario, estadoPostCita);
+            log.debug("Asignación de estado post-cita anotada en auditoría para cita {}", cita.getId());
         });
     }
 }
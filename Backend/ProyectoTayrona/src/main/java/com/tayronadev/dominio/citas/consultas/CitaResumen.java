@@ -0,0 +1,25 @@
+package com.tayronadev.dominio.citas.consultas;
+
+import com.tayronadev.dominio.citas.modelo.EstadoCita;
+import com.tayronadev.dominio.citas.modelo.EstadoPostCita;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Modelo de lectura con los datos mínimos de una cita para listados.
+ * Se obtiene directamente por proyección, sin reconstruir el agregado Cita.
+ */
+@Value
+public class CitaResumen {
+    
+    String id;
+    TipoCita tipoCita;
+    EstadoCita estado;
+    EstadoPostCita estadoPostCita;
+    String nombreProveedor;
+    String nit;
+    LocalDateTime fechaHora;
+    LocalDateTime fechaCreacion;
+}
@@ -0,0 +1,20 @@
+package com.tayronadev.dominio.citas.consultas;
+
+import com.tayronadev.dominio.citas.modelo.EstadoCita;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Número de citas de un tipo y estado programadas en un día.
+ * Se obtiene por proyección agrupada, sin cargar las citas.
+ */
+@Value
+public class ConteoCitas {
+    
+    EstadoCita estado;
+    TipoCita tipoCita;
+    LocalDate fecha;
+    long cantidad;
+}
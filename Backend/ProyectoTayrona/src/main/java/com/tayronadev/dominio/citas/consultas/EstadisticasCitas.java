@@ -0,0 +1,67 @@
+package com.tayronadev.dominio.citas.consultas;
+
+import com.tayronadev.dominio.citas.modelo.EstadoCita;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modelo de lectura con el número de citas por estado y tipo: los totales de todas
+ * las fechas y el detalle por día del rango [desde, hasta].
+ */
+@Value
+public class EstadisticasCitas {
+    
+    /** Orden del detalle por día: fecha, estado y tipo de cita */
+    private static final Comparator<ConteoCitas> ORDEN = Comparator
+            .comparing(ConteoCitas::getFecha)
+            .thenComparing(ConteoCitas::getEstado)
+            .thenComparing(ConteoCitas::getTipoCita);
+    
+    LocalDate desde;
+    LocalDate hasta;
+    Map<EstadoCita, Map<TipoCita, Long>> totales;
+    List<ConteoCitas> porDia;
+    
+    /**
+     * Calcula las estadísticas a partir de los conteos por día de todas las fechas
+     */
+    public static EstadisticasCitas de(LocalDate desde, LocalDate hasta, Collection<ConteoCitas> conteos) {
+        var totales = totalesVacios();
+        conteos.forEach(conteo -> totales.get(conteo.getEstado()).merge(conteo.getTipoCita(), conteo.getCantidad(), Long::sum));
+        var porDia = conteos.stream()
+                .filter(conteo -> !conteo.getFecha().isBefore(desde) && !conteo.getFecha().isAfter(hasta))
+                .sorted(ORDEN)
+                .toList();
+        return new EstadisticasCitas(desde, hasta, Collections.unmodifiableMap(totales), porDia);
+    }
+    
+    /**
+     * Crea la matriz de totales por estado y tipo de cita con todas las combinaciones en cero
+     */
+    public static Map<EstadoCita, Map<TipoCita, Long>> totalesVacios() {
+        Map<EstadoCita, Map<TipoCita, Long>> totales = new EnumMap<>(EstadoCita.class);
+        for (EstadoCita estado : EstadoCita.values()) {
+            Map<TipoCita, Long> porTipo = new EnumMap<>(TipoCita.class);
+            for (TipoCita tipo : TipoCita.values()) {
+                porTipo.put(tipo, 0L);
+            }
+            totales.put(estado, porTipo);
+        }
+        return totales;
+    }
+    
+    /**
+     * Obtiene el total de citas en un estado, de todos los tipos
+     */
+    public long total(EstadoCita estado) {
+        return totales.get(estado).values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,41 @@
+package com.tayronadev.dominio.citas.consultas;
+
+import com.tayronadev.dominio.citas.modelo.EstadoCita;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Criterios para listar citas. Los campos nulos o vacíos no filtran.
+ * El rango de fechas es semiabierto: [desde, hasta).
+ */
+@Value
+@Builder
+public class FiltroCitas {
+    
+    TipoCita tipoCita;
+    @Singular("estado") Set<EstadoCita> estados;
+    String nit;
+    LocalDateTime desde;
+    LocalDateTime hasta;
+    
+    /**
+     * Filtro para las citas activas (PENDIENTE o CONFIRMADA)
+     */
+    public static FiltroCitasBuilder activas() {
+        return builder().estados(EnumSet.of(EstadoCita.PENDIENTE, EstadoCita.CONFIRMADA));
+    }
+    
+    /**
+     * Filtro para las citas programadas en un día
+     */
+    public static FiltroCitasBuilder delDia(LocalDate fecha) {
+        return builder().desde(fecha.atStartOfDay()).hasta(fecha.plusDays(1).atStartOfDay());
+    }
+}
@@ -0,0 +1,17 @@
+package com.tayronadev.dominio.citas.consultas;
+
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Horario ocupado por una cita activa (PENDIENTE o CONFIRMADA).
+ * Se obtiene por proyección, sin reconstruir el agregado Cita.
+ */
+@Value
+public class HorarioOcupado {
+    
+    TipoCita tipoCita;
+    LocalDateTime fechaHora;
+}
@@ -0,0 +1,57 @@
+package com.tayronadev.dominio.citas.consultas;
+
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Modelo de lectura con el número de citas activas por hora, tipo de cita y fecha
+ * en un rango de días consecutivos [desde, desde + días).
+ */
+public class OcupacionHorarios {
+    
+    @Getter
+    private final List<LocalDate> fechas;
+    private final Map<TipoCita, Map<LocalDate, Map<Integer, Integer>>> citasPorHora = new EnumMap<>(TipoCita.class);
+    
+    private OcupacionHorarios(List<LocalDate> fechas) {
+        this.fechas = fechas;
+    }
+    
+    /**
+     * Cuenta los horarios ocupados del rango (uno por cita activa); los que caen fuera se ignoran
+     */
+    public static OcupacionHorarios de(LocalDate desde, int dias, Collection<HorarioOcupado> ocupados) {
+        var ocupacion = new OcupacionHorarios(desde.datesUntil(desde.plusDays(dias)).toList());
+        var hasta = desde.plusDays(dias);
+        for (var ocupado : ocupados) {
+            var fecha = ocupado.getFechaHora().toLocalDate();
+            if (fecha.isBefore(desde) || !fecha.isBefore(hasta)) {
+                continue;
+            }
+            ocupacion.citasPorHora
+                    .computeIfAbsent(ocupado.getTipoCita(), tipo -> new HashMap<>())
+                    .computeIfAbsent(fecha, f -> new TreeMap<>())
+                    .merge(ocupado.getFechaHora().getHour(), 1, Integer::sum);
+        }
+        return ocupacion;
+    }
+    
+    /**
+     * Obtiene el número de citas activas por hora (solo horas con alguna cita)
+     * de un tipo de cita en una fecha del rango
+     */
+    public Map<Integer, Integer> citasPorHora(TipoCita tipoCita, LocalDate fecha) {
+        return Collections.unmodifiableMap(citasPorHora
+                .getOrDefault(tipoCita, Map.of())
+                .getOrDefault(fecha, Collections.emptyMap()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.tayronadev.dominio.citas.eventos;
+
+import com.tayronadev.dominio.citas.modelo.Cita;
+import com.tayronadev.dominio.citas.modelo.EstadoCita;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de dominio publicado cuando una cita se crea o cambia de estado.
+ * Para una cita recién creada el estado anterior es nulo.
+ */
+@Value
+public class CambioEstadoCitaEvento {
+
+    @NonNull String citaId;
+    @NonNull TipoCita tipoCita;
+    @NonNull LocalDateTime fechaHora;
+    EstadoCita estadoAnterior;
+    @NonNull EstadoCita estadoNuevo;
+
+    /**
+     * Crea el evento correspondiente a la creación de una cita
+     */
+    public static CambioEstadoCitaEvento creacion(Cita cita) {
+        return new CambioEstadoCitaEvento(cita.getId(), cita.getTipoCita(),
+                cita.getHorario().getFechaHora(), null, cita.getEstado());
+    }
+
+    /**
+     * Crea el evento correspondiente a una transición de estado
+     */
+    public static CambioEstadoCitaEvento transicion(Cita cita, EstadoCita estadoAnterior) {
+        return new CambioEstadoCitaEvento(cita.getId(), cita.getTipoCita(),
+                cita.getHorario().getFechaHora(), estadoAnterior, cita.getEstado());
+    }
+
+    /**
+     * Indica si la cita ocupaba su horario antes del cambio
+     */
+    public boolean ocupabaHorario() {
+        return estadoAnterior != null && !estadoAnterior.esFinal();
+    }
+
+    /**
+     * Indica si la cita ocupa su horario después del cambio
+     */
+    public boolean ocupaHorario() {
+        return !estadoNuevo.esFinal();
+    }
+}
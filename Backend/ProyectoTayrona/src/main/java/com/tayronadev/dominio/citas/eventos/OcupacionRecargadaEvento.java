@@ -0,0 +1,19 @@
+package com.tayronadev.dominio.citas.eventos;
+
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado cuando la recarga del índice de ocupación encuentra un horario cuyo
+ * número de citas activas difiere del que tenía en memoria, normalmente porque otra
+ * instancia creó o cambió citas en él.
+ */
+@Value
+public class OcupacionRecargadaEvento {
+
+    @NonNull TipoCita tipoCita;
+    @NonNull LocalDateTime fechaHora;
+}
@@ -0,0 +1,24 @@
+package com.tayronadev.dominio.citas.excepciones;
+
+import lombok.Getter;
+
+/**
+ * Excepción lanzada cuando una cita cambió desde que el cliente la leyó,
+ * ya sea por la versión enviada en If-Match o por una escritura concurrente
+ */
+@Getter
+public class ConflictoVersionCitaException extends CitaException {
+    
+    private final String citaId;
+    
+    public ConflictoVersionCitaException(String citaId, Long versionEsperada, Long versionActual) {
+        super(String.format("La cita %s fue modificada por otro usuario (versión %s, actual %s); vuelva a consultarla",
+              citaId, versionEsperada, versionActual));
+        this.citaId = citaId;
+    }
+    
+    public ConflictoVersionCitaException(String citaId, Throwable causa) {
+        super(String.format("La cita %s fue modificada por otro usuario; vuelva a consultarla", citaId), causa);
+        this.citaId = citaId;
+    }
+}
@@ -0,0 +1,39 @@
+package com.tayronadev.dominio.citas.modelo;
+
+/**
+ * Transición de estado que un administrador puede aplicar a varias citas a la vez
+ */
+public enum AccionEstadoCita {
+
+    CONFIRMAR("Confirmar"),
+    RECHAZAR("Rechazar"),
+    CANCELAR("Cancelar");
+
+    private final String descripcion;
+
+    AccionEstadoCita(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * Indica si la transición exige un motivo (rechazo y cancelación)
+     */
+    public boolean requiereMotivo() {
+        return this != CONFIRMAR;
+    }
+
+    /**
+     * Aplica la transición a la cita; las reglas de estado las valida la propia cita
+     */
+    public void aplicarA(Cita cita, String observaciones) {
+        switch (this) {
+            case CONFIRMAR -> cita.confirmar(observaciones);
+            case RECHAZAR -> cita.rechazar(observaciones);
+            case CANCELAR -> cita.cancelar(observaciones);
+        }
+    }
+}
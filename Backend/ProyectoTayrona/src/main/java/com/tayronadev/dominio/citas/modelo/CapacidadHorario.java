@@ -0,0 +1,34 @@
+package com.tayronadev.dominio.citas.modelo;
+
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.DayOfWeek;
+
+/**
+ * Value Object con el número de citas simultáneas (muelles) que admite
+ * una hora para un tipo de cita en un día de la semana
+ */
+@Value
+public class CapacidadHorario {
+    
+    @NonNull
+    TipoCita tipoCita;
+    @NonNull
+    DayOfWeek diaSemana;
+    int hora;
+    int capacidad;
+    
+    public CapacidadHorario(@NonNull TipoCita tipoCita, @NonNull DayOfWeek diaSemana, int hora, int capacidad) {
+        if (hora < 0 || hora > 23) {
+            throw new IllegalArgumentException("La hora debe estar entre 0 y 23");
+        }
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser de al menos una cita");
+        }
+        this.tipoCita = tipoCita;
+        this.diaSemana = diaSemana;
+        this.hora = hora;
+        this.capacidad = capacidad;
+    }
+}
@@ -1,5 +1,6 @@
 package com.tayronadev.dominio.citas.modelo;
 
+import com.tayronadev.dominio.citas.excepciones.ConflictoVersionCitaException;
 import com.tayronadev.dominio.citas.excepciones.EstadoCitaInvalidoException;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -20,6 +21,9 @@ import java.util.UUID;
 @ToString(exclude = {"observaciones", "estadoPostCita"})
 public class Cita {
     
+    /** Observaciones con que queda una cita pendiente que venció sin confirmarse */
+    public static final String MOTIVO_EXPIRACION = "Cita vencida sin confirmar";
+    
     @EqualsAndHashCode.Include
     private final String id;
     @NonNull
@@ -30,7 +34,11 @@ public class Cita {
     private final OpcionTransporte transporte;
     @NonNull
     private final Horario horario;
+    /** Muelle asignado dentro de la capacidad del horario (1..N) */
+    private final int muelle;
     private final LocalDateTime fechaCreacion;
+    /** Versión persistida; null mientras la cita no se ha registrado */
+    private final Long version;
     
     private EstadoCita estado;
     private String observaciones;
@@ -38,20 +46,36 @@ public class Cita {
     private LocalDateTime fechaUltimaModificacion;
     
     /**
-     * Constructor para crear una nueva cita
+     * Constructor para crear una nueva cita en el primer muelle
      */
     public Cita(@NonNull TipoCita tipoCita, 
                 @NonNull InformacionProveedor proveedor, 
                 @NonNull OpcionTransporte transporte, 
                 @NonNull Horario horario) {
+        this(tipoCita, proveedor, transporte, horario, 1);
+    }
+    
+    /**
+     * Constructor para crear una nueva cita en un muelle específico del horario
+     */
+    public Cita(@NonNull TipoCita tipoCita, 
+                @NonNull InformacionProveedor proveedor, 
+                @NonNull OpcionTransporte transporte, 
+                @NonNull Horario horario,
+                int muelle) {
+        if (muelle < 1) {
+            throw new IllegalArgumentException("El muelle debe ser un número positivo");
+        }
         this.id = UUID.randomUUID().toString();
         this.tipoCita = tipoCita;
         this.proveedor = proveedor;
         this.transporte = transporte;
         this.horario = horario;
+        this.muelle = muelle;
         this.estado = EstadoCita.PENDIENTE;
         this.fechaCreacion = LocalDateTime.now();
         this.fechaUltimaModificacion = LocalDateTime.now();
+        this.version = null;
         
         // Validaciones de negocio
         validarHorario();
@@ -70,17 +94,21 @@ public class Cita {
                 String observaciones,
                 EstadoPostCita estadoPostCita,
                 @NonNull LocalDateTime fechaCreacion,
-                @NonNull LocalDateTime fechaUltimaModificacion) {
+                @NonNull LocalDateTime fechaUltimaModificacion,
+                Long version,
+                int muelle) {
         this.id = id;
         this.tipoCita = tipoCita;
         this.proveedor = proveedor;
         this.transporte = transporte;
         this.horario = horario;
+        this.muelle = muelle;
         this.estado = estado;
         this.observaciones = observaciones;
         this.estadoPostCita = estadoPostCita;
         this.fechaCreacion = fechaCreacion;
         this.fechaUltimaModificacion = fechaUltimaModificacion;
+        this.version = version;
     }
     
     /**
@@ -123,6 +151,23 @@ public class Cita {
         this.fechaUltimaModificacion = LocalDateTime.now();
     }
     
+    /**
+     * Da por vencida una cita que sigue pendiente cuando su horario ya pasó.
+     * Queda CANCELADA, liberando el horario, con el motivo de expiración.
+     */
+    public void expirar(LocalDateTime ahora) {
+        if (estado != EstadoCita.PENDIENTE) {
+            throw new EstadoCitaInvalidoException(estado, "expirar");
+        }
+        if (!horario.getFechaHora().isBefore(ahora)) {
+            throw new IllegalArgumentException("Solo puede expirar una cita cuyo horario ya pasó");
+        }
+        
+        this.estado = EstadoCita.CANCELADA;
+        this.observaciones = MOTIVO_EXPIRACION;
+        this.fechaUltimaModificacion = ahora;
+    }
+    
     /**
      * Agrega observaciones a la cita
      */
@@ -174,6 +219,18 @@ public class Cita {
         }
     }
     
+    /**
+     * Verifica que la cita siga en la versión que el cliente leyó.
+     * Sin versión esperada no se exige nada.
+     *
+     * @throws ConflictoVersionCitaException si la cita cambió desde entonces
+     */
+    public void verificarVersion(Long versionEsperada) {
+        if (versionEsperada != null && !versionEsperada.equals(version)) {
+            throw new ConflictoVersionCitaException(id, versionEsperada, version);
+        }
+    }
+    
     /**
      * Verifica si la cita puede ser modificada
      */
@@ -182,7 +239,8 @@ public class Cita {
     }
     
     /**
-     * Verifica si hay conflicto de horario con otra cita del mismo tipo
+     * Verifica si otra cita del mismo tipo comparte el horario
+     * (y por tanto consume la misma capacidad)
      */
     public boolean tieneConflictoDeHorarioCon(Cita otraCita) {
         if (otraCita == null || !this.tipoCita.equals(otraCita.tipoCita)) {
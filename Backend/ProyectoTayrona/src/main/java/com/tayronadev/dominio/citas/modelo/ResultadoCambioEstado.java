@@ -0,0 +1,28 @@
+package com.tayronadev.dominio.citas.modelo;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Resultado de aplicar una transición de estado a una cita dentro de un lote.
+ * Si falla, la cita queda sin cambios: el estado es el que conserva (nulo si no existe)
+ * y el mensaje explica el motivo.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ResultadoCambioEstado {
+
+    String citaId;
+    boolean exitoso;
+    EstadoCita estado;
+    String mensaje;
+
+    public static ResultadoCambioEstado exito(Cita cita) {
+        return new ResultadoCambioEstado(cita.getId(), true, cita.getEstado(), null);
+    }
+
+    public static ResultadoCambioEstado fallo(String citaId, EstadoCita estadoActual, String mensaje) {
+        return new ResultadoCambioEstado(citaId, false, estadoActual, mensaje);
+    }
+}
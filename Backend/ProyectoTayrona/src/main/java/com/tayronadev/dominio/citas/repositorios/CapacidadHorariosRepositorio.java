@@ -0,0 +1,23 @@
+package com.tayronadev.dominio.citas.repositorios;
+
+import com.tayronadev.dominio.citas.modelo.CapacidadHorario;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Puerto (interface) de la configuración de capacidad de horarios y días no hábiles.
+ */
+public interface CapacidadHorariosRepositorio {
+    
+    /**
+     * Obtiene la capacidad configurada de todas las horas con atención
+     */
+    List<CapacidadHorario> obtenerCapacidades();
+    
+    /**
+     * Obtiene las fechas marcadas como no hábiles
+     */
+    Set<LocalDate> obtenerDiasNoHabiles();
+}
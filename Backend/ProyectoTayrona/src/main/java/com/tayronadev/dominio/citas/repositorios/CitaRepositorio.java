@@ -1,69 +1,112 @@
 package com.tayronadev.dominio.citas.repositorios;
 
+import com.tayronadev.dominio.citas.consultas.CitaResumen;
+import com.tayronadev.dominio.citas.consultas.ConteoCitas;
+import com.tayronadev.dominio.citas.consultas.FiltroCitas;
+import com.tayronadev.dominio.citas.consultas.HorarioOcupado;
 import com.tayronadev.dominio.citas.modelo.Cita;
 import com.tayronadev.dominio.citas.modelo.EstadoCita;
 import com.tayronadev.dominio.citas.modelo.TipoCita;
+import com.tayronadev.dominio.comun.Pagina;
+import com.tayronadev.dominio.comun.SolicitudPagina;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Puerto (interface) del repositorio de citas.
  * Define las operaciones de persistencia necesarias para el dominio.
+ * Los listados se leen con buscarResumenes, paginados por cursor; los recorridos de un
+ * rango completo, con recorrerPorRangoFechas. No hay búsquedas que devuelvan listas sin límite.
  */
 public interface CitaRepositorio {
     
     /**
-     * Guarda una nueva cita o actualiza una existente
+     * Registra una cita nueva (solo inserción).
+     * Lanza HorarioNoDisponibleException si otra cita activa del mismo tipo
+     * ya ocupa el mismo muelle del horario, aunque se haya guardado de forma concurrente.
+     */
+    Cita registrar(Cita cita);
+    
+    /**
+     * Guarda una nueva cita o actualiza una existente.
+     * Lanza HorarioNoDisponibleException si otra cita activa del mismo tipo
+     * ya ocupa el horario, aunque se haya guardado de forma concurrente.
      */
     Cita guardar(Cita cita);
     
+    /**
+     * Guarda en una sola escritura por lotes citas ya existentes que cambiaron de estado.
+     * Pensado para citas bloqueadas al leerlas (bloquearPorIds, bloquearPendientesVencidas).
+     * Lanza ConflictoVersionCitaException, con el ID de la cita afectada, si alguna cambió
+     * desde que se cargó.
+     */
+    List<Cita> guardarTodas(List<Cita> citas);
+    
+    /**
+     * Bloquea hasta {@code cantidad} citas pendientes con horario anterior al límite, las más
+     * antiguas primero. Omite las que otra transacción ya tiene bloqueadas, de modo que
+     * varias instancias pueden procesar vencidas a la vez sin repartirse las mismas.
+     * Debe llamarse dentro de una transacción: el bloqueo dura hasta su fin.
+     */
+    List<Cita> bloquearPendientesVencidas(LocalDateTime limite, int cantidad);
+    
     /**
      * Busca una cita por su ID
      */
     Optional<Cita> buscarPorId(String id);
     
     /**
-     * Busca todas las citas por estado
+     * Busca en una sola consulta las citas con los IDs indicados; los inexistentes se omiten
      */
-    List<Cita> buscarPorEstado(EstadoCita estado);
+    List<Cita> buscarPorIds(Collection<String> ids);
     
     /**
-     * Busca citas por tipo y estado
+     * Busca y bloquea en una sola consulta las citas con los IDs indicados; los inexistentes
+     * se omiten. Las bloquea en orden de ID, así que dos lotes concurrentes no se interbloquean.
+     * Debe llamarse dentro de una transacción: el bloqueo dura hasta su fin.
      */
-    List<Cita> buscarPorTipoYEstado(TipoCita tipo, EstadoCita estado);
+    List<Cita> bloquearPorIds(Collection<String> ids);
     
     /**
-     * Busca citas por NIT del proveedor
+     * Recorre una a una las citas del rango semiabierto [desde, hasta) en orden de fecha,
+     * sin mantenerlas todas en memoria. Debe invocarse dentro de una transacción.
+     *
+     * @return cantidad de citas recorridas
      */
-    List<Cita> buscarPorNitProveedor(String nit);
+    long recorrerPorRangoFechas(LocalDateTime desde, LocalDateTime hasta, Consumer<Cita> consumidor);
     
     /**
-     * Busca citas en un rango de fechas
+     * Obtiene los horarios ocupados por citas activas en el rango [desde, hasta),
+     * en una sola consulta y sin cargar las citas completas
      */
-    List<Cita> buscarPorRangoFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin);
+    List<HorarioOcupado> buscarHorariosOcupados(LocalDateTime desde, LocalDateTime hasta);
     
     /**
-     * Busca citas por fecha específica
+     * Obtiene los horarios ocupados por citas activas programadas desde una fecha, sin límite
+     * superior y sin cargar las citas completas. Para cargar el índice de ocupación en memoria.
      */
-    List<Cita> buscarPorFecha(LocalDate fecha);
+    List<HorarioOcupado> buscarHorariosOcupadosDesde(LocalDateTime desde);
     
     /**
-     * Busca citas por tipo en una fecha específica
+     * Busca una página de resúmenes de citas que cumplen el filtro, ordenados por (fecha y hora, id)
      */
-    List<Cita> buscarPorTipoYFecha(TipoCita tipo, LocalDate fecha);
+    Pagina<CitaResumen> buscarResumenes(FiltroCitas filtro, SolicitudPagina pagina);
     
     /**
-     * Busca citas activas (PENDIENTE o CONFIRMADA) por tipo
+     * Obtiene los muelles que ocupan las citas activas del tipo en la fecha y hora,
+     * sin cargarlas. Su tamaño es la ocupación del horario.
      */
-    List<Cita> buscarActivasPorTipo(TipoCita tipo);
+    Set<Integer> buscarMuellesOcupados(TipoCita tipo, LocalDateTime fechaHora);
     
     /**
-     * Busca citas que tienen conflicto de horario
+     * Cuenta las citas activas (PENDIENTE o CONFIRMADA) de un tipo, sin cargarlas
      */
-    List<Cita> buscarConflictoHorario(TipoCita tipo, LocalDateTime fechaHora);
+    long contarActivasPorTipo(TipoCita tipo);
     
     /**
      * Cuenta el número de citas por estado
@@ -75,6 +118,11 @@ public interface CitaRepositorio {
      */
     long contarPorTipoYEstado(TipoCita tipo, EstadoCita estado);
     
+    /**
+     * Cuenta en una sola consulta agrupada las citas de cada estado, tipo y día de su horario
+     */
+    List<ConteoCitas> contarPorEstadoTipoYDia();
+    
     /**
      * Verifica si existe una cita con el ID especificado
      */
@@ -84,9 +132,4 @@ public interface CitaRepositorio {
      * Elimina una cita (solo para casos excepcionales)
      */
     void eliminar(String id);
-    
-    /**
-     * Obtiene todas las citas (con paginación en implementación)
-     */
-    List<Cita> obtenerTodas();
 }
\ No newline at end of file
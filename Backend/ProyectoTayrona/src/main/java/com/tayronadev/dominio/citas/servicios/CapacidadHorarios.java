@@ -0,0 +1,152 @@
+package com.tayronadev.dominio.citas.servicios;
+
+import com.tayronadev.dominio.citas.modelo.CapacidadHorario;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import com.tayronadev.dominio.citas.repositorios.CapacidadHorariosRepositorio;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Capacidad de los horarios en memoria: cuántas citas simultáneas (muelles) admite
+ * cada hora por tipo de cita y día de la semana, y qué fechas están cerradas.
+ * <p>
+ * La configuración se lee de la base de datos al crear el servicio, antes de que la
+ * aplicación reciba solicitudes, y se recarga periódicamente;
+ * cada recarga reemplaza la tabla completa, de modo que las consultas nunca ven una
+ * configuración a medias. Las consultas son accesos directos a un arreglo indexado
+ * por (tipo, día, hora), sin tocar la base de datos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CapacidadHorarios {
+
+    private static final int HORAS = 24;
+    private static final int DIAS = 7;
+
+    private final CapacidadHorariosRepositorio repositorio;
+
+    // Sin cargar, ninguna hora admite citas
+    private volatile Tabla tabla = Tabla.vacia();
+
+    /**
+     * Carga la configuración al crear el servicio y la recarga cada cierto tiempo
+     * para aplicar los cambios hechos en la tabla sin reiniciar. Si la carga inicial
+     * falla la aplicación no arranca: sin capacidad no se podría reservar ninguna hora.
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${app.horarios.capacidad.recarga-ms:300000}",
+            fixedDelayString = "${app.horarios.capacidad.recarga-ms:300000}")
+    public void recargar() {
+        var capacidades = repositorio.obtenerCapacidades();
+        var diasNoHabiles = repositorio.obtenerDiasNoHabiles();
+        tabla = Tabla.de(capacidades, diasNoHabiles);
+        log.debug("Capacidad de horarios cargada: {} horas configuradas y {} días no hábiles",
+                capacidades.size(), diasNoHabiles.size());
+    }
+
+    /**
+     * Citas simultáneas que admite la hora para el tipo de cita; 0 si no se atiende
+     */
+    public int capacidad(TipoCita tipoCita, LocalDateTime fechaHora) {
+        return capacidad(tipoCita, fechaHora.toLocalDate(), fechaHora.getHour());
+    }
+
+    /**
+     * Citas simultáneas que admite una hora de la fecha para el tipo de cita; 0 si no se atiende
+     */
+    public int capacidad(TipoCita tipoCita, LocalDate fecha, int hora) {
+        var actual = tabla;
+        if (hora < 0 || hora >= HORAS || actual.diasNoHabiles.contains(fecha)) {
+            return 0;
+        }
+        return actual.capacidades[indice(tipoCita, fecha.getDayOfWeek(), hora)];
+    }
+
+    /**
+     * Horas con atención para el tipo de cita en la fecha (vacío si el día está cerrado)
+     */
+    public Set<Integer> horasPermitidas(TipoCita tipoCita, LocalDate fecha) {
+        var actual = tabla;
+        if (actual.diasNoHabiles.contains(fecha)) {
+            return Collections.emptySet();
+        }
+        return actual.horasPorDia[tipoCita.ordinal() * DIAS + fecha.getDayOfWeek().ordinal()];
+    }
+
+    /**
+     * Horas con atención para el tipo de cita en algún día de la semana
+     */
+    public Set<Integer> horasPermitidas(TipoCita tipoCita) {
+        return tabla.horasPorTipo[tipoCita.ordinal()];
+    }
+
+    /**
+     * Indica si la fecha admite algún tipo de cita: no es un día no hábil
+     * y su día de la semana tiene horas configuradas
+     */
+    public boolean esDiaHabil(LocalDate fecha) {
+        var actual = tabla;
+        return !actual.diasNoHabiles.contains(fecha) && actual.diasConAtencion[fecha.getDayOfWeek().ordinal()];
+    }
+
+    private static int indice(TipoCita tipoCita, DayOfWeek dia, int hora) {
+        return (tipoCita.ordinal() * DIAS + dia.ordinal()) * HORAS + hora;
+    }
+
+    /**
+     * Instantánea inmutable de la configuración
+     */
+    private static final class Tabla {
+
+        private final int[] capacidades = new int[TipoCita.values().length * DIAS * HORAS];
+        @SuppressWarnings("unchecked")
+        private final Set<Integer>[] horasPorDia = new Set[TipoCita.values().length * DIAS];
+        @SuppressWarnings("unchecked")
+        private final Set<Integer>[] horasPorTipo = new Set[TipoCita.values().length];
+        private final boolean[] diasConAtencion = new boolean[DIAS];
+        private final Set<LocalDate> diasNoHabiles;
+
+        private Tabla(Collection<CapacidadHorario> configuracion, Set<LocalDate> diasNoHabiles) {
+            this.diasNoHabiles = Set.copyOf(diasNoHabiles);
+            for (var capacidad : configuracion) {
+                capacidades[indice(capacidad.getTipoCita(), capacidad.getDiaSemana(), capacidad.getHora())] =
+                        capacidad.getCapacidad();
+                diasConAtencion[capacidad.getDiaSemana().ordinal()] = true;
+            }
+            for (TipoCita tipo : TipoCita.values()) {
+                Set<Integer> delTipo = new TreeSet<>();
+                for (DayOfWeek dia : DayOfWeek.values()) {
+                    Set<Integer> delDia = new TreeSet<>();
+                    for (int hora = 0; hora < HORAS; hora++) {
+                        if (capacidades[indice(tipo, dia, hora)] > 0) {
+                            delDia.add(hora);
+                        }
+                    }
+                    horasPorDia[tipo.ordinal() * DIAS + dia.ordinal()] = Collections.unmodifiableSet(delDia);
+                    delTipo.addAll(delDia);
+                }
+                horasPorTipo[tipo.ordinal()] = Collections.unmodifiableSet(delTipo);
+            }
+        }
+
+        static Tabla de(Collection<CapacidadHorario> configuracion, Set<LocalDate> diasNoHabiles) {
+            return new Tabla(configuracion, diasNoHabiles);
+        }
+
+        static Tabla vacia() {
+            return new Tabla(Collections.emptyList(), Collections.emptySet());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.tayronadev.dominio.citas.servicios;
+
+import com.tayronadev.dominio.citas.consultas.ConteoCitas;
+import com.tayronadev.dominio.citas.consultas.EstadisticasCitas;
+import com.tayronadev.dominio.citas.eventos.CambioEstadoCitaEvento;
+import com.tayronadev.dominio.citas.modelo.EstadoCita;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores en memoria del número de citas por estado, tipo de cita y día.
+ * Cada día tiene una matriz de {@link LongAdder} (estado × tipo) y hay otra con los
+ * totales de todas las fechas: las actualizaciones concurrentes no compiten por un
+ * mismo contador y las lecturas no bloquean ni consultan la base de datos.
+ * Se cargan al iniciar con una única consulta agrupada y se mantienen al día con los
+ * eventos de creación y cambio de estado, una vez confirmada la transacción. Como los
+ * eventos solo llegan a la instancia que hizo el cambio, se recargan periódicamente
+ * ({@code app.citas.contadores.recarga-ms}) construyendo unos contadores nuevos que
+ * sustituyen a los anteriores; así se incorporan los cambios de otras instancias.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ContadoresCitas {
+
+    private static final EstadoCita[] ESTADOS = EstadoCita.values();
+    private static final TipoCita[] TIPOS = TipoCita.values();
+
+    private final CitaRepositorio citaRepositorio;
+
+    private final RecargaConEventos<Conteos> recarga = new RecargaConEventos<>(Conteos::aplicar);
+
+    /**
+     * Carga los conteos de todas las citas al iniciar la aplicación y los recarga periódicamente.
+     * La consulta agrupada y la de las citas con eventos recibidos mientras tanto ven la misma
+     * foto de la base de datos, para no sumar dos veces un cambio que la consulta ya incluye.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.citas.contadores.recarga-ms:300000}",
+            fixedDelayString = "${app.citas.contadores.recarga-ms:300000}")
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void cargar() {
+        recarga.recargar(() -> {
+            var conteos = new Conteos();
+            citaRepositorio.contarPorEstadoTipoYDia().forEach(conteo ->
+                    conteos.sumar(conteo.getEstado(), conteo.getTipoCita(), conteo.getFecha(), conteo.getCantidad()));
+            return conteos;
+        }, citaRepositorio::buscarPorIds,
+                (anteriores, conteos) -> log.debug("Contadores de citas cargados: {} días con citas", conteos.porDia.size()));
+    }
+
+    /**
+     * Actualiza los contadores cuando una cita se crea o cambia de estado
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarEstado(CambioEstadoCitaEvento evento) {
+        recarga.alRecibir(evento);
+    }
+
+    /**
+     * Indica si los contadores ya se cargaron y se pueden consultar
+     */
+    public boolean estaCargado() {
+        return recarga.actual() != null;
+    }
+
+    /**
+     * Cuenta las citas en un estado, de todos los tipos y fechas
+     */
+    public long contar(EstadoCita estado) {
+        var totales = recarga.actual().totales;
+        long total = 0;
+        for (TipoCita tipo : TIPOS) {
+            total += totales[indice(estado, tipo)].sum();
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene los totales por estado y tipo y el detalle por día del rango [desde, hasta]
+     */
+    public EstadisticasCitas estadisticas(LocalDate desde, LocalDate hasta) {
+        var actual = recarga.actual();
+        var totales = actual.totales;
+        var porDia = actual.porDia;
+        var totalesPorEstado = EstadisticasCitas.totalesVacios();
+        for (EstadoCita estado : ESTADOS) {
+            for (TipoCita tipo : TIPOS) {
+                totalesPorEstado.get(estado).put(tipo, totales[indice(estado, tipo)].sum());
+            }
+        }
+        List<ConteoCitas> conteos = new ArrayList<>();
+        desde.datesUntil(hasta.plusDays(1)).forEach(fecha -> {
+            var contadores = porDia.get(fecha);
+            if (contadores == null) {
+                return;
+            }
+            for (EstadoCita estado : ESTADOS) {
+                for (TipoCita tipo : TIPOS) {
+                    long cantidad = contadores[indice(estado, tipo)].sum();
+                    if (cantidad > 0) {
+                        conteos.add(new ConteoCitas(estado, tipo, fecha, cantidad));
+                    }
+                }
+            }
+        });
+        return new EstadisticasCitas(desde, hasta, Collections.unmodifiableMap(totalesPorEstado), conteos);
+    }
+
+    /**
+     * Matrices de un mismo instante de carga: por día y totales de todas las fechas
+     */
+    private static final class Conteos {
+
+        private final ConcurrentMap<LocalDate, LongAdder[]> porDia = new ConcurrentHashMap<>();
+        private final LongAdder[] totales = nuevaMatriz();
+
+        void aplicar(CambioEstadoCitaEvento evento) {
+            if (evento.getEstadoAnterior() == evento.getEstadoNuevo()) {
+                return;
+            }
+            var fecha = evento.getFechaHora().toLocalDate();
+            if (evento.getEstadoAnterior() != null) {
+                sumar(evento.getEstadoAnterior(), evento.getTipoCita(), fecha, -1);
+            }
+            sumar(evento.getEstadoNuevo(), evento.getTipoCita(), fecha, 1);
+        }
+
+        void sumar(EstadoCita estado, TipoCita tipo, LocalDate fecha, long delta) {
+            int indice = indice(estado, tipo);
+            porDia.computeIfAbsent(fecha, f -> nuevaMatriz())[indice].add(delta);
+            totales[indice].add(delta);
+        }
+    }
+
+    private static int indice(EstadoCita estado, TipoCita tipo) {
+        return estado.ordinal() * TIPOS.length + tipo.ordinal();
+    }
+
+    private static LongAdder[] nuevaMatriz() {
+        var matriz = new LongAdder[ESTADOS.length * TIPOS.length];
+        for (int i = 0; i < matriz.length; i++) {
+            matriz[i] = new LongAdder();
+        }
+        return matriz;
+    }
+}
@@ -0,0 +1,187 @@
+package com.tayronadev.dominio.citas.servicios;
+
+import com.tayronadev.dominio.citas.eventos.CambioEstadoCitaEvento;
+import com.tayronadev.dominio.citas.eventos.OcupacionRecargadaEvento;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Índice en memoria de la ocupación de horarios por tipo de cita y fecha.
+ * Cada (TipoCita, fecha) se representa con un arreglo de 24 contadores donde la
+ * posición N es el número de citas activas a la hora N; los arreglos no se modifican
+ * en sitio, cada cambio publica una copia, de modo que las lecturas no se bloquean.
+ * Se carga al iniciar la aplicación y se mantiene al día con los eventos de
+ * cambio de estado, una vez confirmada la transacción que los produjo. Se reconstruye
+ * periódicamente ({@code app.horarios.ocupacion.recarga-ms}) para incorporar los
+ * cambios de otras instancias y avanzar la cobertura al día en curso; cada horario cuyo
+ * número de citas activas cambió con la recarga se publica como {@link OcupacionRecargadaEvento}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IndiceOcupacionHorarios {
+
+    private static final int HORAS = 24;
+
+    private final CitaRepositorio citaRepositorio;
+    private final ApplicationEventPublisher eventos;
+
+    private final RecargaConEventos<Ocupacion> recarga = new RecargaConEventos<>(Ocupacion::aplicar);
+
+    /**
+     * Carga los horarios ocupados desde el día de hoy al iniciar la aplicación y los recarga periódicamente,
+     * con una proyección de (tipo, fecha y hora) en lugar de las citas completas.
+     * La lectura y la de las citas con eventos recibidos mientras tanto ven la misma foto de la base de datos.
+     * Al recargar publica los horarios cuya ocupación difiere de la del índice reemplazado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.horarios.ocupacion.recarga-ms:300000}",
+            fixedDelayString = "${app.horarios.ocupacion.recarga-ms:300000}")
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void cargar() {
+        var desde = LocalDate.now();
+        List<OcupacionRecargadaEvento> cambios = new ArrayList<>();
+        recarga.recargar(() -> {
+            var ocupacion = new Ocupacion(desde);
+            citaRepositorio.buscarHorariosOcupadosDesde(desde.atStartOfDay())
+                    .forEach(ocupado -> ocupacion.sumar(ocupado.getTipoCita(), ocupado.getFechaHora(), 1));
+            return ocupacion;
+        }, citaRepositorio::buscarPorIds, (anterior, ocupacion) -> {
+            if (anterior != null) {
+                cambios.addAll(ocupacion.cambiosDesde(anterior));
+            }
+            log.debug("Índice de ocupación cargado con {} días y tipos ocupados desde {}",
+                    ocupacion.porDia.size(), desde);
+        });
+        if (!cambios.isEmpty()) {
+            log.debug("La recarga cambió la ocupación de {} horarios", cambios.size());
+            cambios.forEach(eventos::publishEvent);
+        }
+    }
+
+    /**
+     * Actualiza el índice cuando una cita se crea o cambia de estado.
+     * Se ejecuta antes que los demás oyentes para que lean la ocupación ya actualizada.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void alCambiarEstado(CambioEstadoCitaEvento evento) {
+        recarga.alRecibir(evento);
+    }
+
+    /**
+     * Indica si el índice tiene información completa para la fecha
+     */
+    public boolean cubre(LocalDate fecha) {
+        var actual = recarga.actual();
+        return actual != null && !fecha.isBefore(actual.desde);
+    }
+
+    /**
+     * Cuenta las citas activas del tipo en la fecha y hora
+     */
+    public int citasActivas(TipoCita tipoCita, LocalDateTime fechaHora) {
+        var contadores = contadores(tipoCita, fechaHora.toLocalDate());
+        return contadores == null ? 0 : contadores[fechaHora.getHour()];
+    }
+
+    /**
+     * Obtiene el número de citas activas por hora (solo horas con alguna cita)
+     * para un tipo de cita en una fecha
+     */
+    public Map<Integer, Integer> citasPorHora(TipoCita tipoCita, LocalDate fecha) {
+        var contadores = contadores(tipoCita, fecha);
+        if (contadores == null) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, Integer> citas = new TreeMap<>();
+        for (int hora = 0; hora < HORAS; hora++) {
+            if (contadores[hora] > 0) {
+                citas.put(hora, contadores[hora]);
+            }
+        }
+        return citas;
+    }
+
+    private int[] contadores(TipoCita tipoCita, LocalDate fecha) {
+        var actual = recarga.actual();
+        return actual == null ? null : actual.porDia.get(new ClaveOcupacion(tipoCita, fecha));
+    }
+
+    /**
+     * Ocupación de un mismo instante de carga, desde la fecha que cubre
+     */
+    private static final class Ocupacion {
+
+        private final LocalDate desde;
+        private final ConcurrentMap<ClaveOcupacion, int[]> porDia = new ConcurrentHashMap<>();
+
+        Ocupacion(LocalDate desde) {
+            this.desde = desde;
+        }
+
+        void aplicar(CambioEstadoCitaEvento evento) {
+            if (evento.ocupabaHorario() == evento.ocupaHorario()) {
+                return;
+            }
+            sumar(evento.getTipoCita(), evento.getFechaHora(), evento.ocupaHorario() ? 1 : -1);
+        }
+
+        void sumar(TipoCita tipoCita, LocalDateTime fechaHora, int delta) {
+            porDia.compute(new ClaveOcupacion(tipoCita, fechaHora.toLocalDate()), (clave, actual) -> {
+                var contadores = actual == null ? new int[HORAS] : actual.clone();
+                contadores[fechaHora.getHour()] = Math.max(0, contadores[fechaHora.getHour()] + delta);
+                return Arrays.stream(contadores).allMatch(citas -> citas == 0) ? null : contadores;
+            });
+        }
+
+        /**
+         * Horarios cubiertos por esta ocupación cuyo número de citas activas difiere del de la anterior
+         */
+        List<OcupacionRecargadaEvento> cambiosDesde(Ocupacion anterior) {
+            var claves = new HashSet<>(porDia.keySet());
+            claves.addAll(anterior.porDia.keySet());
+            List<OcupacionRecargadaEvento> cambios = new ArrayList<>();
+            for (var clave : claves) {
+                if (clave.fecha().isBefore(desde)) {
+                    continue;
+                }
+                var nuevos = porDia.getOrDefault(clave, new int[HORAS]);
+                var anteriores = anterior.porDia.getOrDefault(clave, new int[HORAS]);
+                for (int hora = 0; hora < HORAS; hora++) {
+                    if (nuevos[hora] != anteriores[hora]) {
+                        cambios.add(new OcupacionRecargadaEvento(clave.tipoCita(), clave.fecha().atTime(hora, 0)));
+                    }
+                }
+            }
+            return cambios;
+        }
+    }
+
+    private record ClaveOcupacion(TipoCita tipoCita, LocalDate fecha) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.tayronadev.dominio.citas.servicios;
+
+import com.tayronadev.dominio.citas.eventos.CambioEstadoCitaEvento;
+import com.tayronadev.dominio.citas.modelo.Cita;
+import com.tayronadev.dominio.citas.modelo.EstadoCita;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Coordina un estado en memoria que se carga desde la base de datos con los eventos de
+ * cambio de estado de citas que lo actualizan. Cada recarga construye un estado nuevo y lo
+ * publica de una vez. Antes de la primera carga los eventos se descartan: la lectura
+ * inicial ya los incluye.
+ * <p>
+ * Los eventos que llegan durante una recarga se guardan, pero no todos son posteriores a
+ * la lectura: se publican después del commit, así que un cambio confirmado antes de leer
+ * puede entregarse ya abierta la cola. Para no contarlo dos veces, antes de publicar se
+ * lee, en la misma transacción que la carga, el estado de cada cita con eventos guardados
+ * y solo se aplica la cadena de cambios que parte de ese estado; los anteriores ya están
+ * en la lectura. La carga debe correr en una transacción REPEATABLE_READ para que ambas
+ * lecturas vean la misma foto de la base de datos.
+ * <p>
+ * Los eventos toman el cerrojo de lectura y se aplican en paralelo; la recarga solo toma
+ * el de escritura para abrir la cola de eventos y para publicar el estado nuevo.
+ *
+ * @param <S> estado en memoria
+ */
+final class RecargaConEventos<S> {
+
+    private final ReadWriteLock cerrojo = new ReentrantReadWriteLock();
+    private final BiConsumer<S, CambioEstadoCitaEvento> aplicar;
+
+    private volatile S actual;
+    private Queue<CambioEstadoCitaEvento> recibidosDuranteCarga;
+
+    RecargaConEventos(BiConsumer<S, CambioEstadoCitaEvento> aplicar) {
+        this.aplicar = aplicar;
+    }
+
+    /**
+     * Estado publicado; null mientras no se haya cargado
+     */
+    S actual() {
+        return actual;
+    }
+
+    /**
+     * Aplica el evento al estado publicado y lo guarda si hay una recarga en curso
+     */
+    void alRecibir(CambioEstadoCitaEvento evento) {
+        cerrojo.readLock().lock();
+        try {
+            var estado = actual;
+            if (estado != null) {
+                aplicar.accept(estado, evento);
+            }
+            var recibidos = recibidosDuranteCarga;
+            if (recibidos != null) {
+                recibidos.add(evento);
+            }
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Construye un estado nuevo con {@code leer}, le aplica los eventos recibidos durante
+     * la lectura que esta aún no incluye y lo publica. {@code leerCitas} obtiene las citas
+     * con eventos guardados, en la misma transacción que {@code leer}. {@code alPublicar}
+     * recibe el estado reemplazado (null en la primera carga) y el nuevo, con el cerrojo
+     * de escritura tomado, así que ningún evento modifica ninguno de los dos mientras tanto.
+     * Las recargas simultáneas se ejecutan una tras otra.
+     */
+    synchronized S recargar(Supplier<S> leer,
+                            Function<Collection<String>, List<Cita>> leerCitas,
+                            BiConsumer<S, S> alPublicar) {
+        conCerrojo(() -> recibidosDuranteCarga = new ConcurrentLinkedQueue<>());
+        try {
+            var nuevo = leer.get();
+            conCerrojo(() -> {
+                aplicarNoIncluidos(nuevo, recibidosDuranteCarga, leerCitas);
+                var anterior = actual;
+                actual = nuevo;
+                alPublicar.accept(anterior, nuevo);
+            });
+            return nuevo;
+        } finally {
+            conCerrojo(() -> recibidosDuranteCarga = null);
+        }
+    }
+
+    /**
+     * Para cada cita sigue sus eventos desde el estado que vio la lectura (ninguno si aún
+     * no existía): aplica el que parte de ese estado, luego el que parte del siguiente, y así
+     * sucesivamente. Los estados de una cita solo avanzan, de modo que la cadena es única y
+     * no depende del orden en que se entregaron los eventos.
+     */
+    private void aplicarNoIncluidos(S nuevo, Queue<CambioEstadoCitaEvento> recibidos,
+                                    Function<Collection<String>, List<Cita>> leerCitas) {
+        if (recibidos.isEmpty()) {
+            return;
+        }
+        Map<String, List<CambioEstadoCitaEvento>> porCita = new LinkedHashMap<>();
+        recibidos.forEach(evento -> porCita.computeIfAbsent(evento.getCitaId(), id -> new ArrayList<>()).add(evento));
+        Map<String, EstadoCita> leidos = new LinkedHashMap<>();
+        leerCitas.apply(List.copyOf(porCita.keySet())).forEach(cita -> leidos.put(cita.getId(), cita.getEstado()));
+
+        porCita.forEach((citaId, eventos) -> {
+            var estado = leidos.get(citaId);
+            var siguiente = siguienteDesde(eventos, estado);
+            while (siguiente != null) {
+                aplicar.accept(nuevo, siguiente);
+                estado = siguiente.getEstadoNuevo();
+                siguiente = siguienteDesde(eventos, estado);
+            }
+        });
+    }
+
+    private static CambioEstadoCitaEvento siguienteDesde(List<CambioEstadoCitaEvento> eventos, EstadoCita estado) {
+        for (var evento : eventos) {
+            if (evento.getEstadoAnterior() == estado && evento.getEstadoNuevo() != estado) {
+                return evento;
+            }
+        }
+        return null;
+    }
+
+    private void conCerrojo(Runnable accion) {
+        cerrojo.writeLock().lock();
+        try {
+            accion.run();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+}
@@ -2,48 +2,41 @@ package com.tayronadev.dominio.citas.servicios;
 
 import com.tayronadev.dominio.citas.excepciones.HorarioNoDisponibleException;
 import com.tayronadev.dominio.citas.modelo.*;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.DayOfWeek;
-import java.time.LocalDateTime;
-import java.util.List;
+import java.time.LocalDate;
 import java.util.Set;
 
 /**
- * Servicio de dominio para validar la disponibilidad de horarios según el tipo de cita
+ * Servicio de dominio para validar la disponibilidad de horarios según el tipo de cita.
+ * Las horas permitidas y su capacidad vienen de {@link CapacidadHorarios}.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class ValidadorHorarios {
     
-    // Horarios permitidos por tipo de cita (esto podría venir de configuración)
-    private static final Set<Integer> HORARIOS_ENTREGA = Set.of(8, 9, 10, 11, 14, 15, 16);
-    private static final Set<Integer> HORARIOS_RECOJO = Set.of(9, 10, 11, 14, 15, 16, 17);
-    private static final Set<Integer> HORARIOS_IMPORTACION = Set.of(8, 9, 10, 11);
-    private static final Set<Integer> HORARIOS_DEVOLUCION = Set.of(14, 15, 16, 17);
+    private final CapacidadHorarios capacidadHorarios;
     
     /**
-     * Valida si un horario está disponible para un tipo de cita específico
+     * Valida si un horario tiene cupo para un tipo de cita específico.
+     * Las citas activas del horario las cuenta el llamador con una consulta puntual.
      */
-    public void validarDisponibilidad(Horario horario, TipoCita tipoCita, List<Cita> citasExistentes) {
+    public void validarDisponibilidad(Horario horario, TipoCita tipoCita, int citasActivas) {
         log.debug("Validando disponibilidad de horario {} para tipo de cita {}", horario.getFechaHora(), tipoCita);
         
-        // Validar que el horario esté permitido para el tipo de cita
-        if (!esHorarioPermitidoParaTipo(horario, tipoCita)) {
+        // Validar que el horario se atienda para el tipo de cita (fines de semana y días no hábiles no tienen capacidad)
+        int capacidad = capacidadHorarios.capacidad(tipoCita, horario.getFechaHora());
+        if (capacidad == 0) {
             log.warn("Horario {} no permitido para tipo de cita {}", horario.getFechaHora(), tipoCita);
             throw new HorarioNoDisponibleException(horario, tipoCita);
         }
         
-        // Validar que no sea fin de semana
-        if (esFindeSemana(horario.getFechaHora())) {
-            log.warn("Intento de agendar cita en fin de semana: {}", horario.getFechaHora());
-            throw new HorarioNoDisponibleException(horario, tipoCita);
-        }
-        
-        // Validar que no haya conflictos con citas existentes del mismo tipo
-        if (tieneConflictoConCitasExistentes(horario, tipoCita, citasExistentes)) {
-            log.warn("Conflicto de horario detectado para {} en {}", tipoCita, horario.getFechaHora());
+        // Validar que quede algún muelle libre
+        if (citasActivas >= capacidad) {
+            log.warn("Horario {} completo para {}: {} de {} citas", horario.getFechaHora(), tipoCita, citasActivas, capacidad);
             throw new HorarioNoDisponibleException(horario, tipoCita);
         }
         
@@ -51,41 +44,39 @@ public class ValidadorHorarios {
     }
     
     /**
-     * Verifica si un horario está permitido para un tipo de cita específico
+     * Valida el horario y elige el muelle de menor número que no esté ocupado
      */
-    public boolean esHorarioPermitidoParaTipo(Horario horario, TipoCita tipoCita) {
-        int hora = horario.getFechaHora().getHour();
+    public int asignarMuelle(Horario horario, TipoCita tipoCita, Set<Integer> muellesOcupados) {
+        validarDisponibilidad(horario, tipoCita, muellesOcupados.size());
         
-        return switch (tipoCita) {
-            case ENTREGA -> HORARIOS_ENTREGA.contains(hora);
-            case RECOJO -> HORARIOS_RECOJO.contains(hora);
-            case IMPORTACION -> HORARIOS_IMPORTACION.contains(hora);
-            case DEVOLUCION -> HORARIOS_DEVOLUCION.contains(hora);
-            
-        };
+        int capacidad = capacidadHorarios.capacidad(tipoCita, horario.getFechaHora());
+        for (int muelle = 1; muelle <= capacidad; muelle++) {
+            if (!muellesOcupados.contains(muelle)) {
+                return muelle;
+            }
+        }
+        // Con menos citas activas que capacidad siempre queda un muelle libre
+        throw new HorarioNoDisponibleException(horario, tipoCita);
     }
     
     /**
-     * Obtiene los horarios disponibles para un tipo de cita en una fecha específica
+     * Verifica si un horario está permitido para un tipo de cita específico
      */
-    public Set<Integer> obtenerHorariosDisponibles(TipoCita tipoCita) {
-        return switch (tipoCita) {
-            case ENTREGA -> HORARIOS_ENTREGA;
-            case RECOJO -> HORARIOS_RECOJO;
-            case IMPORTACION -> HORARIOS_IMPORTACION;
-            case DEVOLUCION -> HORARIOS_DEVOLUCION;
-        };
+    public boolean esHorarioPermitidoParaTipo(Horario horario, TipoCita tipoCita) {
+        return capacidadHorarios.capacidad(tipoCita, horario.getFechaHora()) > 0;
     }
     
-    private boolean esFindeSemana(LocalDateTime fechaHora) {
-        DayOfWeek dia = fechaHora.getDayOfWeek();
-        return dia == DayOfWeek.SATURDAY || dia == DayOfWeek.SUNDAY;
+    /**
+     * Obtiene las horas que se atienden para un tipo de cita en algún día de la semana
+     */
+    public Set<Integer> obtenerHorariosDisponibles(TipoCita tipoCita) {
+        return capacidadHorarios.horasPermitidas(tipoCita);
     }
     
-    private boolean tieneConflictoConCitasExistentes(Horario horario, TipoCita tipoCita, List<Cita> citasExistentes) {
-        return citasExistentes.stream()
-                .filter(cita -> cita.getTipoCita() == tipoCita)
-                .filter(cita -> cita.getEstado() == EstadoCita.CONFIRMADA || cita.getEstado() == EstadoCita.PENDIENTE)
-                .anyMatch(cita -> cita.getHorario().conflictoCon(horario));
+    /**
+     * Obtiene las horas que se atienden para un tipo de cita en una fecha específica
+     */
+    public Set<Integer> obtenerHorariosDisponibles(TipoCita tipoCita, LocalDate fecha) {
+        return capacidadHorarios.horasPermitidas(tipoCita, fecha);
     }
-}
\ No newline at end of file
+}
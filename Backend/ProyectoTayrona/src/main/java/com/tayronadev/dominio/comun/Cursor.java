@@ -0,0 +1,17 @@
+package com.tayronadev.dominio.comun;
+
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posición de un elemento dentro de un listado ordenado por (fecha, id).
+ * Se usa para paginar por clave (keyset) sin OFFSET.
+ */
+@Value
+public class Cursor {
+    
+    @NonNull LocalDateTime fecha;
+    @NonNull String id;
+}
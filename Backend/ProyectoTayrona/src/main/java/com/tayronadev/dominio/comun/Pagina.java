@@ -0,0 +1,45 @@
+package com.tayronadev.dominio.comun;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Página de resultados de una consulta paginada por clave.
+ * El cursor siguiente es nulo cuando no hay más resultados.
+ */
+@Value
+public class Pagina<T> {
+    
+    List<T> elementos;
+    Cursor siguiente;
+    
+    /**
+     * Construye la página a partir de hasta tamano + 1 filas leídas.
+     * La fila extra solo indica que existe una página siguiente y se descarta.
+     */
+    public static <T> Pagina<T> desdeFilas(List<T> filas, int tamano, Function<T, Cursor> cursorDe) {
+        if (filas.size() <= tamano) {
+            return new Pagina<>(filas, null);
+        }
+        var elementos = filas.subList(0, tamano);
+        return new Pagina<>(List.copyOf(elementos), cursorDe.apply(elementos.get(tamano - 1)));
+    }
+    
+    public Optional<Cursor> getSiguiente() {
+        return Optional.ofNullable(siguiente);
+    }
+    
+    public boolean tieneSiguiente() {
+        return siguiente != null;
+    }
+    
+    /**
+     * Transforma los elementos conservando el cursor
+     */
+    public <R> Pagina<R> map(Function<T, R> transformacion) {
+        return new Pagina<>(elementos.stream().map(transformacion).toList(), siguiente);
+    }
+}
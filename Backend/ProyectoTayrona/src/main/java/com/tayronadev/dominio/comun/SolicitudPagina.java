@@ -0,0 +1,35 @@
+package com.tayronadev.dominio.comun;
+
+import lombok.Value;
+
+/**
+ * Solicitud de una página de resultados ordenados por (fecha, id).
+ * Si el cursor es nulo se devuelve la primera página.
+ */
+@Value
+public class SolicitudPagina {
+    
+    public static final int TAMANO_POR_DEFECTO = 50;
+    public static final int TAMANO_MAXIMO = 200;
+    
+    Cursor despuesDe;
+    int tamano;
+    boolean descendente;
+    
+    public SolicitudPagina(Cursor despuesDe, int tamano, boolean descendente) {
+        if (tamano < 1 || tamano > TAMANO_MAXIMO) {
+            throw new IllegalArgumentException(
+                    String.format("El tamaño de página debe estar entre 1 y %d", TAMANO_MAXIMO));
+        }
+        this.despuesDe = despuesDe;
+        this.tamano = tamano;
+        this.descendente = descendente;
+    }
+    
+    /**
+     * Primera página ascendente con el tamaño por defecto
+     */
+    public static SolicitudPagina primera() {
+        return new SolicitudPagina(null, TAMANO_POR_DEFECTO, false);
+    }
+}
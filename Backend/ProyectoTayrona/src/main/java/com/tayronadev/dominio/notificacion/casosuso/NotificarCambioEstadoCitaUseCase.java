@@ -5,30 +5,47 @@ import com.tayronadev.dominio.citas.modelo.EstadoCita;
 import com.tayronadev.dominio.notificacion.modelo.NotificacionCita;
 import com.tayronadev.dominio.notificacion.modelo.TipoNotificacion;
 import com.tayronadev.dominio.notificacion.puertos.NotificacionService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 
 /**
  * Caso de uso para notificar al proveedor cuando cambia el estado de una cita.
- * Las notificaciones se envían de forma asíncrona para no bloquear el flujo principal.
+ * Las notificaciones se envían de forma asíncrona en el ejecutor dedicado de notificaciones
+ * para no bloquear el flujo principal. Los envíos fallidos pasan a la cola de reintentos,
+ * igual que los que el ejecutor rechaza por tener la cola llena: el correo nunca se envía
+ * en el hilo de quien cambió la cita, que puede estar dentro de su transacción.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class NotificarCambioEstadoCitaUseCase {
     
+    /**
+     * Nombre del bean del ejecutor acotado para notificaciones
+     */
+    public static final String EJECUTOR = "ejecutorNotificaciones";
+    
     private final NotificacionService notificacionService;
+    private final ReintentarNotificacionesUseCase reintentos;
+    private final TaskExecutor ejecutor;
+    
+    public NotificarCambioEstadoCitaUseCase(NotificacionService notificacionService,
+                                            ReintentarNotificacionesUseCase reintentos,
+                                            @Qualifier(EJECUTOR) TaskExecutor ejecutor) {
+        this.notificacionService = notificacionService;
+        this.reintentos = reintentos;
+        this.ejecutor = ejecutor;
+    }
     
     /**
      * Notifica al proveedor sobre el cambio de estado de su cita.
-     * Se ejecuta de forma asíncrona.
+     * Se ejecuta de forma asíncrona; si el ejecutor está saturado, se programa un reintento.
      * 
      * @param cita la cita que cambió de estado
      * @param observaciones observaciones o motivo del cambio
      */
-    @Async
     public void ejecutar(Cita cita, String observaciones) {
         var tipoNotificacion = determinarTipoNotificacion(cita.getEstado());
         
@@ -37,7 +54,17 @@ public class NotificarCambioEstadoCitaUseCase {
             return;
         }
         
-        var notificacion = construirNotificacion(cita, tipoNotificacion, observaciones);
+        try {
+            ejecutor.execute(() -> enviar(cita, tipoNotificacion, observaciones));
+        } catch (TaskRejectedException e) {
+            log.warn("Cola de notificaciones llena; la notificación de la cita {} pasa a la cola de reintentos",
+                    cita.getId());
+            programarReintento(cita, tipoNotificacion, observaciones, e);
+        }
+    }
+    
+    private void enviar(Cita cita, TipoNotificacion tipoNotificacion, String observaciones) {
+        var notificacion = NotificacionCita.paraCita(cita, tipoNotificacion, observaciones);
         
         try {
             log.info("Enviando notificación de {} a {} para cita {}", 
@@ -52,6 +79,16 @@ public class NotificarCambioEstadoCitaUseCase {
             // No propagamos la excepción para no afectar el flujo principal
             log.error("Error al enviar notificación para cita {}: {}", 
                     cita.getId(), e.getMessage(), e);
+            programarReintento(cita, tipoNotificacion, observaciones, e);
+        }
+    }
+    
+    private void programarReintento(Cita cita, TipoNotificacion tipo, String observaciones, Exception error) {
+        try {
+            reintentos.programar(cita.getId(), tipo, observaciones, error.getMessage());
+        } catch (Exception e) {
+            log.error("No se pudo programar el reintento de notificación para cita {}: {}",
+                    cita.getId(), e.getMessage());
         }
     }
     
@@ -66,25 +103,4 @@ public class NotificarCambioEstadoCitaUseCase {
             case PENDIENTE -> null; // No se notifica estado pendiente
         };
     }
-    
-    /**
-     * Construye el objeto de notificación con todos los datos necesarios
-     */
-    private NotificacionCita construirNotificacion(Cita cita, TipoNotificacion tipo, String observaciones) {
-        var proveedor = cita.getProveedor();
-        var responsable = proveedor.getResponsable();
-        
-        return NotificacionCita.builder()
-                .destinatarioEmail(responsable.getEmail())
-                .destinatarioNombre(responsable.getNombre())
-                .nombreProveedor(proveedor.getNombreProveedor())
-                .nit(proveedor.getNit())
-                .citaId(cita.getId())
-                .tipoCita(cita.getTipoCita().name())
-                .tipoCitaDescripcion(cita.getTipoCita().getDescripcion())
-                .fechaHoraCita(cita.getHorario().getFechaHora())
-                .tipoNotificacion(tipo)
-                .observaciones(observaciones)
-                .build();
-    }
 }
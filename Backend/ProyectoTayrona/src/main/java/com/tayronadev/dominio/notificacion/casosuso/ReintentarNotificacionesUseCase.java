@@ -0,0 +1,120 @@
+package com.tayronadev.dominio.notificacion.casosuso;
+
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import com.tayronadev.dominio.comun.Pagina;
+import com.tayronadev.dominio.comun.SolicitudPagina;
+import com.tayronadev.dominio.notificacion.excepciones.NotificacionNoEncontradaException;
+import com.tayronadev.dominio.notificacion.modelo.NotificacionCita;
+import com.tayronadev.dominio.notificacion.modelo.NotificacionPendiente;
+import com.tayronadev.dominio.notificacion.modelo.PoliticaReintentos;
+import com.tayronadev.dominio.notificacion.modelo.TipoNotificacion;
+import com.tayronadev.dominio.notificacion.puertos.NotificacionPendienteRepositorio;
+import com.tayronadev.dominio.notificacion.puertos.NotificacionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Caso de uso para la cola persistente de reintentos de notificaciones.
+ * Los envíos fallidos se guardan y se reintentan con espera exponencial;
+ * al agotar los intentos quedan como FALLIDAS (cartas muertas) para revisión manual.
+ * Cada ejecución reclama su lote con SKIP LOCKED y lo reserva durante un tiempo, así que
+ * varias instancias pueden procesar la cola a la vez sin enviar dos veces el mismo correo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReintentarNotificacionesUseCase {
+
+    private final NotificacionPendienteRepositorio pendientes;
+    private final NotificacionService notificacionService;
+    private final CitaRepositorio citaRepositorio;
+    private final PoliticaReintentos politica;
+    private final Clock reloj;
+
+    @Value("${app.notificaciones.reintentos.lote:50}")
+    private int tamanoLote = 50;
+
+    @Value("${app.notificaciones.reintentos.reserva:PT5M}")
+    private Duration reserva = Duration.ofMinutes(5);
+
+    /**
+     * Guarda una notificación cuyo primer envío falló para reintentarla más tarde
+     */
+    public NotificacionPendiente programar(String citaId, TipoNotificacion tipo, String observaciones, String error) {
+        var pendiente = pendientes.guardar(
+                new NotificacionPendiente(citaId, tipo, observaciones, error, politica, ahora()));
+        log.info("Notificación {} de cita {} programada para reintento a las {}",
+                tipo, citaId, pendiente.getProximoIntento());
+        return pendiente;
+    }
+
+    /**
+     * Reintenta las notificaciones vencidas. Las entregadas se eliminan de la cola.
+     * Los envíos ocurren fuera de la transacción que las reclama.
+     */
+    @Scheduled(fixedDelayString = "${app.notificaciones.reintentos.intervalo-ms:60000}")
+    public void procesarPendientes() {
+        var ahora = ahora();
+        var vencidas = pendientes.reclamarParaReintento(ahora, ahora.plus(reserva), tamanoLote);
+        if (vencidas.isEmpty()) {
+            return;
+        }
+        log.info("Reintentando {} notificaciones pendientes", vencidas.size());
+        vencidas.forEach(this::reintentar);
+    }
+
+    /**
+     * Obtiene una página de las notificaciones que agotaron sus reintentos
+     */
+    public Pagina<NotificacionPendiente> obtenerFallidas(SolicitudPagina pagina) {
+        return pendientes.buscarFallidas(pagina);
+    }
+
+    /**
+     * Devuelve una notificación fallida a la cola para un nuevo ciclo de reintentos
+     */
+    public NotificacionPendiente reactivar(String id) {
+        var pendiente = pendientes.buscarPorId(id)
+                .orElseThrow(() -> new NotificacionNoEncontradaException(id));
+        pendiente.reactivar(ahora());
+        return pendientes.guardar(pendiente);
+    }
+
+    private void reintentar(NotificacionPendiente pendiente) {
+        var cita = citaRepositorio.buscarPorId(pendiente.getCitaId());
+        if (cita.isEmpty()) {
+            log.warn("La cita {} ya no existe; se descarta su notificación pendiente", pendiente.getCitaId());
+            pendientes.eliminar(pendiente.getId());
+            return;
+        }
+
+        try {
+            notificacionService.enviarNotificacionCita(
+                    NotificacionCita.paraCita(cita.get(), pendiente.getTipoNotificacion(), pendiente.getObservaciones()));
+            pendientes.eliminar(pendiente.getId());
+            log.info("Notificación {} de cita {} entregada en el intento {}",
+                    pendiente.getTipoNotificacion(), pendiente.getCitaId(), pendiente.getIntentos() + 1);
+        } catch (Exception e) {
+            pendiente.registrarFallo(e.getMessage(), politica, ahora());
+            pendientes.guardar(pendiente);
+            if (pendiente.estaFallida()) {
+                log.error("Notificación {} de cita {} agotó sus {} intentos: {}",
+                        pendiente.getTipoNotificacion(), pendiente.getCitaId(), pendiente.getIntentos(), e.getMessage());
+            } else {
+                log.warn("Falló el intento {} de la notificación de cita {}; próximo intento a las {}",
+                        pendiente.getIntentos(), pendiente.getCitaId(), pendiente.getProximoIntento());
+            }
+        }
+    }
+
+    private LocalDateTime ahora() {
+        return LocalDateTime.now(reloj);
+    }
+}
@@ -0,0 +1,13 @@
+package com.tayronadev.dominio.notificacion.excepciones;
+
+/**
+ * Excepción lanzada cuando no se encuentra una notificación pendiente
+ */
+public class NotificacionNoEncontradaException extends NotificacionException {
+    
+    private static final String MENSAJE = "No se encontró la notificación pendiente con ID: %s";
+    
+    public NotificacionNoEncontradaException(String notificacionId) {
+        super(String.format(MENSAJE, notificacionId));
+    }
+}
@@ -0,0 +1,13 @@
+package com.tayronadev.dominio.notificacion.modelo;
+
+/**
+ * Estados de una notificación cuyo envío falló
+ */
+public enum EstadoNotificacion {
+    
+    /** En espera de un nuevo intento de envío */
+    PENDIENTE,
+    
+    /** Agotó sus reintentos; requiere revisión manual */
+    FALLIDA
+}
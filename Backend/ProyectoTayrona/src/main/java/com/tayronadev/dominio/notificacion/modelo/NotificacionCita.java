@@ -1,5 +1,6 @@
 package com.tayronadev.dominio.notificacion.modelo;
 
+import com.tayronadev.dominio.citas.modelo.Cita;
 import lombok.Builder;
 import lombok.Value;
 
@@ -31,6 +32,27 @@ public class NotificacionCita {
     TipoNotificacion tipoNotificacion;
     String observaciones;
     
+    /**
+     * Construye la notificación con los datos actuales de la cita y de su responsable
+     */
+    public static NotificacionCita paraCita(Cita cita, TipoNotificacion tipo, String observaciones) {
+        var proveedor = cita.getProveedor();
+        var responsable = proveedor.getResponsable();
+        
+        return NotificacionCita.builder()
+                .destinatarioEmail(responsable.getEmail())
+                .destinatarioNombre(responsable.getNombre())
+                .nombreProveedor(proveedor.getNombreProveedor())
+                .nit(proveedor.getNit())
+                .citaId(cita.getId())
+                .tipoCita(cita.getTipoCita().name())
+                .tipoCitaDescripcion(cita.getTipoCita().getDescripcion())
+                .fechaHoraCita(cita.getHorario().getFechaHora())
+                .tipoNotificacion(tipo)
+                .observaciones(observaciones)
+                .build();
+    }
+    
     /**
      * Obtiene el asunto del correo
      */
@@ -0,0 +1,120 @@
+package com.tayronadev.dominio.notificacion.modelo;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad de dominio que representa una notificación cuyo envío falló y debe reintentarse.
+ * Guarda solo la referencia a la cita: los datos del correo se reconstruyen en cada intento.
+ */
+@Getter
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+public class NotificacionPendiente {
+    
+    private static final int LONGITUD_MAXIMA_ERROR = 1000;
+    
+    @EqualsAndHashCode.Include
+    private final String id;
+    
+    @NonNull
+    private final String citaId;
+    
+    @NonNull
+    private final TipoNotificacion tipoNotificacion;
+    
+    private final String observaciones;
+    
+    private EstadoNotificacion estado;
+    private int intentos;
+    private LocalDateTime proximoIntento;
+    private String ultimoError;
+    
+    @NonNull
+    private final LocalDateTime fechaCreacion;
+    
+    /**
+     * Constructor para registrar el primer intento fallido de una notificación
+     */
+    public NotificacionPendiente(@NonNull String citaId,
+                                 @NonNull TipoNotificacion tipoNotificacion,
+                                 String observaciones,
+                                 String error,
+                                 @NonNull PoliticaReintentos politica,
+                                 @NonNull LocalDateTime ahora) {
+        this.id = UUID.randomUUID().toString();
+        this.citaId = citaId;
+        this.tipoNotificacion = tipoNotificacion;
+        this.observaciones = observaciones;
+        this.estado = EstadoNotificacion.PENDIENTE;
+        this.intentos = 0;
+        this.fechaCreacion = ahora;
+        registrarFallo(error, politica, ahora);
+    }
+    
+    /**
+     * Constructor para reconstruir una notificación pendiente desde persistencia
+     */
+    public NotificacionPendiente(@NonNull String id,
+                                 @NonNull String citaId,
+                                 @NonNull TipoNotificacion tipoNotificacion,
+                                 String observaciones,
+                                 @NonNull EstadoNotificacion estado,
+                                 int intentos,
+                                 @NonNull LocalDateTime proximoIntento,
+                                 String ultimoError,
+                                 @NonNull LocalDateTime fechaCreacion) {
+        this.id = id;
+        this.citaId = citaId;
+        this.tipoNotificacion = tipoNotificacion;
+        this.observaciones = observaciones;
+        this.estado = estado;
+        this.intentos = intentos;
+        this.proximoIntento = proximoIntento;
+        this.ultimoError = ultimoError;
+        this.fechaCreacion = fechaCreacion;
+    }
+    
+    /**
+     * Registra un intento fallido. Programa el siguiente con espera exponencial
+     * o marca la notificación como FALLIDA si se agotaron los intentos.
+     */
+    public void registrarFallo(String error, @NonNull PoliticaReintentos politica, @NonNull LocalDateTime ahora) {
+        this.intentos++;
+        this.ultimoError = recortar(error);
+        if (politica.agotado(intentos)) {
+            this.estado = EstadoNotificacion.FALLIDA;
+            this.proximoIntento = ahora;
+        } else {
+            this.proximoIntento = ahora.plus(politica.esperaTras(intentos));
+        }
+    }
+    
+    /**
+     * Devuelve una notificación FALLIDA a la cola con un ciclo completo de reintentos
+     */
+    public void reactivar(@NonNull LocalDateTime ahora) {
+        if (!estaFallida()) {
+            throw new IllegalArgumentException("Solo se pueden reactivar notificaciones fallidas");
+        }
+        this.estado = EstadoNotificacion.PENDIENTE;
+        this.intentos = 0;
+        this.proximoIntento = ahora;
+    }
+    
+    public boolean estaFallida() {
+        return estado == EstadoNotificacion.FALLIDA;
+    }
+    
+    private static String recortar(String error) {
+        if (error == null || error.length() <= LONGITUD_MAXIMA_ERROR) {
+            return error;
+        }
+        return error.substring(0, LONGITUD_MAXIMA_ERROR);
+    }
+}
@@ -0,0 +1,46 @@
+package com.tayronadev.dominio.notificacion.modelo;
+
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Value Object con la política de reintentos de notificaciones.
+ * La espera crece exponencialmente con cada intento fallido, hasta un máximo.
+ */
+@Value
+public class PoliticaReintentos {
+    
+    int maxIntentos;
+    @NonNull Duration esperaBase;
+    @NonNull Duration esperaMaxima;
+    
+    public PoliticaReintentos(int maxIntentos, @NonNull Duration esperaBase, @NonNull Duration esperaMaxima) {
+        if (maxIntentos < 1) {
+            throw new IllegalArgumentException("El número máximo de intentos debe ser al menos 1");
+        }
+        if (esperaBase.isNegative() || esperaBase.isZero() || esperaMaxima.compareTo(esperaBase) < 0) {
+            throw new IllegalArgumentException("La espera base debe ser positiva y no mayor que la espera máxima");
+        }
+        this.maxIntentos = maxIntentos;
+        this.esperaBase = esperaBase;
+        this.esperaMaxima = esperaMaxima;
+    }
+    
+    /**
+     * Espera antes del siguiente intento: base * 2^(intentos - 1), limitada a la espera máxima
+     */
+    public Duration esperaTras(int intentos) {
+        int exponente = Math.min(Math.max(intentos - 1, 0), 30);
+        var espera = esperaBase.multipliedBy(1L << exponente);
+        return espera.compareTo(esperaMaxima) > 0 ? esperaMaxima : espera;
+    }
+    
+    /**
+     * Verifica si ya no quedan intentos disponibles
+     */
+    public boolean agotado(int intentos) {
+        return intentos >= maxIntentos;
+    }
+}
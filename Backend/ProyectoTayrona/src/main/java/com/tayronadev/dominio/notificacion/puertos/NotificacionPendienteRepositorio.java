@@ -0,0 +1,45 @@
+package com.tayronadev.dominio.notificacion.puertos;
+
+import com.tayronadev.dominio.comun.Pagina;
+import com.tayronadev.dominio.comun.SolicitudPagina;
+import com.tayronadev.dominio.notificacion.modelo.NotificacionPendiente;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Puerto (interfaz) para la cola persistente de notificaciones por reintentar.
+ */
+public interface NotificacionPendienteRepositorio {
+    
+    /**
+     * Guarda o actualiza una notificación pendiente
+     */
+    NotificacionPendiente guardar(NotificacionPendiente notificacion);
+    
+    /**
+     * Busca una notificación pendiente por su ID
+     */
+    Optional<NotificacionPendiente> buscarPorId(String id);
+    
+    /**
+     * Toma hasta {@code limite} notificaciones PENDIENTES cuyo próximo intento ya venció, las
+     * más antiguas primero, y aplaza su próximo intento hasta {@code reservadaHasta} en una
+     * transacción corta. Omite las que otra instancia tiene bloqueadas, así que varias
+     * instancias no toman la misma; si el proceso cae sin resolverlas, vuelven a estar
+     * disponibles al vencer la reserva.
+     */
+    List<NotificacionPendiente> reclamarParaReintento(LocalDateTime ahora, LocalDateTime reservadaHasta, int limite);
+    
+    /**
+     * Obtiene una página de las notificaciones que agotaron sus reintentos,
+     * paginada por (fecha de creación, id) de la más reciente a la más antigua
+     */
+    Pagina<NotificacionPendiente> buscarFallidas(SolicitudPagina pagina);
+    
+    /**
+     * Elimina una notificación ya entregada
+     */
+    void eliminar(String id);
+}
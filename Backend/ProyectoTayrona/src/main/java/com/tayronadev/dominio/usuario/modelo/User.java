@@ -7,6 +7,8 @@ import lombok.Setter;
 import com.tayronadev.dominio.usuario.excepcionesUsuario.CorreoExcepcion;
 import com.tayronadev.dominio.usuario.excepcionesUsuario.ContraseñaExcepcion;
 
+import java.util.UUID;
+
 @Getter
 public class User {
 
@@ -23,6 +25,7 @@ public class User {
 
     public User(@NonNull String nombre, @NonNull String correo,
                 @NonNull String contraseña, @NonNull TipoUsuario tipoUsuario) {
+        this.id = UUID.randomUUID().toString();
         this.nombre = nombre;
         this.correo = correo;
         this.contraseña = contraseña;
@@ -34,6 +37,16 @@ public class User {
         validarComposicionContraseña(contraseña);
     }
 
+    /**
+     * Constructor para reconstruir un usuario existente (desde persistencia)
+     */
+    public User(@NonNull String id, @NonNull String nombre, @NonNull String correo,
+                @NonNull String contraseña, @NonNull TipoUsuario tipoUsuario, boolean cuentaActiva) {
+        this(nombre, correo, contraseña, tipoUsuario);
+        this.id = id;
+        this.cuentaActiva = cuentaActiva;
+    }
+
     
     // Validar composicion de correo electronico
     public void validarCorreoElectronico(String correo) {
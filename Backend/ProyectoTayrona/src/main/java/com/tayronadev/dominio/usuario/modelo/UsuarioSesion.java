@@ -0,0 +1,29 @@
+package com.tayronadev.dominio.usuario.modelo;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Datos del usuario autenticado tal como viajan en el token JWT.
+ * Permite auditar y autorizar sin consultar la tabla de usuarios en cada petición.
+ */
+@Value
+public class UsuarioSesion {
+
+    /** Usuario al que se atribuyen los cambios automáticos (creado en la migración V12) */
+    public static final UsuarioSesion SISTEMA = new UsuarioSesion(
+            "00000000-0000-0000-0000-000000000000", "Sistema", "sistema@zonafranca.local", TipoUsuario.ADMINISTRADOR);
+
+    @NonNull String id;
+    @NonNull String nombre;
+    @NonNull String correo;
+    @NonNull TipoUsuario rol;
+
+    public static UsuarioSesion desde(User usuario) {
+        return new UsuarioSesion(usuario.getId(), usuario.getNombre(), usuario.getCorreo(), usuario.getTipoUsuario());
+    }
+
+    public boolean esAdministrador() {
+        return rol == TipoUsuario.ADMINISTRADOR;
+    }
+}
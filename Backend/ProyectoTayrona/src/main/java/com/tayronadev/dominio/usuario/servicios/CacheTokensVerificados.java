@@ -0,0 +1,79 @@
+package com.tayronadev.dominio.usuario.servicios;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché acotada de tokens JWT cuya firma ya fue verificada, indexada por el SHA-256 del
+ * token para no guardar credenciales en memoria. Una entrada deja de ser válida en cuanto
+ * vence la expiración del token y se descarta al consultarla; al llenarse se descarta la
+ * usada hace más tiempo, así que los tokens en uso permanecen en caché.
+ * Mantener el orden de uso modifica el mapa en cada lectura, de modo que todos los accesos
+ * se sincronizan sobre la caché; la sección crítica es una búsqueda en un mapa.
+ */
+class CacheTokensVerificados {
+    
+    private final Map<String, Claims> entradas;
+    
+    CacheTokensVerificados(int capacidadMaxima) {
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> masAntigua) {
+                return size() > capacidadMaxima;
+            }
+        };
+    }
+    
+    /**
+     * Obtiene las claims de un token verificado y aún vigente, o null si no está en caché
+     */
+    Claims obtener(String token) {
+        var clave = huella(token);
+        synchronized (this) {
+            var claims = entradas.get(clave);
+            if (claims == null) {
+                return null;
+            }
+            if (estaVencido(claims)) {
+                entradas.remove(clave);
+                return null;
+            }
+            return claims;
+        }
+    }
+    
+    void guardar(String token, Claims claims) {
+        if (claims.getExpiration() == null) {
+            // Sin expiración no hay forma de acotar la vigencia de la entrada
+            return;
+        }
+        var clave = huella(token);
+        synchronized (this) {
+            entradas.put(clave, claims);
+        }
+    }
+    
+    synchronized int tamano() {
+        return entradas.size();
+    }
+    
+    private static String huella(String token) {
+        try {
+            var sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Toda JVM debe incluir SHA-256
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+    
+    private static boolean estaVencido(Claims claims) {
+        return claims.getExpiration().getTime() <= System.currentTimeMillis();
+    }
+}
@@ -1,12 +1,17 @@
 package com.tayronadev.dominio.usuario.servicios;
 
+import com.tayronadev.dominio.usuario.modelo.TipoUsuario;
 import com.tayronadev.dominio.usuario.modelo.User;
+import com.tayronadev.dominio.usuario.modelo.UsuarioSesion;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +21,10 @@ import java.util.Date;
 @Service
 public class Jwt {
 
+    static final String CLAIM_ID_USUARIO = "uid";
+    static final String CLAIM_NOMBRE = "name";
+    static final String CLAIM_ROL = "rol";
+
     @Value("${application.security.jwt.secret-key}")
     private String llaveSecreta;
 
@@ -25,6 +34,21 @@ public class Jwt {
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long jwtRefreshExpiration;
 
+    @Value("${application.security.jwt.cache.max-entradas:10000}")
+    private int maxTokensEnCache;
+
+    // Se construyen una sola vez: decodificar la llave y crear el parser en cada petición es costoso
+    private SecretKey llaveFirma;
+    private JwtParser parser;
+    private CacheTokensVerificados tokensVerificados;
+
+    @PostConstruct
+    void inicializar() {
+        llaveFirma = Keys.hmacShaKeyFor(Decoders.BASE64.decode(llaveSecreta));
+        parser = Jwts.parser().verifyWith(llaveFirma).build();
+        tokensVerificados = new CacheTokensVerificados(maxTokensEnCache);
+    }
+
     public String generarToken(final User user) {
         return construirToken(user, jwtExpiracion);
     }
@@ -36,26 +60,53 @@ public class Jwt {
     private String construirToken(final User user, final long expiracion) {
         return Jwts.builder()
                 .subject(user.getCorreo())
-                .claim("name", user.getNombre())
+                .claim(CLAIM_ID_USUARIO, user.getId())
+                .claim(CLAIM_NOMBRE, user.getNombre())
+                .claim(CLAIM_ROL, user.getTipoUsuario().name())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiracion))
-                .signWith(getSignInKey())
+                .signWith(llaveFirma)
                 .compact();
     }
 
+    /**
+     * Extrae las claims de un token verificando su firma y expiración.
+     * Los tokens ya verificados y vigentes se resuelven desde caché sin recalcular el HMAC.
+     */
     public Claims extraerClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        var claims = tokensVerificados.obtener(token);
+        if (claims != null) {
+            return claims;
+        }
+        claims = parser.parseSignedClaims(token).getPayload();
+        tokensVerificados.guardar(token, claims);
+        return claims;
     }
 
-
     public String extraerCorreo(String token) {
         return extraerClaims(token).getSubject();
     }
 
+    /**
+     * Construye el usuario de la sesión a partir de las claims del token, sin consultar la base de datos.
+     *
+     * @throws MalformedJwtException si el token no trae el id, nombre o rol del usuario
+     */
+    public UsuarioSesion extraerSesion(String token) {
+        var claims = extraerClaims(token);
+        var id = claims.get(CLAIM_ID_USUARIO, String.class);
+        var nombre = claims.get(CLAIM_NOMBRE, String.class);
+        var rol = claims.get(CLAIM_ROL, String.class);
+        if (id == null || nombre == null || rol == null || claims.getSubject() == null) {
+            throw new MalformedJwtException("El token no contiene los datos del usuario");
+        }
+        try {
+            return new UsuarioSesion(id, nombre, claims.getSubject(), TipoUsuario.valueOf(rol));
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("Rol desconocido en el token: " + rol);
+        }
+    }
+
     public boolean esTokenValido(String token) {
         try {
             extraerClaims(token);
@@ -66,9 +117,4 @@ public class Jwt {
             return false;
         }
     }
-
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(llaveSecreta);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
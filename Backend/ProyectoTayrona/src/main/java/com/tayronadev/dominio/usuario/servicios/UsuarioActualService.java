@@ -1,6 +1,7 @@
 package com.tayronadev.dominio.usuario.servicios;
 
 import com.tayronadev.dominio.usuario.modelo.User;
+import com.tayronadev.dominio.usuario.modelo.UsuarioSesion;
 
 import java.util.Optional;
 
@@ -12,7 +13,15 @@ import java.util.Optional;
 public interface UsuarioActualService {
     
     /**
-     * Obtiene el usuario actualmente autenticado.
+     * Obtiene los datos de sesión del usuario autenticado tal como vienen en el token.
+     * No consulta la base de datos.
+     * @return Optional con la sesión si está autenticado, vacío si no.
+     */
+    Optional<UsuarioSesion> obtenerSesionActual();
+    
+    /**
+     * Obtiene el usuario actualmente autenticado consultando el repositorio.
+     * Preferir {@link #obtenerSesionActual()} cuando basten el id, nombre y rol.
      * @return Optional con el usuario si está autenticado, vacío si no.
      */
     Optional<User> obtenerUsuarioActual();
@@ -0,0 +1,62 @@
+package com.tayronadev.infraestructura.email;
+
+import com.tayronadev.dominio.notificacion.casosuso.NotificarCambioEstadoCitaUseCase;
+import com.tayronadev.dominio.notificacion.modelo.PoliticaReintentos;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuración del envío de notificaciones: ejecutor acotado y política de reintentos.
+ */
+@Configuration
+@Slf4j
+public class ConfiguracionNotificaciones {
+    
+    /**
+     * Ejecutor dedicado a los correos. La cola es acotada: cuando se llena, el ejecutor
+     * rechaza la tarea (Abort) y NotificarCambioEstadoCitaUseCase la guarda en la cola
+     * persistente de reintentos, en lugar de acumular correos en memoria sin límite o de
+     * enviarlos en el hilo de la petición.
+     */
+    @Bean(name = NotificarCambioEstadoCitaUseCase.EJECUTOR)
+    public ThreadPoolTaskExecutor ejecutorNotificaciones(
+            MeterRegistry metricas,
+            @Value("${app.notificaciones.ejecutor.hilos-base:2}") int hilosBase,
+            @Value("${app.notificaciones.ejecutor.hilos-maximos:4}") int hilosMaximos,
+            @Value("${app.notificaciones.ejecutor.capacidad-cola:500}") int capacidadCola) {
+        var ejecutor = new ThreadPoolTaskExecutor();
+        ejecutor.setCorePoolSize(hilosBase);
+        ejecutor.setMaxPoolSize(hilosMaximos);
+        ejecutor.setQueueCapacity(capacidadCola);
+        ejecutor.setThreadNamePrefix("notificacion-");
+        ejecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        ejecutor.setWaitForTasksToCompleteOnShutdown(true);
+        ejecutor.setAwaitTerminationSeconds(30);
+        
+        Gauge.builder("notificaciones.ejecutor.cola", ejecutor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Notificaciones en espera de un hilo")
+                .register(metricas);
+        Gauge.builder("notificaciones.ejecutor.activos", ejecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Hilos enviando notificaciones")
+                .register(metricas);
+        
+        log.info("Ejecutor de notificaciones: {}-{} hilos, cola de {}", hilosBase, hilosMaximos, capacidadCola);
+        return ejecutor;
+    }
+    
+    @Bean
+    public PoliticaReintentos politicaReintentosNotificaciones(
+            @Value("${app.notificaciones.reintentos.max-intentos:6}") int maxIntentos,
+            @Value("${app.notificaciones.reintentos.espera-base:PT1M}") Duration esperaBase,
+            @Value("${app.notificaciones.reintentos.espera-maxima:PT1H}") Duration esperaMaxima) {
+        return new PoliticaReintentos(maxIntentos, esperaBase, esperaMaxima);
+    }
+}
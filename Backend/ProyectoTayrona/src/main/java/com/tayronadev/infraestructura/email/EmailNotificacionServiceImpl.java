@@ -11,14 +11,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
-
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 
 /**
- * Implementación del servicio de notificaciones usando JavaMailSender y Thymeleaf.
+ * Implementación del servicio de notificaciones usando JavaMailSender.
+ * El HTML lo produce {@link RenderizadorCorreo} a partir de las plantillas Thymeleaf
+ * y la entrega {@link EnviadorCorreoSmtp} sobre conexiones SMTP reutilizadas.
  * Este es el adaptador que conecta el puerto de notificaciones con la infraestructura de email.
  */
 @Service
@@ -27,7 +24,8 @@ import java.util.Locale;
 public class EmailNotificacionServiceImpl implements NotificacionService {
     
     private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private final RenderizadorCorreo renderizador;
+    private final EnviadorCorreoSmtp enviadorSmtp;
     
     @Value("${app.mail.from:noreply@zonafranca.com}")
     private String remitente;
@@ -35,20 +33,6 @@ public class EmailNotificacionServiceImpl implements NotificacionService {
     @Value("${app.mail.enabled:true}")
     private boolean emailHabilitado;
     
-    @Value("${app.empresa.nombre:Zona Franca}")
-    private String nombreEmpresa;
-    
-    @Value("${app.empresa.telefono:}")
-    private String telefonoEmpresa;
-    
-    @Value("${app.empresa.direccion:}")
-    private String direccionEmpresa;
-    
-    private static final DateTimeFormatter FORMATO_FECHA = 
-            DateTimeFormatter.ofPattern("EEEE, d 'de' MMMM 'de' yyyy", new Locale("es", "CO"));
-    private static final DateTimeFormatter FORMATO_HORA = 
-            DateTimeFormatter.ofPattern("hh:mm a", new Locale("es", "CO"));
-    
     @Override
     public void enviarNotificacionCita(NotificacionCita notificacion) {
         if (!emailHabilitado) {
@@ -58,9 +42,7 @@ public class EmailNotificacionServiceImpl implements NotificacionService {
         }
         
         try {
-            String plantilla = determinarPlantilla(notificacion);
-            Context context = crearContexto(notificacion);
-            String contenidoHtml = templateEngine.process(plantilla, context);
+            String contenidoHtml = renderizador.renderizar(notificacion);
             
             enviarCorreoHtml(
                     notificacion.getDestinatarioEmail(),
@@ -79,56 +61,6 @@ public class EmailNotificacionServiceImpl implements NotificacionService {
         return emailHabilitado;
     }
     
-    /**
-     * Determina la plantilla a usar según el tipo de notificación
-     */
-    private String determinarPlantilla(NotificacionCita notificacion) {
-        return switch (notificacion.getTipoNotificacion()) {
-            case CITA_CONFIRMADA -> "email/cita-confirmada";
-            case CITA_RECHAZADA -> "email/cita-rechazada";
-            case CITA_CANCELADA -> "email/cita-cancelada";
-        };
-    }
-    
-    /**
-     * Crea el contexto de Thymeleaf con todas las variables necesarias
-     */
-    private Context crearContexto(NotificacionCita notificacion) {
-        Context context = new Context(new Locale("es", "CO"));
-        
-        // Datos del destinatario
-        context.setVariable("nombreDestinatario", notificacion.getDestinatarioNombre());
-        context.setVariable("emailDestinatario", notificacion.getDestinatarioEmail());
-        
-        // Datos del proveedor
-        context.setVariable("nombreProveedor", notificacion.getNombreProveedor());
-        context.setVariable("nit", notificacion.getNit());
-        
-        // Datos de la cita
-        context.setVariable("citaId", notificacion.getCitaId());
-        context.setVariable("tipoCita", notificacion.getTipoCitaDescripcion());
-        context.setVariable("fechaCita", notificacion.getFechaHoraCita().format(FORMATO_FECHA));
-        context.setVariable("horaCita", notificacion.getFechaHoraCita().format(FORMATO_HORA));
-        context.setVariable("fechaHoraCompleta", notificacion.getFechaHoraCita());
-        
-        // Observaciones/Motivo
-        context.setVariable("observaciones", notificacion.getObservaciones());
-        context.setVariable("tieneObservaciones", 
-                notificacion.getObservaciones() != null && !notificacion.getObservaciones().isBlank());
-        
-        // Datos de la empresa
-        context.setVariable("nombreEmpresa", nombreEmpresa);
-        context.setVariable("telefonoEmpresa", telefonoEmpresa);
-        context.setVariable("direccionEmpresa", direccionEmpresa);
-        
-        // Tipo de notificación
-        context.setVariable("esConfirmacion", notificacion.esConfirmacion());
-        context.setVariable("esRechazo", notificacion.esRechazo());
-        context.setVariable("esCancelacion", notificacion.esCancelacion());
-        
-        return context;
-    }
-    
     /**
      * Envía un correo electrónico con contenido HTML
      */
@@ -142,7 +74,7 @@ public class EmailNotificacionServiceImpl implements NotificacionService {
             helper.setSubject(asunto);
             helper.setText(contenidoHtml, true);
             
-            mailSender.send(mensaje);
+            enviadorSmtp.enviar(mensaje);
             
             log.debug("Correo enviado exitosamente a {}", destinatario);
             
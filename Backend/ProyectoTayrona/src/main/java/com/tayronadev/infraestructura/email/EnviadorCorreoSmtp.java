@@ -0,0 +1,353 @@
+package com.tayronadev.infraestructura.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envía los correos sobre un pequeño grupo de conexiones SMTP que se mantienen abiertas.
+ * Cada hilo del grupo es dueño de una conexión autenticada y envía por ella los mensajes
+ * de la cola uno tras otro, evitando el saludo SMTP y el STARTTLS por cada correo.
+ * La conexión se cierra tras un periodo sin envíos y se reabre con el siguiente mensaje;
+ * mientras sigue abierta se reutiliza sin comprobarla, y solo se verifica si un envío falla.
+ * <p>
+ * {@link #enviar(MimeMessage)} espera el resultado de su mensaje, de modo que los fallos
+ * siguen llegando al llamador (y a la cola de reintentos) como antes. Un mensaje cuya
+ * espera vence se retira de la cola antes de que una conexión lo tome, para que el
+ * reintento no lo entregue dos veces.
+ */
+@Component
+@Slf4j
+public class EnviadorCorreoSmtp {
+
+    private final JavaMailSender mailSender;
+    private final int conexiones;
+    private final Duration cierreInactiva;
+    private final Duration esperaMaxima;
+    private final BlockingQueue<EnvioPendiente> cola = new LinkedBlockingQueue<>();
+    private final List<Thread> hilos = new ArrayList<>();
+    private final AtomicInteger conexionesAbiertas = new AtomicInteger();
+    private volatile boolean activo = true;
+
+    private final Timer latenciaEnvio;
+    private final Counter correosEnviados;
+    private final Counter correosFallidos;
+
+    public EnviadorCorreoSmtp(JavaMailSender mailSender,
+                              MeterRegistry metricas,
+                              @Value("${app.mail.pool.conexiones:2}") int conexiones,
+                              @Value("${app.mail.pool.cierre-inactiva:PT30S}") Duration cierreInactiva,
+                              @Value("${app.mail.pool.espera-maxima:PT2M}") Duration esperaMaxima) {
+        if (conexiones < 1) {
+            throw new IllegalArgumentException("El grupo SMTP requiere al menos una conexión");
+        }
+        this.mailSender = mailSender;
+        this.conexiones = conexiones;
+        this.cierreInactiva = cierreInactiva;
+        this.esperaMaxima = esperaMaxima;
+
+        Gauge.builder("notificaciones.smtp.cola", cola, BlockingQueue::size)
+                .description("Correos en espera de una conexión SMTP")
+                .register(metricas);
+        Gauge.builder("notificaciones.smtp.conexiones", conexionesAbiertas, AtomicInteger::get)
+                .description("Conexiones SMTP abiertas")
+                .register(metricas);
+        this.latenciaEnvio = Timer.builder("notificaciones.smtp.envio")
+                .description("Tiempo de envío de un correo por una conexión abierta")
+                .register(metricas);
+        this.correosEnviados = Counter.builder("notificaciones.smtp.enviados").register(metricas);
+        this.correosFallidos = Counter.builder("notificaciones.smtp.fallidos").register(metricas);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        for (int i = 1; i <= conexiones; i++) {
+            var hilo = new Thread(this::atenderCola, "smtp-conexion-" + i);
+            hilo.setDaemon(true);
+            hilo.start();
+            hilos.add(hilo);
+        }
+        log.info("Envío SMTP con {} conexiones reutilizables", conexiones);
+    }
+
+    @PreDestroy
+    void detener() {
+        activo = false;
+        hilos.forEach(Thread::interrupt);
+        EnvioPendiente pendiente;
+        while ((pendiente = cola.poll()) != null) {
+            pendiente.resultado().completeExceptionally(
+                    new MailSendException("El envío de correos se detuvo antes de procesar el mensaje"));
+        }
+    }
+
+    /**
+     * Encola el mensaje y espera a que una de las conexiones lo entregue
+     */
+    public void enviar(MimeMessage mensaje) {
+        var pendiente = encolarEnvio(mensaje);
+        try {
+            esperar(pendiente);
+        } catch (InterruptedException e) {
+            retirar(pendiente);
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Envío de correo interrumpido");
+        }
+    }
+
+    CompletableFuture<Void> encolar(MimeMessage mensaje) {
+        return encolarEnvio(mensaje).resultado();
+    }
+
+    private EnvioPendiente encolarEnvio(MimeMessage mensaje) {
+        var pendiente = new EnvioPendiente(mensaje, new CompletableFuture<>(), new AtomicBoolean());
+        cola.add(pendiente);
+        return pendiente;
+    }
+
+    /**
+     * Espera el resultado del envío. Si vence el plazo y ninguna conexión tomó el mensaje,
+     * lo retira para que no se entregue después de informar el fallo; si ya se está
+     * enviando, espera a que termine (lo acotan los timeouts de la conexión SMTP).
+     */
+    private void esperar(EnvioPendiente pendiente) throws InterruptedException {
+        try {
+            try {
+                pendiente.resultado().get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (retirar(pendiente)) {
+                    throw new MailSendException("El correo no se envió en " + esperaMaxima.toSeconds() + " s");
+                }
+                pendiente.resultado().get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MailException mailException) {
+                throw mailException;
+            }
+            throw new MailSendException("Error al enviar el correo", e.getCause());
+        }
+    }
+
+    /**
+     * Retira de la cola un mensaje que ninguna conexión ha tomado todavía
+     *
+     * @return false si una conexión ya lo está enviando
+     */
+    private boolean retirar(EnvioPendiente pendiente) {
+        if (!pendiente.tomar()) {
+            return false;
+        }
+        pendiente.resultado().cancel(false);
+        cola.remove(pendiente);
+        return true;
+    }
+
+    /**
+     * Ciclo de cada hilo: espera mensajes, los envía por su conexión
+     * y la cierra cuando pasa el tiempo de inactividad sin trabajo.
+     */
+    private void atenderCola() {
+        var conexion = nuevaConexion();
+        try {
+            while (activo) {
+                try {
+                    if (!procesarSiguiente(conexion, cierreInactiva.toMillis())) {
+                        conexion.cerrar();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("Error inesperado en el envío SMTP: {}", e.getMessage(), e);
+                }
+            }
+        } finally {
+            conexion.cerrar();
+        }
+    }
+
+    /**
+     * Toma el siguiente mensaje de la cola y lo envía por la conexión. Los mensajes
+     * retirados por su llamador (espera vencida) se descartan sin enviarse.
+     *
+     * @return false si no llegó ningún mensaje durante la espera
+     */
+    boolean procesarSiguiente(ConexionSmtp conexion, long esperaMs) throws InterruptedException {
+        var pendiente = cola.poll(esperaMs, TimeUnit.MILLISECONDS);
+        if (pendiente == null) {
+            return false;
+        }
+        if (pendiente.resultado().isDone() || !pendiente.tomar()) {
+            log.debug("Correo retirado por su llamador antes de enviarse; se descarta");
+            return true;
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            conexion.enviar(pendiente);
+        } catch (RuntimeException e) {
+            conexion.cerrar();
+            if (!pendiente.resultado().isDone()) {
+                registrarFallo(pendiente, e);
+            }
+            throw e;
+        }
+        latenciaEnvio.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return true;
+    }
+
+    ConexionSmtp nuevaConexion() {
+        return new ConexionSmtp();
+    }
+
+    private void registrarEnvio(EnvioPendiente pendiente) {
+        correosEnviados.increment();
+        pendiente.resultado().complete(null);
+    }
+
+    private void registrarFallo(EnvioPendiente pendiente, Exception error) {
+        correosFallidos.increment();
+        pendiente.resultado().completeExceptionally(error instanceof MailException
+                ? error
+                : new MailSendException("Error al enviar el correo: " + error.getMessage(), error));
+    }
+
+    /**
+     * Mensaje en cola. {@code tomado} lo reclama una sola vez: o lo toma una conexión
+     * para enviarlo o lo retira su llamador al vencer la espera, nunca ambos.
+     */
+    private record EnvioPendiente(MimeMessage mensaje, CompletableFuture<Void> resultado, AtomicBoolean tomado) {
+
+        boolean tomar() {
+            return tomado.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Conexión SMTP de un hilo. Con {@link JavaMailSenderImpl} mantiene un
+     * {@link Transport} autenticado entre mensajes; con otra implementación delega
+     * cada mensaje en {@link JavaMailSender#send(MimeMessage)}.
+     */
+    class ConexionSmtp {
+
+        private Transport transporte;
+
+        void enviar(EnvioPendiente pendiente) {
+            if (mailSender instanceof JavaMailSenderImpl impl) {
+                enviarPorTransporte(impl, pendiente);
+            } else {
+                enviarConMailSender(pendiente);
+            }
+        }
+
+        /**
+         * Envía un mensaje por la conexión abierta. Solo si el envío falla se comprueba
+         * la conexión (NOOP): si el servidor la cerró, se reconecta una vez y se reintenta.
+         */
+        private void enviarPorTransporte(JavaMailSenderImpl impl, EnvioPendiente pendiente) {
+            try {
+                prepararMensaje(pendiente.mensaje());
+                try {
+                    conectar(impl).sendMessage(pendiente.mensaje(), pendiente.mensaje().getAllRecipients());
+                } catch (MessagingException e) {
+                    if (transporte != null && transporte.isConnected()) {
+                        throw e;
+                    }
+                    cerrar();
+                    conectar(impl).sendMessage(pendiente.mensaje(), pendiente.mensaje().getAllRecipients());
+                }
+                registrarEnvio(pendiente);
+            } catch (MessagingException e) {
+                registrarFallo(pendiente, e);
+            }
+        }
+
+        private void enviarConMailSender(EnvioPendiente pendiente) {
+            try {
+                mailSender.send(pendiente.mensaje());
+                registrarEnvio(pendiente);
+            } catch (MailException e) {
+                registrarFallo(pendiente, e);
+            }
+        }
+
+        /**
+         * Devuelve la conexión abierta sin comprobarla: el hilo la cierra tras
+         * {@code cierre-inactiva} sin envíos, antes de que el servidor la descarte por inactividad
+         */
+        private Transport conectar(JavaMailSenderImpl impl) throws MessagingException {
+            if (transporte != null) {
+                return transporte;
+            }
+            var nuevo = impl.getSession().getTransport(protocolo(impl));
+            nuevo.connect(impl.getHost(), impl.getPort(), vacioComoNulo(impl.getUsername()), vacioComoNulo(impl.getPassword()));
+            transporte = nuevo;
+            conexionesAbiertas.incrementAndGet();
+            return transporte;
+        }
+
+        void cerrar() {
+            if (transporte == null) {
+                return;
+            }
+            try {
+                transporte.close();
+            } catch (MessagingException e) {
+                log.debug("Error al cerrar la conexión SMTP: {}", e.getMessage());
+            } finally {
+                transporte = null;
+                conexionesAbiertas.decrementAndGet();
+            }
+        }
+
+        private void prepararMensaje(MimeMessage mensaje) throws MessagingException {
+            if (mensaje.getSentDate() == null) {
+                mensaje.setSentDate(new Date());
+            }
+            if (mensaje.getMessageID() == null) {
+                mensaje.saveChanges();
+            }
+        }
+
+        /**
+         * Protocolo de transporte con la misma precedencia que JavaMailSenderImpl
+         */
+        private String protocolo(JavaMailSenderImpl impl) {
+            if (impl.getProtocol() != null) {
+                return impl.getProtocol();
+            }
+            var deSesion = impl.getSession().getProperty("mail.transport.protocol");
+            return deSesion != null ? deSesion : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        }
+
+        private String vacioComoNulo(String valor) {
+            return valor == null || valor.isEmpty() ? null : valor;
+        }
+    }
+}
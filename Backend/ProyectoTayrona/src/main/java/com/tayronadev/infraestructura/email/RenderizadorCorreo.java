@@ -0,0 +1,153 @@
+package com.tayronadev.infraestructura.email;
+
+import com.tayronadev.dominio.notificacion.modelo.NotificacionCita;
+import com.tayronadev.dominio.notificacion.modelo.TipoNotificacion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renderiza el HTML de las notificaciones de citas con Thymeleaf.
+ * Las variables de empresa del pie se calculan una sola vez y las plantillas
+ * (con el fragmento base) se precalientan al arrancar, de modo que el primer
+ * correo no paga el análisis de las plantillas.
+ */
+@Component
+@Slf4j
+public class RenderizadorCorreo {
+
+    static final Locale LOCALE = new Locale("es", "CO");
+
+    private static final DateTimeFormatter FORMATO_FECHA =
+            DateTimeFormatter.ofPattern("EEEE, d 'de' MMMM 'de' yyyy", LOCALE);
+    private static final DateTimeFormatter FORMATO_HORA =
+            DateTimeFormatter.ofPattern("hh:mm a", LOCALE);
+
+    private final TemplateEngine templateEngine;
+    private final Map<String, Object> variablesEmpresa;
+
+    public RenderizadorCorreo(
+            TemplateEngine templateEngine,
+            @Value("${app.empresa.nombre:Zona Franca}") String nombreEmpresa,
+            @Value("${app.empresa.telefono:}") String telefonoEmpresa,
+            @Value("${app.empresa.direccion:}") String direccionEmpresa) {
+        this.templateEngine = templateEngine;
+        this.variablesEmpresa = crearVariablesEmpresa(nombreEmpresa, telefonoEmpresa, direccionEmpresa);
+    }
+
+    /**
+     * Renderiza la plantilla correspondiente al tipo de notificación
+     */
+    public String renderizar(NotificacionCita notificacion) {
+        return templateEngine.process(plantillaPara(notificacion.getTipoNotificacion()), crearContexto(notificacion));
+    }
+
+    /**
+     * Analiza y deja en caché las plantillas de correo y el fragmento base
+     * renderizando cada una con datos de ejemplo. Un fallo solo se registra:
+     * el envío real volverá a intentarlo y reportará el error.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precalentar() {
+        long inicio = System.nanoTime();
+        for (TipoNotificacion tipo : TipoNotificacion.values()) {
+            try {
+                renderizar(notificacionDeEjemplo(tipo));
+            } catch (Exception e) {
+                log.error("No se pudo precalentar la plantilla {}: {}", plantillaPara(tipo), e.getMessage());
+            }
+        }
+        log.info("Plantillas de correo precalentadas en {} ms", (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Determina la plantilla a usar según el tipo de notificación
+     */
+    static String plantillaPara(TipoNotificacion tipo) {
+        return switch (tipo) {
+            case CITA_CONFIRMADA -> "email/cita-confirmada";
+            case CITA_RECHAZADA -> "email/cita-rechazada";
+            case CITA_CANCELADA -> "email/cita-cancelada";
+        };
+    }
+
+    /**
+     * Crea el contexto de Thymeleaf con los datos propios del mensaje
+     * más las variables de empresa precalculadas
+     */
+    private Context crearContexto(NotificacionCita notificacion) {
+        Context context = new Context(LOCALE, variablesEmpresa);
+
+        // Datos del destinatario
+        context.setVariable("nombreDestinatario", notificacion.getDestinatarioNombre());
+        context.setVariable("emailDestinatario", notificacion.getDestinatarioEmail());
+
+        // Datos del proveedor
+        context.setVariable("nombreProveedor", notificacion.getNombreProveedor());
+        context.setVariable("nit", notificacion.getNit());
+
+        // Datos de la cita
+        context.setVariable("citaId", notificacion.getCitaId());
+        context.setVariable("tipoCita", notificacion.getTipoCitaDescripcion());
+        context.setVariable("fechaCita", notificacion.getFechaHoraCita().format(FORMATO_FECHA));
+        context.setVariable("horaCita", notificacion.getFechaHoraCita().format(FORMATO_HORA));
+        context.setVariable("fechaHoraCompleta", notificacion.getFechaHoraCita());
+
+        // Observaciones/Motivo
+        context.setVariable("observaciones", notificacion.getObservaciones());
+        context.setVariable("tieneObservaciones",
+                notificacion.getObservaciones() != null && !notificacion.getObservaciones().isBlank());
+
+        // Tipo de notificación
+        context.setVariable("esConfirmacion", notificacion.esConfirmacion());
+        context.setVariable("esRechazo", notificacion.esRechazo());
+        context.setVariable("esCancelacion", notificacion.esCancelacion());
+
+        return context;
+    }
+
+    /**
+     * Variables del pie de empresa. Los textos de contacto se omiten
+     * cuando no están configurados para que el fragmento no los muestre.
+     */
+    private static Map<String, Object> crearVariablesEmpresa(String nombre, String telefono, String direccion) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("nombreEmpresa", nombre);
+        if (!esVacio(telefono)) {
+            variables.put("contactoTelefono", "📞 " + telefono);
+        }
+        if (!esVacio(direccion)) {
+            variables.put("contactoDireccion", "📍 " + direccion);
+        }
+        return Map.copyOf(variables);
+    }
+
+    private static boolean esVacio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    private static NotificacionCita notificacionDeEjemplo(TipoNotificacion tipo) {
+        return NotificacionCita.builder()
+                .destinatarioEmail("precalentamiento@localhost")
+                .destinatarioNombre("Precalentamiento")
+                .nombreProveedor("Proveedor")
+                .nit("000000000-0")
+                .citaId("precalentamiento")
+                .tipoCita("ENTREGA")
+                .tipoCitaDescripcion("Entrega")
+                .fechaHoraCita(LocalDateTime.of(2030, 1, 7, 10, 0))
+                .tipoNotificacion(tipo)
+                .observaciones("Observaciones")
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.tayronadev.infraestructura.persistencia;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Detecta las consultas que leen una tabla vigilada completa: un SELECT sin WHERE
+ * ni límite de filas, como el que genera un {@code findAll}. Estas lecturas crecen con
+ * la tabla en memoria y en tiempo, así que cada una se registra con su SQL y se cuenta
+ * en la métrica {@code persistencia.lecturas.completas}; con {@code rechazar} activo,
+ * además se impide ejecutarla.
+ * <p>
+ * Los conteos ({@code SELECT count(...)}) y las consultas agrupadas ({@code GROUP BY})
+ * no se marcan: recorren la tabla pero devuelven una fila por grupo, no por registro.
+ */
+@Component
+@Slf4j
+public class GuardiaLecturasCompletas implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final Pattern CON_FILTRO =
+            Pattern.compile("\\b(where|limit|fetch|group\\s+by)\\b|^\\s*select\\s+count\\(");
+    private static final Pattern TABLA_CONSULTADA = Pattern.compile("\\bfrom\\s+(\\w+)");
+
+    private final MeterRegistry metricas;
+    private final Set<String> tablasVigiladas;
+    private final boolean rechazar;
+
+    public GuardiaLecturasCompletas(MeterRegistry metricas,
+                                    @Value("${app.persistencia.lecturas-completas.tablas:citas}") Set<String> tablasVigiladas,
+                                    @Value("${app.persistencia.lecturas-completas.rechazar:false}") boolean rechazar) {
+        this.metricas = metricas;
+        this.tablasVigiladas = Set.copyOf(tablasVigiladas);
+        this.rechazar = rechazar;
+    }
+
+    @Override
+    public void customize(Map<String, Object> propiedades) {
+        propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        var tabla = tablaLeidaCompleta(sql);
+        if (tabla != null) {
+            metricas.counter("persistencia.lecturas.completas", "tabla", tabla).increment();
+            if (rechazar) {
+                throw new IllegalStateException("Lectura completa de la tabla " + tabla + " no permitida: " + sql);
+            }
+            log.warn("Lectura completa de la tabla {}: {}", tabla, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Devuelve la tabla vigilada que la sentencia lee sin filtro, o null si no es el caso
+     */
+    String tablaLeidaCompleta(String sql) {
+        if (!sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+            return null;
+        }
+        var minusculas = sql.toLowerCase(Locale.ROOT);
+        if (CON_FILTRO.matcher(minusculas).find()) {
+            return null;
+        }
+        var tabla = TABLA_CONSULTADA.matcher(minusculas);
+        return tabla.find() && tablasVigiladas.contains(tabla.group(1)) ? tabla.group(1) : null;
+    }
+}
@@ -0,0 +1,140 @@
+package com.tayronadev.infraestructura.persistencia;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mantiene las particiones mensuales de auditoria_cambios_estado (migración V10):
+ * crea por adelantado las de los próximos meses, para que ningún registro se quede sin
+ * partición, y archiva las que superan la retención moviéndolas al esquema
+ * auditoria_archivo. Corre al iniciar y cada día; ambas operaciones son idempotentes.
+ * <p>
+ * Los registros de un mes sin partición caen en la partición DEFAULT (V14) y se mueven
+ * al crearla. Tras cada ejecución publica los meses futuros cubiertos
+ * ({@code auditoria.particiones.meses-cubiertos}) y las filas en la DEFAULT
+ * ({@code auditoria.particiones.default.registros}), y avisa si faltan particiones.
+ */
+@Component
+@Slf4j
+public class ParticionesAuditoria {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int mesesAdelante;
+    private final int mesesRetencion;
+    private final AtomicLong mesesCubiertos = new AtomicLong();
+    private final AtomicLong registrosSinParticion = new AtomicLong();
+
+    public ParticionesAuditoria(JdbcTemplate jdbcTemplate,
+                                MeterRegistry metricas,
+                                @Value("${app.auditoria.particiones.meses-adelante:3}") int mesesAdelante,
+                                @Value("${app.auditoria.particiones.meses-retencion:24}") int mesesRetencion) {
+        if (mesesAdelante < 1) {
+            throw new IllegalArgumentException("Se debe crear al menos la partición del mes siguiente");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.mesesAdelante = mesesAdelante;
+        this.mesesRetencion = mesesRetencion;
+
+        Gauge.builder("auditoria.particiones.meses-cubiertos", mesesCubiertos, AtomicLong::get)
+                .description("Meses siguientes al actual que ya tienen partición de auditoría")
+                .register(metricas);
+        Gauge.builder("auditoria.particiones.default.registros", registrosSinParticion, AtomicLong::get)
+                .description("Registros de auditoría en la partición DEFAULT, a la espera de la de su mes")
+                .register(metricas);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.auditoria.particiones.cron:0 30 2 * * *}")
+    public void mantener() {
+        try {
+            mantener(YearMonth.now());
+        } catch (DataAccessException e) {
+            // Se reintenta en la próxima ejecución; las particiones ya creadas cubren varios meses
+            log.error("No se pudieron mantener las particiones de auditoría", e);
+        }
+        try {
+            vigilar(YearMonth.now());
+        } catch (DataAccessException e) {
+            log.error("No se pudo comprobar la cobertura de las particiones de auditoría", e);
+        }
+    }
+
+    void mantener(YearMonth actual) {
+        var creadas = crearParticiones(actual, actual.plusMonths(mesesAdelante));
+        log.debug("Particiones de auditoría disponibles hasta {}: {}", actual.plusMonths(mesesAdelante), creadas);
+        if (mesesRetencion > 0) {
+            var archivadas = archivarAnteriores(actual.minusMonths(mesesRetencion));
+            if (!archivadas.isEmpty()) {
+                log.info("Particiones de auditoría archivadas en auditoria_archivo: {}", archivadas);
+            }
+        }
+    }
+
+    /**
+     * Actualiza las métricas de cobertura y avisa si quedan menos meses con partición de los
+     * configurados o si hay registros esperando en la partición DEFAULT
+     */
+    void vigilar(YearMonth actual) {
+        var existentes = new HashSet<>(jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'auditoria_cambios_estado'::regclass
+                """, String.class));
+        int cubiertos = 0;
+        while (existentes.contains(nombreParticion(actual.plusMonths(cubiertos + 1)))) {
+            cubiertos++;
+        }
+        mesesCubiertos.set(cubiertos);
+        if (!existentes.contains(nombreParticion(actual)) || cubiertos < mesesAdelante) {
+            log.warn("Particiones de auditoría insuficientes: {} meses cubiertos tras {} de {} configurados",
+                    cubiertos, actual, mesesAdelante);
+        }
+
+        Long sinParticion = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM auditoria_cambios_estado_default", Long.class);
+        registrosSinParticion.set(sinParticion != null ? sinParticion : 0);
+        if (registrosSinParticion.get() > 0) {
+            log.warn("{} registros de auditoría en la partición DEFAULT esperan la partición de su mes",
+                    registrosSinParticion.get());
+        }
+    }
+
+    static String nombreParticion(YearMonth mes) {
+        return "auditoria_cambios_estado_p%d%02d".formatted(mes.getYear(), mes.getMonthValue());
+    }
+
+    /**
+     * Crea, si no existen, las particiones de los meses desde..hasta (ambos incluidos),
+     * moviendo a cada una los registros de su mes que estuvieran en la partición DEFAULT
+     */
+    public List<String> crearParticiones(YearMonth desde, YearMonth hasta) {
+        List<String> particiones = new ArrayList<>();
+        for (var mes = desde; !mes.isAfter(hasta); mes = mes.plusMonths(1)) {
+            particiones.add(jdbcTemplate.queryForObject("SELECT crear_particion_auditoria(?)",
+                    String.class, Date.valueOf(mes.atDay(1))));
+        }
+        return particiones;
+    }
+
+    /**
+     * Separa de la tabla viva las particiones de meses anteriores al indicado y las archiva
+     */
+    public List<String> archivarAnteriores(YearMonth mes) {
+        return jdbcTemplate.queryForList("SELECT archivar_particiones_auditoria(?)",
+                String.class, Date.valueOf(mes.atDay(1)));
+    }
+}
@@ -0,0 +1,37 @@
+package com.tayronadev.infraestructura.persistencia.entidades;
+
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad JPA para la capacidad de una hora por tipo de cita y día de la semana.
+ */
+@Entity
+@Table(name = "capacidad_horarios")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CapacidadHorarioEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_cita", nullable = false, length = 20)
+    private TipoCita tipoCita;
+    
+    // ISO: 1 = lunes ... 7 = domingo
+    @Column(name = "dia_semana", nullable = false)
+    private int diaSemana;
+    
+    @Column(name = "hora", nullable = false)
+    private int hora;
+    
+    @Column(name = "capacidad", nullable = false)
+    private int capacidad;
+}
@@ -98,6 +98,9 @@ public class CitaEntity {
     @Column(name = "fecha_hora", nullable = false)
     private LocalDateTime fechaHora;
     
+    @Column(name = "muelle", nullable = false, updatable = false)
+    private int muelle = 1;
+    
     // Observaciones
     @Column(name = "observaciones", columnDefinition = "TEXT")
     private String observaciones;
@@ -111,6 +114,11 @@ public class CitaEntity {
     @Column(name = "fecha_ultima_modificacion", nullable = false)
     private LocalDateTime fechaUltimaModificacion;
     
+    // Bloqueo optimista
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     /**
      * Enum para el tipo de transporte en JPA
      */
@@ -0,0 +1,29 @@
+package com.tayronadev.infraestructura.persistencia.entidades;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Entidad JPA para las fechas en las que no se atienden citas.
+ */
+@Entity
+@Table(name = "dias_no_habiles")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiaNoHabilEntity {
+    
+    @Id
+    @Column(name = "fecha")
+    private LocalDate fecha;
+    
+    @Column(name = "descripcion", length = 200)
+    private String descripcion;
+}
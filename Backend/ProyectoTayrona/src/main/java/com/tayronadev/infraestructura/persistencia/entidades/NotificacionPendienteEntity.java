@@ -0,0 +1,56 @@
+package com.tayronadev.infraestructura.persistencia.entidades;
+
+import com.tayronadev.dominio.notificacion.modelo.EstadoNotificacion;
+import com.tayronadev.dominio.notificacion.modelo.TipoNotificacion;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA para la cola de notificaciones por reintentar.
+ */
+@Entity
+@Table(name = "notificaciones_pendientes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificacionPendienteEntity {
+    
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+    
+    @Column(name = "cita_id", nullable = false, length = 36)
+    private String citaId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_notificacion", nullable = false, length = 30)
+    private TipoNotificacion tipoNotificacion;
+    
+    @Column(name = "observaciones", columnDefinition = "TEXT")
+    private String observaciones;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoNotificacion estado;
+    
+    @Column(name = "intentos", nullable = false)
+    private int intentos;
+    
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+    
+    @Column(name = "ultimo_error", columnDefinition = "TEXT")
+    private String ultimoError;
+    
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+    
+    @UpdateTimestamp
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+}
@@ -14,10 +14,10 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "auditoria_cambios_estado", indexes = {
-    @Index(name = "idx_auditoria_cita_id", columnList = "cita_id"),
-    @Index(name = "idx_auditoria_usuario_id", columnList = "usuario_id"),
-    @Index(name = "idx_auditoria_tipo_cambio", columnList = "tipo_cambio"),
-    @Index(name = "idx_auditoria_fecha_cambio", columnList = "fecha_cambio")
+    @Index(name = "idx_auditoria_usuario_fecha_id", columnList = "usuario_id, fecha_cambio DESC, id DESC"),
+    @Index(name = "idx_auditoria_cita_fecha_id", columnList = "cita_id, fecha_cambio DESC, id DESC"),
+    @Index(name = "idx_auditoria_tipo_fecha_id", columnList = "tipo_cambio, fecha_cambio DESC, id DESC"),
+    @Index(name = "idx_auditoria_fecha_id", columnList = "fecha_cambio DESC, id DESC")
 })
 @Data
 @NoArgsConstructor
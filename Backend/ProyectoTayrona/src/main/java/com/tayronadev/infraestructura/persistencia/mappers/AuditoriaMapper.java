@@ -5,34 +5,12 @@ import com.tayronadev.infraestructura.persistencia.entidades.RegistroAuditoriaEn
 import org.springframework.stereotype.Component;
 
 /**
- * Mapper para convertir entre el modelo de dominio RegistroCambioEstado
- * y la entidad JPA RegistroAuditoriaEntity.
+ * Mapper para convertir la entidad JPA RegistroAuditoriaEntity al modelo de dominio
+ * RegistroCambioEstado. Los registros se escriben por JDBC en EscritorAuditoriaJdbc.
  */
 @Component
 public class AuditoriaMapper {
     
-    /**
-     * Convierte un modelo de dominio a entidad JPA
-     */
-    public RegistroAuditoriaEntity toEntity(RegistroCambioEstado registro) {
-        if (registro == null) {
-            return null;
-        }
-        
-        RegistroAuditoriaEntity entity = new RegistroAuditoriaEntity();
-        entity.setId(registro.getId());
-        entity.setCitaId(registro.getCitaId());
-        entity.setUsuarioId(registro.getUsuarioId());
-        entity.setUsuarioNombre(registro.getUsuarioNombre());
-        entity.setTipoCambio(registro.getTipoCambio());
-        entity.setEstadoAnterior(registro.getEstadoAnterior());
-        entity.setEstadoNuevo(registro.getEstadoNuevo());
-        entity.setObservaciones(registro.getObservaciones());
-        entity.setFechaCambio(registro.getFechaCambio());
-        
-        return entity;
-    }
-    
     /**
      * Convierte una entidad JPA a modelo de dominio
      */
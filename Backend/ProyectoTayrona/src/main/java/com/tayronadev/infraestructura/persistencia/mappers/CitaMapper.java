@@ -48,6 +48,7 @@ public class CitaMapper {
         
         // Horario
         entity.setFechaHora(cita.getHorario().getFechaHora());
+        entity.setMuelle(cita.getMuelle());
         
         // Observaciones
         entity.setObservaciones(cita.getObservaciones().orElse(null));
@@ -55,10 +56,23 @@ public class CitaMapper {
         // Auditoría
         entity.setFechaCreacion(cita.getFechaCreacion());
         entity.setFechaUltimaModificacion(cita.getFechaUltimaModificacion());
+        entity.setVersion(cita.getVersion());
         
         return entity;
     }
     
+    /**
+     * Copia el estado mutable de la cita sobre una entidad ya gestionada.
+     * Los demás datos de la cita son inmutables; el dirty checking de Hibernate
+     * decide si hace falta el UPDATE. La versión no se copia: la gestiona Hibernate.
+     */
+    public void actualizarEntidad(Cita cita, CitaEntity entity) {
+        entity.setEstado(cita.getEstado());
+        entity.setEstadoPostCita(cita.getEstadoPostCita().orElse(null));
+        entity.setObservaciones(cita.getObservaciones().orElse(null));
+        entity.setFechaUltimaModificacion(cita.getFechaUltimaModificacion());
+    }
+    
     /**
      * Convierte una entidad JPA a entidad de dominio
      */
@@ -97,7 +111,9 @@ public class CitaMapper {
             entity.getObservaciones(),
             entity.getEstadoPostCita(),
             entity.getFechaCreacion(),
-            entity.getFechaUltimaModificacion()
+            entity.getFechaUltimaModificacion(),
+            entity.getVersion(),
+            entity.getMuelle()
         );
     }
     
@@ -0,0 +1,56 @@
+package com.tayronadev.infraestructura.persistencia.mappers;
+
+import com.tayronadev.dominio.notificacion.modelo.NotificacionPendiente;
+import com.tayronadev.infraestructura.persistencia.entidades.NotificacionPendienteEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper para convertir entre el modelo de dominio NotificacionPendiente
+ * y la entidad JPA NotificacionPendienteEntity.
+ */
+@Component
+public class NotificacionPendienteMapper {
+    
+    /**
+     * Convierte un modelo de dominio a entidad JPA
+     */
+    public NotificacionPendienteEntity toEntity(NotificacionPendiente notificacion) {
+        if (notificacion == null) {
+            return null;
+        }
+        
+        var entity = new NotificacionPendienteEntity();
+        entity.setId(notificacion.getId());
+        entity.setCitaId(notificacion.getCitaId());
+        entity.setTipoNotificacion(notificacion.getTipoNotificacion());
+        entity.setObservaciones(notificacion.getObservaciones());
+        entity.setEstado(notificacion.getEstado());
+        entity.setIntentos(notificacion.getIntentos());
+        entity.setProximoIntento(notificacion.getProximoIntento());
+        entity.setUltimoError(notificacion.getUltimoError());
+        entity.setFechaCreacion(notificacion.getFechaCreacion());
+        
+        return entity;
+    }
+    
+    /**
+     * Convierte una entidad JPA a modelo de dominio
+     */
+    public NotificacionPendiente toDomain(NotificacionPendienteEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        
+        return new NotificacionPendiente(
+            entity.getId(),
+            entity.getCitaId(),
+            entity.getTipoNotificacion(),
+            entity.getObservaciones(),
+            entity.getEstado(),
+            entity.getIntentos(),
+            entity.getProximoIntento(),
+            entity.getUltimoError(),
+            entity.getFechaCreacion()
+        );
+    }
+}
@@ -18,6 +18,7 @@ public class UsuarioMapper {
         
         var entity = new UsuarioEntity();
 
+        entity.setId(user.getId());
         entity.setNombre(user.getNombre());
         entity.setCorreo(user.getCorreo());
         entity.setContraseña(user.getContraseña());
@@ -38,10 +39,12 @@ public class UsuarioMapper {
         // al estar en la base de datos. Si necesitamos evitar validaciones en reconstrucción,
         // se podría considerar agregar un constructor de reconstrucción en User
         return new User(
+            entity.getId(),
             entity.getNombre(),
             entity.getCorreo(),
             entity.getContraseña(),
-            entity.getTipoUsuario()
+            entity.getTipoUsuario(),
+            entity.isCuentaActiva()
         );
     }
 }
@@ -0,0 +1,20 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.auditoria.consultas.FiltroAuditoria;
+import com.tayronadev.dominio.comun.SolicitudPagina;
+import com.tayronadev.infraestructura.persistencia.entidades.RegistroAuditoriaEntity;
+
+import java.util.List;
+
+/**
+ * Fragmento de repositorio para listar registros de auditoría paginados por clave.
+ */
+public interface AuditoriaConsultaJpaRepository {
+    
+    /**
+     * Busca los registros que cumplen el filtro, ordenados por (fechaCambio, id)
+     * a partir del cursor de la solicitud. Devuelve hasta tamano + 1 filas para
+     * saber si existe una página siguiente.
+     */
+    List<RegistroAuditoriaEntity> findPagina(FiltroAuditoria filtro, SolicitudPagina pagina);
+}
@@ -0,0 +1,69 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.auditoria.consultas.FiltroAuditoria;
+import com.tayronadev.dominio.comun.SolicitudPagina;
+import com.tayronadev.infraestructura.persistencia.entidades.RegistroAuditoriaEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación del fragmento de consultas de auditoría.
+ * Construye la consulta JPQL solo con los criterios presentes en el filtro y pagina
+ * por clave sobre (fechaCambio, id); cada criterio tiene un índice que termina en
+ * (fecha_cambio DESC, id DESC), así que la página se lee en orden sin ordenar en memoria.
+ */
+public class AuditoriaConsultaJpaRepositoryImpl implements AuditoriaConsultaJpaRepository {
+    
+    private static final String SELECT_REGISTROS = "SELECT a FROM RegistroAuditoriaEntity a WHERE 1 = 1";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<RegistroAuditoriaEntity> findPagina(FiltroAuditoria filtro, SolicitudPagina pagina) {
+        var jpql = new StringBuilder(SELECT_REGISTROS);
+        Map<String, Object> parametros = new HashMap<>();
+        
+        if (filtro.getCitaId() != null) {
+            jpql.append(" AND a.citaId = :citaId");
+            parametros.put("citaId", filtro.getCitaId());
+        }
+        if (filtro.getUsuarioId() != null) {
+            jpql.append(" AND a.usuarioId = :usuarioId");
+            parametros.put("usuarioId", filtro.getUsuarioId());
+        }
+        if (filtro.getTipoCambio() != null) {
+            jpql.append(" AND a.tipoCambio = :tipoCambio");
+            parametros.put("tipoCambio", filtro.getTipoCambio());
+        }
+        if (filtro.getDesde() != null) {
+            jpql.append(" AND a.fechaCambio >= :desde");
+            parametros.put("desde", filtro.getDesde());
+        }
+        if (filtro.getHasta() != null) {
+            jpql.append(" AND a.fechaCambio <= :hasta");
+            parametros.put("hasta", filtro.getHasta());
+        }
+        
+        var direccion = pagina.isDescendente() ? "DESC" : "ASC";
+        if (pagina.getDespuesDe() != null) {
+            // La primera condición acota el rango del índice; la segunda desempata por id
+            var comparador = pagina.isDescendente() ? "<" : ">";
+            jpql.append(" AND a.fechaCambio ").append(comparador).append("= :cursorFecha")
+                    .append(" AND (a.fechaCambio ").append(comparador).append(" :cursorFecha")
+                    .append(" OR a.id ").append(comparador).append(" :cursorId)");
+            parametros.put("cursorFecha", pagina.getDespuesDe().getFecha());
+            parametros.put("cursorId", pagina.getDespuesDe().getId());
+        }
+        jpql.append(" ORDER BY a.fechaCambio ").append(direccion).append(", a.id ").append(direccion);
+        
+        var query = entityManager.createQuery(jpql.toString(), RegistroAuditoriaEntity.class)
+                .setMaxResults(pagina.getTamano() + 1);
+        parametros.forEach(query::setParameter);
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,12 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.infraestructura.persistencia.entidades.CapacidadHorarioEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio JPA para la capacidad de horarios.
+ */
+@Repository
+public interface CapacidadHorarioJpaRepository extends JpaRepository<CapacidadHorarioEntity, Long> {
+}
@@ -0,0 +1,44 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.citas.modelo.CapacidadHorario;
+import com.tayronadev.dominio.citas.repositorios.CapacidadHorariosRepositorio;
+import com.tayronadev.infraestructura.persistencia.entidades.DiaNoHabilEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación de la configuración de capacidad de horarios usando JPA.
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CapacidadHorariosRepositorioImpl implements CapacidadHorariosRepositorio {
+    
+    private final CapacidadHorarioJpaRepository capacidadJpaRepository;
+    private final DiaNoHabilJpaRepository diaNoHabilJpaRepository;
+    
+    @Override
+    public List<CapacidadHorario> obtenerCapacidades() {
+        return capacidadJpaRepository.findAll().stream()
+                .map(entity -> new CapacidadHorario(
+                        entity.getTipoCita(),
+                        DayOfWeek.of(entity.getDiaSemana()),
+                        entity.getHora(),
+                        entity.getCapacidad()))
+                .toList();
+    }
+    
+    @Override
+    public Set<LocalDate> obtenerDiasNoHabiles() {
+        return diaNoHabilJpaRepository.findAll().stream()
+                .map(DiaNoHabilEntity::getFecha)
+                .collect(Collectors.toSet());
+    }
+}
@@ -1,66 +1,68 @@
 package com.tayronadev.infraestructura.persistencia.repositorios;
 
+import com.tayronadev.dominio.citas.consultas.ConteoCitas;
+import com.tayronadev.dominio.citas.consultas.HorarioOcupado;
 import com.tayronadev.dominio.citas.modelo.EstadoCita;
 import com.tayronadev.dominio.citas.modelo.TipoCita;
 import com.tayronadev.infraestructura.persistencia.entidades.CitaEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio JPA para entidades de cita
  */
 @Repository
-public interface CitaJpaRepository extends JpaRepository<CitaEntity, String> {
+public interface CitaJpaRepository extends JpaRepository<CitaEntity, String>, CitaResumenJpaRepository {
     
     /**
-     * Busca citas por estado
+     * Recorre las citas del rango semiabierto [inicio, fin) en orden (fechaHora, id).
+     * El driver trae las filas por lotes, por lo que debe consumirse dentro de una transacción.
      */
-    List<CitaEntity> findByEstado(EstadoCita estado);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM CitaEntity c WHERE c.fechaHora >= :inicio AND c.fechaHora < :fin ORDER BY c.fechaHora, c.id")
+    Stream<CitaEntity> streamByFechaHoraEnRango(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
     
     /**
-     * Busca citas por tipo y estado
+     * Proyecta el tipo y la fecha y hora de las citas activas en [inicio, fin)
      */
-    List<CitaEntity> findByTipoCitaAndEstado(TipoCita tipoCita, EstadoCita estado);
+    @Query("SELECT new com.tayronadev.dominio.citas.consultas.HorarioOcupado(c.tipoCita, c.fechaHora) FROM CitaEntity c " +
+           "WHERE c.fechaHora >= :inicio AND c.fechaHora < :fin AND c.estado IN ('PENDIENTE', 'CONFIRMADA')")
+    List<HorarioOcupado> findHorariosOcupados(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
     
     /**
-     * Busca citas por NIT del proveedor
+     * Proyecta el tipo y la fecha y hora de las citas activas programadas desde una fecha
      */
-    List<CitaEntity> findByNit(String nit);
+    @Query("SELECT new com.tayronadev.dominio.citas.consultas.HorarioOcupado(c.tipoCita, c.fechaHora) FROM CitaEntity c " +
+           "WHERE c.fechaHora >= :desde AND c.estado IN ('PENDIENTE', 'CONFIRMADA')")
+    List<HorarioOcupado> findHorariosOcupadosDesde(@Param("desde") LocalDateTime desde);
     
     /**
-     * Busca citas en un rango de fechas
+     * Cuenta las citas agrupadas por estado, tipo y día de su horario
      */
-    List<CitaEntity> findByFechaHoraBetween(LocalDateTime fechaInicio, LocalDateTime fechaFin);
+    @Query("SELECT new com.tayronadev.dominio.citas.consultas.ConteoCitas(c.estado, c.tipoCita, cast(c.fechaHora as LocalDate), count(c)) " +
+           "FROM CitaEntity c GROUP BY c.estado, c.tipoCita, cast(c.fechaHora as LocalDate)")
+    List<ConteoCitas> countByEstadoTipoYDia();
     
     /**
-     * Busca citas por fecha específica (usando consulta personalizada)
+     * Muelles de las citas del horario con alguno de los estados, sin cargar las entidades.
+     * Resuelta por el índice único parcial uk_cita_horario_activo.
      */
-    @Query("SELECT c FROM CitaEntity c WHERE DATE(c.fechaHora) = :fecha")
-    List<CitaEntity> findByFecha(@Param("fecha") LocalDate fecha);
-    
-    /**
-     * Busca citas por tipo en una fecha específica
-     */
-    @Query("SELECT c FROM CitaEntity c WHERE c.tipoCita = :tipo AND DATE(c.fechaHora) = :fecha")
-    List<CitaEntity> findByTipoCitaAndFecha(@Param("tipo") TipoCita tipo, @Param("fecha") LocalDate fecha);
-    
-    /**
-     * Busca citas activas (PENDIENTE o CONFIRMADA) por tipo
-     */
-    @Query("SELECT c FROM CitaEntity c WHERE c.tipoCita = :tipo AND c.estado IN ('PENDIENTE', 'CONFIRMADA')")
-    List<CitaEntity> findActivasByTipoCita(@Param("tipo") TipoCita tipo);
-    
-    /**
-     * Busca citas que tienen conflicto de horario
-     */
-    @Query("SELECT c FROM CitaEntity c WHERE c.tipoCita = :tipo AND c.fechaHora = :fechaHora AND c.estado IN ('PENDIENTE', 'CONFIRMADA')")
-    List<CitaEntity> findConflictoHorario(@Param("tipo") TipoCita tipo, @Param("fechaHora") LocalDateTime fechaHora);
+    @Query("SELECT c.muelle FROM CitaEntity c WHERE c.tipoCita = :tipo AND c.fechaHora = :fechaHora AND c.estado IN :estados")
+    List<Integer> findMuellesOcupados(@Param("tipo") TipoCita tipo, @Param("fechaHora") LocalDateTime fechaHora,
+                                      @Param("estados") Collection<EstadoCita> estados);
     
     /**
      * Cuenta citas por estado
@@ -73,30 +75,24 @@ public interface CitaJpaRepository extends JpaRepository<CitaEntity, String> {
     long countByTipoCitaAndEstado(TipoCita tipoCita, EstadoCita estado);
     
     /**
-     * Busca citas por estado ordenadas por fecha de creación
-     */
-    List<CitaEntity> findByEstadoOrderByFechaCreacionDesc(EstadoCita estado);
-    
-    /**
-     * Busca citas por tipo ordenadas por fecha y hora
-     */
-    List<CitaEntity> findByTipoCitaOrderByFechaHoraAsc(TipoCita tipoCita);
-    
-    /**
-     * Busca citas creadas en las últimas 24 horas
+     * Cuenta citas por tipo en cualquiera de los estados indicados (índice tipo_cita, estado)
      */
-    @Query("SELECT c FROM CitaEntity c WHERE c.fechaCreacion >= :fecha")
-    List<CitaEntity> findCitasRecientes(@Param("fecha") LocalDateTime fecha);
+    long countByTipoCitaAndEstadoIn(TipoCita tipoCita, Collection<EstadoCita> estados);
     
     /**
-     * Busca citas próximas (en las próximas 24 horas)
+     * Bloquea (FOR UPDATE) un lote de citas vencidas: pasadas y aún pendientes.
+     * SKIP LOCKED salta las filas que otra transacción ya bloqueó en lugar de esperarlas;
+     * el recorrido usa idx_cita_estado_fecha_hora_id.
      */
-    @Query("SELECT c FROM CitaEntity c WHERE c.fechaHora BETWEEN :ahora AND :limite AND c.estado = 'CONFIRMADA'")
-    List<CitaEntity> findCitasProximas(@Param("ahora") LocalDateTime ahora, @Param("limite") LocalDateTime limite);
+    @Query(value = "SELECT * FROM citas WHERE estado = 'PENDIENTE' AND fecha_hora < :limite " +
+                   "ORDER BY fecha_hora, id LIMIT :cantidad FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<CitaEntity> lockPendientesVencidas(@Param("limite") LocalDateTime limite, @Param("cantidad") int cantidad);
     
     /**
-     * Busca citas vencidas (pasadas y aún pendientes)
+     * Bloquea (FOR UPDATE) las citas con los IDs indicados, en orden de ID para que
+     * dos transacciones que bloquean conjuntos solapados no se interbloqueen
      */
-    @Query("SELECT c FROM CitaEntity c WHERE c.fechaHora < :ahora AND c.estado = 'PENDIENTE'")
-    List<CitaEntity> findCitasVencidas(@Param("ahora") LocalDateTime ahora);
+    @Query(value = "SELECT * FROM citas WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<CitaEntity> lockByIds(@Param("ids") Collection<String> ids);
 }
\ No newline at end of file
@@ -1,18 +1,40 @@
 package com.tayronadev.infraestructura.persistencia.repositorios;
 
+import com.tayronadev.dominio.citas.consultas.CitaResumen;
+import com.tayronadev.dominio.citas.consultas.ConteoCitas;
+import com.tayronadev.dominio.citas.consultas.FiltroCitas;
+import com.tayronadev.dominio.citas.consultas.HorarioOcupado;
+import com.tayronadev.dominio.citas.excepciones.ConflictoVersionCitaException;
+import com.tayronadev.dominio.citas.excepciones.HorarioNoDisponibleException;
 import com.tayronadev.dominio.citas.modelo.Cita;
 import com.tayronadev.dominio.citas.modelo.EstadoCita;
 import com.tayronadev.dominio.citas.modelo.TipoCita;
 import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import com.tayronadev.dominio.comun.Cursor;
+import com.tayronadev.dominio.comun.Pagina;
+import com.tayronadev.dominio.comun.SolicitudPagina;
+import com.tayronadev.infraestructura.persistencia.entidades.CitaEntity;
 import com.tayronadev.infraestructura.persistencia.mappers.CitaMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -23,17 +45,95 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CitaRepositorioImpl implements CitaRepositorio {
     
+    /**
+     * Índice único parcial que impide dos citas activas del mismo tipo en el mismo horario
+     */
+    private static final String RESTRICCION_HORARIO_ACTIVO = "uk_cita_horario_activo";
+    
+    private static final Set<EstadoCita> ESTADOS_ACTIVOS = EnumSet.of(EstadoCita.PENDIENTE, EstadoCita.CONFIRMADA);
+    
     private final CitaJpaRepository jpaRepository;
     private final CitaMapper mapper;
     
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Inserta una cita nueva con persist, sin el SELECT previo que haría un merge,
+     * y fuerza el flush para que la base de datos valide la unicidad del horario.
+     *
+     * @throws HorarioNoDisponibleException si otra cita activa ya ocupa el horario
+     */
+    @Override
+    @Transactional
+    public Cita registrar(Cita cita) {
+        log.debug("Registrando cita con ID: {}", cita.getId());
+        var entity = mapper.toEntity(cita);
+        return escribir(cita, () -> {
+            entityManager.persist(entity);
+            jpaRepository.flush();
+            return mapper.toDomain(entity);
+        });
+    }
+    
+    /**
+     * Guarda la cita forzando el flush para que la base de datos valide la
+     * unicidad del horario dentro de la misma llamada. Si la cita ya está cargada
+     * en la transacción, se actualiza la entidad gestionada y Hibernate emite
+     * solo el UPDATE; si no existe, se inserta.
+     *
+     * @throws HorarioNoDisponibleException si otra cita activa ya ocupa el horario
+     */
     @Override
+    @Transactional
     public Cita guardar(Cita cita) {
         log.debug("Guardando cita con ID: {}", cita.getId());
-        var entity = mapper.toEntity(cita);
-        var savedEntity = jpaRepository.save(entity);
-        var result = mapper.toDomain(savedEntity);
-        log.debug("Cita guardada exitosamente con ID: {}", result.getId());
-        return result;
+        return escribir(cita, () -> {
+            var entity = sincronizar(cita);
+            jpaRepository.flush();
+            log.debug("Cita guardada exitosamente con ID: {}", entity.getId());
+            return mapper.toDomain(entity);
+        });
+    }
+    
+    /**
+     * Guarda las citas con un único flush; con hibernate.jdbc.batch_size los UPDATE
+     * viajan en lotes. Las entidades cargadas en la misma transacción se actualizan
+     * en su lugar, sin volver a consultarlas.
+     * <p>
+     * Un fallo del lote no se atribuye a una cita cualquiera: el conflicto de versión
+     * se informa con el ID de la fila que Hibernate no pudo actualizar y cualquier otro
+     * error se propaga tal cual.
+     *
+     * @throws ConflictoVersionCitaException si alguna cita cambió desde que se cargó
+     */
+    @Override
+    @Transactional
+    public List<Cita> guardarTodas(List<Cita> citas) {
+        if (citas.isEmpty()) {
+            return List.of();
+        }
+        log.debug("Guardando {} citas en lote", citas.size());
+        var entities = citas.stream().map(this::sincronizar).toList();
+        try {
+            jpaRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            if (e.getIdentifier() == null) {
+                throw e;
+            }
+            log.warn("Conflicto de versión al guardar la cita {} en lote", e.getIdentifier());
+            throw new ConflictoVersionCitaException(e.getIdentifier().toString(), e);
+        }
+        return entities.stream().map(mapper::toDomain).toList();
+    }
+    
+    @Override
+    public List<Cita> bloquearPendientesVencidas(LocalDateTime limite, int cantidad) {
+        log.debug("Bloqueando hasta {} citas pendientes vencidas antes de {}", cantidad, limite);
+        return jpaRepository.lockPendientesVencidas(limite, cantidad)
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
     }
     
     @Override
@@ -44,75 +144,70 @@ public class CitaRepositorioImpl implements CitaRepositorio {
     }
     
     @Override
-    public List<Cita> buscarPorEstado(EstadoCita estado) {
-        log.debug("Buscando citas por estado: {}", estado);
-        return jpaRepository.findByEstado(estado)
+    public List<Cita> buscarPorIds(Collection<String> ids) {
+        log.debug("Buscando {} citas por ID", ids.size());
+        return jpaRepository.findAllById(ids)
                 .stream()
                 .map(mapper::toDomain)
                 .collect(Collectors.toList());
     }
     
     @Override
-    public List<Cita> buscarPorTipoYEstado(TipoCita tipo, EstadoCita estado) {
-        log.debug("Buscando citas por tipo: {} y estado: {}", tipo, estado);
-        return jpaRepository.findByTipoCitaAndEstado(tipo, estado)
+    public List<Cita> bloquearPorIds(Collection<String> ids) {
+        log.debug("Bloqueando {} citas por ID", ids.size());
+        return jpaRepository.lockByIds(ids)
                 .stream()
                 .map(mapper::toDomain)
-                .collect(Collectors.toList());
+                .toList();
     }
     
     @Override
-    public List<Cita> buscarPorNitProveedor(String nit) {
-        log.debug("Buscando citas por NIT del proveedor: {}", nit);
-        return jpaRepository.findByNit(nit)
-                .stream()
-                .map(mapper::toDomain)
-                .collect(Collectors.toList());
+    public long recorrerPorRangoFechas(LocalDateTime desde, LocalDateTime hasta, Consumer<Cita> consumidor) {
+        log.debug("Recorriendo citas entre {} y {}", desde, hasta);
+        long total = 0;
+        try (var entidades = jpaRepository.streamByFechaHoraEnRango(desde, hasta)) {
+            var iterador = entidades.iterator();
+            while (iterador.hasNext()) {
+                var entity = iterador.next();
+                consumidor.accept(mapper.toDomain(entity));
+                // Liberar la entidad del contexto de persistencia para que la memoria no crezca con el rango
+                entityManager.detach(entity);
+                total++;
+            }
+        }
+        return total;
     }
     
     @Override
-    public List<Cita> buscarPorRangoFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
-        log.debug("Buscando citas entre {} y {}", fechaInicio, fechaFin);
-        return jpaRepository.findByFechaHoraBetween(fechaInicio, fechaFin)
-                .stream()
-                .map(mapper::toDomain)
-                .collect(Collectors.toList());
+    public List<HorarioOcupado> buscarHorariosOcupados(LocalDateTime desde, LocalDateTime hasta) {
+        log.debug("Buscando horarios ocupados entre {} y {}", desde, hasta);
+        return jpaRepository.findHorariosOcupados(desde, hasta);
     }
     
     @Override
-    public List<Cita> buscarPorFecha(LocalDate fecha) {
-        log.debug("Buscando citas para la fecha: {}", fecha);
-        return jpaRepository.findByFecha(fecha)
-                .stream()
-                .map(mapper::toDomain)
-                .collect(Collectors.toList());
+    public List<HorarioOcupado> buscarHorariosOcupadosDesde(LocalDateTime desde) {
+        log.debug("Buscando horarios ocupados desde: {}", desde);
+        return jpaRepository.findHorariosOcupadosDesde(desde);
     }
     
     @Override
-    public List<Cita> buscarPorTipoYFecha(TipoCita tipo, LocalDate fecha) {
-        log.debug("Buscando citas de tipo: {} para la fecha: {}", tipo, fecha);
-        return jpaRepository.findByTipoCitaAndFecha(tipo, fecha)
-                .stream()
-                .map(mapper::toDomain)
-                .collect(Collectors.toList());
+    public Pagina<CitaResumen> buscarResumenes(FiltroCitas filtro, SolicitudPagina pagina) {
+        log.debug("Buscando resúmenes de citas con filtro: {} y página: {}", filtro, pagina);
+        var filas = jpaRepository.findResumenes(filtro, pagina);
+        return Pagina.desdeFilas(filas, pagina.getTamano(),
+                resumen -> new Cursor(resumen.getFechaHora(), resumen.getId()));
     }
     
     @Override
-    public List<Cita> buscarActivasPorTipo(TipoCita tipo) {
-        log.debug("Buscando citas activas de tipo: {}", tipo);
-        return jpaRepository.findActivasByTipoCita(tipo)
-                .stream()
-                .map(mapper::toDomain)
-                .collect(Collectors.toList());
+    public Set<Integer> buscarMuellesOcupados(TipoCita tipo, LocalDateTime fechaHora) {
+        log.debug("Buscando muelles ocupados para tipo: {} en: {}", tipo, fechaHora);
+        return new HashSet<>(jpaRepository.findMuellesOcupados(tipo, fechaHora, ESTADOS_ACTIVOS));
     }
     
     @Override
-    public List<Cita> buscarConflictoHorario(TipoCita tipo, LocalDateTime fechaHora) {
-        log.debug("Buscando conflictos de horario para tipo: {} en: {}", tipo, fechaHora);
-        return jpaRepository.findConflictoHorario(tipo, fechaHora)
-                .stream()
-                .map(mapper::toDomain)
-                .collect(Collectors.toList());
+    public long contarActivasPorTipo(TipoCita tipo) {
+        log.debug("Contando citas activas de tipo: {}", tipo);
+        return jpaRepository.countByTipoCitaAndEstadoIn(tipo, ESTADOS_ACTIVOS);
     }
     
     @Override
@@ -127,6 +222,12 @@ public class CitaRepositorioImpl implements CitaRepositorio {
         return jpaRepository.countByTipoCitaAndEstado(tipo, estado);
     }
     
+    @Override
+    public List<ConteoCitas> contarPorEstadoTipoYDia() {
+        log.debug("Contando citas por estado, tipo y día");
+        return jpaRepository.countByEstadoTipoYDia();
+    }
+    
     @Override
     public boolean existePorId(String id) {
         log.debug("Verificando existencia de cita con ID: {}", id);
@@ -139,41 +240,48 @@ public class CitaRepositorioImpl implements CitaRepositorio {
         jpaRepository.deleteById(id);
     }
     
-    @Override
-    public List<Cita> obtenerTodas() {
-        log.debug("Obteniendo todas las citas");
-        return jpaRepository.findAll()
-                .stream()
-                .map(mapper::toDomain)
-                .collect(Collectors.toList());
-    }
-    
     /**
-     * Métodos adicionales específicos de la implementación
+     * Copia la cita sobre su entidad gestionada, o la persiste si no existe.
+     * find resuelve desde el contexto de persistencia sin consultar cuando la
+     * cita se cargó en la misma transacción. Si la cita se leyó en otra versión,
+     * la escritura se rechaza en lugar de pisar el cambio más reciente.
      */
-    
-    public List<Cita> buscarCitasRecientes() {
-        var hace24Horas = LocalDateTime.now().minusHours(24);
-        return jpaRepository.findCitasRecientes(hace24Horas)
-                .stream()
-                .map(mapper::toDomain)
-                .collect(Collectors.toList());
+    private CitaEntity sincronizar(Cita cita) {
+        var gestionada = entityManager.find(CitaEntity.class, cita.getId());
+        if (gestionada == null) {
+            var nueva = mapper.toEntity(cita);
+            entityManager.persist(nueva);
+            return nueva;
+        }
+        if (cita.getVersion() != null && !cita.getVersion().equals(gestionada.getVersion())) {
+            throw new ConflictoVersionCitaException(cita.getId(), cita.getVersion(), gestionada.getVersion());
+        }
+        mapper.actualizarEntidad(cita, gestionada);
+        return gestionada;
     }
     
-    public List<Cita> buscarCitasProximas() {
-        var ahora = LocalDateTime.now();
-        var en24Horas = ahora.plusHours(24);
-        return jpaRepository.findCitasProximas(ahora, en24Horas)
-                .stream()
-                .map(mapper::toDomain)
-                .collect(Collectors.toList());
+    /**
+     * Ejecuta una escritura traduciendo la violación del índice de horario activo
+     * y el fallo del bloqueo optimista (otra transacción actualizó la cita primero)
+     */
+    private <T> T escribir(Cita cita, Supplier<T> escritura) {
+        try {
+            return escritura.get();
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Conflicto de versión al guardar la cita {}", cita.getId());
+            throw new ConflictoVersionCitaException(cita.getId(), e);
+        } catch (DataIntegrityViolationException e) {
+            if (esConflictoHorario(e)) {
+                log.warn("Muelle {} del horario {} ya ocupado para tipo de cita {}",
+                        cita.getMuelle(), cita.getHorario().getFechaHora(), cita.getTipoCita());
+                throw new HorarioNoDisponibleException(cita.getHorario(), cita.getTipoCita());
+            }
+            throw e;
+        }
     }
     
-    public List<Cita> buscarCitasVencidas() {
-        var ahora = LocalDateTime.now();
-        return jpaRepository.findCitasVencidas(ahora)
-                .stream()
-                .map(mapper::toDomain)
-                .collect(Collectors.toList());
+    private boolean esConflictoHorario(DataIntegrityViolationException e) {
+        var causa = NestedExceptionUtils.getMostSpecificCause(e);
+        return causa.getMessage() != null && causa.getMessage().contains(RESTRICCION_HORARIO_ACTIVO);
     }
 }
\ No newline at end of file
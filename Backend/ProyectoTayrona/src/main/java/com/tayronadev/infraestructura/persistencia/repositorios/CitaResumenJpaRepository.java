@@ -0,0 +1,21 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.citas.consultas.CitaResumen;
+import com.tayronadev.dominio.citas.consultas.FiltroCitas;
+import com.tayronadev.dominio.comun.SolicitudPagina;
+
+import java.util.List;
+
+/**
+ * Fragmento de repositorio para consultas de resumen de citas.
+ * Proyecta solo las columnas del listado en lugar de cargar entidades completas.
+ */
+public interface CitaResumenJpaRepository {
+    
+    /**
+     * Busca los resúmenes de citas que cumplen el filtro, ordenados por (fechaHora, id)
+     * a partir del cursor de la solicitud. Devuelve hasta tamano + 1 filas para
+     * saber si existe una página siguiente.
+     */
+    List<CitaResumen> findResumenes(FiltroCitas filtro, SolicitudPagina pagina);
+}
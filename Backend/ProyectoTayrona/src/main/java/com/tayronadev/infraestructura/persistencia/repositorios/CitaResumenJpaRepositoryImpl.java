@@ -0,0 +1,70 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.citas.consultas.CitaResumen;
+import com.tayronadev.dominio.citas.consultas.FiltroCitas;
+import com.tayronadev.dominio.comun.SolicitudPagina;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación del fragmento de resúmenes de citas.
+ * Construye la consulta JPQL solo con los criterios presentes en el filtro
+ * y pagina por clave sobre (fechaHora, id).
+ */
+public class CitaResumenJpaRepositoryImpl implements CitaResumenJpaRepository {
+    
+    private static final String SELECT_RESUMEN = "SELECT new com.tayronadev.dominio.citas.consultas.CitaResumen("
+            + "c.id, c.tipoCita, c.estado, c.estadoPostCita, c.nombreProveedor, c.nit, c.fechaHora, c.fechaCreacion) "
+            + "FROM CitaEntity c WHERE 1 = 1";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<CitaResumen> findResumenes(FiltroCitas filtro, SolicitudPagina pagina) {
+        var jpql = new StringBuilder(SELECT_RESUMEN);
+        Map<String, Object> parametros = new HashMap<>();
+        
+        if (filtro.getTipoCita() != null) {
+            jpql.append(" AND c.tipoCita = :tipo");
+            parametros.put("tipo", filtro.getTipoCita());
+        }
+        if (filtro.getEstados() != null && !filtro.getEstados().isEmpty()) {
+            jpql.append(" AND c.estado IN :estados");
+            parametros.put("estados", filtro.getEstados());
+        }
+        if (filtro.getNit() != null) {
+            jpql.append(" AND c.nit = :nit");
+            parametros.put("nit", filtro.getNit());
+        }
+        if (filtro.getDesde() != null) {
+            jpql.append(" AND c.fechaHora >= :desde");
+            parametros.put("desde", filtro.getDesde());
+        }
+        if (filtro.getHasta() != null) {
+            jpql.append(" AND c.fechaHora < :hasta");
+            parametros.put("hasta", filtro.getHasta());
+        }
+        
+        var direccion = pagina.isDescendente() ? "DESC" : "ASC";
+        if (pagina.getDespuesDe() != null) {
+            // La primera condición acota el rango del índice; la segunda desempata por id
+            var comparador = pagina.isDescendente() ? "<" : ">";
+            jpql.append(" AND c.fechaHora ").append(comparador).append("= :cursorFecha")
+                    .append(" AND (c.fechaHora ").append(comparador).append(" :cursorFecha")
+                    .append(" OR c.id ").append(comparador).append(" :cursorId)");
+            parametros.put("cursorFecha", pagina.getDespuesDe().getFecha());
+            parametros.put("cursorId", pagina.getDespuesDe().getId());
+        }
+        jpql.append(" ORDER BY c.fechaHora ").append(direccion).append(", c.id ").append(direccion);
+        
+        var query = entityManager.createQuery(jpql.toString(), CitaResumen.class)
+                .setMaxResults(pagina.getTamano() + 1);
+        parametros.forEach(query::setParameter);
+        return query.getResultList();
+    }
+}
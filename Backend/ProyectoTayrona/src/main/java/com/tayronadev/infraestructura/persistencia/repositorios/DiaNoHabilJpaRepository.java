@@ -0,0 +1,14 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.infraestructura.persistencia.entidades.DiaNoHabilEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * Repositorio JPA para los días no hábiles.
+ */
+@Repository
+public interface DiaNoHabilJpaRepository extends JpaRepository<DiaNoHabilEntity, LocalDate> {
+}
@@ -0,0 +1,292 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.auditoria.modelo.RegistroCambioEstado;
+import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
+import com.tayronadev.dominio.auditoria.repositorios.EscritorAuditoria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Escritor de auditoría que inserta los registros en lotes JDBC sobre
+ * auditoria_cambios_estado, según el {@link ModoEscrituraAuditoria} configurado.
+ * En la misma transacción que cada lote suma sus conteos a auditoria_resumen_diario
+ * y auditoria_resumen_usuario, agrupados por usuario, tipo de cambio y día.
+ */
+@Repository
+@Slf4j
+public class EscritorAuditoriaJdbc implements EscritorAuditoria {
+
+    static final String SQL_INSERTAR = """
+            INSERT INTO auditoria_cambios_estado
+                (id, cita_id, usuario_id, usuario_nombre, tipo_cambio, estado_anterior, estado_nuevo, observaciones, fecha_cambio)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    static final String SQL_SUMAR_DIARIO = """
+            INSERT INTO auditoria_resumen_diario (usuario_id, fecha, tipo_cambio, cantidad)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (usuario_id, fecha, tipo_cambio)
+            DO UPDATE SET cantidad = auditoria_resumen_diario.cantidad + EXCLUDED.cantidad
+            """;
+
+    static final String SQL_SUMAR_USUARIO = """
+            INSERT INTO auditoria_resumen_usuario (usuario_id, tipo_cambio, cantidad, ultimo_cambio)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (usuario_id, tipo_cambio)
+            DO UPDATE SET cantidad = auditoria_resumen_usuario.cantidad + EXCLUDED.cantidad,
+                          ultimo_cambio = GREATEST(auditoria_resumen_usuario.ultimo_cambio, EXCLUDED.ultimo_cambio)
+            """;
+
+    /** Orden fijo de las filas de conteo: dos lotes concurrentes las bloquean en el mismo orden */
+    private static final Comparator<Incremento> ORDEN_INCREMENTOS = Comparator
+            .comparing(Incremento::usuarioId)
+            .thenComparing(Incremento::tipoCambio)
+            .thenComparing(Incremento::fecha, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ModoEscrituraAuditoria modo;
+    private final int tamanoLote;
+    private final BlockingQueue<RegistroCambioEstado> cola;
+
+    private final Timer latenciaLote;
+    private final Counter registrosEscritos;
+    private final Counter registrosFallidos;
+
+    public EscritorAuditoriaJdbc(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry metricas,
+                                 @Value("${app.auditoria.modo:GARANTIZADO}") ModoEscrituraAuditoria modo,
+                                 @Value("${app.auditoria.lote.tamano:100}") int tamanoLote,
+                                 @Value("${app.auditoria.cola.capacidad:10000}") int capacidadCola) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.modo = modo;
+        this.tamanoLote = tamanoLote;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+
+        Gauge.builder("auditoria.cola.pendientes", cola, BlockingQueue::size)
+                .description("Registros de auditoría en espera de ser escritos")
+                .register(metricas);
+        this.latenciaLote = Timer.builder("auditoria.lote.escritura")
+                .description("Tiempo de escritura de un lote de auditoría")
+                .register(metricas);
+        this.registrosEscritos = Counter.builder("auditoria.registros.escritos").register(metricas);
+        this.registrosFallidos = Counter.builder("auditoria.registros.fallidos").register(metricas);
+        log.info("Auditoría en modo {} con lotes de {} registros", modo, tamanoLote);
+    }
+
+    @Override
+    public void registrar(RegistroCambioEstado registro) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Sin transacción no hay commit al cual atar el registro
+            if (modo == ModoEscrituraAuditoria.ASINCRONO) {
+                encolar(registro);
+            } else {
+                escribirLote(List.of(registro));
+            }
+            return;
+        }
+        pendientesDeTransaccion().add(registro);
+    }
+
+    /**
+     * Vacía la cola en lotes. Solo tiene trabajo en modo ASINCRONO. Corre en el grupo de
+     * tareas programadas (spring.task.scheduling.pool.size), que tiene un hilo por tarea
+     * para que el vaciado no espere detrás de una recarga o de la expiración de citas.
+     */
+    @Scheduled(fixedDelayString = "${app.auditoria.lote.intervalo-ms:200}")
+    public void vaciarCola() {
+        // Cada lote es una lista nueva: no se reutiliza una que ya se entregó a JDBC
+        List<RegistroCambioEstado> lote = new ArrayList<>(tamanoLote);
+        while (cola.drainTo(lote, tamanoLote) > 0) {
+            escribirLoteTolerante(lote);
+            lote = new ArrayList<>(tamanoLote);
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        if (!cola.isEmpty()) {
+            log.info("Escribiendo {} registros de auditoría pendientes antes de detener", cola.size());
+            vaciarCola();
+        }
+    }
+
+    int pendientes() {
+        return cola.size();
+    }
+
+    /**
+     * Acumula los registros de la transacción actual y los escribe una sola vez:
+     * antes del commit en modo GARANTIZADO, o en la cola después del commit en modo ASINCRONO.
+     */
+    @SuppressWarnings("unchecked")
+    private List<RegistroCambioEstado> pendientesDeTransaccion() {
+        var pendientes = (List<RegistroCambioEstado>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes != null) {
+            return pendientes;
+        }
+        var nuevos = new ArrayList<RegistroCambioEstado>();
+        TransactionSynchronizationManager.bindResource(this, nuevos);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (modo == ModoEscrituraAuditoria.GARANTIZADO) {
+                    escribirLote(nuevos);
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                if (modo == ModoEscrituraAuditoria.ASINCRONO) {
+                    nuevos.forEach(EscritorAuditoriaJdbc.this::encolar);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(EscritorAuditoriaJdbc.this);
+            }
+        });
+        return nuevos;
+    }
+
+    private void encolar(RegistroCambioEstado registro) {
+        if (!cola.offer(registro)) {
+            // Cola llena: escribir en el hilo del llamador antes que perder el registro
+            log.warn("Cola de auditoría llena ({} registros), escribiendo de forma síncrona", cola.size());
+            escribirLoteTolerante(List.of(registro));
+        }
+    }
+
+    /**
+     * Escribe el lote y suma sus conteos en una sola transacción (la del negocio si existe),
+     * propagando cualquier error para que la transacción del negocio se revierta
+     */
+    private void escribirLote(List<RegistroCambioEstado> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        latenciaLote.record(() -> transactionTemplate.executeWithoutResult(estado -> {
+            insertarRegistros(lote);
+            sumarConteos(lote);
+        }));
+        registrosEscritos.increment(lote.size());
+    }
+
+    private void insertarRegistros(List<RegistroCambioEstado> lote) {
+        jdbcTemplate.batchUpdate(SQL_INSERTAR, lote, lote.size(), (sentencia, registro) -> {
+            sentencia.setString(1, registro.getId());
+            sentencia.setString(2, registro.getCitaId());
+            sentencia.setString(3, registro.getUsuarioId());
+            sentencia.setString(4, registro.getUsuarioNombre());
+            sentencia.setString(5, registro.getTipoCambio().name());
+            sentencia.setString(6, registro.getEstadoAnterior());
+            sentencia.setString(7, registro.getEstadoNuevo());
+            sentencia.setString(8, registro.getObservaciones());
+            sentencia.setTimestamp(9, Timestamp.valueOf(registro.getFechaCambio()));
+        });
+    }
+
+    /**
+     * Suma el lote a los conteos con una fila por (usuario, tipo, día) en lugar de una por registro
+     */
+    private void sumarConteos(List<RegistroCambioEstado> lote) {
+        var diarios = agruparPorDia(lote);
+        jdbcTemplate.batchUpdate(SQL_SUMAR_DIARIO, diarios, diarios.size(), (sentencia, incremento) -> {
+            sentencia.setString(1, incremento.usuarioId());
+            sentencia.setDate(2, Date.valueOf(incremento.fecha()));
+            sentencia.setString(3, incremento.tipoCambio().name());
+            sentencia.setLong(4, incremento.cantidad());
+        });
+        var totales = agruparPorUsuario(diarios);
+        jdbcTemplate.batchUpdate(SQL_SUMAR_USUARIO, totales, totales.size(), (sentencia, incremento) -> {
+            sentencia.setString(1, incremento.usuarioId());
+            sentencia.setString(2, incremento.tipoCambio().name());
+            sentencia.setLong(3, incremento.cantidad());
+            sentencia.setTimestamp(4, Timestamp.valueOf(incremento.ultimoCambio()));
+        });
+    }
+
+    static List<Incremento> agruparPorDia(List<RegistroCambioEstado> lote) {
+        Map<Incremento, Incremento> grupos = new HashMap<>();
+        for (var registro : lote) {
+            var incremento = new Incremento(registro.getUsuarioId(), registro.getTipoCambio(),
+                    registro.getFechaCambio().toLocalDate(), 1, registro.getFechaCambio());
+            grupos.merge(incremento.clave(), incremento, Incremento::sumar);
+        }
+        return grupos.values().stream().sorted(ORDEN_INCREMENTOS).toList();
+    }
+
+    static List<Incremento> agruparPorUsuario(List<Incremento> diarios) {
+        Map<Incremento, Incremento> grupos = new HashMap<>();
+        for (var diario : diarios) {
+            var incremento = new Incremento(diario.usuarioId(), diario.tipoCambio(), null,
+                    diario.cantidad(), diario.ultimoCambio());
+            grupos.merge(incremento.clave(), incremento, Incremento::sumar);
+        }
+        return grupos.values().stream().sorted(ORDEN_INCREMENTOS).toList();
+    }
+
+    /**
+     * Escribe el lote fuera de cualquier transacción de negocio. Si el lote falla,
+     * reintenta registro por registro para no perder los válidos por uno defectuoso.
+     */
+    private void escribirLoteTolerante(List<RegistroCambioEstado> lote) {
+        try {
+            escribirLote(lote);
+        } catch (DataAccessException e) {
+            log.error("Error escribiendo lote de {} registros de auditoría: {}", lote.size(), e.getMessage());
+            for (var registro : lote) {
+                try {
+                    escribirLote(List.of(registro));
+                } catch (DataAccessException errorRegistro) {
+                    registrosFallidos.increment();
+                    log.error("Registro de auditoría descartado para cita {}: {}",
+                            registro.getCitaId(), errorRegistro.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Cantidad de registros de un usuario y tipo de cambio, en un día o en total (fecha nula)
+     */
+    record Incremento(String usuarioId, TipoCambio tipoCambio, LocalDate fecha, long cantidad,
+                      LocalDateTime ultimoCambio) {
+
+        Incremento clave() {
+            return new Incremento(usuarioId, tipoCambio, fecha, 0, null);
+        }
+
+        Incremento sumar(Incremento otro) {
+            return new Incremento(usuarioId, tipoCambio, fecha, cantidad + otro.cantidad,
+                    ultimoCambio.isAfter(otro.ultimoCambio) ? ultimoCambio : otro.ultimoCambio);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+/**
+ * Estrategias de escritura de los registros de auditoría
+ */
+public enum ModoEscrituraAuditoria {
+
+    /**
+     * Los registros de una transacción se escriben en un solo lote justo antes del commit.
+     * El cambio de estado y su auditoría se confirman o revierten juntos: si la escritura
+     * falla, la petición falla. Los INSERT siguen corriendo en el hilo de la petición, así
+     * que su latencia se suma a cada cambio de estado; solo ASINCRONO la quita.
+     */
+    GARANTIZADO,
+
+    /**
+     * Los registros se encolan en memoria después del commit y un proceso programado
+     * los escribe en lotes. No agrega latencia al negocio, pero los registros aún en
+     * cola se pierden si el proceso termina abruptamente.
+     */
+    ASINCRONO
+}
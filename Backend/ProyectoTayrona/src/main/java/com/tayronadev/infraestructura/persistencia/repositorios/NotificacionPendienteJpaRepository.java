@@ -0,0 +1,47 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.notificacion.modelo.EstadoNotificacion;
+import com.tayronadev.infraestructura.persistencia.entidades.NotificacionPendienteEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio JPA para la cola de notificaciones por reintentar.
+ */
+@Repository
+public interface NotificacionPendienteJpaRepository extends JpaRepository<NotificacionPendienteEntity, String> {
+    
+    /**
+     * Bloquea (FOR UPDATE) las notificaciones pendientes cuyo próximo intento ya venció, las más
+     * antiguas primero. SKIP LOCKED salta las que otra transacción ya bloqueó en lugar de esperarlas;
+     * el recorrido usa el índice parcial idx_notificacion_reintento.
+     */
+    @Query(value = "SELECT * FROM notificaciones_pendientes WHERE estado = 'PENDIENTE' AND proximo_intento <= :ahora " +
+                   "ORDER BY proximo_intento LIMIT :limite FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<NotificacionPendienteEntity> lockParaReintento(@Param("ahora") LocalDateTime ahora, @Param("limite") int limite);
+    
+    /**
+     * Primera página de notificaciones en el estado dado, las creadas más recientemente primero
+     */
+    List<NotificacionPendienteEntity> findByEstadoOrderByFechaCreacionDescIdDesc(EstadoNotificacion estado, Limit limite);
+    
+    /**
+     * Página de notificaciones en el estado dado posterior al cursor (fechaCreacion, id), en orden descendente.
+     * La primera condición acota el rango de idx_notificacion_estado_fecha_id; la segunda desempata por id.
+     */
+    @Query("SELECT n FROM NotificacionPendienteEntity n WHERE n.estado = :estado " +
+           "AND n.fechaCreacion <= :fecha AND (n.fechaCreacion < :fecha OR n.id < :id) " +
+           "ORDER BY n.fechaCreacion DESC, n.id DESC")
+    List<NotificacionPendienteEntity> findPaginaDespuesDe(@Param("estado") EstadoNotificacion estado,
+                                                          @Param("fecha") LocalDateTime fecha,
+                                                          @Param("id") String id,
+                                                          Pageable pagina);
+}
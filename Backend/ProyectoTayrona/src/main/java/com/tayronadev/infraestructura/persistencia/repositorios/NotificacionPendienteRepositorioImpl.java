@@ -0,0 +1,75 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.comun.Cursor;
+import com.tayronadev.dominio.comun.Pagina;
+import com.tayronadev.dominio.comun.SolicitudPagina;
+import com.tayronadev.dominio.notificacion.modelo.EstadoNotificacion;
+import com.tayronadev.dominio.notificacion.modelo.NotificacionPendiente;
+import com.tayronadev.dominio.notificacion.puertos.NotificacionPendienteRepositorio;
+import com.tayronadev.infraestructura.persistencia.mappers.NotificacionPendienteMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementación de la cola de notificaciones por reintentar usando JPA.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class NotificacionPendienteRepositorioImpl implements NotificacionPendienteRepositorio {
+    
+    private final NotificacionPendienteJpaRepository jpaRepository;
+    private final NotificacionPendienteMapper mapper;
+    
+    @Override
+    public NotificacionPendiente guardar(NotificacionPendiente notificacion) {
+        log.debug("Guardando notificación pendiente {} de cita {}", notificacion.getId(), notificacion.getCitaId());
+        return mapper.toDomain(jpaRepository.save(mapper.toEntity(notificacion)));
+    }
+    
+    @Override
+    public Optional<NotificacionPendiente> buscarPorId(String id) {
+        return jpaRepository.findById(id).map(mapper::toDomain);
+    }
+    
+    /**
+     * Bloquea las vencidas y aplaza su próximo intento en la misma transacción; el commit
+     * libera el bloqueo y el envío ocurre fuera de ella
+     */
+    @Override
+    @Transactional
+    public List<NotificacionPendiente> reclamarParaReintento(LocalDateTime ahora, LocalDateTime reservadaHasta, int limite) {
+        var reclamadas = jpaRepository.lockParaReintento(ahora, limite);
+        reclamadas.forEach(entity -> entity.setProximoIntento(reservadaHasta));
+        log.debug("Reclamadas {} notificaciones para reintento hasta {}", reclamadas.size(), reservadaHasta);
+        return reclamadas.stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+    
+    @Override
+    public Pagina<NotificacionPendiente> buscarFallidas(SolicitudPagina pagina) {
+        int filas = pagina.getTamano() + 1;
+        var despuesDe = pagina.getDespuesDe();
+        var entidades = despuesDe == null
+                ? jpaRepository.findByEstadoOrderByFechaCreacionDescIdDesc(EstadoNotificacion.FALLIDA, Limit.of(filas))
+                : jpaRepository.findPaginaDespuesDe(EstadoNotificacion.FALLIDA, despuesDe.getFecha(), despuesDe.getId(),
+                        PageRequest.ofSize(filas));
+        return Pagina.desdeFilas(entidades.stream().map(mapper::toDomain).toList(), pagina.getTamano(),
+                notificacion -> new Cursor(notificacion.getFechaCreacion(), notificacion.getId()));
+    }
+    
+    @Override
+    public void eliminar(String id) {
+        log.debug("Eliminando notificación pendiente {}", id);
+        jpaRepository.deleteById(id);
+    }
+}
@@ -0,0 +1,63 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.auditoria.consultas.ActividadDiaria;
+import com.tayronadev.dominio.auditoria.consultas.ResumenActividadUsuario;
+import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
+import com.tayronadev.dominio.auditoria.repositorios.ResumenAuditoriaRepositorio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lee los conteos de auditoría precalculados (migración V11) que mantiene {@link EscritorAuditoriaJdbc}.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class ResumenAuditoriaRepositorioJdbc implements ResumenAuditoriaRepositorio {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public ResumenActividadUsuario obtenerResumenUsuario(String usuarioId) {
+        log.debug("Obteniendo resumen de actividad del usuario: {}", usuarioId);
+        Map<TipoCambio, Long> cambiosPorTipo = new EnumMap<>(TipoCambio.class);
+        LocalDateTime[] ultimoCambio = new LocalDateTime[1];
+        jdbcTemplate.query("""
+                SELECT tipo_cambio, cantidad, ultimo_cambio
+                FROM auditoria_resumen_usuario
+                WHERE usuario_id = ?
+                """, fila -> {
+            cambiosPorTipo.put(TipoCambio.valueOf(fila.getString("tipo_cambio")), fila.getLong("cantidad"));
+            var ultimo = fila.getTimestamp("ultimo_cambio").toLocalDateTime();
+            if (ultimoCambio[0] == null || ultimo.isAfter(ultimoCambio[0])) {
+                ultimoCambio[0] = ultimo;
+            }
+        }, usuarioId);
+        return new ResumenActividadUsuario(usuarioId, Collections.unmodifiableMap(cambiosPorTipo), ultimoCambio[0]);
+    }
+    
+    @Override
+    public List<ActividadDiaria> obtenerActividadDiaria(String usuarioId, LocalDate desde, LocalDate hasta) {
+        log.debug("Obteniendo actividad diaria del usuario {} entre {} y {}", usuarioId, desde, hasta);
+        return jdbcTemplate.query("""
+                SELECT fecha, tipo_cambio, cantidad
+                FROM auditoria_resumen_diario
+                WHERE usuario_id = ? AND fecha BETWEEN ? AND ?
+                ORDER BY fecha, tipo_cambio
+                """, (fila, i) -> new ActividadDiaria(
+                        fila.getDate("fecha").toLocalDate(),
+                        TipoCambio.valueOf(fila.getString("tipo_cambio")),
+                        fila.getLong("cantidad")),
+                usuarioId, Date.valueOf(desde), Date.valueOf(hasta));
+    }
+}
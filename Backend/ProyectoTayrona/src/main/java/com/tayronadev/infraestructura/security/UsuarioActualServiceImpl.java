@@ -1,6 +1,7 @@
 package com.tayronadev.infraestructura.security;
 
 import com.tayronadev.dominio.usuario.modelo.User;
+import com.tayronadev.dominio.usuario.modelo.UsuarioSesion;
 import com.tayronadev.dominio.usuario.repositorios.UsuarioRepositorio;
 import com.tayronadev.dominio.usuario.servicios.UsuarioActualService;
 import lombok.RequiredArgsConstructor;
@@ -23,13 +24,7 @@ public class UsuarioActualServiceImpl implements UsuarioActualService {
     private final UsuarioRepositorio usuarioRepositorio;
     
     @Override
-    public Optional<User> obtenerUsuarioActual() {
-        return obtenerUsuarioIdActual()
-            .flatMap(usuarioRepositorio::buscarPorId);
-    }
-    
-    @Override
-    public Optional<String> obtenerUsuarioIdActual() {
+    public Optional<UsuarioSesion> obtenerSesionActual() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -37,27 +32,27 @@ public class UsuarioActualServiceImpl implements UsuarioActualService {
             return Optional.empty();
         }
         
-        Object principal = authentication.getPrincipal();
-        
-        if (principal instanceof String userId && !userId.equals("anonymousUser")) {
-            return Optional.of(userId);
+        if (authentication.getPrincipal() instanceof UsuarioSesion sesion) {
+            return Optional.of(sesion);
         }
         
-        // Si el principal es el nombre de usuario (email), buscar por correo
-        if (principal instanceof String email && email.contains("@")) {
-            return usuarioRepositorio.obtenerPorCorreo(email)
-                .map(User::getId);
-        }
-        
-        log.debug("No se pudo obtener el ID del usuario del principal: {}", principal);
+        log.debug("El principal no es una sesión de usuario: {}", authentication.getPrincipal());
         return Optional.empty();
     }
     
+    @Override
+    public Optional<User> obtenerUsuarioActual() {
+        return obtenerUsuarioIdActual()
+            .flatMap(usuarioRepositorio::buscarPorId);
+    }
+    
+    @Override
+    public Optional<String> obtenerUsuarioIdActual() {
+        return obtenerSesionActual().map(UsuarioSesion::getId);
+    }
+    
     @Override
     public boolean hayUsuarioAutenticado() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        return authentication != null && 
-               authentication.isAuthenticated() && 
-               !"anonymousUser".equals(authentication.getPrincipal());
+        return obtenerSesionActual().isPresent();
     }
 }
@@ -7,6 +7,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Clock;
+
 @Configuration
 @RequiredArgsConstructor
 public class AppConfig {
@@ -16,4 +18,12 @@ public class AppConfig {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Reloj del sistema; los casos de uso que programan tareas lo reciben para poder fijarlo en pruebas
+     */
+    @Bean
+    public Clock reloj() {
+        return Clock.systemDefaultZone();
+    }
+
 }
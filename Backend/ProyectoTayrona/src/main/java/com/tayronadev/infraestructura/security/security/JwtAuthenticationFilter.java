@@ -9,13 +9,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.List;
 
 
 @Component
@@ -25,6 +26,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final String HEADER_AUTHORIZATION = "Authorization";
     private static final String PREFIX_BEARER = "Bearer ";
+    private static final String PREFIX_ROL = "ROLE_";
 
     private final Jwt jwt;
 
@@ -44,12 +46,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = authHeader.substring(PREFIX_BEARER.length()).trim();
 
         try {
-            String correo = jwt.extraerCorreo(token);
-            if (correo != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // El principal se arma solo con las claims del token: no hay consulta a usuarios por petición
+                var sesion = jwt.extraerSesion(token);
                 var authToken = new UsernamePasswordAuthenticationToken(
-                        correo,
+                        sesion,
                         null,
-                        Collections.emptyList()
+                        List.of(new SimpleGrantedAuthority(PREFIX_ROL + sesion.getRol().name()))
                 );
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
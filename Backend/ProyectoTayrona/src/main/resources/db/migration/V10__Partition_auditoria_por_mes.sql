@@ -0,0 +1,108 @@
+-- Migración V10: Particionado mensual de auditoria_cambios_estado por fecha_cambio
+
+-- La auditoría solo crece y todas sus consultas se recorren por fecha. Con una partición
+-- por mes, los filtros por fecha y los cursores de paginación descartan las particiones
+-- fuera del rango (partition pruning) y los meses antiguos se archivan sin DELETE masivos.
+-- Las particiones futuras las crea ParticionesAuditoria al iniciar y cada día; V14 añade
+-- una partición DEFAULT para los registros de un mes que aún no tiene la suya.
+
+ALTER TABLE auditoria_cambios_estado RENAME TO auditoria_cambios_estado_anterior;
+ALTER INDEX auditoria_cambios_estado_pkey RENAME TO auditoria_cambios_estado_anterior_pkey;
+
+-- La clave primaria de una tabla particionada debe incluir la columna de partición
+CREATE TABLE auditoria_cambios_estado (
+    id VARCHAR(36) NOT NULL,
+    cita_id VARCHAR(36) NOT NULL,
+    usuario_id VARCHAR(36) NOT NULL,
+    usuario_nombre VARCHAR(100) NOT NULL,
+    tipo_cambio VARCHAR(30) NOT NULL,
+    estado_anterior VARCHAR(20),
+    estado_nuevo VARCHAR(20) NOT NULL,
+    observaciones TEXT,
+    fecha_cambio TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT auditoria_cambios_estado_pkey PRIMARY KEY (id, fecha_cambio),
+    CONSTRAINT fk_auditoria_cita FOREIGN KEY (cita_id)
+        REFERENCES citas(id) ON DELETE CASCADE,
+    CONSTRAINT fk_auditoria_usuario FOREIGN KEY (usuario_id)
+        REFERENCES usuarios(id) ON DELETE SET NULL,
+    CONSTRAINT chk_tipo_cambio CHECK (tipo_cambio IN (
+        'CONFIRMACION',
+        'RECHAZO',
+        'CANCELACION',
+        'ASIGNACION_ENTREGADO',
+        'ASIGNACION_DEVUELTO',
+        'ASIGNACION_TARDIA'
+    ))
+) PARTITION BY RANGE (fecha_cambio);
+
+-- Esquema al que pasan las particiones archivadas: siguen consultables, fuera de la tabla viva
+CREATE SCHEMA IF NOT EXISTS auditoria_archivo;
+
+-- Crea (si no existe) la partición del mes que contiene la fecha indicada
+CREATE FUNCTION crear_particion_auditoria(mes DATE) RETURNS TEXT AS $$
+DECLARE
+    inicio DATE := date_trunc('month', mes)::DATE;
+    nombre TEXT := 'auditoria_cambios_estado_p' || to_char(inicio, 'YYYYMM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF auditoria_cambios_estado FOR VALUES FROM (%L) TO (%L)',
+                   nombre, inicio, (inicio + INTERVAL '1 month')::DATE);
+    RETURN nombre;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Separa de la tabla viva las particiones de meses anteriores al indicado y las mueve al
+-- esquema auditoria_archivo. Devuelve los nombres de las particiones archivadas.
+CREATE FUNCTION archivar_particiones_auditoria(antes_de DATE) RETURNS SETOF TEXT AS $$
+DECLARE
+    particion RECORD;
+BEGIN
+    FOR particion IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'auditoria_cambios_estado'::regclass
+          AND c.relname ~ '_p[0-9]{6}$'
+          AND to_date(right(c.relname, 6), 'YYYYMM') < date_trunc('month', antes_de)
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE auditoria_cambios_estado DETACH PARTITION %I', particion.relname);
+        EXECUTE format('ALTER TABLE %I SET SCHEMA auditoria_archivo', particion.relname);
+        RETURN NEXT particion.relname;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Particiones para los registros existentes y los próximos tres meses
+SELECT crear_particion_auditoria(mes::DATE)
+FROM generate_series(
+        date_trunc('month', LEAST((SELECT min(fecha_cambio) FROM auditoria_cambios_estado_anterior), now())),
+        date_trunc('month', GREATEST((SELECT max(fecha_cambio) FROM auditoria_cambios_estado_anterior),
+                                     now() + INTERVAL '3 months')),
+        INTERVAL '1 month') AS mes;
+
+INSERT INTO auditoria_cambios_estado
+    (id, cita_id, usuario_id, usuario_nombre, tipo_cambio, estado_anterior, estado_nuevo, observaciones, fecha_cambio)
+SELECT id, cita_id, usuario_id, usuario_nombre, tipo_cambio, estado_anterior, estado_nuevo, observaciones, fecha_cambio
+FROM auditoria_cambios_estado_anterior;
+
+DROP TABLE auditoria_cambios_estado_anterior;
+
+-- Los índices de V9, ahora definidos en la tabla particionada: cada partición tiene los suyos
+CREATE INDEX idx_auditoria_usuario_fecha_id ON auditoria_cambios_estado(usuario_id, fecha_cambio DESC, id DESC);
+CREATE INDEX idx_auditoria_cita_fecha_id ON auditoria_cambios_estado(cita_id, fecha_cambio DESC, id DESC);
+CREATE INDEX idx_auditoria_tipo_fecha_id ON auditoria_cambios_estado(tipo_cambio, fecha_cambio DESC, id DESC);
+CREATE INDEX idx_auditoria_fecha_id ON auditoria_cambios_estado(fecha_cambio DESC, id DESC);
+
+COMMENT ON TABLE auditoria_cambios_estado IS 'Registro de auditoría para cambios de estado en citas, particionado por mes de fecha_cambio';
+COMMENT ON COLUMN auditoria_cambios_estado.id IS 'Identificador único del registro de auditoría (UUID)';
+COMMENT ON COLUMN auditoria_cambios_estado.cita_id IS 'Referencia a la cita modificada';
+COMMENT ON COLUMN auditoria_cambios_estado.usuario_id IS 'Referencia al usuario que realizó el cambio';
+COMMENT ON COLUMN auditoria_cambios_estado.usuario_nombre IS 'Nombre del usuario al momento del cambio (desnormalizado)';
+COMMENT ON COLUMN auditoria_cambios_estado.tipo_cambio IS 'Tipo de cambio realizado';
+COMMENT ON COLUMN auditoria_cambios_estado.estado_anterior IS 'Estado previo al cambio (NULL para post-citas)';
+COMMENT ON COLUMN auditoria_cambios_estado.estado_nuevo IS 'Nuevo estado después del cambio';
+COMMENT ON COLUMN auditoria_cambios_estado.observaciones IS 'Observaciones o motivo del cambio';
+COMMENT ON COLUMN auditoria_cambios_estado.fecha_cambio IS 'Fecha y hora del cambio (clave de partición)';
+COMMENT ON FUNCTION crear_particion_auditoria(DATE) IS 'Crea la partición mensual de auditoría que contiene la fecha';
+COMMENT ON FUNCTION archivar_particiones_auditoria(DATE) IS 'Mueve a auditoria_archivo las particiones de meses anteriores a la fecha';
@@ -0,0 +1,39 @@
+-- Migración V11: Conteos de auditoría precalculados por usuario
+
+-- Se actualizan en la misma escritura que inserta los registros de auditoría, de modo que
+-- el resumen de un usuario y los tableros de productividad no recorren su historial.
+-- Los conteos se conservan aunque las particiones de auditoría se archiven.
+
+-- Cambios por usuario, día y tipo de cambio
+CREATE TABLE auditoria_resumen_diario (
+    usuario_id VARCHAR(36) NOT NULL,
+    fecha DATE NOT NULL,
+    tipo_cambio VARCHAR(30) NOT NULL,
+    cantidad BIGINT NOT NULL,
+
+    CONSTRAINT pk_auditoria_resumen_diario PRIMARY KEY (usuario_id, fecha, tipo_cambio)
+);
+
+-- Totales por usuario y tipo de cambio: a lo sumo una fila por tipo
+CREATE TABLE auditoria_resumen_usuario (
+    usuario_id VARCHAR(36) NOT NULL,
+    tipo_cambio VARCHAR(30) NOT NULL,
+    cantidad BIGINT NOT NULL,
+    ultimo_cambio TIMESTAMP NOT NULL,
+
+    CONSTRAINT pk_auditoria_resumen_usuario PRIMARY KEY (usuario_id, tipo_cambio)
+);
+
+-- Carga inicial desde los registros existentes
+INSERT INTO auditoria_resumen_diario (usuario_id, fecha, tipo_cambio, cantidad)
+SELECT usuario_id, fecha_cambio::DATE, tipo_cambio, count(*)
+FROM auditoria_cambios_estado
+GROUP BY usuario_id, fecha_cambio::DATE, tipo_cambio;
+
+INSERT INTO auditoria_resumen_usuario (usuario_id, tipo_cambio, cantidad, ultimo_cambio)
+SELECT usuario_id, tipo_cambio, count(*), max(fecha_cambio)
+FROM auditoria_cambios_estado
+GROUP BY usuario_id, tipo_cambio;
+
+COMMENT ON TABLE auditoria_resumen_diario IS 'Cambios de estado realizados por usuario, día y tipo de cambio';
+COMMENT ON TABLE auditoria_resumen_usuario IS 'Total de cambios de estado realizados por usuario y tipo de cambio';
@@ -0,0 +1,23 @@
+-- Migración V12: Expiración automática de citas pendientes vencidas
+
+-- Las citas que siguen PENDIENTE después de su horario las cancela ExpirarCitasVencidasUseCase.
+-- El cambio se audita con su propio tipo para distinguirlo de una cancelación manual.
+ALTER TABLE auditoria_cambios_estado DROP CONSTRAINT chk_tipo_cambio;
+ALTER TABLE auditoria_cambios_estado ADD CONSTRAINT chk_tipo_cambio CHECK (tipo_cambio IN (
+    'CONFIRMACION',
+    'RECHAZO',
+    'CANCELACION',
+    'EXPIRACION',
+    'ASIGNACION_ENTREGADO',
+    'ASIGNACION_DEVUELTO',
+    'ASIGNACION_TARDIA'
+));
+
+-- Usuario al que se atribuyen los cambios automáticos (usuario_id es obligatorio en la auditoría).
+-- Cuenta inactiva y sin contraseña válida: no puede iniciar sesión.
+INSERT INTO usuarios (id, nombre_usuario, correo_usuario, contraseña_usuario, estado_cuenta, tipo_cuenta)
+VALUES ('00000000-0000-0000-0000-000000000000', 'Sistema', 'sistema@zonafranca.local', '!', FALSE, 'ADMINISTRADOR')
+ON CONFLICT (id) DO NOTHING;
+
+-- La búsqueda de vencidas (estado = 'PENDIENTE' AND fecha_hora < ?) ORDER BY fecha_hora, id
+-- la resuelve idx_cita_estado_fecha_hora_id (V5) sin índices nuevos.
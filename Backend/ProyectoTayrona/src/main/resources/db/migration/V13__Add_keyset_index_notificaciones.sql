@@ -0,0 +1,6 @@
+-- Migración V13: Índice para paginar por clave (fecha_creacion, id) las notificaciones fallidas
+
+-- El listado de cartas muertas se recorre de la más reciente a la más antigua;
+-- cada página se lee como un rango contiguo del índice, sin ordenar ni usar OFFSET.
+CREATE INDEX idx_notificacion_estado_fecha_id
+    ON notificaciones_pendientes(estado, fecha_creacion DESC, id DESC);
@@ -0,0 +1,63 @@
+-- Migración V14: Partición DEFAULT de auditoria_cambios_estado
+
+-- Sin ella, un registro cuyo mes no tiene partición (ParticionesAuditoria dejó de correr
+-- varios meses, o una fecha_cambio fuera de las creadas) hace fallar el INSERT y con él
+-- la transacción del cambio de estado. La partición DEFAULT lo recibe en su lugar y, al
+-- crear la partición de su mes, crear_particion_auditoria lo mueve a ella.
+-- Mientras exista, las consultas sin rango de fechas combinan las particiones con un
+-- Merge Append en lugar de recorrerlas en orden; cada una sigue leyendo solo el principio
+-- de su índice por (fecha_cambio DESC, id DESC).
+CREATE TABLE auditoria_cambios_estado_default PARTITION OF auditoria_cambios_estado DEFAULT;
+
+-- Adjuntar una partición exige que la DEFAULT no tenga filas de su rango: la nueva se crea
+-- suelta, recibe las filas de su mes y luego se adjunta. La DEFAULT se bloquea para
+-- escritura mientras tanto, de modo que ningún registro del mes entre entre el traslado
+-- y la validación del ATTACH.
+-- Todas las instancias mantienen las particiones a la misma hora: un cerrojo consultivo
+-- de transacción serializa la creación y el archivado, y la existencia se comprueba ya
+-- dentro de él, así que la segunda instancia encuentra la partición creada por la primera.
+CREATE OR REPLACE FUNCTION crear_particion_auditoria(mes DATE) RETURNS TEXT AS $$
+DECLARE
+    inicio DATE := date_trunc('month', mes)::DATE;
+    fin DATE := (date_trunc('month', mes) + INTERVAL '1 month')::DATE;
+    nombre TEXT := 'auditoria_cambios_estado_p' || to_char(inicio, 'YYYYMM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('auditoria_cambios_estado_particiones'));
+    IF to_regclass(format('public.%I', nombre)) IS NOT NULL THEN
+        RETURN nombre;
+    END IF;
+    LOCK TABLE auditoria_cambios_estado_default IN EXCLUSIVE MODE;
+    EXECUTE format('CREATE TABLE public.%I (LIKE auditoria_cambios_estado INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   nombre);
+    EXECUTE format('WITH movidos AS (DELETE FROM auditoria_cambios_estado_default '
+                   'WHERE fecha_cambio >= %L AND fecha_cambio < %L RETURNING *) '
+                   'INSERT INTO public.%I SELECT * FROM movidos', inicio, fin, nombre);
+    EXECUTE format('ALTER TABLE auditoria_cambios_estado ATTACH PARTITION public.%I FOR VALUES FROM (%L) TO (%L)',
+                   nombre, inicio, fin);
+    RETURN nombre;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Mismo cerrojo que la creación: dos instancias no separan a la vez la misma partición
+CREATE OR REPLACE FUNCTION archivar_particiones_auditoria(antes_de DATE) RETURNS SETOF TEXT AS $$
+DECLARE
+    particion RECORD;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('auditoria_cambios_estado_particiones'));
+    FOR particion IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'auditoria_cambios_estado'::regclass
+          AND c.relname ~ '_p[0-9]{6}$'
+          AND to_date(right(c.relname, 6), 'YYYYMM') < date_trunc('month', antes_de)
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE auditoria_cambios_estado DETACH PARTITION %I', particion.relname);
+        EXECUTE format('ALTER TABLE %I SET SCHEMA auditoria_archivo', particion.relname);
+        RETURN NEXT particion.relname;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON TABLE auditoria_cambios_estado_default IS 'Registros de auditoría cuyo mes aún no tiene partición; se mueven al crearla';
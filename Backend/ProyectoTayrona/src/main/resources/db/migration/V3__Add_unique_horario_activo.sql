@@ -0,0 +1,53 @@
+-- Migración V3: Garantizar en base de datos que un horario solo tenga una cita activa por tipo
+
+-- Antes de esta migración nada impedía reservar dos veces el mismo horario, así que una base
+-- existente puede tener citas activas duplicadas y el índice único no se podría crear.
+-- Por cada (tipo_cita, fecha_hora) con más de una cita activa se conserva una: la que ya
+-- tiene estado post-cita, si no la confirmada y, a igualdad, la más antigua. Las demás se
+-- cancelan y cada cancelación queda en la auditoría, atribuida al usuario Sistema, con el
+-- id de la cita conservada. Para revisarlas después de migrar:
+--   SELECT * FROM auditoria_cambios_estado WHERE observaciones LIKE 'Cancelada por la migración V3%';
+
+-- Usuario al que se atribuyen los cambios automáticos (usuario_id es obligatorio en la auditoría).
+-- Cuenta inactiva y sin contraseña válida: no puede iniciar sesión. La inserción de V12 ya no tiene efecto.
+INSERT INTO usuarios (id, nombre_usuario, correo_usuario, contraseña_usuario, estado_cuenta, tipo_cuenta)
+VALUES ('00000000-0000-0000-0000-000000000000', 'Sistema', 'sistema@zonafranca.local', '!', FALSE, 'ADMINISTRADOR')
+ON CONFLICT (id) DO NOTHING;
+
+CREATE TEMPORARY TABLE citas_horario_duplicado ON COMMIT DROP AS
+SELECT id, estado, conservada
+FROM (
+    SELECT id, estado,
+           FIRST_VALUE(id) OVER horario AS conservada,
+           ROW_NUMBER() OVER horario AS orden
+    FROM citas
+    WHERE estado IN ('PENDIENTE', 'CONFIRMADA')
+    WINDOW horario AS (
+        PARTITION BY tipo_cita, fecha_hora
+        ORDER BY estado_post_cita IS NOT NULL DESC, estado = 'CONFIRMADA' DESC, fecha_creacion, id
+    )
+) activas
+WHERE orden > 1;
+
+INSERT INTO auditoria_cambios_estado (id, cita_id, usuario_id, usuario_nombre, tipo_cambio,
+                                      estado_anterior, estado_nuevo, observaciones, fecha_cambio)
+SELECT gen_random_uuid()::text, id, '00000000-0000-0000-0000-000000000000', 'Sistema', 'CANCELACION',
+       estado, 'CANCELADA',
+       'Cancelada por la migración V3: el horario ya estaba ocupado por la cita ' || conservada,
+       CURRENT_TIMESTAMP
+FROM citas_horario_duplicado;
+
+-- El estado post-cita solo es válido en citas confirmadas (chk_estado_post_cita_valido)
+UPDATE citas
+SET estado = 'CANCELADA', estado_post_cita = NULL, fecha_ultima_modificacion = CURRENT_TIMESTAMP
+WHERE id IN (SELECT id FROM citas_horario_duplicado);
+
+-- Índice único parcial: dos citas activas (PENDIENTE o CONFIRMADA) del mismo tipo
+-- no pueden compartir fecha y hora. Las citas rechazadas o canceladas liberan el horario.
+CREATE UNIQUE INDEX uk_cita_horario_activo ON citas(tipo_cita, fecha_hora)
+WHERE estado IN ('PENDIENTE', 'CONFIRMADA');
+
+-- El índice único cubre las búsquedas de conflictos que resolvía idx_cita_conflicto
+DROP INDEX IF EXISTS idx_cita_conflicto;
+
+COMMENT ON INDEX uk_cita_horario_activo IS 'Un solo horario activo por tipo de cita y fecha/hora';
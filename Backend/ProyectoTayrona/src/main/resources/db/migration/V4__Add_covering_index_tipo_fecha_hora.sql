@@ -0,0 +1,7 @@
+-- Migración V4: Índice de cobertura para consultas por tipo de cita y día
+
+-- Las consultas por día usan rangos semiabiertos sobre fecha_hora. Incluir el estado
+-- permite resolver la disponibilidad del día con un index-only scan, sin leer la tabla.
+CREATE INDEX idx_cita_tipo_fecha_hora ON citas(tipo_cita, fecha_hora) INCLUDE (estado);
+
+COMMENT ON INDEX idx_cita_tipo_fecha_hora IS 'Consultas por tipo de cita en un rango de fecha/hora';
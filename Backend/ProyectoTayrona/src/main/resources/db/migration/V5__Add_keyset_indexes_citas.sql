@@ -0,0 +1,10 @@
+-- Migración V5: Índices para la paginación por clave (fecha_hora, id) de los listados
+
+-- Los listados filtran por estado o por NIT y se recorren en orden (fecha_hora, id).
+-- Con estos índices cada página se lee como un rango contiguo, sin ordenar ni usar OFFSET.
+CREATE INDEX idx_cita_estado_fecha_hora_id ON citas(estado, fecha_hora, id);
+CREATE INDEX idx_cita_nit_fecha_hora_id ON citas(nit, fecha_hora, id);
+
+-- Los índices anteriores cubren las búsquedas que resolvían estos índices de una sola columna
+DROP INDEX IF EXISTS idx_cita_estado;
+DROP INDEX IF EXISTS idx_cita_nit;
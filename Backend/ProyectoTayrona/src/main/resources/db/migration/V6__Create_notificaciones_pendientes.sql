@@ -0,0 +1,35 @@
+-- Migración V6: Cola persistente de reintentos para notificaciones por correo
+
+-- Cada fila es una notificación cuyo envío falló. Se reintenta con espera exponencial
+-- hasta agotar los intentos; entonces queda en estado FALLIDA para revisión manual.
+CREATE TABLE notificaciones_pendientes (
+    id VARCHAR(36) PRIMARY KEY,
+    cita_id VARCHAR(36) NOT NULL,
+    tipo_notificacion VARCHAR(30) NOT NULL,
+    observaciones TEXT,
+    estado VARCHAR(20) NOT NULL DEFAULT 'PENDIENTE',
+    intentos INTEGER NOT NULL DEFAULT 0,
+    proximo_intento TIMESTAMP NOT NULL,
+    ultimo_error TEXT,
+    fecha_creacion TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    fecha_actualizacion TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_notificacion_cita FOREIGN KEY (cita_id)
+        REFERENCES citas(id) ON DELETE CASCADE,
+    CONSTRAINT chk_notificacion_tipo CHECK (tipo_notificacion IN ('CITA_CONFIRMADA', 'CITA_RECHAZADA', 'CITA_CANCELADA')),
+    CONSTRAINT chk_notificacion_estado CHECK (estado IN ('PENDIENTE', 'FALLIDA'))
+);
+
+-- El proceso de reintentos solo lee las pendientes vencidas, en orden de vencimiento
+CREATE INDEX idx_notificacion_reintento ON notificaciones_pendientes(proximo_intento)
+    WHERE estado = 'PENDIENTE';
+
+-- Vista de cartas muertas: notificaciones que agotaron sus reintentos
+CREATE VIEW notificaciones_fallidas AS
+SELECT id, cita_id, tipo_notificacion, observaciones, intentos, ultimo_error, fecha_creacion, fecha_actualizacion
+FROM notificaciones_pendientes
+WHERE estado = 'FALLIDA';
+
+COMMENT ON TABLE notificaciones_pendientes IS 'Notificaciones por correo cuyo envío falló y deben reintentarse';
+COMMENT ON COLUMN notificaciones_pendientes.proximo_intento IS 'Momento a partir del cual se vuelve a intentar el envío';
+COMMENT ON VIEW notificaciones_fallidas IS 'Notificaciones que agotaron sus reintentos';
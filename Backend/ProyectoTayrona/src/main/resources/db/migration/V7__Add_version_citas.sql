@@ -0,0 +1,5 @@
+-- Migración V7: Versión para bloqueo optimista de citas
+
+-- Cada UPDATE incrementa la versión y exige la que se leyó (WHERE version = ?), de modo
+-- que dos cambios de estado simultáneos sobre la misma cita no se pisan en silencio.
+ALTER TABLE citas ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,51 @@
+-- Migración V8: Capacidad configurable por horario y días no hábiles
+
+-- Número de citas simultáneas (muelles) que admite cada hora, por tipo de cita y día
+-- de la semana (ISO: 1 = lunes ... 7 = domingo). Una hora sin fila no admite citas.
+CREATE TABLE capacidad_horarios (
+    id BIGSERIAL PRIMARY KEY,
+    tipo_cita VARCHAR(20) NOT NULL,
+    dia_semana INTEGER NOT NULL,
+    hora INTEGER NOT NULL,
+    capacidad INTEGER NOT NULL,
+
+    CONSTRAINT uk_capacidad_horario UNIQUE (tipo_cita, dia_semana, hora),
+    CONSTRAINT chk_capacidad_tipo CHECK (tipo_cita IN ('ENTREGA', 'RECOJO', 'IMPORTACION', 'DEVOLUCION')),
+    CONSTRAINT chk_capacidad_dia CHECK (dia_semana BETWEEN 1 AND 7),
+    CONSTRAINT chk_capacidad_hora CHECK (hora BETWEEN 0 AND 23),
+    CONSTRAINT chk_capacidad_positiva CHECK (capacidad > 0)
+);
+
+-- Días cerrados (festivos, inventarios): no se agenda ningún tipo de cita
+CREATE TABLE dias_no_habiles (
+    fecha DATE PRIMARY KEY,
+    descripcion VARCHAR(200)
+);
+
+-- Carga inicial equivalente a los horarios fijos anteriores: un muelle, de lunes a viernes
+INSERT INTO capacidad_horarios (tipo_cita, dia_semana, hora, capacidad)
+SELECT t.tipo_cita, d.dia_semana, h.hora, 1
+FROM (VALUES
+        ('ENTREGA', ARRAY[8, 9, 10, 11, 14, 15, 16]),
+        ('RECOJO', ARRAY[9, 10, 11, 14, 15, 16, 17]),
+        ('IMPORTACION', ARRAY[8, 9, 10, 11]),
+        ('DEVOLUCION', ARRAY[14, 15, 16, 17])
+     ) AS t(tipo_cita, horas)
+CROSS JOIN generate_series(1, 5) AS d(dia_semana)
+CROSS JOIN LATERAL unnest(t.horas) AS h(hora);
+
+-- Cada cita activa ocupa un muelle del horario; las existentes quedan en el primero
+ALTER TABLE citas ADD COLUMN muelle INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE citas ADD CONSTRAINT chk_cita_muelle CHECK (muelle > 0);
+
+-- La unicidad pasa de (tipo, fecha/hora) a (tipo, fecha/hora, muelle): un horario admite
+-- tantas citas activas como muelles tenga, y dos reservas simultáneas del mismo muelle
+-- siguen chocando en la base de datos. Se conserva el nombre del índice.
+DROP INDEX uk_cita_horario_activo;
+CREATE UNIQUE INDEX uk_cita_horario_activo ON citas(tipo_cita, fecha_hora, muelle)
+WHERE estado IN ('PENDIENTE', 'CONFIRMADA');
+
+COMMENT ON TABLE capacidad_horarios IS 'Citas simultáneas admitidas por tipo de cita, día de la semana y hora';
+COMMENT ON TABLE dias_no_habiles IS 'Fechas en las que no se atienden citas';
+COMMENT ON COLUMN citas.muelle IS 'Muelle asignado dentro de la capacidad del horario';
+COMMENT ON INDEX uk_cita_horario_activo IS 'Un muelle activo por tipo de cita, fecha/hora y número de muelle';
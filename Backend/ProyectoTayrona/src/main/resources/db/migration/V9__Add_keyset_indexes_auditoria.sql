@@ -0,0 +1,16 @@
+-- Migración V9: Índices para la paginación por clave (fecha_cambio, id) de la auditoría
+
+-- Cada listado filtra por un criterio y se recorre del cambio más reciente al más antiguo.
+-- Con el criterio seguido de (fecha_cambio DESC, id DESC) cada página, y el top N del
+-- resumen de un usuario, se leen como un rango contiguo del índice, sin ordenar ni usar OFFSET.
+CREATE INDEX idx_auditoria_usuario_fecha_id ON auditoria_cambios_estado(usuario_id, fecha_cambio DESC, id DESC);
+CREATE INDEX idx_auditoria_cita_fecha_id ON auditoria_cambios_estado(cita_id, fecha_cambio DESC, id DESC);
+CREATE INDEX idx_auditoria_tipo_fecha_id ON auditoria_cambios_estado(tipo_cambio, fecha_cambio DESC, id DESC);
+CREATE INDEX idx_auditoria_fecha_id ON auditoria_cambios_estado(fecha_cambio DESC, id DESC);
+
+-- Los índices anteriores cubren las búsquedas y conteos que resolvían estos índices
+DROP INDEX IF EXISTS idx_auditoria_cita_id;
+DROP INDEX IF EXISTS idx_auditoria_usuario_id;
+DROP INDEX IF EXISTS idx_auditoria_tipo_cambio;
+DROP INDEX IF EXISTS idx_auditoria_fecha_cambio;
+DROP INDEX IF EXISTS idx_auditoria_usuario_fecha;
@@ -0,0 +1,123 @@
+package com.tayronadev.api.citas.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tayronadev.api.citas.dto.request.CrearCitaRequest;
+import com.tayronadev.api.citas.dto.request.DatosContactoRequest;
+import com.tayronadev.api.citas.dto.request.InformacionProveedorRequest;
+import com.tayronadev.api.citas.dto.request.TransporteRequest;
+import com.tayronadev.dominio.citas.modelo.EstadoCita;
+import com.tayronadev.dominio.citas.modelo.OpcionTransporte.TipoTransporte;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import com.tayronadev.infraestructura.persistencia.PruebaIntegracionPostgres;
+import com.tayronadev.infraestructura.persistencia.repositorios.CitaJpaRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@AutoConfigureMockMvc
+@DisplayName("Creación concurrente de citas - Integración")
+class CrearCitaConcurrenciaTest extends PruebaIntegracionPostgres {
+
+    private static final int SOLICITUDES = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CitaJpaRepository citaJpaRepository;
+
+    @Test
+    @DisplayName("Solo una de muchas solicitudes simultáneas debe reservar el mismo horario")
+    void soloUnaSolicitudDebeReservarElHorario() throws Exception {
+        // Given
+        var fechaHora = proximoDiaHabil().atTime(10, 0);
+        var cuerpo = objectMapper.writeValueAsString(crearRequest(fechaHora));
+        var inicio = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(SOLICITUDES);
+        List<Future<Integer>> resultados = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < SOLICITUDES; i++) {
+                resultados.add(executor.submit(() -> {
+                    inicio.await();
+                    return mockMvc.perform(post("/api/citas")
+                                    .with(user("proveedor"))
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(cuerpo))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            inicio.countDown();
+
+            int creadas = 0;
+            int conflictos = 0;
+            for (var resultado : resultados) {
+                int estado = resultado.get();
+                if (estado == 201) creadas++;
+                if (estado == 409) conflictos++;
+            }
+
+            // Then
+            assertEquals(1, creadas);
+            assertEquals(SOLICITUDES - 1, conflictos);
+            assertEquals(1, citaJpaRepository.findMuellesOcupados(TipoCita.ENTREGA, fechaHora,
+                    List.of(EstadoCita.PENDIENTE, EstadoCita.CONFIRMADA)).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LocalDate proximoDiaHabil() {
+        var fecha = LocalDate.now().plusDays(7);
+        while (fecha.getDayOfWeek() == DayOfWeek.SATURDAY || fecha.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            fecha = fecha.plusDays(1);
+        }
+        return fecha;
+    }
+
+    private CrearCitaRequest crearRequest(LocalDateTime fechaHora) {
+        var responsable = DatosContactoRequest.builder()
+                .nombre("Juan Pérez")
+                .email("juan@email.com")
+                .telefono("3001234567")
+                .build();
+        var proveedor = InformacionProveedorRequest.builder()
+                .nombreProveedor("Proveedor ABC")
+                .nit("900123456-1")
+                .numeroOrdenCompra("OC-001")
+                .responsable(responsable)
+                .build();
+        var transporte = TransporteRequest.builder()
+                .tipoTransporte(TipoTransporte.TRANSPORTADORA)
+                .nombreTransportadora("Servientrega")
+                .numeroGuia("GUIA-123")
+                .build();
+
+        return CrearCitaRequest.builder()
+                .tipoCita(TipoCita.ENTREGA)
+                .proveedor(proveedor)
+                .transporte(transporte)
+                .fechaHora(fechaHora)
+                .build();
+    }
+}
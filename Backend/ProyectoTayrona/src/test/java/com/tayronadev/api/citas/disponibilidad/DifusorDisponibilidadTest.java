@@ -0,0 +1,307 @@
+package com.tayronadev.api.citas.disponibilidad;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tayronadev.dominio.citas.eventos.CambioEstadoCitaEvento;
+import com.tayronadev.dominio.citas.eventos.OcupacionRecargadaEvento;
+import com.tayronadev.dominio.citas.modelo.EstadoCita;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import com.tayronadev.dominio.citas.servicios.CapacidadHorarios;
+import com.tayronadev.dominio.citas.servicios.IndiceOcupacionHorarios;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("DifusorDisponibilidad - Eventos SSE de horarios")
+class DifusorDisponibilidadTest {
+
+    private static final LocalDate FECHA = LocalDate.of(2030, 1, 7);
+
+    private IndiceOcupacionHorarios indiceOcupacion;
+    private CapacidadHorarios capacidadHorarios;
+    private DifusorDisponibilidad difusor;
+
+    @BeforeEach
+    void setUp() {
+        indiceOcupacion = mock(IndiceOcupacionHorarios.class);
+        capacidadHorarios = mock(CapacidadHorarios.class);
+        when(capacidadHorarios.capacidad(TipoCita.ENTREGA, FECHA.atTime(10, 0))).thenReturn(1);
+        // Ejecutor directo: la difusión ocurre en el hilo de la prueba
+        difusor = new DifusorDisponibilidad(new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry(), indiceOcupacion, capacidadHorarios, Duration.ofMinutes(1), 64, Runnable::run);
+    }
+
+    @Nested
+    @DisplayName("Suscripción")
+    class Suscripcion {
+
+        @Test
+        @DisplayName("Debe enviar la disponibilidad actual al suscribirse")
+        void debeEnviarDisponibilidadInicial() {
+            // Given
+            var emisor = new EmisorCapturador();
+
+            // When
+            difusor.registrar(emisor, TipoCita.ENTREGA, FECHA, () -> Map.of("horasOcupadas", List.of(8)));
+
+            // Then
+            assertEquals(1, emisor.eventos.size());
+            assertTrue(emisor.eventos.get(0).contains("event:disponibilidad"));
+            assertTrue(emisor.eventos.get(0).contains("{\"horasOcupadas\":[8]}"));
+            assertEquals(1, difusor.suscriptores());
+        }
+
+        @Test
+        @DisplayName("Debe registrar la suscripción antes de leer la disponibilidad y enviarla primero")
+        void debeRegistrarAntesDeLeerDisponibilidad() {
+            // Given
+            var emisor = new EmisorCapturador();
+            when(indiceOcupacion.citasActivas(TipoCita.ENTREGA, FECHA.atTime(10, 0))).thenReturn(1);
+
+            // When: una cita se crea mientras se lee la disponibilidad
+            difusor.registrar(emisor, TipoCita.ENTREGA, FECHA, () -> {
+                assertEquals(1, difusor.suscriptores());
+                difusor.alCambiarEstado(evento(null, EstadoCita.PENDIENTE));
+                return Map.of();
+            });
+
+            // Then
+            assertEquals(2, emisor.eventos.size());
+            assertTrue(emisor.eventos.get(0).contains("event:disponibilidad"));
+            assertTrue(emisor.eventos.get(1).contains("event:cambio"));
+        }
+
+        @Test
+        @DisplayName("Debe quitar la suscripción si falla la lectura de la disponibilidad")
+        void debeQuitarSuscripcionSiFallaLaLectura() {
+            var emisor = new EmisorCapturador();
+
+            assertThrows(IllegalStateException.class, () -> difusor.registrar(emisor, TipoCita.ENTREGA, FECHA,
+                    () -> { throw new IllegalStateException("sin conexión"); }));
+
+            assertEquals(0, difusor.suscriptores());
+        }
+    }
+
+    @Nested
+    @DisplayName("Difusión de cambios")
+    class DifusionCambios {
+
+        @Test
+        @DisplayName("Debe avisar solo a los suscriptores del mismo tipo y fecha")
+        void debeAvisarSoloALosSuscriptoresAfectados() {
+            // Given
+            var afectado = new EmisorCapturador();
+            var otraFecha = new EmisorCapturador();
+            var otroTipo = new EmisorCapturador();
+            difusor.registrar(afectado, TipoCita.ENTREGA, FECHA, () -> Map.of());
+            difusor.registrar(otraFecha, TipoCita.ENTREGA, FECHA.plusDays(1), () -> Map.of());
+            difusor.registrar(otroTipo, TipoCita.RECOJO, FECHA, () -> Map.of());
+
+            // When: se crea una cita que ocupa el único muelle de las 10:00
+            when(indiceOcupacion.citasActivas(TipoCita.ENTREGA, FECHA.atTime(10, 0))).thenReturn(1);
+            difusor.alCambiarEstado(evento(null, EstadoCita.PENDIENTE));
+
+            // Then
+            assertEquals(2, afectado.eventos.size());
+            var cambio = afectado.eventos.get(1);
+            assertTrue(cambio.contains("event:cambio"));
+            assertTrue(cambio.contains("\"hora\":10"));
+            assertTrue(cambio.contains("\"citasActivas\":1"));
+            assertTrue(cambio.contains("\"disponible\":false"));
+            assertEquals(1, otraFecha.eventos.size());
+            assertEquals(1, otroTipo.eventos.size());
+        }
+
+        @Test
+        @DisplayName("Debe avisar que el horario quedó libre al cancelar")
+        void debeAvisarHorarioLiberado() {
+            var emisor = new EmisorCapturador();
+            difusor.registrar(emisor, TipoCita.ENTREGA, FECHA, () -> Map.of());
+
+            difusor.alCambiarEstado(evento(EstadoCita.CONFIRMADA, EstadoCita.CANCELADA));
+
+            assertTrue(emisor.eventos.get(1).contains("\"disponible\":true"));
+        }
+
+        @Test
+        @DisplayName("Debe seguir disponible mientras queden muelles libres")
+        void debeSeguirDisponibleConMuellesLibres() {
+            // Given
+            var emisor = new EmisorCapturador();
+            difusor.registrar(emisor, TipoCita.ENTREGA, FECHA, () -> Map.of());
+            when(capacidadHorarios.capacidad(TipoCita.ENTREGA, FECHA.atTime(10, 0))).thenReturn(3);
+            when(indiceOcupacion.citasActivas(TipoCita.ENTREGA, FECHA.atTime(10, 0))).thenReturn(2);
+
+            // When
+            difusor.alCambiarEstado(evento(null, EstadoCita.PENDIENTE));
+
+            // Then
+            var cambio = emisor.eventos.get(1);
+            assertTrue(cambio.contains("\"citasActivas\":2"));
+            assertTrue(cambio.contains("\"capacidad\":3"));
+            assertTrue(cambio.contains("\"disponible\":true"));
+        }
+
+        @Test
+        @DisplayName("Debe avisar los horarios que cambiaron al recargar el índice, como las reservas de otras instancias")
+        void debeAvisarCambiosDeLaRecarga() {
+            // Given
+            var emisor = new EmisorCapturador();
+            var otraFecha = new EmisorCapturador();
+            difusor.registrar(emisor, TipoCita.ENTREGA, FECHA, () -> Map.of());
+            difusor.registrar(otraFecha, TipoCita.ENTREGA, FECHA.plusDays(1), () -> Map.of());
+            when(indiceOcupacion.citasActivas(TipoCita.ENTREGA, FECHA.atTime(10, 0))).thenReturn(1);
+
+            // When
+            difusor.alRecargarOcupacion(new OcupacionRecargadaEvento(TipoCita.ENTREGA, FECHA.atTime(10, 0)));
+
+            // Then
+            assertEquals(2, emisor.eventos.size());
+            var cambio = emisor.eventos.get(1);
+            assertTrue(cambio.contains("event:cambio"));
+            assertTrue(cambio.contains("\"citasActivas\":1"));
+            assertTrue(cambio.contains("\"disponible\":false"));
+            assertEquals(1, otraFecha.eventos.size());
+        }
+
+        @Test
+        @DisplayName("No debe difundir transiciones que no cambian la ocupación")
+        void noDebeDifundirSinCambioDeOcupacion() {
+            var emisor = new EmisorCapturador();
+            difusor.registrar(emisor, TipoCita.ENTREGA, FECHA, () -> Map.of());
+
+            difusor.alCambiarEstado(evento(EstadoCita.PENDIENTE, EstadoCita.CONFIRMADA));
+
+            assertEquals(1, emisor.eventos.size());
+        }
+
+        @Test
+        @DisplayName("Debe descartar la suscripción cuyo cliente cerró la conexión")
+        void debeDescartarSuscripcionCerrada() {
+            // Given
+            var emisor = new EmisorCapturador();
+            difusor.registrar(emisor, TipoCita.ENTREGA, FECHA, () -> Map.of());
+            emisor.cerrado = true;
+
+            // When
+            difusor.alCambiarEstado(evento(null, EstadoCita.PENDIENTE));
+
+            // Then
+            assertEquals(0, difusor.suscriptores());
+        }
+    }
+
+    @Nested
+    @DisplayName("Suscriptores lentos")
+    class SuscriptoresLentos {
+
+        @Test
+        @DisplayName("Un cliente lento no debe retrasar a los demás y se cierra al acumular eventos")
+        void debeCerrarClienteLentoSinRetrasarALosDemas() throws Exception {
+            // Given: dos hilos de difusión y como mucho dos eventos pendientes por suscripción
+            var hilos = Executors.newFixedThreadPool(2);
+            var concurrente = new DifusorDisponibilidad(new ObjectMapper().findAndRegisterModules(),
+                    new SimpleMeterRegistry(), indiceOcupacion, capacidadHorarios, Duration.ofMinutes(1), 2, hilos);
+            var liberar = new CountDownLatch(1);
+            var lento = new EmisorBloqueado(liberar);
+            var rapido = new EmisorContador();
+            concurrente.registrar(lento, TipoCita.ENTREGA, FECHA, Map::of);
+            concurrente.registrar(rapido, TipoCita.ENTREGA, FECHA, Map::of);
+
+            try {
+                assertTrue(rapido.recibidos.tryAcquire(5, TimeUnit.SECONDS));
+
+                // When: el cliente rápido recibe cada cambio mientras el lento sigue bloqueado
+                for (int i = 0; i < 3; i++) {
+                    concurrente.alCambiarEstado(evento(null, EstadoCita.PENDIENTE));
+                    assertTrue(rapido.recibidos.tryAcquire(5, TimeUnit.SECONDS));
+                }
+
+                // Then
+                assertEquals(1, concurrente.suscriptores());
+            } finally {
+                liberar.countDown();
+                hilos.shutdownNow();
+            }
+        }
+    }
+
+    // Métodos auxiliares
+
+    private CambioEstadoCitaEvento evento(EstadoCita anterior, EstadoCita nuevo) {
+        return new CambioEstadoCitaEvento("cita-1", TipoCita.ENTREGA, FECHA.atTime(10, 0), anterior, nuevo);
+    }
+
+    /**
+     * Emisor cuyo cliente no lee: cada envío se bloquea hasta que la prueba lo libera
+     */
+    private static class EmisorBloqueado extends SseEmitter {
+
+        private final CountDownLatch liberar;
+
+        EmisorBloqueado(CountDownLatch liberar) {
+            this.liberar = liberar;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+
+    /**
+     * Emisor que cuenta los eventos recibidos desde cualquier hilo
+     */
+    private static class EmisorContador extends SseEmitter {
+
+        private final Semaphore recibidos = new Semaphore(0);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            recibidos.release();
+        }
+    }
+
+    /**
+     * Emisor que guarda el texto de cada evento en lugar de escribirlo en una respuesta
+     */
+    private static class EmisorCapturador extends SseEmitter {
+
+        private final List<String> eventos = new ArrayList<>();
+        private boolean cerrado;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (cerrado) {
+                throw new IOException("Conexión cerrada por el cliente");
+            }
+            eventos.add(builder.build().stream()
+                    .map(parte -> parte.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.tayronadev.api.citas.exportacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tayronadev.api.citas.dto.response.CitaResponse;
+import com.tayronadev.api.citas.dto.response.DatosContactoResponse;
+import com.tayronadev.api.citas.dto.response.InformacionProveedorResponse;
+import com.tayronadev.api.citas.dto.response.TransporteResponse;
+import com.tayronadev.api.citas.mappers.CitaDtoMapper;
+import com.tayronadev.dominio.citas.casosuso.ExportarCitasUseCase;
+import com.tayronadev.dominio.citas.modelo.Cita;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExportadorCitas - Exportación CSV")
+class ExportadorCitasTest {
+
+    private static final LocalDateTime DESDE = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final LocalDateTime HASTA = LocalDateTime.of(2030, 2, 1, 0, 0);
+
+    @Mock
+    private ExportarCitasUseCase exportarCitasUseCase;
+
+    @Mock
+    private CitaDtoMapper mapper;
+
+    @Test
+    @DisplayName("Debe exportar como texto los campos que una hoja de cálculo evaluaría como fórmula")
+    void debeNeutralizarFormulas() throws Exception {
+        // Given
+        var cita = mock(Cita.class);
+        doAnswer(invocacion -> {
+            Consumer<Cita> consumidor = invocacion.getArgument(2);
+            consumidor.accept(cita);
+            return 1L;
+        }).when(exportarCitasUseCase).exportarPorRangoFechas(eq(DESDE), eq(HASTA), any());
+        when(mapper.toCitaResponse(cita)).thenReturn(crearResponse(
+                "=HYPERLINK(\"http://x\",\"clic\")", "+573001234567", "@SUM(A1:A2)"));
+        var exportador = new ExportadorCitas(exportarCitasUseCase, mapper, new ObjectMapper());
+        var salida = new ByteArrayOutputStream();
+
+        // When
+        exportador.exportar(DESDE, HASTA, FormatoExportacion.CSV).writeTo(salida);
+
+        // Then
+        var fila = salida.toString(StandardCharsets.UTF_8).lines().skip(1).findFirst().orElseThrow();
+        assertTrue(fila.contains(",\"'=HYPERLINK(\"\"http://x\"\",\"\"clic\"\")\","), fila);
+        assertTrue(fila.contains(",'+573001234567,"), fila);
+        assertTrue(fila.contains(",'@SUM(A1:A2),"), fila);
+        assertTrue(fila.startsWith("c-1,ENTREGA,PENDIENTE,"), fila);
+    }
+
+    private CitaResponse crearResponse(String nombreProveedor, String telefono, String observaciones) {
+        return CitaResponse.builder()
+                .id("c-1")
+                .tipoCita("ENTREGA")
+                .estado("PENDIENTE")
+                .fechaHora(DESDE.withHour(10))
+                .proveedor(InformacionProveedorResponse.builder()
+                        .nombreProveedor(nombreProveedor)
+                        .nit("123")
+                        .numeroOrdenCompra("OC-1")
+                        .responsable(DatosContactoResponse.builder()
+                                .nombre("Juan")
+                                .email("juan@email.com")
+                                .telefono(telefono)
+                                .build())
+                        .build())
+                .transporte(TransporteResponse.builder()
+                        .tipoTransporte("TRANSPORTADORA")
+                        .nombreTransportadora("Trans")
+                        .numeroGuia("GUIA-1")
+                        .build())
+                .observaciones(observaciones)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.tayronadev.api.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("VersionEtag - Encabezados ETag e If-Match")
+class VersionEtagTest {
+
+    @Test
+    @DisplayName("Debe obtener la versión de una ETag fuerte")
+    void debeObtenerVersionDeEtagFuerte() {
+        assertEquals(3L, VersionEtag.versionEsperada(VersionEtag.etag(3L)));
+    }
+
+    @Test
+    @DisplayName("No debe exigir versión sin encabezado o con *")
+    void noDebeExigirVersionSinEncabezado() {
+        assertNull(VersionEtag.versionEsperada(null));
+        assertNull(VersionEtag.versionEsperada("*"));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar una ETag débil: If-Match usa comparación fuerte")
+    void debeRechazarEtagDebil() {
+        assertThrows(PrecondicionFallidaException.class, () -> VersionEtag.versionEsperada("W/\"3\""));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un encabezado sin versión válida")
+    void debeRechazarEncabezadoInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> VersionEtag.versionEsperada("\"abc\""));
+    }
+}
@@ -0,0 +1,171 @@
+package com.tayronadev.dominio.auditoria.casosuso;
+
+import com.tayronadev.dominio.auditoria.consultas.ActividadDiaria;
+import com.tayronadev.dominio.auditoria.consultas.FiltroAuditoria;
+import com.tayronadev.dominio.auditoria.consultas.ResumenActividadUsuario;
+import com.tayronadev.dominio.auditoria.modelo.RegistroCambioEstado;
+import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
+import com.tayronadev.dominio.auditoria.repositorios.AuditoriaRepositorio;
+import com.tayronadev.dominio.auditoria.repositorios.ResumenAuditoriaRepositorio;
+import com.tayronadev.dominio.comun.Cursor;
+import com.tayronadev.dominio.comun.Pagina;
+import com.tayronadev.dominio.comun.SolicitudPagina;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConsultarAuditoriaUseCase - Caso de Uso")
+class ConsultarAuditoriaUseCaseTest {
+
+    private static final LocalDateTime AHORA = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    @Mock
+    private AuditoriaRepositorio auditoriaRepositorio;
+
+    @Mock
+    private ResumenAuditoriaRepositorio resumenAuditoriaRepositorio;
+
+    @InjectMocks
+    private ConsultarAuditoriaUseCase consultarAuditoriaUseCase;
+
+    @Nested
+    @DisplayName("Listados paginados")
+    class ListadosPaginados {
+
+        @Test
+        @DisplayName("Debe pedir al repositorio solo la página solicitada del usuario")
+        void debePedirPaginaDelUsuario() {
+            // Given
+            var solicitud = new SolicitudPagina(new Cursor(AHORA, "registro-9"), 20, true);
+            var pagina = new Pagina<>(List.of(crearRegistro("registro-8")), null);
+            when(auditoriaRepositorio.buscar(FiltroAuditoria.builder().usuarioId("usuario-1").build(), solicitud))
+                    .thenReturn(pagina);
+
+            // When
+            var resultado = consultarAuditoriaUseCase.obtenerPorUsuarioId("usuario-1", solicitud);
+
+            // Then
+            assertSame(pagina, resultado);
+        }
+
+        @Test
+        @DisplayName("Debe filtrar por tipo de cambio y por rango de fechas")
+        void debeFiltrarPorTipoYRango() {
+            // Given
+            var solicitud = SolicitudPagina.primera();
+            when(auditoriaRepositorio.buscar(any(), any())).thenReturn(new Pagina<>(List.of(), null));
+
+            // When
+            consultarAuditoriaUseCase.obtenerPorTipoCambio(TipoCambio.CANCELACION, solicitud);
+            consultarAuditoriaUseCase.obtenerPorRangoFechas(AHORA.minusDays(1), AHORA, solicitud);
+
+            // Then
+            verify(auditoriaRepositorio).buscar(FiltroAuditoria.builder().tipoCambio(TipoCambio.CANCELACION).build(), solicitud);
+            verify(auditoriaRepositorio).buscar(FiltroAuditoria.builder().desde(AHORA.minusDays(1)).hasta(AHORA).build(), solicitud);
+        }
+
+        @Test
+        @DisplayName("Debe rechazar un rango invertido sin consultar")
+        void debeRechazarRangoInvertido() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> consultarAuditoriaUseCase.obtenerPorRangoFechas(AHORA, AHORA.minusDays(1), SolicitudPagina.primera()));
+            verifyNoInteractions(auditoriaRepositorio);
+        }
+    }
+
+    @Nested
+    @DisplayName("Últimos cambios")
+    class UltimosCambios {
+
+        @Test
+        @DisplayName("El resumen de un usuario debe leer solo los N cambios más recientes")
+        void debeLeerSoloUltimosDelUsuario() {
+            // Given
+            var solicitud = ArgumentCaptor.forClass(SolicitudPagina.class);
+            var registros = List.of(crearRegistro("registro-2"), crearRegistro("registro-1"));
+            when(auditoriaRepositorio.buscar(eq(FiltroAuditoria.builder().usuarioId("usuario-1").build()), solicitud.capture()))
+                    .thenReturn(new Pagina<>(registros, null));
+
+            // When
+            var ultimos = consultarAuditoriaUseCase.obtenerUltimosPorUsuario("usuario-1", 10);
+
+            // Then
+            assertEquals(registros, ultimos);
+            assertEquals(10, solicitud.getValue().getTamano());
+            assertTrue(solicitud.getValue().isDescendente());
+            assertNull(solicitud.getValue().getDespuesDe());
+        }
+
+        @Test
+        @DisplayName("Debe rechazar un límite no positivo")
+        void debeRechazarLimiteInvalido() {
+            assertThrows(IllegalArgumentException.class, () -> consultarAuditoriaUseCase.obtenerUltimosRegistros(0));
+            verifyNoInteractions(auditoriaRepositorio);
+        }
+    }
+
+    @Nested
+    @DisplayName("Conteos precalculados")
+    class ConteosPrecalculados {
+
+        @Test
+        @DisplayName("El total de cambios de un usuario debe salir de los conteos sin contar registros")
+        void debeContarDesdeResumen() {
+            // Given
+            when(resumenAuditoriaRepositorio.obtenerResumenUsuario("usuario-1")).thenReturn(
+                    new ResumenActividadUsuario("usuario-1",
+                            Map.of(TipoCambio.CONFIRMACION, 7L, TipoCambio.RECHAZO, 2L), AHORA));
+
+            // When
+            var total = consultarAuditoriaUseCase.contarPorUsuarioId("usuario-1");
+
+            // Then
+            assertEquals(9, total);
+            verifyNoInteractions(auditoriaRepositorio);
+        }
+
+        @Test
+        @DisplayName("Debe leer la actividad diaria del rango solicitado")
+        void debeLeerActividadDiaria() {
+            var desde = AHORA.toLocalDate().minusDays(6);
+            var hasta = AHORA.toLocalDate();
+            var actividad = List.of(new ActividadDiaria(hasta, TipoCambio.CONFIRMACION, 3));
+            when(resumenAuditoriaRepositorio.obtenerActividadDiaria("usuario-1", desde, hasta)).thenReturn(actividad);
+
+            assertEquals(actividad, consultarAuditoriaUseCase.obtenerActividadDiaria("usuario-1", desde, hasta));
+        }
+
+        @Test
+        @DisplayName("Debe rechazar un rango de actividad invertido o demasiado amplio")
+        void debeRechazarRangoDeActividadInvalido() {
+            var hoy = AHORA.toLocalDate();
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> consultarAuditoriaUseCase.obtenerActividadDiaria("usuario-1", hoy, hoy.minusDays(1)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> consultarAuditoriaUseCase.obtenerActividadDiaria("usuario-1", hoy.minusYears(2), hoy));
+            verifyNoInteractions(resumenAuditoriaRepositorio);
+        }
+    }
+
+    // Métodos auxiliares
+
+    private RegistroCambioEstado crearRegistro(String id) {
+        return new RegistroCambioEstado(id, "cita-1", "usuario-1", "Admin", TipoCambio.CONFIRMACION,
+                "PENDIENTE", "CONFIRMADA", null, AHORA);
+    }
+}
@@ -0,0 +1,183 @@
+package com.tayronadev.dominio.citas.casosuso;
+
+import com.tayronadev.dominio.citas.consultas.ConteoCitas;
+import com.tayronadev.dominio.citas.consultas.EstadisticasCitas;
+import com.tayronadev.dominio.citas.consultas.HorarioOcupado;
+import com.tayronadev.dominio.citas.modelo.EstadoCita;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import com.tayronadev.dominio.citas.servicios.ContadoresCitas;
+import com.tayronadev.dominio.citas.servicios.IndiceOcupacionHorarios;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConsultarCitasUseCase - Caso de Uso")
+class ConsultarCitasUseCaseTest {
+
+    private static final LocalDate LUNES = LocalDate.of(2030, 1, 7);
+
+    @Mock
+    private CitaRepositorio citaRepositorio;
+
+    @Mock
+    private IndiceOcupacionHorarios indiceOcupacion;
+
+    @Mock
+    private ContadoresCitas contadores;
+
+    @InjectMocks
+    private ConsultarCitasUseCase consultarCitasUseCase;
+
+    @Nested
+    @DisplayName("Ocupación de un día")
+    class ObtenerCitasPorHora {
+
+        @Test
+        @DisplayName("Debe contar por hora solo los horarios ocupados del tipo si el índice no cubre la fecha")
+        void debeContarHorariosOcupadosDelTipo() {
+            // Given
+            when(indiceOcupacion.cubre(LUNES)).thenReturn(false);
+            when(citaRepositorio.buscarHorariosOcupados(LUNES.atStartOfDay(), LUNES.plusDays(1).atStartOfDay()))
+                    .thenReturn(List.of(
+                            new HorarioOcupado(TipoCita.ENTREGA, LUNES.atTime(8, 0)),
+                            new HorarioOcupado(TipoCita.ENTREGA, LUNES.atTime(8, 0)),
+                            new HorarioOcupado(TipoCita.RECOJO, LUNES.atTime(9, 0))));
+
+            // When
+            var citasPorHora = consultarCitasUseCase.obtenerCitasPorHora(TipoCita.ENTREGA, LUNES);
+
+            // Then
+            assertEquals(Map.of(8, 2), citasPorHora);
+            verify(indiceOcupacion, never()).citasPorHora(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Ocupación de varios días")
+    class ObtenerOcupacion {
+
+        @Test
+        @DisplayName("Debe responder desde el índice en memoria si cubre el rango")
+        void debeResponderDesdeIndice() {
+            // Given
+            when(indiceOcupacion.cubre(LUNES)).thenReturn(true);
+            when(indiceOcupacion.citasPorHora(any(), any())).thenReturn(Map.of());
+            when(indiceOcupacion.citasPorHora(TipoCita.ENTREGA, LUNES.plusDays(1))).thenReturn(Map.of(9, 2, 14, 1));
+
+            // When
+            var ocupacion = consultarCitasUseCase.obtenerOcupacion(LUNES, 14);
+
+            // Then
+            assertEquals(14, ocupacion.getFechas().size());
+            assertEquals(Map.of(9, 2, 14, 1), ocupacion.citasPorHora(TipoCita.ENTREGA, LUNES.plusDays(1)));
+            assertTrue(ocupacion.citasPorHora(TipoCita.RECOJO, LUNES.plusDays(1)).isEmpty());
+            verifyNoInteractions(citaRepositorio);
+        }
+
+        @Test
+        @DisplayName("Debe usar una sola consulta para todo el rango si el índice no lo cubre")
+        void debeUsarUnaSolaConsulta() {
+            // Given
+            when(indiceOcupacion.cubre(LUNES)).thenReturn(false);
+            when(citaRepositorio.buscarHorariosOcupados(LUNES.atStartOfDay(), LUNES.plusDays(14).atStartOfDay()))
+                    .thenReturn(List.of(
+                            new HorarioOcupado(TipoCita.ENTREGA, LUNES.atTime(8, 0)),
+                            new HorarioOcupado(TipoCita.ENTREGA, LUNES.atTime(8, 0)),
+                            new HorarioOcupado(TipoCita.ENTREGA, LUNES.atTime(10, 0)),
+                            new HorarioOcupado(TipoCita.DEVOLUCION, LUNES.plusDays(3).atTime(15, 0))));
+
+            // When
+            var ocupacion = consultarCitasUseCase.obtenerOcupacion(LUNES, 14);
+
+            // Then
+            assertEquals(Map.of(8, 2, 10, 1), ocupacion.citasPorHora(TipoCita.ENTREGA, LUNES));
+            assertEquals(Map.of(15, 1), ocupacion.citasPorHora(TipoCita.DEVOLUCION, LUNES.plusDays(3)));
+            verify(citaRepositorio, times(1)).buscarHorariosOcupados(any(), any());
+            verify(indiceOcupacion, never()).citasPorHora(any(), any());
+        }
+
+        @Test
+        @DisplayName("Debe rechazar rangos fuera del límite de días")
+        void debeRechazarRangoInvalido() {
+            assertThrows(IllegalArgumentException.class, () -> consultarCitasUseCase.obtenerOcupacion(LUNES, 0));
+            assertThrows(IllegalArgumentException.class,
+                    () -> consultarCitasUseCase.obtenerOcupacion(LUNES, ConsultarCitasUseCase.MAX_DIAS_CALENDARIO + 1));
+            verifyNoInteractions(citaRepositorio);
+        }
+    }
+
+    @Nested
+    @DisplayName("Estadísticas")
+    class ObtenerEstadisticas {
+
+        @Test
+        @DisplayName("Debe responder desde los contadores en memoria sin consultar la base de datos")
+        void debeUsarContadoresCargados() {
+            // Given
+            var enMemoria = EstadisticasCitas.de(LUNES, LUNES, List.of(
+                    new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.ENTREGA, LUNES, 12)));
+            when(contadores.estaCargado()).thenReturn(true);
+            when(contadores.estadisticas(LUNES, LUNES)).thenReturn(enMemoria);
+
+            // When
+            var estadisticas = consultarCitasUseCase.obtenerEstadisticas(LUNES, LUNES);
+
+            // Then
+            assertSame(enMemoria, estadisticas);
+            verifyNoInteractions(citaRepositorio);
+        }
+
+        @Test
+        @DisplayName("El conteo por estado debe ser exacto en base de datos aunque haya contadores cargados")
+        void debeContarPorEstadoEnBaseDeDatos() {
+            when(citaRepositorio.contarPorEstado(EstadoCita.PENDIENTE)).thenReturn(12L);
+
+            assertEquals(12, consultarCitasUseCase.contarPorEstado(EstadoCita.PENDIENTE));
+            verifyNoInteractions(contadores);
+        }
+
+        @Test
+        @DisplayName("Mientras los contadores no estén cargados debe usar una sola consulta agrupada")
+        void debeUsarConsultaAgrupadaSinContadores() {
+            // Given
+            when(contadores.estaCargado()).thenReturn(false);
+            when(citaRepositorio.contarPorEstadoTipoYDia()).thenReturn(List.of(
+                    new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.ENTREGA, LUNES, 2),
+                    new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.ENTREGA, LUNES.minusDays(1), 5)));
+
+            // When
+            var estadisticas = consultarCitasUseCase.obtenerEstadisticas(LUNES, LUNES.plusDays(6));
+
+            // Then
+            assertEquals(7L, estadisticas.getTotales().get(EstadoCita.PENDIENTE).get(TipoCita.ENTREGA));
+            assertEquals(List.of(new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.ENTREGA, LUNES, 2)),
+                    estadisticas.getPorDia());
+            verify(contadores, never()).estadisticas(any(), any());
+        }
+
+        @Test
+        @DisplayName("Debe rechazar rangos invertidos o que superan el límite de días")
+        void debeRechazarRangoInvalido() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> consultarCitasUseCase.obtenerEstadisticas(LUNES, LUNES.minusDays(1)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> consultarCitasUseCase.obtenerEstadisticas(LUNES,
+                            LUNES.plusDays(ConsultarCitasUseCase.MAX_DIAS_ESTADISTICAS)));
+            verifyNoInteractions(citaRepositorio, contadores);
+        }
+    }
+}
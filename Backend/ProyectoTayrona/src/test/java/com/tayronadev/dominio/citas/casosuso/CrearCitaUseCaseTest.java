@@ -1,5 +1,6 @@
 package com.tayronadev.dominio.citas.casosuso;
 
+import com.tayronadev.dominio.citas.eventos.CambioEstadoCitaEvento;
 import com.tayronadev.dominio.citas.excepciones.HorarioNoDisponibleException;
 import com.tayronadev.dominio.citas.modelo.*;
 import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
@@ -9,17 +10,19 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,7 +35,12 @@ class CrearCitaUseCaseTest {
     @Mock
     private ValidadorHorarios validadorHorarios;
     
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventos;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
     private CrearCitaUseCase crearCitaUseCase;
     
     private InformacionProveedor proveedor;
@@ -41,6 +49,8 @@ class CrearCitaUseCaseTest {
     
     @BeforeEach
     void setUp() {
+        crearCitaUseCase = new CrearCitaUseCase(citaRepositorio, validadorHorarios, eventos,
+                new TransactionTemplate(transactionManager));
         var contacto = new DatosContacto("Juan Pérez", "juan@email.com", "3001234567");
         proveedor = new InformacionProveedor("Proveedor ABC", "900123456-1", "OC-001", contacto);
         transporte = new TransporteTransportadora("Servientrega", "GUIA-123");
@@ -55,9 +65,9 @@ class CrearCitaUseCaseTest {
         @DisplayName("Debe crear una cita cuando el horario está disponible")
         void debeCrearCitaCuandoHorarioDisponible() {
             // Given
-            when(citaRepositorio.buscarActivasPorTipo(TipoCita.ENTREGA)).thenReturn(Collections.emptyList());
-            doNothing().when(validadorHorarios).validarDisponibilidad(any(), any(), any());
-            when(citaRepositorio.guardar(any(Cita.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(citaRepositorio.buscarMuellesOcupados(TipoCita.ENTREGA, horario.getFechaHora())).thenReturn(Set.of());
+            when(validadorHorarios.asignarMuelle(horario, TipoCita.ENTREGA, Set.of())).thenReturn(1);
+            when(citaRepositorio.registrar(any(Cita.class))).thenAnswer(invocation -> invocation.getArgument(0));
             
             // When
             Cita resultado = crearCitaUseCase.ejecutar(TipoCita.ENTREGA, proveedor, transporte, horario);
@@ -67,26 +77,41 @@ class CrearCitaUseCaseTest {
             assertEquals(TipoCita.ENTREGA, resultado.getTipoCita());
             assertEquals(EstadoCita.PENDIENTE, resultado.getEstado());
             assertEquals(proveedor, resultado.getProveedor());
+            assertEquals(1, resultado.getMuelle());
             
-            verify(citaRepositorio).buscarActivasPorTipo(TipoCita.ENTREGA);
-            verify(validadorHorarios).validarDisponibilidad(horario, TipoCita.ENTREGA, Collections.emptyList());
-            verify(citaRepositorio).guardar(any(Cita.class));
+            verify(citaRepositorio).buscarMuellesOcupados(TipoCita.ENTREGA, horario.getFechaHora());
+            verify(citaRepositorio).registrar(any(Cita.class));
         }
         
         @Test
-        @DisplayName("Debe validar disponibilidad antes de crear")
-        void debeValidarDisponibilidadAntesDeCrear() {
+        @DisplayName("Debe asignar el muelle libre cuando el horario ya tiene citas")
+        void debeAsignarMuelleLibre() {
             // Given
-            var citasExistentes = List.of(crearCitaMock(TipoCita.ENTREGA, EstadoCita.CONFIRMADA));
-            when(citaRepositorio.buscarActivasPorTipo(TipoCita.ENTREGA)).thenReturn(citasExistentes);
-            doNothing().when(validadorHorarios).validarDisponibilidad(any(), any(), any());
-            when(citaRepositorio.guardar(any(Cita.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(citaRepositorio.buscarMuellesOcupados(TipoCita.ENTREGA, horario.getFechaHora())).thenReturn(Set.of(1));
+            when(validadorHorarios.asignarMuelle(horario, TipoCita.ENTREGA, Set.of(1))).thenReturn(2);
+            when(citaRepositorio.registrar(any(Cita.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            
+            // When
+            Cita resultado = crearCitaUseCase.ejecutar(TipoCita.ENTREGA, proveedor, transporte, horario);
+            
+            // Then
+            assertEquals(2, resultado.getMuelle());
+        }
+        
+        @Test
+        @DisplayName("Debe validar disponibilidad con una consulta puntual sin cargar citas activas")
+        void debeValidarDisponibilidadConConsultaPuntual() {
+            // Given
+            when(citaRepositorio.buscarMuellesOcupados(TipoCita.ENTREGA, horario.getFechaHora())).thenReturn(Set.of());
+            when(validadorHorarios.asignarMuelle(any(), any(), any())).thenReturn(1);
+            when(citaRepositorio.registrar(any(Cita.class))).thenAnswer(invocation -> invocation.getArgument(0));
             
             // When
             crearCitaUseCase.ejecutar(TipoCita.ENTREGA, proveedor, transporte, horario);
             
             // Then
-            verify(validadorHorarios).validarDisponibilidad(horario, TipoCita.ENTREGA, citasExistentes);
+            verify(validadorHorarios).asignarMuelle(horario, TipoCita.ENTREGA, Set.of());
+            verify(citaRepositorio, never()).buscarHorariosOcupadosDesde(any());
         }
     }
     
@@ -98,15 +123,76 @@ class CrearCitaUseCaseTest {
         @DisplayName("Debe fallar cuando el horario no está disponible")
         void debeFallarCuandoHorarioNoDisponible() {
             // Given
-            when(citaRepositorio.buscarActivasPorTipo(TipoCita.ENTREGA)).thenReturn(Collections.emptyList());
-            doThrow(new HorarioNoDisponibleException(horario, TipoCita.ENTREGA))
-                    .when(validadorHorarios).validarDisponibilidad(any(), any(), any());
+            when(citaRepositorio.buscarMuellesOcupados(TipoCita.ENTREGA, horario.getFechaHora())).thenReturn(Set.of(1));
+            when(validadorHorarios.asignarMuelle(any(), any(), any()))
+                    .thenThrow(new HorarioNoDisponibleException(horario, TipoCita.ENTREGA));
             
             // When & Then
             assertThrows(HorarioNoDisponibleException.class, 
                     () -> crearCitaUseCase.ejecutar(TipoCita.ENTREGA, proveedor, transporte, horario));
             
-            verify(citaRepositorio, never()).guardar(any());
+            verify(citaRepositorio, never()).registrar(any());
+        }
+    }
+    
+    @Nested
+    @DisplayName("Muelle tomado por una solicitud concurrente")
+    class MuelleTomadoConcurrente {
+        
+        @Test
+        @DisplayName("Debe reintentar en una nueva transacción con el siguiente muelle libre")
+        void debeReintentarConSiguienteMuelle() {
+            // Given: otra solicitud guarda a la vez en el muelle 1
+            when(citaRepositorio.buscarMuellesOcupados(TipoCita.ENTREGA, horario.getFechaHora()))
+                    .thenReturn(Set.of(), Set.of(1));
+            when(validadorHorarios.asignarMuelle(horario, TipoCita.ENTREGA, Set.of())).thenReturn(1);
+            when(validadorHorarios.asignarMuelle(horario, TipoCita.ENTREGA, Set.of(1))).thenReturn(2);
+            when(citaRepositorio.registrar(any(Cita.class)))
+                    .thenThrow(new HorarioNoDisponibleException(horario, TipoCita.ENTREGA))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+            
+            // When
+            Cita resultado = crearCitaUseCase.ejecutar(TipoCita.ENTREGA, proveedor, transporte, horario);
+            
+            // Then
+            assertEquals(2, resultado.getMuelle());
+            verify(transactionManager).rollback(any());
+            verify(transactionManager).commit(any());
+            verify(eventos, times(1)).publishEvent(any(CambioEstadoCitaEvento.class));
+        }
+        
+        @Test
+        @DisplayName("Debe rechazar la cita si el horario se llena mientras reintenta")
+        void debeRechazarSiElHorarioSeLlena() {
+            // Given
+            when(citaRepositorio.buscarMuellesOcupados(TipoCita.ENTREGA, horario.getFechaHora()))
+                    .thenReturn(Set.of(), Set.of(1));
+            when(validadorHorarios.asignarMuelle(horario, TipoCita.ENTREGA, Set.of())).thenReturn(1);
+            when(validadorHorarios.asignarMuelle(horario, TipoCita.ENTREGA, Set.of(1)))
+                    .thenThrow(new HorarioNoDisponibleException(horario, TipoCita.ENTREGA));
+            when(citaRepositorio.registrar(any(Cita.class)))
+                    .thenThrow(new HorarioNoDisponibleException(horario, TipoCita.ENTREGA));
+            
+            // When & Then
+            assertThrows(HorarioNoDisponibleException.class,
+                    () -> crearCitaUseCase.ejecutar(TipoCita.ENTREGA, proveedor, transporte, horario));
+            verify(citaRepositorio, times(1)).registrar(any());
+            verifyNoInteractions(eventos);
+        }
+        
+        @Test
+        @DisplayName("Debe dejar de reintentar al agotar los intentos")
+        void debeDejarDeReintentarAlAgotarIntentos() {
+            // Given
+            when(citaRepositorio.buscarMuellesOcupados(any(), any())).thenReturn(Set.of());
+            when(validadorHorarios.asignarMuelle(any(), any(), any())).thenReturn(1);
+            when(citaRepositorio.registrar(any(Cita.class)))
+                    .thenThrow(new HorarioNoDisponibleException(horario, TipoCita.ENTREGA));
+            
+            // When & Then
+            assertThrows(HorarioNoDisponibleException.class,
+                    () -> crearCitaUseCase.ejecutar(TipoCita.ENTREGA, proveedor, transporte, horario));
+            verify(citaRepositorio, times(5)).registrar(any());
         }
     }
     
@@ -118,8 +204,8 @@ class CrearCitaUseCaseTest {
         @DisplayName("Debe retornar true cuando el horario está disponible")
         void debeRetornarTrueCuandoHorarioDisponible() {
             // Given
-            when(citaRepositorio.buscarActivasPorTipo(TipoCita.ENTREGA)).thenReturn(Collections.emptyList());
-            doNothing().when(validadorHorarios).validarDisponibilidad(any(), any(), any());
+            when(citaRepositorio.buscarMuellesOcupados(TipoCita.ENTREGA, horario.getFechaHora())).thenReturn(Set.of());
+            doNothing().when(validadorHorarios).validarDisponibilidad(any(), any(), anyInt());
             
             // When
             boolean resultado = crearCitaUseCase.validarDisponibilidadHorario(TipoCita.ENTREGA, horario);
@@ -132,9 +218,9 @@ class CrearCitaUseCaseTest {
         @DisplayName("Debe retornar false cuando el horario no está disponible")
         void debeRetornarFalseCuandoHorarioNoDisponible() {
             // Given
-            when(citaRepositorio.buscarActivasPorTipo(TipoCita.ENTREGA)).thenReturn(Collections.emptyList());
+            when(citaRepositorio.buscarMuellesOcupados(TipoCita.ENTREGA, horario.getFechaHora())).thenReturn(Set.of(1));
             doThrow(new HorarioNoDisponibleException(horario, TipoCita.ENTREGA))
-                    .when(validadorHorarios).validarDisponibilidad(any(), any(), any());
+                    .when(validadorHorarios).validarDisponibilidad(horario, TipoCita.ENTREGA, 1);
             
             // When
             boolean resultado = crearCitaUseCase.validarDisponibilidadHorario(TipoCita.ENTREGA, horario);
@@ -153,14 +239,4 @@ class CrearCitaUseCaseTest {
         }
         return fecha;
     }
-    
-    private Cita crearCitaMock(TipoCita tipo, EstadoCita estado) {
-        var contacto = new DatosContacto("Test", "test@email.com", "123");
-        var prov = new InformacionProveedor("Test", "123", "OC-1", contacto);
-        var trans = new TransporteTransportadora("Trans", "GUIA");
-        var hor = Horario.reconstruir(LocalDateTime.now().plusDays(1).withHour(10));
-        
-        return new Cita("mock-id", tipo, prov, trans, hor, estado, null, null, 
-                LocalDateTime.now(), LocalDateTime.now());
-    }
 }
@@ -0,0 +1,149 @@
+package com.tayronadev.dominio.citas.casosuso;
+
+import com.tayronadev.dominio.auditoria.casosuso.RegistrarCambioEstadoUseCase;
+import com.tayronadev.dominio.citas.eventos.CambioEstadoCitaEvento;
+import com.tayronadev.dominio.citas.modelo.*;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpirarCitasVencidasUseCase - Caso de Uso")
+class ExpirarCitasVencidasUseCaseTest {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Bogota");
+    private static final LocalDateTime AHORA = LocalDateTime.of(2030, 1, 7, 10, 0);
+    private static final int LOTE = 100;
+
+    @Mock
+    private CitaRepositorio citaRepositorio;
+
+    @Mock
+    private RegistrarCambioEstadoUseCase registrarCambioEstado;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExpirarCitasVencidasUseCase expirarUseCase;
+
+    @BeforeEach
+    void setUp() {
+        var reloj = Clock.fixed(AHORA.atZone(ZONA).toInstant(), ZONA);
+        expirarUseCase = new ExpirarCitasVencidasUseCase(citaRepositorio, registrarCambioEstado, eventos,
+                new TransactionTemplate(transactionManager), reloj);
+        lenient().when(citaRepositorio.guardarTodas(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Nested
+    @DisplayName("Expirar vencidas")
+    class ExpirarVencidas {
+
+        @Test
+        @DisplayName("Debe cancelar las citas vencidas, guardarlas en lote y auditarlas")
+        void debeExpirarLoteDeVencidas() {
+            // Given
+            var vencidas = crearVencidas(2);
+            when(citaRepositorio.bloquearPendientesVencidas(AHORA, LOTE)).thenReturn(vencidas);
+
+            // When
+            var expiradas = expirarUseCase.expirarVencidas();
+
+            // Then
+            assertEquals(2, expiradas);
+            assertTrue(vencidas.stream().allMatch(cita -> cita.getEstado() == EstadoCita.CANCELADA));
+            verify(citaRepositorio).guardarTodas(vencidas);
+            verify(eventos, times(2)).publishEvent(any(CambioEstadoCitaEvento.class));
+            verify(registrarCambioEstado).registrarExpiraciones(vencidas);
+            verify(transactionManager).getTransaction(any());
+        }
+
+        @Test
+        @DisplayName("Debe procesar lotes, cada uno en su transacción, hasta que uno no llegue lleno")
+        void debeProcesarVariosLotes() {
+            // Given
+            when(citaRepositorio.bloquearPendientesVencidas(AHORA, LOTE))
+                    .thenReturn(crearVencidas(LOTE), crearVencidas(3));
+
+            // When
+            var expiradas = expirarUseCase.expirarVencidas();
+
+            // Then
+            assertEquals(LOTE + 3, expiradas);
+            verify(citaRepositorio, times(2)).bloquearPendientesVencidas(AHORA, LOTE);
+            verify(transactionManager, times(2)).getTransaction(any());
+            verify(transactionManager, times(2)).commit(any());
+        }
+
+        @Test
+        @DisplayName("No debe guardar ni auditar si no hay citas vencidas")
+        void noDebeHacerNadaSinVencidas() {
+            // Given
+            when(citaRepositorio.bloquearPendientesVencidas(AHORA, LOTE)).thenReturn(List.of());
+
+            // When
+            var expiradas = expirarUseCase.expirarVencidas();
+
+            // Then
+            assertEquals(0, expiradas);
+            verify(citaRepositorio, never()).guardarTodas(any());
+            verifyNoInteractions(registrarCambioEstado, eventos);
+        }
+
+        @Test
+        @DisplayName("Un fallo de base de datos debe conservar los lotes ya confirmados sin propagarse")
+        void debeConservarLotesConfirmadosAnteUnFallo() {
+            // Given
+            when(citaRepositorio.bloquearPendientesVencidas(any(), anyInt()))
+                    .thenReturn(crearVencidas(LOTE))
+                    .thenThrow(new QueryTimeoutException("bloqueo"));
+
+            // When
+            var expiradas = expirarUseCase.expirarVencidas();
+
+            // Then
+            assertEquals(LOTE, expiradas);
+            verify(transactionManager).commit(any());
+            verify(transactionManager).rollback(any());
+        }
+    }
+
+    // Métodos auxiliares
+
+    private List<Cita> crearVencidas(int cantidad) {
+        return IntStream.range(0, cantidad)
+                .mapToObj(i -> crearCitaPendiente("cita-" + i, AHORA.minusDays(1).withHour(8)))
+                .toList();
+    }
+
+    private Cita crearCitaPendiente(String id, LocalDateTime fechaHora) {
+        var contacto = new DatosContacto("Juan", "juan@email.com", "123");
+        var proveedor = new InformacionProveedor("Proveedor", "123", "OC-1", contacto);
+        var transporte = new TransporteTransportadora("Trans", "GUIA-1");
+
+        return new Cita(id, TipoCita.ENTREGA, proveedor, transporte, Horario.reconstruir(fechaHora),
+                EstadoCita.PENDIENTE, null, null, fechaHora.minusDays(2), fechaHora.minusDays(2), 0L, 1);
+    }
+}
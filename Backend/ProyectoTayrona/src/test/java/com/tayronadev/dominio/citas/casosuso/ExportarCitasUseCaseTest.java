@@ -0,0 +1,58 @@
+package com.tayronadev.dominio.citas.casosuso;
+
+import com.tayronadev.dominio.citas.modelo.Cita;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExportarCitasUseCase - Caso de Uso")
+class ExportarCitasUseCaseTest {
+    
+    @Mock
+    private CitaRepositorio citaRepositorio;
+    
+    @InjectMocks
+    private ExportarCitasUseCase exportarCitasUseCase;
+    
+    @Test
+    @DisplayName("Debe recorrer las citas del rango con el consumidor recibido")
+    void debeRecorrerCitasDelRango() {
+        // Given
+        var desde = LocalDateTime.of(2030, 1, 1, 0, 0);
+        var hasta = LocalDateTime.of(2030, 2, 1, 0, 0);
+        Consumer<Cita> consumidor = cita -> { };
+        when(citaRepositorio.recorrerPorRangoFechas(desde, hasta, consumidor)).thenReturn(42L);
+        
+        // When
+        long total = exportarCitasUseCase.exportarPorRangoFechas(desde, hasta, consumidor);
+        
+        // Then
+        assertEquals(42L, total);
+        verify(citaRepositorio).recorrerPorRangoFechas(desde, hasta, consumidor);
+    }
+    
+    @Test
+    @DisplayName("Debe rechazar un rango vacío o invertido")
+    void debeRechazarRangoInvalido() {
+        var fecha = LocalDateTime.of(2030, 1, 1, 0, 0);
+        
+        assertThrows(IllegalArgumentException.class,
+                () -> exportarCitasUseCase.exportarPorRangoFechas(fecha, fecha, cita -> { }));
+        assertThrows(IllegalArgumentException.class,
+                () -> exportarCitasUseCase.exportarPorRangoFechas(fecha, fecha.minusDays(1), cita -> { }));
+        
+        verify(citaRepositorio, never()).recorrerPorRangoFechas(any(), any(), any());
+    }
+}
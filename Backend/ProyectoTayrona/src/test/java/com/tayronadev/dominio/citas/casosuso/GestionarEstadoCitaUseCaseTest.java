@@ -2,11 +2,14 @@ package com.tayronadev.dominio.citas.casosuso;
 
 import com.tayronadev.dominio.auditoria.casosuso.RegistrarCambioEstadoUseCase;
 import com.tayronadev.dominio.citas.excepciones.CitaNoEncontradaException;
+import com.tayronadev.dominio.citas.excepciones.ConflictoVersionCitaException;
 import com.tayronadev.dominio.citas.excepciones.EstadoCitaInvalidoException;
 import com.tayronadev.dominio.citas.modelo.*;
 import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
 import com.tayronadev.dominio.citas.servicios.GestorEstadosCita;
 import com.tayronadev.dominio.notificacion.casosuso.NotificarCambioEstadoCitaUseCase;
+import com.tayronadev.dominio.usuario.modelo.TipoUsuario;
+import com.tayronadev.dominio.usuario.modelo.UsuarioSesion;
 import com.tayronadev.dominio.usuario.servicios.UsuarioActualService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,9 +19,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,6 +52,9 @@ class GestionarEstadoCitaUseCaseTest {
     @Mock
     private UsuarioActualService usuarioActualService;
     
+    @Mock
+    private ApplicationEventPublisher eventos;
+    
     @InjectMocks
     private GestionarEstadoCitaUseCase gestionarEstadoUseCase;
     
@@ -69,7 +80,7 @@ class GestionarEstadoCitaUseCaseTest {
             doNothing().when(notificarCambioEstado).ejecutar(any(), anyString());
             
             // When
-            Cita resultado = gestionarEstadoUseCase.confirmarCita("cita-1", "Confirmada");
+            Cita resultado = gestionarEstadoUseCase.confirmarCita("cita-1", "Confirmada", null);
             
             // Then
             assertEquals(EstadoCita.CONFIRMADA, resultado.getEstado());
@@ -77,6 +88,26 @@ class GestionarEstadoCitaUseCaseTest {
             verify(notificarCambioEstado).ejecutar(any(Cita.class), eq("Confirmada"));
         }
         
+        @Test
+        @DisplayName("Debe notificar al proveedor solo después del commit")
+        void debeNotificarDespuesDelCommit() {
+            // Given
+            when(citaRepositorio.buscarPorId("cita-1")).thenReturn(Optional.of(citaPendiente));
+            when(citaRepositorio.guardar(any(Cita.class))).thenAnswer(inv -> inv.getArgument(0));
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // When
+                gestionarEstadoUseCase.confirmarCita("cita-1", "Confirmada", null);
+                
+                // Then: nada se envía mientras la transacción pueda revertirse
+                verify(notificarCambioEstado, never()).ejecutar(any(), anyString());
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+                verify(notificarCambioEstado).ejecutar(citaPendiente, "Confirmada");
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+        
         @Test
         @DisplayName("Debe lanzar excepción si la cita no existe")
         void debeLanzarExcepcionSiCitaNoExiste() {
@@ -85,8 +116,23 @@ class GestionarEstadoCitaUseCaseTest {
             
             // When & Then
             assertThrows(CitaNoEncontradaException.class, 
-                    () -> gestionarEstadoUseCase.confirmarCita("no-existe", "Obs"));
+                    () -> gestionarEstadoUseCase.confirmarCita("no-existe", "Obs", null));
+            
+            verify(citaRepositorio, never()).guardar(any());
+            verify(notificarCambioEstado, never()).ejecutar(any(), anyString());
+        }
+        
+        @Test
+        @DisplayName("Debe rechazar la confirmación si la cita cambió desde que se leyó")
+        void debeRechazarSiLaVersionNoCoincide() {
+            // Given: la cita va en la versión 0 y el cliente envía la 3
+            when(citaRepositorio.buscarPorId("cita-1")).thenReturn(Optional.of(citaPendiente));
+            
+            // When & Then
+            assertThrows(ConflictoVersionCitaException.class,
+                    () -> gestionarEstadoUseCase.confirmarCita("cita-1", "Obs", 3L));
             
+            assertEquals(EstadoCita.PENDIENTE, citaPendiente.getEstado());
             verify(citaRepositorio, never()).guardar(any());
             verify(notificarCambioEstado, never()).ejecutar(any(), anyString());
         }
@@ -105,7 +151,7 @@ class GestionarEstadoCitaUseCaseTest {
             doNothing().when(notificarCambioEstado).ejecutar(any(), anyString());
             
             // When
-            Cita resultado = gestionarEstadoUseCase.rechazarCita("cita-1", "Documentación incompleta");
+            Cita resultado = gestionarEstadoUseCase.rechazarCita("cita-1", "Documentación incompleta", null);
             
             // Then
             assertEquals(EstadoCita.RECHAZADA, resultado.getEstado());
@@ -121,7 +167,7 @@ class GestionarEstadoCitaUseCaseTest {
             
             // When & Then
             assertThrows(NullPointerException.class, 
-                    () -> gestionarEstadoUseCase.rechazarCita("cita-1", null));
+                    () -> gestionarEstadoUseCase.rechazarCita("cita-1", null, null));
         }
     }
     
@@ -138,7 +184,7 @@ class GestionarEstadoCitaUseCaseTest {
             doNothing().when(notificarCambioEstado).ejecutar(any(), anyString());
             
             // When
-            Cita resultado = gestionarEstadoUseCase.cancelarCita("cita-1", "Proveedor solicitó cancelación");
+            Cita resultado = gestionarEstadoUseCase.cancelarCita("cita-1", "Proveedor solicitó cancelación", null);
             
             // Then
             assertEquals(EstadoCita.CANCELADA, resultado.getEstado());
@@ -154,7 +200,7 @@ class GestionarEstadoCitaUseCaseTest {
             doNothing().when(notificarCambioEstado).ejecutar(any(), anyString());
             
             // When
-            Cita resultado = gestionarEstadoUseCase.cancelarCita("cita-2", "Emergencia");
+            Cita resultado = gestionarEstadoUseCase.cancelarCita("cita-2", "Emergencia", null);
             
             // Then
             assertEquals(EstadoCita.CANCELADA, resultado.getEstado());
@@ -169,7 +215,7 @@ class GestionarEstadoCitaUseCaseTest {
             
             // When & Then
             assertThrows(EstadoCitaInvalidoException.class, 
-                    () -> gestionarEstadoUseCase.cancelarCita("cita-3", "Motivo"));
+                    () -> gestionarEstadoUseCase.cancelarCita("cita-3", "Motivo", null));
         }
     }
     
@@ -185,7 +231,7 @@ class GestionarEstadoCitaUseCaseTest {
             when(citaRepositorio.guardar(any(Cita.class))).thenAnswer(inv -> inv.getArgument(0));
             
             // When
-            Cita resultado = gestionarEstadoUseCase.marcarComoEntregada("cita-2");
+            Cita resultado = gestionarEstadoUseCase.marcarComoEntregada("cita-2", null);
             
             // Then
             assertTrue(resultado.getEstadoPostCita().isPresent());
@@ -200,7 +246,7 @@ class GestionarEstadoCitaUseCaseTest {
             when(citaRepositorio.guardar(any(Cita.class))).thenAnswer(inv -> inv.getArgument(0));
             
             // When
-            Cita resultado = gestionarEstadoUseCase.marcarComoDevuelta("cita-2");
+            Cita resultado = gestionarEstadoUseCase.marcarComoDevuelta("cita-2", null);
             
             // Then
             assertEquals(EstadoPostCita.DEVUELTO, resultado.getEstadoPostCita().get());
@@ -214,7 +260,7 @@ class GestionarEstadoCitaUseCaseTest {
             when(citaRepositorio.guardar(any(Cita.class))).thenAnswer(inv -> inv.getArgument(0));
             
             // When
-            Cita resultado = gestionarEstadoUseCase.marcarComoTardia("cita-2");
+            Cita resultado = gestionarEstadoUseCase.marcarComoTardia("cita-2", null);
             
             // Then
             assertEquals(EstadoPostCita.TARDIA, resultado.getEstadoPostCita().get());
@@ -228,7 +274,105 @@ class GestionarEstadoCitaUseCaseTest {
             
             // When & Then
             assertThrows(EstadoCitaInvalidoException.class, 
-                    () -> gestionarEstadoUseCase.marcarComoEntregada("cita-1"));
+                    () -> gestionarEstadoUseCase.marcarComoEntregada("cita-1", null));
+        }
+    }
+    
+    @Nested
+    @DisplayName("Cambio de estado en lote")
+    class CambioEstadoEnLote {
+        
+        @Test
+        @DisplayName("Debe cargar, guardar y notificar en lote e informar el resultado de cada cita")
+        void debeInformarResultadoPorCita() {
+            // Given
+            var otraPendiente = crearCita("cita-3", EstadoCita.PENDIENTE);
+            when(citaRepositorio.bloquearPorIds(any())).thenReturn(List.of(citaPendiente, citaConfirmada, otraPendiente));
+            when(citaRepositorio.guardarTodas(any())).thenAnswer(inv -> inv.getArgument(0));
+            
+            // When
+            var resultados = gestionarEstadoUseCase.cambiarEstadoEnLote(
+                    List.of("cita-1", "cita-2", "no-existe", "cita-3", "cita-1"), AccionEstadoCita.CONFIRMAR, "Lote");
+            
+            // Then
+            assertEquals(List.of("cita-1", "cita-2", "no-existe", "cita-3"),
+                    resultados.stream().map(ResultadoCambioEstado::getCitaId).toList());
+            assertTrue(resultados.get(0).isExitoso());
+            assertEquals(EstadoCita.CONFIRMADA, resultados.get(0).getEstado());
+            assertFalse(resultados.get(1).isExitoso());
+            assertEquals(EstadoCita.CONFIRMADA, resultados.get(1).getEstado());
+            assertFalse(resultados.get(2).isExitoso());
+            assertNull(resultados.get(2).getEstado());
+            assertTrue(resultados.get(3).isExitoso());
+            
+            verify(citaRepositorio).bloquearPorIds(Set.of("cita-1", "cita-2", "no-existe", "cita-3"));
+            verify(citaRepositorio).guardarTodas(List.of(citaPendiente, otraPendiente));
+            verify(citaRepositorio, never()).guardar(any());
+            verify(notificarCambioEstado).ejecutar(citaPendiente, "Lote");
+            verify(notificarCambioEstado).ejecutar(otraPendiente, "Lote");
+            verifyNoMoreInteractions(notificarCambioEstado);
+        }
+        
+        @Test
+        @DisplayName("Debe exigir motivo para rechazar en lote")
+        void debeExigirMotivoParaRechazar() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> gestionarEstadoUseCase.cambiarEstadoEnLote(List.of("cita-1"), AccionEstadoCita.RECHAZAR, " "));
+            verifyNoInteractions(citaRepositorio);
+        }
+    }
+    
+    @Nested
+    @DisplayName("Registro en auditoría")
+    class RegistroAuditoria {
+        
+        @Test
+        @DisplayName("Debe auditar con los datos de la sesión sin consultar el usuario")
+        void debeAuditarConDatosDeSesion() {
+            // Given
+            var sesion = new UsuarioSesion("usuario-1", "Admin", "admin@email.com", TipoUsuario.ADMINISTRADOR);
+            when(citaRepositorio.buscarPorId("cita-1")).thenReturn(Optional.of(citaPendiente));
+            when(citaRepositorio.guardar(any(Cita.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(usuarioActualService.obtenerSesionActual()).thenReturn(Optional.of(sesion));
+            
+            // When
+            gestionarEstadoUseCase.confirmarCita("cita-1", "Confirmada", null);
+            
+            // Then
+            verify(registrarCambioEstado).registrarCambioEstado(any(Cita.class), eq(sesion), eq(EstadoCita.PENDIENTE), eq("Confirmada"));
+            verify(usuarioActualService, never()).obtenerUsuarioActual();
+        }
+        
+        @Test
+        @DisplayName("Debe propagar el fallo de la auditoría para que el cambio se revierta")
+        void debePropagarFalloDeAuditoria() {
+            // Given
+            var sesion = new UsuarioSesion("usuario-1", "Admin", "admin@email.com", TipoUsuario.ADMINISTRADOR);
+            when(citaRepositorio.buscarPorId("cita-1")).thenReturn(Optional.of(citaPendiente));
+            when(citaRepositorio.guardar(any(Cita.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(usuarioActualService.obtenerSesionActual()).thenReturn(Optional.of(sesion));
+            when(registrarCambioEstado.registrarCambioEstado(any(), any(), any(), any()))
+                    .thenThrow(new IllegalStateException("Auditoría no disponible"));
+            
+            // When & Then
+            assertThrows(IllegalStateException.class,
+                    () -> gestionarEstadoUseCase.cancelarCita("cita-1", "Cambio de planes", null));
+            verify(notificarCambioEstado, never()).ejecutar(any(), anyString());
+        }
+        
+        @Test
+        @DisplayName("No debe auditar si no hay sesión")
+        void noDebeAuditarSinSesion() {
+            // Given
+            when(citaRepositorio.buscarPorId("cita-2")).thenReturn(Optional.of(citaConfirmada));
+            when(citaRepositorio.guardar(any(Cita.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(usuarioActualService.obtenerSesionActual()).thenReturn(Optional.empty());
+            
+            // When
+            gestionarEstadoUseCase.marcarComoEntregada("cita-2", null);
+            
+            // Then
+            verify(registrarCambioEstado, never()).registrarAsignacionEstadoPostCita(any(), any(), any());
         }
     }
     
@@ -275,6 +419,6 @@ class GestionarEstadoCitaUseCaseTest {
         var horario = Horario.reconstruir(LocalDateTime.now().plusDays(1).withHour(10));
         
         return new Cita(id, TipoCita.ENTREGA, proveedor, transporte, horario,
-                estado, null, null, LocalDateTime.now(), LocalDateTime.now());
+                estado, null, null, LocalDateTime.now(), LocalDateTime.now(), 0L, 1);
     }
 }
@@ -153,6 +153,43 @@ class CitaTest {
         }
     }
     
+    @Nested
+    @DisplayName("Expiración")
+    class Expiracion {
+        
+        @Test
+        @DisplayName("Debe cancelar una cita pendiente cuyo horario ya pasó")
+        void debeExpirarCitaPendienteVencida() {
+            var cita = new Cita(TipoCita.ENTREGA, proveedor, transporte, horario);
+            var ahora = horario.getFechaHora().plusMinutes(1);
+            
+            cita.expirar(ahora);
+            
+            assertEquals(EstadoCita.CANCELADA, cita.getEstado());
+            assertEquals(Cita.MOTIVO_EXPIRACION, cita.getObservaciones().orElseThrow());
+            assertEquals(ahora, cita.getFechaUltimaModificacion());
+        }
+        
+        @Test
+        @DisplayName("No debe expirar una cita cuyo horario no ha pasado")
+        void noDebeExpirarCitaNoVencida() {
+            var cita = new Cita(TipoCita.ENTREGA, proveedor, transporte, horario);
+            
+            assertThrows(IllegalArgumentException.class, () -> cita.expirar(horario.getFechaHora()));
+            assertEquals(EstadoCita.PENDIENTE, cita.getEstado());
+        }
+        
+        @Test
+        @DisplayName("No debe expirar una cita confirmada")
+        void noDebeExpirarCitaConfirmada() {
+            var cita = new Cita(TipoCita.ENTREGA, proveedor, transporte, horario);
+            cita.confirmar(null);
+            
+            assertThrows(EstadoCitaInvalidoException.class,
+                    () -> cita.expirar(horario.getFechaHora().plusDays(1)));
+        }
+    }
+    
     @Nested
     @DisplayName("Estados Post-Cita")
     class EstadosPostCita {
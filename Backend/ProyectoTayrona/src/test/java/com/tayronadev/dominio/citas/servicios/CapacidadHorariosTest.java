@@ -0,0 +1,112 @@
+package com.tayronadev.dominio.citas.servicios;
+
+import com.tayronadev.dominio.citas.modelo.CapacidadHorario;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import com.tayronadev.dominio.citas.repositorios.CapacidadHorariosRepositorio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CapacidadHorarios - Servicio de Dominio")
+class CapacidadHorariosTest {
+
+    // 2030-01-07 es lunes
+    private static final LocalDate LUNES = LocalDate.of(2030, 1, 7);
+    private static final LocalDate SABADO = LUNES.plusDays(5);
+
+    @Mock
+    private CapacidadHorariosRepositorio repositorio;
+
+    @InjectMocks
+    private CapacidadHorarios capacidadHorarios;
+
+    @BeforeEach
+    void setUp() {
+        // Sin cargar no se consulta el repositorio, de ahí lenient
+        lenient().when(repositorio.obtenerCapacidades()).thenReturn(List.of(
+                new CapacidadHorario(TipoCita.ENTREGA, DayOfWeek.MONDAY, 8, 3),
+                new CapacidadHorario(TipoCita.ENTREGA, DayOfWeek.MONDAY, 14, 1),
+                new CapacidadHorario(TipoCita.ENTREGA, DayOfWeek.TUESDAY, 9, 2),
+                new CapacidadHorario(TipoCita.RECOJO, DayOfWeek.MONDAY, 10, 1)));
+        lenient().when(repositorio.obtenerDiasNoHabiles()).thenReturn(Set.of(LUNES.plusWeeks(1)));
+    }
+
+    @Nested
+    @DisplayName("Consultas de capacidad")
+    class ConsultasCapacidad {
+
+        @Test
+        @DisplayName("No debe admitir citas antes de cargar la configuración")
+        void noDebeAdmitirCitasAntesDeCargar() {
+            assertEquals(0, capacidadHorarios.capacidad(TipoCita.ENTREGA, LUNES.atTime(8, 0)));
+            assertFalse(capacidadHorarios.esDiaHabil(LUNES));
+        }
+
+        @Test
+        @DisplayName("Debe responder la capacidad configurada por tipo, día y hora")
+        void debeResponderCapacidadConfigurada() {
+            // When
+            capacidadHorarios.recargar();
+
+            // Then
+            assertEquals(3, capacidadHorarios.capacidad(TipoCita.ENTREGA, LUNES.atTime(8, 0)));
+            assertEquals(1, capacidadHorarios.capacidad(TipoCita.ENTREGA, LUNES, 14));
+            assertEquals(0, capacidadHorarios.capacidad(TipoCita.ENTREGA, LUNES, 9));
+            assertEquals(2, capacidadHorarios.capacidad(TipoCita.ENTREGA, LUNES.plusDays(1), 9));
+            assertEquals(0, capacidadHorarios.capacidad(TipoCita.IMPORTACION, LUNES, 8));
+            assertEquals(Set.of(8, 14), capacidadHorarios.horasPermitidas(TipoCita.ENTREGA, LUNES));
+            assertEquals(Set.of(8, 9, 14), capacidadHorarios.horasPermitidas(TipoCita.ENTREGA));
+        }
+
+        @Test
+        @DisplayName("Debe cerrar los días sin horas configuradas y los días no hábiles")
+        void debeCerrarDiasSinAtencion() {
+            // When
+            capacidadHorarios.recargar();
+
+            // Then
+            assertTrue(capacidadHorarios.esDiaHabil(LUNES));
+            assertFalse(capacidadHorarios.esDiaHabil(SABADO));
+            assertFalse(capacidadHorarios.esDiaHabil(LUNES.plusWeeks(1)));
+            assertEquals(0, capacidadHorarios.capacidad(TipoCita.ENTREGA, LUNES.plusWeeks(1).atTime(8, 0)));
+            assertTrue(capacidadHorarios.horasPermitidas(TipoCita.ENTREGA, LUNES.plusWeeks(1)).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Recarga")
+    class Recarga {
+
+        @Test
+        @DisplayName("Debe reemplazar la configuración completa al recargar")
+        void debeReemplazarConfiguracion() {
+            // Given
+            capacidadHorarios.recargar();
+            when(repositorio.obtenerCapacidades()).thenReturn(List.of(
+                    new CapacidadHorario(TipoCita.ENTREGA, DayOfWeek.MONDAY, 8, 5)));
+
+            // When
+            capacidadHorarios.recargar();
+
+            // Then
+            assertEquals(5, capacidadHorarios.capacidad(TipoCita.ENTREGA, LUNES.atTime(8, 0)));
+            assertEquals(0, capacidadHorarios.capacidad(TipoCita.ENTREGA, LUNES.atTime(14, 0)));
+            assertEquals(0, capacidadHorarios.capacidad(TipoCita.RECOJO, LUNES.atTime(10, 0)));
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.tayronadev.dominio.citas.servicios;
+
+import com.tayronadev.dominio.citas.consultas.ConteoCitas;
+import com.tayronadev.dominio.citas.eventos.CambioEstadoCitaEvento;
+import com.tayronadev.dominio.citas.modelo.*;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContadoresCitas - Servicio de Dominio")
+class ContadoresCitasTest {
+
+    @Mock
+    private CitaRepositorio citaRepositorio;
+
+    @InjectMocks
+    private ContadoresCitas contadores;
+
+    private LocalDate manana;
+
+    @BeforeEach
+    void setUp() {
+        manana = LocalDate.now().plusDays(1);
+    }
+
+    @Nested
+    @DisplayName("Carga inicial")
+    class CargaInicial {
+
+        @Test
+        @DisplayName("Debe cargar los conteos de la consulta agrupada")
+        void debeCargarConteosAgrupados() {
+            // Given
+            when(citaRepositorio.contarPorEstadoTipoYDia()).thenReturn(List.of(
+                    new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.ENTREGA, manana, 3),
+                    new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.RECOJO, manana.plusDays(1), 2),
+                    new ConteoCitas(EstadoCita.CANCELADA, TipoCita.ENTREGA, manana.minusDays(10), 4)));
+            assertFalse(contadores.estaCargado());
+
+            // When
+            contadores.cargar();
+
+            // Then
+            assertTrue(contadores.estaCargado());
+            assertEquals(5, contadores.contar(EstadoCita.PENDIENTE));
+            assertEquals(4, contadores.contar(EstadoCita.CANCELADA));
+            var estadisticas = contadores.estadisticas(manana, manana.plusDays(1));
+            assertEquals(4L, estadisticas.getTotales().get(EstadoCita.CANCELADA).get(TipoCita.ENTREGA));
+            assertEquals(0L, estadisticas.getTotales().get(EstadoCita.CONFIRMADA).get(TipoCita.ENTREGA));
+            assertEquals(List.of(
+                    new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.ENTREGA, manana, 3),
+                    new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.RECOJO, manana.plusDays(1), 2)),
+                    estadisticas.getPorDia());
+        }
+    }
+
+    @Nested
+    @DisplayName("Actualización por eventos")
+    class ActualizacionPorEventos {
+
+        @BeforeEach
+        void cargar() {
+            contadores.cargar();
+        }
+
+        @Test
+        @DisplayName("Debe mover la cita de estado al cambiar y contarla al crearla")
+        void debeMoverCitaDeEstado() {
+            // Given
+            var creada = crearCita(TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.PENDIENTE);
+            var confirmada = crearCita(TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.CONFIRMADA);
+            contadores.alCambiarEstado(CambioEstadoCitaEvento.creacion(creada));
+
+            // When
+            contadores.alCambiarEstado(CambioEstadoCitaEvento.transicion(confirmada, EstadoCita.PENDIENTE));
+
+            // Then
+            assertEquals(0, contadores.contar(EstadoCita.PENDIENTE));
+            assertEquals(1, contadores.contar(EstadoCita.CONFIRMADA));
+            assertEquals(List.of(new ConteoCitas(EstadoCita.CONFIRMADA, TipoCita.ENTREGA, manana, 1)),
+                    contadores.estadisticas(manana, manana).getPorDia());
+        }
+
+        @Test
+        @DisplayName("No debe perder actualizaciones concurrentes")
+        void noDebePerderActualizacionesConcurrentes() {
+            var evento = CambioEstadoCitaEvento.creacion(
+                    crearCita(TipoCita.RECOJO, manana.atTime(9, 0), EstadoCita.PENDIENTE));
+
+            CompletableFuture.allOf(IntStream.range(0, 1000)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> contadores.alCambiarEstado(evento)))
+                    .toArray(CompletableFuture[]::new)).join();
+
+            assertEquals(1000, contadores.contar(EstadoCita.PENDIENTE));
+        }
+    }
+
+    @Nested
+    @DisplayName("Recarga")
+    class Recarga {
+
+        @Test
+        @DisplayName("Debe descartar los eventos anteriores a la primera carga, que ya la incluye")
+        void debeDescartarEventosAnterioresALaCarga() {
+            // Given
+            contadores.alCambiarEstado(CambioEstadoCitaEvento.creacion(
+                    crearCita(TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.PENDIENTE)));
+            when(citaRepositorio.contarPorEstadoTipoYDia()).thenReturn(List.of(
+                    new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.ENTREGA, manana, 1)));
+
+            // When
+            contadores.cargar();
+
+            // Then
+            assertEquals(1, contadores.contar(EstadoCita.PENDIENTE));
+        }
+
+        @Test
+        @DisplayName("Debe aplicar a los contadores nuevos los eventos recibidos durante la lectura")
+        void debeAplicarEventosRecibidosDuranteLaLectura() {
+            // Given: la confirmación llega mientras se lee la base de datos, que aún la ve pendiente
+            var confirmada = crearCita(TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.CONFIRMADA);
+            when(citaRepositorio.contarPorEstadoTipoYDia()).thenAnswer(invocacion -> {
+                contadores.alCambiarEstado(CambioEstadoCitaEvento.transicion(confirmada, EstadoCita.PENDIENTE));
+                return List.of(new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.ENTREGA, manana, 1));
+            });
+            when(citaRepositorio.buscarPorIds(List.of("c-1")))
+                    .thenReturn(List.of(crearCita(TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.PENDIENTE)));
+
+            // When
+            contadores.cargar();
+
+            // Then
+            assertEquals(0, contadores.contar(EstadoCita.PENDIENTE));
+            assertEquals(1, contadores.contar(EstadoCita.CONFIRMADA));
+        }
+
+        @Test
+        @DisplayName("No debe sumar dos veces un cambio confirmado antes de la lectura cuyo evento llega durante la carga")
+        void noDebeSumarDosVecesCambioYaIncluidoEnLaLectura() {
+            // Given: la confirmación se hizo antes de la consulta agrupada, que ya la cuenta,
+            // pero su evento se entrega con la cola de la recarga abierta
+            var confirmada = crearCita(TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.CONFIRMADA);
+            contadores.cargar();
+            when(citaRepositorio.contarPorEstadoTipoYDia()).thenAnswer(invocacion -> {
+                contadores.alCambiarEstado(CambioEstadoCitaEvento.transicion(confirmada, EstadoCita.PENDIENTE));
+                return List.of(new ConteoCitas(EstadoCita.CONFIRMADA, TipoCita.ENTREGA, manana, 1));
+            });
+            when(citaRepositorio.buscarPorIds(List.of("c-1"))).thenReturn(List.of(confirmada));
+
+            // When
+            contadores.cargar();
+
+            // Then
+            assertEquals(0, contadores.contar(EstadoCita.PENDIENTE));
+            assertEquals(1, contadores.contar(EstadoCita.CONFIRMADA));
+            assertEquals(List.of(new ConteoCitas(EstadoCita.CONFIRMADA, TipoCita.ENTREGA, manana, 1)),
+                    contadores.estadisticas(manana, manana).getPorDia());
+        }
+
+        @Test
+        @DisplayName("Debe reemplazar los contadores con los cambios hechos por otras instancias")
+        void debeReemplazarContadoresAlRecargar() {
+            // Given
+            when(citaRepositorio.contarPorEstadoTipoYDia())
+                    .thenReturn(List.of(new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.ENTREGA, manana, 2)))
+                    .thenReturn(List.of(
+                            new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.ENTREGA, manana, 1),
+                            new ConteoCitas(EstadoCita.CANCELADA, TipoCita.ENTREGA, manana, 1)));
+            contadores.cargar();
+
+            // When
+            contadores.cargar();
+
+            // Then
+            assertEquals(1, contadores.contar(EstadoCita.PENDIENTE));
+            assertEquals(1, contadores.contar(EstadoCita.CANCELADA));
+        }
+
+        @Test
+        @DisplayName("Si la recarga falla debe conservar los contadores anteriores")
+        void debeConservarContadoresSiFallaLaRecarga() {
+            // Given
+            when(citaRepositorio.contarPorEstadoTipoYDia())
+                    .thenReturn(List.of(new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.ENTREGA, manana, 2)))
+                    .thenThrow(new QueryTimeoutException("recarga"));
+            contadores.cargar();
+
+            // When
+            assertThrows(QueryTimeoutException.class, () -> contadores.cargar());
+
+            // Then
+            assertEquals(2, contadores.contar(EstadoCita.PENDIENTE));
+            contadores.alCambiarEstado(CambioEstadoCitaEvento.creacion(
+                    crearCita(TipoCita.ENTREGA, manana.atTime(11, 0), EstadoCita.PENDIENTE)));
+            assertEquals(3, contadores.contar(EstadoCita.PENDIENTE));
+        }
+    }
+
+    private Cita crearCita(TipoCita tipo, LocalDateTime fechaHora, EstadoCita estado) {
+        var contacto = new DatosContacto("Juan", "juan@email.com", "123");
+        var proveedor = new InformacionProveedor("Proveedor", "123", "OC-1", contacto);
+        var transporte = new TransporteTransportadora("Trans", "GUIA-1");
+
+        return new Cita("c-1", tipo, proveedor, transporte, Horario.reconstruir(fechaHora),
+                estado, null, null, LocalDateTime.now(), LocalDateTime.now(), 0L, 1);
+    }
+}
@@ -130,7 +130,7 @@ class GestorEstadosCitaTest {
             var horario = Horario.reconstruir(LocalDateTime.now().plusDays(1).withHour(10));
             
             return new Cita("test-id", TipoCita.ENTREGA, proveedor, transporte, horario,
-                    estado, null, null, LocalDateTime.now(), LocalDateTime.now());
+                    estado, null, null, LocalDateTime.now(), LocalDateTime.now(), 0L, 1);
         }
         
         @Test
@@ -0,0 +1,273 @@
+package com.tayronadev.dominio.citas.servicios;
+
+import com.tayronadev.dominio.citas.consultas.HorarioOcupado;
+import com.tayronadev.dominio.citas.eventos.CambioEstadoCitaEvento;
+import com.tayronadev.dominio.citas.eventos.OcupacionRecargadaEvento;
+import com.tayronadev.dominio.citas.modelo.*;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IndiceOcupacionHorarios - Servicio de Dominio")
+class IndiceOcupacionHorariosTest {
+
+    @Mock
+    private CitaRepositorio citaRepositorio;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @InjectMocks
+    private IndiceOcupacionHorarios indice;
+
+    private LocalDate manana;
+
+    @BeforeEach
+    void setUp() {
+        manana = LocalDate.now().plusDays(1);
+    }
+
+    @Nested
+    @DisplayName("Carga inicial")
+    class CargaInicial {
+
+        @Test
+        @DisplayName("No debe cubrir ninguna fecha antes de cargarse")
+        void noDebeCubrirAntesDeCargar() {
+            assertFalse(indice.cubre(manana));
+        }
+
+        @Test
+        @DisplayName("Debe contar las citas activas de cada hora")
+        void debeMarcarHorasDeCitasActivas() {
+            // Given
+            when(citaRepositorio.buscarHorariosOcupadosDesde(any())).thenReturn(List.of(
+                    new HorarioOcupado(TipoCita.ENTREGA, manana.atTime(9, 0)),
+                    new HorarioOcupado(TipoCita.ENTREGA, manana.atTime(14, 0)),
+                    new HorarioOcupado(TipoCita.ENTREGA, manana.atTime(14, 0)),
+                    new HorarioOcupado(TipoCita.RECOJO, manana.atTime(10, 0))));
+
+            // When
+            indice.cargar();
+
+            // Then
+            assertTrue(indice.cubre(manana));
+            assertFalse(indice.cubre(LocalDate.now().minusDays(1)));
+            assertEquals(Map.of(9, 1, 14, 2), indice.citasPorHora(TipoCita.ENTREGA, manana));
+            assertEquals(Map.of(10, 1), indice.citasPorHora(TipoCita.RECOJO, manana));
+            assertTrue(indice.citasPorHora(TipoCita.IMPORTACION, manana).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Actualización por eventos")
+    class ActualizacionPorEventos {
+
+        @BeforeEach
+        void cargar() {
+            indice.cargar();
+        }
+
+        @Test
+        @DisplayName("Debe ocupar el horario al crear una cita")
+        void debeOcuparAlCrear() {
+            var cita = crearCita("c-1", TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.PENDIENTE);
+
+            indice.alCambiarEstado(CambioEstadoCitaEvento.creacion(cita));
+
+            assertEquals(1, indice.citasActivas(TipoCita.ENTREGA, manana.atTime(10, 0)));
+            assertEquals(0, indice.citasActivas(TipoCita.RECOJO, manana.atTime(10, 0)));
+        }
+
+        @Test
+        @DisplayName("Debe mantener el horario ocupado al confirmar una cita")
+        void debeMantenerOcupadoAlConfirmar() {
+            var fechaHora = manana.atTime(10, 0);
+            indice.alCambiarEstado(CambioEstadoCitaEvento.creacion(
+                    crearCita("c-1", TipoCita.ENTREGA, fechaHora, EstadoCita.PENDIENTE)));
+            var cita = crearCita("c-1", TipoCita.ENTREGA, fechaHora, EstadoCita.CONFIRMADA);
+
+            indice.alCambiarEstado(CambioEstadoCitaEvento.transicion(cita, EstadoCita.PENDIENTE));
+
+            assertEquals(1, indice.citasActivas(TipoCita.ENTREGA, fechaHora));
+        }
+
+        @Test
+        @DisplayName("Debe descontar solo la cita cancelada de su hora")
+        void debeLiberarAlCancelar() {
+            crearActivas(
+                    crearCita("c-1", TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.CONFIRMADA),
+                    crearCita("c-2", TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.PENDIENTE),
+                    crearCita("c-3", TipoCita.ENTREGA, manana.atTime(11, 0), EstadoCita.PENDIENTE));
+            var cita = crearCita("c-1", TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.CANCELADA);
+
+            indice.alCambiarEstado(CambioEstadoCitaEvento.transicion(cita, EstadoCita.CONFIRMADA));
+
+            assertEquals(Map.of(10, 1, 11, 1), indice.citasPorHora(TipoCita.ENTREGA, manana));
+        }
+    }
+
+    @Nested
+    @DisplayName("Recarga")
+    class Recarga {
+
+        @Test
+        @DisplayName("Debe descartar los eventos anteriores a la primera carga, que ya la incluye")
+        void debeDescartarEventosAnterioresALaCarga() {
+            // Given
+            var cita = crearCita("c-1", TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.PENDIENTE);
+            indice.alCambiarEstado(CambioEstadoCitaEvento.creacion(cita));
+            when(citaRepositorio.buscarHorariosOcupadosDesde(any())).thenReturn(ocupados(cita));
+
+            // When
+            indice.cargar();
+
+            // Then
+            assertEquals(1, indice.citasActivas(TipoCita.ENTREGA, manana.atTime(10, 0)));
+        }
+
+        @Test
+        @DisplayName("Debe aplicar al índice nuevo los eventos recibidos durante la lectura")
+        void debeAplicarEventosRecibidosDuranteLaLectura() {
+            // Given: la cancelación llega mientras se lee la base de datos, que aún la ve activa
+            var pendiente = crearCita("c-1", TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.PENDIENTE);
+            var cancelada = crearCita("c-1", TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.CANCELADA);
+            when(citaRepositorio.buscarHorariosOcupadosDesde(any())).thenAnswer(invocacion -> {
+                indice.alCambiarEstado(CambioEstadoCitaEvento.transicion(cancelada, EstadoCita.PENDIENTE));
+                return ocupados(pendiente);
+            });
+            when(citaRepositorio.buscarPorIds(List.of("c-1"))).thenReturn(List.of(pendiente));
+
+            // When
+            indice.cargar();
+
+            // Then
+            assertEquals(0, indice.citasActivas(TipoCita.ENTREGA, manana.atTime(10, 0)));
+        }
+
+        @Test
+        @DisplayName("No debe contar dos veces una cita que la lectura ya incluye aunque su evento llegue durante la carga")
+        void noDebeContarDosVecesEventoYaIncluidoEnLaLectura() {
+            // Given: la creación se confirmó antes de leer, pero su evento se entrega ya abierta la cola
+            var creada = crearCita("c-1", TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.PENDIENTE);
+            var confirmada = crearCita("c-1", TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.CONFIRMADA);
+            var nueva = crearCita("c-2", TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.PENDIENTE);
+            when(citaRepositorio.buscarHorariosOcupadosDesde(any())).thenAnswer(invocacion -> {
+                indice.alCambiarEstado(CambioEstadoCitaEvento.creacion(creada));
+                indice.alCambiarEstado(CambioEstadoCitaEvento.transicion(confirmada, EstadoCita.PENDIENTE));
+                indice.alCambiarEstado(CambioEstadoCitaEvento.creacion(nueva));
+                return ocupados(creada);
+            });
+            // c-2 se creó después de la lectura: la foto no la ve
+            when(citaRepositorio.buscarPorIds(List.of("c-1", "c-2"))).thenReturn(List.of(creada));
+
+            // When
+            indice.cargar();
+
+            // Then
+            assertEquals(2, indice.citasActivas(TipoCita.ENTREGA, manana.atTime(10, 0)));
+        }
+
+        @Test
+        @DisplayName("Debe reemplazar el índice con los cambios hechos por otras instancias")
+        void debeReemplazarIndiceAlRecargar() {
+            // Given
+            when(citaRepositorio.buscarHorariosOcupadosDesde(any()))
+                    .thenReturn(List.of(new HorarioOcupado(TipoCita.ENTREGA, manana.atTime(10, 0))))
+                    .thenReturn(List.of(new HorarioOcupado(TipoCita.RECOJO, manana.atTime(15, 0))));
+            indice.cargar();
+
+            // When
+            indice.cargar();
+
+            // Then
+            assertTrue(indice.citasPorHora(TipoCita.ENTREGA, manana).isEmpty());
+            assertEquals(Map.of(15, 1), indice.citasPorHora(TipoCita.RECOJO, manana));
+        }
+
+        @Test
+        @DisplayName("Debe publicar solo los horarios cuya ocupación cambió con la recarga")
+        void debePublicarHorariosCambiadosAlRecargar() {
+            // Given: otra instancia crea una cita a las 15:00 y cancela una de las dos de las 10:00
+            when(citaRepositorio.buscarHorariosOcupadosDesde(any()))
+                    .thenReturn(List.of(
+                            new HorarioOcupado(TipoCita.ENTREGA, manana.atTime(9, 0)),
+                            new HorarioOcupado(TipoCita.ENTREGA, manana.atTime(10, 0)),
+                            new HorarioOcupado(TipoCita.ENTREGA, manana.atTime(10, 0))))
+                    .thenReturn(List.of(
+                            new HorarioOcupado(TipoCita.ENTREGA, manana.atTime(9, 0)),
+                            new HorarioOcupado(TipoCita.ENTREGA, manana.atTime(10, 0)),
+                            new HorarioOcupado(TipoCita.RECOJO, manana.atTime(15, 0))));
+            indice.cargar();
+            verifyNoInteractions(eventos);
+
+            // When
+            indice.cargar();
+
+            // Then
+            verify(eventos).publishEvent(new OcupacionRecargadaEvento(TipoCita.ENTREGA, manana.atTime(10, 0)));
+            verify(eventos).publishEvent(new OcupacionRecargadaEvento(TipoCita.RECOJO, manana.atTime(15, 0)));
+            verifyNoMoreInteractions(eventos);
+        }
+
+        @Test
+        @DisplayName("No debe publicar los cambios locales que el índice ya tenía al recargar")
+        void noDebePublicarCambiosYaAplicados() {
+            // Given
+            var cita = crearCita("c-1", TipoCita.ENTREGA, manana.atTime(10, 0), EstadoCita.PENDIENTE);
+            crearActivas();
+            indice.alCambiarEstado(CambioEstadoCitaEvento.creacion(cita));
+            when(citaRepositorio.buscarHorariosOcupadosDesde(any())).thenReturn(ocupados(cita));
+
+            // When
+            indice.cargar();
+
+            // Then
+            verifyNoInteractions(eventos);
+        }
+    }
+
+    /**
+     * Recarga el índice con las citas activas indicadas
+     */
+    private void crearActivas(Cita... citas) {
+        when(citaRepositorio.buscarHorariosOcupadosDesde(any())).thenReturn(ocupados(citas));
+        indice.cargar();
+    }
+
+    /**
+     * Horarios que la proyección de carga devuelve para las citas activas indicadas
+     */
+    private List<HorarioOcupado> ocupados(Cita... citas) {
+        return Stream.of(citas)
+                .map(cita -> new HorarioOcupado(cita.getTipoCita(), cita.getHorario().getFechaHora()))
+                .toList();
+    }
+
+    private Cita crearCita(String id, TipoCita tipo, LocalDateTime fechaHora, EstadoCita estado) {
+        var contacto = new DatosContacto("Juan", "juan@email.com", "123");
+        var proveedor = new InformacionProveedor("Proveedor", "123", "OC-1", contacto);
+        var transporte = new TransporteTransportadora("Trans", "GUIA-1");
+
+        return new Cita(id, tipo, proveedor, transporte, Horario.reconstruir(fechaHora),
+                estado, null, null, LocalDateTime.now(), LocalDateTime.now(), 0L, 1);
+    }
+}
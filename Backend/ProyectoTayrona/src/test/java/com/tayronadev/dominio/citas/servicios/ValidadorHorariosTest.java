@@ -2,6 +2,7 @@ package com.tayronadev.dominio.citas.servicios;
 
 import com.tayronadev.dominio.citas.excepciones.HorarioNoDisponibleException;
 import com.tayronadev.dominio.citas.modelo.*;
+import com.tayronadev.dominio.citas.repositorios.CapacidadHorariosRepositorio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,20 +12,35 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 @DisplayName("ValidadorHorarios - Servicio de Dominio")
 class ValidadorHorariosTest {
     
+    private static final Map<TipoCita, Set<Integer>> HORAS_POR_TIPO = Map.of(
+            TipoCita.ENTREGA, Set.of(8, 9, 10, 11, 14, 15, 16),
+            TipoCita.RECOJO, Set.of(9, 10, 11, 14, 15, 16, 17),
+            TipoCita.IMPORTACION, Set.of(8, 9, 10, 11),
+            TipoCita.DEVOLUCION, Set.of(14, 15, 16, 17));
+    
+    private CapacidadHorariosRepositorio repositorio;
     private ValidadorHorarios validadorHorarios;
     
     @BeforeEach
     void setUp() {
-        validadorHorarios = new ValidadorHorarios();
+        // Misma configuración que la carga inicial: un muelle de lunes a viernes
+        repositorio = mock(CapacidadHorariosRepositorio.class);
+        when(repositorio.obtenerCapacidades()).thenReturn(capacidades(1));
+        when(repositorio.obtenerDiasNoHabiles()).thenReturn(Set.of());
+        var capacidadHorarios = new CapacidadHorarios(repositorio);
+        capacidadHorarios.recargar();
+        validadorHorarios = new ValidadorHorarios(capacidadHorarios);
     }
     
     @Nested
@@ -142,7 +158,7 @@ class ValidadorHorariosTest {
             var horario = crearHorarioEnDiaLaboral(10);
             
             assertDoesNotThrow(() -> 
-                    validadorHorarios.validarDisponibilidad(horario, TipoCita.ENTREGA, Collections.emptyList()));
+                    validadorHorarios.validarDisponibilidad(horario, TipoCita.ENTREGA, 0));
         }
         
         @Test
@@ -151,7 +167,7 @@ class ValidadorHorariosTest {
             var horario = crearHorarioEnDiaLaboral(12); // 12 no está permitido para ENTREGA
             
             assertThrows(HorarioNoDisponibleException.class, 
-                    () -> validadorHorarios.validarDisponibilidad(horario, TipoCita.ENTREGA, Collections.emptyList()));
+                    () -> validadorHorarios.validarDisponibilidad(horario, TipoCita.ENTREGA, 0));
         }
         
         @Test
@@ -161,64 +177,83 @@ class ValidadorHorariosTest {
             var horario = Horario.reconstruir(sabado);
             
             assertThrows(HorarioNoDisponibleException.class, 
-                    () -> validadorHorarios.validarDisponibilidad(horario, TipoCita.ENTREGA, Collections.emptyList()));
+                    () -> validadorHorarios.validarDisponibilidad(horario, TipoCita.ENTREGA, 0));
         }
         
         @Test
         @DisplayName("Debe rechazar horario con conflicto de cita existente")
         void debeRechazarHorarioConConflicto() {
-            var fechaHora = obtenerProximoDiaLaboral().withHour(10).withMinute(0).withSecond(0).withNano(0);
-            var horario = Horario.reconstruir(fechaHora);
-            
-            // Crear cita existente con el mismo horario y tipo
-            var citaExistente = crearCitaConHorarioYTipo(fechaHora, TipoCita.ENTREGA, EstadoCita.PENDIENTE);
+            var horario = crearHorarioEnDiaLaboral(10);
             
             assertThrows(HorarioNoDisponibleException.class, 
-                    () -> validadorHorarios.validarDisponibilidad(horario, TipoCita.ENTREGA, List.of(citaExistente)));
+                    () -> validadorHorarios.validarDisponibilidad(horario, TipoCita.ENTREGA, 1));
         }
         
         @Test
-        @DisplayName("No debe haber conflicto con cita de diferente tipo")
-        void noDebeHaberConflictoConDiferenteTipo() {
-            var fechaHora = obtenerProximoDiaLaboral().withHour(10).withMinute(0).withSecond(0).withNano(0);
-            var horario = Horario.reconstruir(fechaHora);
-            
-            // Cita existente de tipo RECOJO
-            var citaExistente = crearCitaConHorarioYTipo(fechaHora, TipoCita.RECOJO, EstadoCita.PENDIENTE);
+        @DisplayName("Debe rechazar horario en día no hábil")
+        void debeRechazarHorarioEnDiaNoHabil() {
+            // Given
+            var horario = crearHorarioEnDiaLaboral(10);
+            when(repositorio.obtenerDiasNoHabiles()).thenReturn(Set.of(horario.getFechaHora().toLocalDate()));
+            var capacidadHorarios = new CapacidadHorarios(repositorio);
+            capacidadHorarios.recargar();
+            var validador = new ValidadorHorarios(capacidadHorarios);
             
-            assertDoesNotThrow(() -> 
-                    validadorHorarios.validarDisponibilidad(horario, TipoCita.ENTREGA, List.of(citaExistente)));
+            // When & Then
+            assertThrows(HorarioNoDisponibleException.class,
+                    () -> validador.validarDisponibilidad(horario, TipoCita.ENTREGA, 0));
+        }
+    }
+    
+    @Nested
+    @DisplayName("Horarios con varios muelles")
+    class HorariosConVariosMuelles {
+        
+        private ValidadorHorarios validadorTresMuelles;
+        
+        @BeforeEach
+        void setUp() {
+            when(repositorio.obtenerCapacidades()).thenReturn(capacidades(3));
+            var capacidadHorarios = new CapacidadHorarios(repositorio);
+            capacidadHorarios.recargar();
+            validadorTresMuelles = new ValidadorHorarios(capacidadHorarios);
         }
         
         @Test
-        @DisplayName("No debe haber conflicto con cita cancelada")
-        void noDebeHaberConflictoConCitaCancelada() {
-            var fechaHora = obtenerProximoDiaLaboral().withHour(10).withMinute(0).withSecond(0).withNano(0);
-            var horario = Horario.reconstruir(fechaHora);
-            
-            // Cita cancelada con el mismo horario
-            var citaCancelada = crearCitaConHorarioYTipo(fechaHora, TipoCita.ENTREGA, EstadoCita.CANCELADA);
+        @DisplayName("Debe aceptar citas mientras queden muelles libres")
+        void debeAceptarMientrasHayaCupo() {
+            var horario = crearHorarioEnDiaLaboral(10);
             
-            assertDoesNotThrow(() -> 
-                    validadorHorarios.validarDisponibilidad(horario, TipoCita.ENTREGA, List.of(citaCancelada)));
+            assertDoesNotThrow(() -> validadorTresMuelles.validarDisponibilidad(horario, TipoCita.ENTREGA, 2));
+            assertThrows(HorarioNoDisponibleException.class,
+                    () -> validadorTresMuelles.validarDisponibilidad(horario, TipoCita.ENTREGA, 3));
         }
         
         @Test
-        @DisplayName("No debe haber conflicto con cita rechazada")
-        void noDebeHaberConflictoConCitaRechazada() {
-            var fechaHora = obtenerProximoDiaLaboral().withHour(10).withMinute(0).withSecond(0).withNano(0);
-            var horario = Horario.reconstruir(fechaHora);
-            
-            // Cita rechazada con el mismo horario
-            var citaRechazada = crearCitaConHorarioYTipo(fechaHora, TipoCita.ENTREGA, EstadoCita.RECHAZADA);
+        @DisplayName("Debe asignar el muelle libre de menor número")
+        void debeAsignarPrimerMuelleLibre() {
+            var horario = crearHorarioEnDiaLaboral(10);
             
-            assertDoesNotThrow(() -> 
-                    validadorHorarios.validarDisponibilidad(horario, TipoCita.ENTREGA, List.of(citaRechazada)));
+            assertEquals(1, validadorTresMuelles.asignarMuelle(horario, TipoCita.ENTREGA, Set.of()));
+            assertEquals(2, validadorTresMuelles.asignarMuelle(horario, TipoCita.ENTREGA, Set.of(1, 3)));
+            assertThrows(HorarioNoDisponibleException.class,
+                    () -> validadorTresMuelles.asignarMuelle(horario, TipoCita.ENTREGA, Set.of(1, 2, 3)));
         }
     }
     
     // Métodos auxiliares
     
+    private List<CapacidadHorario> capacidades(int muelles) {
+        List<CapacidadHorario> capacidades = new ArrayList<>();
+        HORAS_POR_TIPO.forEach((tipo, horas) -> {
+            for (DayOfWeek dia : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                    DayOfWeek.THURSDAY, DayOfWeek.FRIDAY)) {
+                horas.forEach(hora -> capacidades.add(new CapacidadHorario(tipo, dia, hora, muelles)));
+            }
+        });
+        return capacidades;
+    }
+    
     private Horario crearHorarioEnDiaLaboral(int hora) {
         var diaLaboral = obtenerProximoDiaLaboral().withHour(hora).withMinute(0).withSecond(0).withNano(0);
         return Horario.reconstruir(diaLaboral);
@@ -239,14 +274,4 @@ class ValidadorHorariosTest {
         }
         return fecha;
     }
-    
-    private Cita crearCitaConHorarioYTipo(LocalDateTime fechaHora, TipoCita tipoCita, EstadoCita estado) {
-        var contacto = new DatosContacto("Juan", "juan@email.com", "123");
-        var proveedor = new InformacionProveedor("Proveedor", "123", "OC-1", contacto);
-        var transporte = new TransporteTransportadora("Trans", "GUIA-1");
-        var horario = Horario.reconstruir(fechaHora);
-        
-        return new Cita("test-id", tipoCita, proveedor, transporte, horario,
-                estado, null, null, LocalDateTime.now(), LocalDateTime.now());
-    }
 }
@@ -0,0 +1,64 @@
+package com.tayronadev.dominio.comun;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pagina - Paginación por clave")
+class PaginaTest {
+
+    private static final LocalDateTime FECHA = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    @Nested
+    @DisplayName("Construcción desde filas")
+    class DesdeFilas {
+
+        @Test
+        @DisplayName("Sin fila extra no debe haber página siguiente")
+        void sinFilaExtraNoHaySiguiente() {
+            var pagina = Pagina.desdeFilas(List.of("a", "b"), 2, id -> new Cursor(FECHA, id));
+
+            assertEquals(List.of("a", "b"), pagina.getElementos());
+            assertFalse(pagina.tieneSiguiente());
+            assertTrue(pagina.getSiguiente().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Con fila extra debe descartarla y apuntar al último elemento")
+        void conFilaExtraApuntaAlUltimoElemento() {
+            var pagina = Pagina.desdeFilas(List.of("a", "b", "c"), 2, id -> new Cursor(FECHA, id));
+
+            assertEquals(List.of("a", "b"), pagina.getElementos());
+            assertTrue(pagina.tieneSiguiente());
+            assertEquals(new Cursor(FECHA, "b"), pagina.getSiguiente().orElseThrow());
+        }
+
+        @Test
+        @DisplayName("Transformar los elementos debe conservar el cursor")
+        void mapConservaCursor() {
+            var pagina = Pagina.desdeFilas(List.of("a", "b", "c"), 2, id -> new Cursor(FECHA, id))
+                    .map(String::toUpperCase);
+
+            assertEquals(List.of("A", "B"), pagina.getElementos());
+            assertEquals(new Cursor(FECHA, "b"), pagina.getSiguiente().orElseThrow());
+        }
+    }
+
+    @Nested
+    @DisplayName("Solicitud de página")
+    class Solicitud {
+
+        @Test
+        @DisplayName("Debe rechazar tamaños fuera de rango")
+        void debeRechazarTamanosFueraDeRango() {
+            assertThrows(IllegalArgumentException.class, () -> new SolicitudPagina(null, 0, false));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new SolicitudPagina(null, SolicitudPagina.TAMANO_MAXIMO + 1, false));
+        }
+    }
+}
@@ -12,12 +12,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +32,12 @@ class NotificarCambioEstadoCitaUseCaseTest {
     @Mock
     private NotificacionService notificacionService;
     
+    @Mock
+    private ReintentarNotificacionesUseCase reintentos;
+    
+    @Spy
+    private SyncTaskExecutor ejecutor = new SyncTaskExecutor();
+    
     @InjectMocks
     private NotificarCambioEstadoCitaUseCase notificarCambioEstadoUseCase;
     
@@ -170,6 +181,47 @@ class NotificarCambioEstadoCitaUseCaseTest {
             assertDoesNotThrow(() -> 
                     notificarCambioEstadoUseCase.ejecutar(citaConfirmada, "Obs"));
         }
+        
+        @Test
+        @DisplayName("Debe programar un reintento si falla el envío")
+        void debeProgramarReintentoSiFallaEnvio() {
+            // Given
+            doThrow(new RuntimeException("SMTP no disponible"))
+                    .when(notificacionService).enviarNotificacionCita(any());
+            
+            // When
+            notificarCambioEstadoUseCase.ejecutar(citaRechazada, "Documentación incompleta");
+            
+            // Then
+            verify(reintentos).programar("cita-2", TipoNotificacion.CITA_RECHAZADA,
+                    "Documentación incompleta", "SMTP no disponible");
+        }
+        
+        @Test
+        @DisplayName("No debe programar reintento si el envío es exitoso")
+        void noDebeProgramarReintentoSiEnvioExitoso() {
+            // When
+            notificarCambioEstadoUseCase.ejecutar(citaConfirmada, "Obs");
+            
+            // Then
+            verifyNoInteractions(reintentos);
+        }
+        
+        @Test
+        @DisplayName("Debe programar un reintento sin enviar si el ejecutor rechaza la tarea")
+        void debeProgramarReintentoSiEjecutorRechaza() {
+            // Given
+            var ejecutorLleno = mock(TaskExecutor.class);
+            doThrow(new TaskRejectedException("Cola llena")).when(ejecutorLleno).execute(any());
+            var notificar = new NotificarCambioEstadoCitaUseCase(notificacionService, reintentos, ejecutorLleno);
+            
+            // When
+            notificar.ejecutar(citaConfirmada, "Obs");
+            
+            // Then
+            verify(reintentos).programar(eq("cita-1"), eq(TipoNotificacion.CITA_CONFIRMADA), eq("Obs"), any());
+            verifyNoInteractions(notificacionService);
+        }
     }
     
     // Método auxiliar
@@ -180,6 +232,6 @@ class NotificarCambioEstadoCitaUseCaseTest {
         var horario = Horario.reconstruir(LocalDateTime.now().plusDays(1).withHour(10));
         
         return new Cita(id, TipoCita.ENTREGA, proveedor, transporte, horario,
-                estado, null, null, LocalDateTime.now(), LocalDateTime.now());
+                estado, null, null, LocalDateTime.now(), LocalDateTime.now(), 0L, 1);
     }
 }
@@ -0,0 +1,185 @@
+package com.tayronadev.dominio.notificacion.casosuso;
+
+import com.tayronadev.dominio.citas.modelo.*;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import com.tayronadev.dominio.notificacion.excepciones.NotificacionNoEncontradaException;
+import com.tayronadev.dominio.notificacion.modelo.NotificacionCita;
+import com.tayronadev.dominio.notificacion.modelo.NotificacionPendiente;
+import com.tayronadev.dominio.notificacion.modelo.PoliticaReintentos;
+import com.tayronadev.dominio.notificacion.modelo.TipoNotificacion;
+import com.tayronadev.dominio.notificacion.puertos.NotificacionPendienteRepositorio;
+import com.tayronadev.dominio.notificacion.puertos.NotificacionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReintentarNotificacionesUseCase - Caso de Uso")
+class ReintentarNotificacionesUseCaseTest {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Bogota");
+    private static final LocalDateTime AHORA = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    @Mock
+    private NotificacionPendienteRepositorio pendientes;
+
+    @Mock
+    private NotificacionService notificacionService;
+
+    @Mock
+    private CitaRepositorio citaRepositorio;
+
+    private final PoliticaReintentos politica =
+            new PoliticaReintentos(3, Duration.ofMinutes(1), Duration.ofHours(1));
+
+    private ReintentarNotificacionesUseCase reintentarUseCase;
+
+    @BeforeEach
+    void setUp() {
+        var reloj = Clock.fixed(AHORA.atZone(ZONA).toInstant(), ZONA);
+        reintentarUseCase = new ReintentarNotificacionesUseCase(
+                pendientes, notificacionService, citaRepositorio, politica, reloj);
+        lenient().when(pendientes.guardar(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Nested
+    @DisplayName("Programar reintento")
+    class ProgramarReintento {
+
+        @Test
+        @DisplayName("Debe guardar la notificación con el primer reintento tras la espera base")
+        void debeGuardarPrimerReintento() {
+            // When
+            var pendiente = reintentarUseCase.programar("cita-1", TipoNotificacion.CITA_CONFIRMADA, "Obs", "SMTP caído");
+
+            // Then
+            verify(pendientes).guardar(pendiente);
+            assertEquals(1, pendiente.getIntentos());
+            assertEquals(AHORA.plusMinutes(1), pendiente.getProximoIntento());
+        }
+    }
+
+    @Nested
+    @DisplayName("Procesar pendientes")
+    class ProcesarPendientes {
+
+        @Test
+        @DisplayName("Debe enviar con los datos actuales de la cita y eliminar la entregada")
+        void debeEnviarYEliminarEntregada() {
+            // Given
+            var pendiente = crearPendiente("cita-1");
+            when(pendientes.reclamarParaReintento(AHORA, AHORA.plusMinutes(5), 50)).thenReturn(List.of(pendiente));
+            when(citaRepositorio.buscarPorId("cita-1")).thenReturn(Optional.of(crearCita("cita-1")));
+
+            // When
+            reintentarUseCase.procesarPendientes();
+
+            // Then
+            var captor = ArgumentCaptor.forClass(NotificacionCita.class);
+            verify(notificacionService).enviarNotificacionCita(captor.capture());
+            assertEquals(TipoNotificacion.CITA_CONFIRMADA, captor.getValue().getTipoNotificacion());
+            assertEquals("juan@email.com", captor.getValue().getDestinatarioEmail());
+            verify(pendientes).eliminar(pendiente.getId());
+        }
+
+        @Test
+        @DisplayName("Debe reprogramar con espera duplicada si el reintento falla")
+        void debeReprogramarSiFalla() {
+            // Given
+            var pendiente = crearPendiente("cita-1");
+            when(pendientes.reclamarParaReintento(AHORA, AHORA.plusMinutes(5), 50)).thenReturn(List.of(pendiente));
+            when(citaRepositorio.buscarPorId("cita-1")).thenReturn(Optional.of(crearCita("cita-1")));
+            doThrow(new RuntimeException("SMTP caído")).when(notificacionService).enviarNotificacionCita(any());
+
+            // When
+            reintentarUseCase.procesarPendientes();
+
+            // Then
+            verify(pendientes).guardar(pendiente);
+            verify(pendientes, never()).eliminar(any());
+            assertEquals(2, pendiente.getIntentos());
+            assertEquals(AHORA.plusMinutes(2), pendiente.getProximoIntento());
+            assertFalse(pendiente.estaFallida());
+        }
+
+        @Test
+        @DisplayName("Debe marcar FALLIDA la notificación que agota sus intentos")
+        void debeMarcarFallidaAlAgotarIntentos() {
+            // Given
+            var pendiente = crearPendiente("cita-1");
+            pendiente.registrarFallo("error", politica, AHORA);
+            when(pendientes.reclamarParaReintento(AHORA, AHORA.plusMinutes(5), 50)).thenReturn(List.of(pendiente));
+            when(citaRepositorio.buscarPorId("cita-1")).thenReturn(Optional.of(crearCita("cita-1")));
+            doThrow(new RuntimeException("SMTP caído")).when(notificacionService).enviarNotificacionCita(any());
+
+            // When
+            reintentarUseCase.procesarPendientes();
+
+            // Then
+            assertTrue(pendiente.estaFallida());
+            verify(pendientes).guardar(pendiente);
+        }
+
+        @Test
+        @DisplayName("Debe descartar la notificación de una cita que ya no existe")
+        void debeDescartarSiCitaNoExiste() {
+            // Given
+            var pendiente = crearPendiente("cita-borrada");
+            when(pendientes.reclamarParaReintento(AHORA, AHORA.plusMinutes(5), 50)).thenReturn(List.of(pendiente));
+            when(citaRepositorio.buscarPorId("cita-borrada")).thenReturn(Optional.empty());
+
+            // When
+            reintentarUseCase.procesarPendientes();
+
+            // Then
+            verify(pendientes).eliminar(pendiente.getId());
+            verifyNoInteractions(notificacionService);
+        }
+    }
+
+    @Nested
+    @DisplayName("Reactivar notificación fallida")
+    class ReactivarFallida {
+
+        @Test
+        @DisplayName("Debe lanzar excepción si la notificación no existe")
+        void debeLanzarExcepcionSiNoExiste() {
+            when(pendientes.buscarPorId("no-existe")).thenReturn(Optional.empty());
+
+            assertThrows(NotificacionNoEncontradaException.class, () -> reintentarUseCase.reactivar("no-existe"));
+        }
+    }
+
+    // Métodos auxiliares
+
+    private NotificacionPendiente crearPendiente(String citaId) {
+        return new NotificacionPendiente(citaId, TipoNotificacion.CITA_CONFIRMADA, "Obs", "error", politica,
+                AHORA.minusMinutes(5));
+    }
+
+    private Cita crearCita(String id) {
+        var contacto = new DatosContacto("Juan Pérez", "juan@email.com", "3001234567");
+        var proveedor = new InformacionProveedor("Proveedor ABC", "900123456-1", "OC-001", contacto);
+        var transporte = new TransporteTransportadora("Servientrega", "GUIA-123");
+        var horario = Horario.reconstruir(AHORA.plusDays(1));
+
+        return new Cita(id, TipoCita.ENTREGA, proveedor, transporte, horario,
+                EstadoCita.CONFIRMADA, null, null, AHORA, AHORA, 0L, 1);
+    }
+}
@@ -0,0 +1,102 @@
+package com.tayronadev.dominio.notificacion.modelo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("NotificacionPendiente - Entidad de Dominio")
+class NotificacionPendienteTest {
+
+    private static final LocalDateTime AHORA = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    private final PoliticaReintentos politica =
+            new PoliticaReintentos(4, Duration.ofMinutes(1), Duration.ofMinutes(3));
+
+    @Nested
+    @DisplayName("Espera exponencial")
+    class EsperaExponencial {
+
+        @Test
+        @DisplayName("Debe duplicar la espera en cada intento hasta el máximo")
+        void debeDuplicarEsperaHastaElMaximo() {
+            assertEquals(Duration.ofMinutes(1), politica.esperaTras(1));
+            assertEquals(Duration.ofMinutes(2), politica.esperaTras(2));
+            assertEquals(Duration.ofMinutes(3), politica.esperaTras(3));
+            assertEquals(Duration.ofMinutes(3), politica.esperaTras(60));
+        }
+
+        @Test
+        @DisplayName("Debe rechazar una política sin intentos")
+        void debeRechazarPoliticaSinIntentos() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new PoliticaReintentos(0, Duration.ofMinutes(1), Duration.ofMinutes(1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Registro de fallos")
+    class RegistroFallos {
+
+        @Test
+        @DisplayName("Debe programar el primer reintento tras la espera base")
+        void debeProgramarPrimerReintento() {
+            var pendiente = new NotificacionPendiente("cita-1", TipoNotificacion.CITA_CONFIRMADA,
+                    "Obs", "SMTP caído", politica, AHORA);
+
+            assertEquals(EstadoNotificacion.PENDIENTE, pendiente.getEstado());
+            assertEquals(1, pendiente.getIntentos());
+            assertEquals(AHORA.plusMinutes(1), pendiente.getProximoIntento());
+            assertEquals("SMTP caído", pendiente.getUltimoError());
+        }
+
+        @Test
+        @DisplayName("Debe quedar FALLIDA al agotar los intentos")
+        void debeQuedarFallidaAlAgotarIntentos() {
+            var pendiente = new NotificacionPendiente("cita-1", TipoNotificacion.CITA_CONFIRMADA,
+                    null, "error", politica, AHORA);
+
+            pendiente.registrarFallo("error", politica, AHORA);
+            pendiente.registrarFallo("error", politica, AHORA);
+            assertFalse(pendiente.estaFallida());
+
+            pendiente.registrarFallo("error final", politica, AHORA);
+
+            assertTrue(pendiente.estaFallida());
+            assertEquals(4, pendiente.getIntentos());
+            assertEquals("error final", pendiente.getUltimoError());
+        }
+    }
+
+    @Nested
+    @DisplayName("Reactivación")
+    class Reactivacion {
+
+        @Test
+        @DisplayName("Debe devolver una notificación fallida a la cola con intentos reiniciados")
+        void debeReactivarNotificacionFallida() {
+            var pendiente = new NotificacionPendiente("cita-1", TipoNotificacion.CITA_CONFIRMADA,
+                    null, "error", new PoliticaReintentos(1, Duration.ofMinutes(1), Duration.ofMinutes(1)), AHORA);
+            assertTrue(pendiente.estaFallida());
+
+            pendiente.reactivar(AHORA.plusHours(1));
+
+            assertEquals(EstadoNotificacion.PENDIENTE, pendiente.getEstado());
+            assertEquals(0, pendiente.getIntentos());
+            assertEquals(AHORA.plusHours(1), pendiente.getProximoIntento());
+        }
+
+        @Test
+        @DisplayName("No debe reactivar una notificación que sigue pendiente")
+        void noDebeReactivarNotificacionPendiente() {
+            var pendiente = new NotificacionPendiente("cita-1", TipoNotificacion.CITA_CONFIRMADA,
+                    null, "error", politica, AHORA);
+
+            assertThrows(IllegalArgumentException.class, () -> pendiente.reactivar(AHORA));
+        }
+    }
+}
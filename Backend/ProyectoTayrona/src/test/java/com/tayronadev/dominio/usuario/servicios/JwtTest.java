@@ -1,43 +1,184 @@
 package com.tayronadev.dominio.usuario.servicios;
 
+import com.tayronadev.dominio.usuario.modelo.TipoUsuario;
+import com.tayronadev.dominio.usuario.modelo.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import com.tayronadev.dominio.usuario.modelo.User;
-import com.tayronadev.dominio.usuario.modelo.TipoUsuario;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
-import org.junit.jupiter.api.BeforeEach;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
 
-@ExtendWith(MockitoExtension.class) 
 @DisplayName("JwtTest - Servicio de JWT")
 public class JwtTest {
 
-    @Mock
+    private static final String LLAVE_SECRETA = "Y2xhdmUtc2VjcmV0YS1wYXJhLXBydWViYXMtZGUtaW50ZWdyYWNpb24tem9uYS1mcmFuY2E=";
+
     private Jwt jwt;
+    private User user;
 
     @BeforeEach
     void setUp() {
-        jwt = new Jwt();
+        jwt = crearJwt(3600000);
+        user = new User("Erick Diaz", "erickdiazsaavedra@gmail.com", "Saavedra2025", TipoUsuario.ADMINISTRADOR);
     }
-}
 
-@Nested
-@DisplayName("Genera un token JWT válido")
-class GeneraTokenJwtValido {
-    @Test
+    @Nested
     @DisplayName("Genera un token JWT válido")
-    void generaTokenJwtValido() {
-        // Arrange
-        User user = new User("Erick Diaz", "erickdiazsaavedra@gmail.com", "Saavedra2025", TipoUsuario.ADMINISTRADOR);
-        
-        // Act
-        String token = jwt.generarToken(user);
-        
-        // Assert
-        assertNotNull(token);
+    class GeneraTokenJwtValido {
+
+        @Test
+        @DisplayName("Genera un token JWT válido")
+        void generaTokenJwtValido() {
+            // Act
+            String token = jwt.generarToken(user);
+
+            // Assert
+            assertNotNull(token);
+            assertTrue(jwt.esTokenValido(token));
+            assertEquals("erickdiazsaavedra@gmail.com", jwt.extraerCorreo(token));
+        }
+    }
+
+    @Nested
+    @DisplayName("Sesión del usuario en el token")
+    class SesionUsuario {
+
+        @Test
+        @DisplayName("Debe reconstruir id, nombre, correo y rol desde las claims")
+        void debeReconstruirSesionDesdeClaims() {
+            var sesion = jwt.extraerSesion(jwt.generarToken(user));
+
+            assertEquals(user.getId(), sesion.getId());
+            assertEquals("Erick Diaz", sesion.getNombre());
+            assertEquals("erickdiazsaavedra@gmail.com", sesion.getCorreo());
+            assertEquals(TipoUsuario.ADMINISTRADOR, sesion.getRol());
+        }
+
+        @Test
+        @DisplayName("Debe rechazar un token sin los datos del usuario")
+        void debeRechazarTokenSinDatosDeUsuario() {
+            var llave = Keys.hmacShaKeyFor(Decoders.BASE64.decode(LLAVE_SECRETA));
+            var token = Jwts.builder()
+                    .subject(user.getCorreo())
+                    .expiration(new Date(System.currentTimeMillis() + 60000))
+                    .signWith(llave)
+                    .compact();
+
+            assertThrows(MalformedJwtException.class, () -> jwt.extraerSesion(token));
+        }
+    }
+
+    @Nested
+    @DisplayName("Caché de tokens verificados")
+    class CacheTokens {
+
+        @Test
+        @DisplayName("Debe devolver las mismas claims para un token ya verificado")
+        void debeReutilizarClaimsDeTokenVerificado() {
+            String token = jwt.generarToken(user);
+
+            var primera = jwt.extraerClaims(token);
+            var segunda = jwt.extraerClaims(token);
+
+            assertSame(primera, segunda);
+        }
+
+        @Test
+        @DisplayName("No debe aceptar un token alterado aunque el original esté en caché")
+        void noDebeAceptarTokenAlterado() {
+            String token = jwt.generarToken(user);
+            jwt.extraerClaims(token);
+            String alterado = token.substring(0, token.length() - 2)
+                    + (token.endsWith("AA") ? "BB" : "AA");
+
+            assertThrows(JwtException.class, () -> jwt.extraerClaims(alterado));
+            assertFalse(jwt.esTokenValido(alterado));
+        }
+
+        @Test
+        @DisplayName("No debe aceptar un token vencido")
+        void noDebeAceptarTokenVencido() {
+            var jwtVencido = crearJwt(-1000);
+            String token = jwtVencido.generarToken(user);
+
+            assertThrows(ExpiredJwtException.class, () -> jwtVencido.extraerClaims(token));
+            assertFalse(jwtVencido.esTokenValido(token));
+        }
+
+        @Test
+        @DisplayName("Debe respetar la capacidad máxima de la caché")
+        void debeRespetarCapacidadMaxima() {
+            var cache = new CacheTokensVerificados(2);
+            var claims = jwt.extraerClaims(jwt.generarToken(user));
+
+            cache.guardar("token-1", claims);
+            cache.guardar("token-2", claims);
+            cache.guardar("token-3", claims);
+
+            assertEquals(2, cache.tamano());
+            assertSame(claims, cache.obtener("token-3"));
+        }
+
+        @Test
+        @DisplayName("Debe descartar el token usado hace más tiempo al llenarse la caché")
+        void debeDescartarMenosRecienteAlLlenarse() {
+            var cache = new CacheTokensVerificados(2);
+            var claims = jwt.extraerClaims(jwt.generarToken(user));
+            cache.guardar("token-1", claims);
+            cache.guardar("token-2", claims);
+            cache.obtener("token-1");
+
+            cache.guardar("token-3", claims);
+
+            assertSame(claims, cache.obtener("token-1"));
+            assertNull(cache.obtener("token-2"));
+            assertSame(claims, cache.obtener("token-3"));
+        }
+
+        @Test
+        @DisplayName("Debe descartar un token vencido al consultarlo")
+        void debeDescartarVencidoAlConsultar() {
+            var cache = new CacheTokensVerificados(2);
+            var vencidas = Jwts.claims().expiration(new Date(System.currentTimeMillis() - 1000)).build();
+            cache.guardar("vencido", vencidas);
+
+            assertNull(cache.obtener("vencido"));
+            assertEquals(0, cache.tamano());
+        }
+
+        @Test
+        @DisplayName("No debe guardar el token en claro")
+        @SuppressWarnings("unchecked")
+        void noDebeGuardarTokenEnClaro() {
+            var cache = new CacheTokensVerificados(2);
+            String token = jwt.generarToken(user);
+            cache.guardar(token, jwt.extraerClaims(token));
+
+            Map<String, ?> entradas = (Map<String, ?>) ReflectionTestUtils.getField(cache, "entradas");
+
+            assertEquals(1, entradas.size());
+            assertFalse(entradas.containsKey(token));
+        }
+    }
+
+    private Jwt crearJwt(long expiracion) {
+        var servicio = new Jwt();
+        ReflectionTestUtils.setField(servicio, "llaveSecreta", LLAVE_SECRETA);
+        ReflectionTestUtils.setField(servicio, "jwtExpiracion", expiracion);
+        ReflectionTestUtils.setField(servicio, "jwtRefreshExpiration", expiracion);
+        ReflectionTestUtils.setField(servicio, "maxTokensEnCache", 100);
+        servicio.inicializar();
+        return servicio;
     }
 }
@@ -34,6 +34,9 @@ class EmailNotificacionServiceImplTest {
     @Mock
     private TemplateEngine templateEngine;
     
+    @Mock
+    private EnviadorCorreoSmtp enviadorSmtp;
+    
     @Mock
     private MimeMessage mimeMessage;
     
@@ -41,14 +44,12 @@ class EmailNotificacionServiceImplTest {
     
     @BeforeEach
     void setUp() {
-        emailService = new EmailNotificacionServiceImpl(mailSender, templateEngine);
+        var renderizador = new RenderizadorCorreo(templateEngine, "Test Empresa", "123456", "Dirección Test");
+        emailService = new EmailNotificacionServiceImpl(mailSender, renderizador, enviadorSmtp);
         
         // Configurar valores por defecto usando reflection
         ReflectionTestUtils.setField(emailService, "remitente", "noreply@test.com");
         ReflectionTestUtils.setField(emailService, "emailHabilitado", true);
-        ReflectionTestUtils.setField(emailService, "nombreEmpresa", "Test Empresa");
-        ReflectionTestUtils.setField(emailService, "telefonoEmpresa", "123456");
-        ReflectionTestUtils.setField(emailService, "direccionEmpresa", "Dirección Test");
     }
     
     @Nested
@@ -87,7 +88,7 @@ class EmailNotificacionServiceImplTest {
             emailService.enviarNotificacionCita(notificacion);
             
             // Then
-            verify(mailSender, never()).send(any(MimeMessage.class));
+            verify(enviadorSmtp, never()).enviar(any(MimeMessage.class));
             verify(templateEngine, never()).process(anyString(), any(Context.class));
         }
         
@@ -143,8 +144,8 @@ class EmailNotificacionServiceImplTest {
         }
         
         @Test
-        @DisplayName("Debe enviar correo a través de JavaMailSender")
-        void debeEnviarCorreoATravesDeMailSender() {
+        @DisplayName("Debe entregar el correo al enviador SMTP")
+        void debeEnviarCorreoATravesDeEnviadorSmtp() {
             // Given
             var notificacion = crearNotificacion(TipoNotificacion.CITA_CONFIRMADA);
             when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
@@ -154,7 +155,8 @@ class EmailNotificacionServiceImplTest {
             emailService.enviarNotificacionCita(notificacion);
             
             // Then
-            verify(mailSender).send(mimeMessage);
+            verify(enviadorSmtp).enviar(mimeMessage);
+            verify(mailSender, never()).send(any(MimeMessage.class));
         }
     }
     
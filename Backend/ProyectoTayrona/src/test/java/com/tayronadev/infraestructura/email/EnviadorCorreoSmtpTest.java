@@ -0,0 +1,275 @@
+package com.tayronadev.infraestructura.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Provider;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.URLName;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EnviadorCorreoSmtp - Envío por conexiones reutilizadas")
+class EnviadorCorreoSmtpTest {
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Mock
+    private MimeMessage mensaje1;
+
+    @Mock
+    private MimeMessage mensaje2;
+
+    private SimpleMeterRegistry metricas;
+    private EnviadorCorreoSmtp enviador;
+
+    @BeforeEach
+    void setUp() {
+        metricas = new SimpleMeterRegistry();
+        enviador = new EnviadorCorreoSmtp(mailSender, metricas, 1, Duration.ofSeconds(30), Duration.ofSeconds(5));
+    }
+
+    @Nested
+    @DisplayName("Envío de la cola")
+    class EnvioCola {
+
+        @Test
+        @DisplayName("Debe enviar los mensajes encolados en orden, uno por vez")
+        void debeEnviarMensajesEnOrden() throws Exception {
+            // Given
+            var resultado1 = enviador.encolar(mensaje1);
+            var resultado2 = enviador.encolar(mensaje2);
+            var conexion = enviador.nuevaConexion();
+
+            // When
+            assertTrue(enviador.procesarSiguiente(conexion, 0));
+            assertTrue(enviador.procesarSiguiente(conexion, 0));
+
+            // Then
+            var orden = inOrder(mailSender);
+            orden.verify(mailSender).send(mensaje1);
+            orden.verify(mailSender).send(mensaje2);
+            assertNull(resultado1.get());
+            assertNull(resultado2.get());
+            assertEquals(2.0, metricas.counter("notificaciones.smtp.enviados").count());
+            assertEquals(2, metricas.timer("notificaciones.smtp.envio").count());
+        }
+
+        @Test
+        @DisplayName("Debe indicar que no hubo trabajo si la cola está vacía")
+        void debeIndicarColaVacia() throws Exception {
+            assertFalse(enviador.procesarSiguiente(enviador.nuevaConexion(), 0));
+            verifyNoInteractions(mailSender);
+        }
+    }
+
+    @Nested
+    @DisplayName("Conexión reutilizada")
+    class ConexionReutilizada {
+
+        private Session sesion;
+        private SimpleMeterRegistry metricasSmtp;
+        private EnviadorCorreoSmtp enviadorSmtp;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            TransporteFalso.reiniciar();
+            sesion = Session.getInstance(new Properties());
+            sesion.setProvider(new Provider(Provider.Type.TRANSPORT, "smtp",
+                    TransporteFalso.class.getName(), "pruebas", "1"));
+            var impl = new JavaMailSenderImpl();
+            impl.setSession(sesion);
+            impl.setHost("localhost");
+            // Registro propio: en el compartido ya están los medidores del enviador de setUp
+            metricasSmtp = new SimpleMeterRegistry();
+            enviadorSmtp = new EnviadorCorreoSmtp(impl, metricasSmtp, 1, Duration.ofSeconds(30), Duration.ofSeconds(5));
+        }
+
+        @Test
+        @DisplayName("Debe enviar varios mensajes por una sola conexión sin comprobarla antes de cada uno")
+        void debeReutilizarTransporteSinNoop() throws Exception {
+            // Given
+            var resultados = List.of(
+                    enviadorSmtp.encolar(crearMensaje("a@proveedor.com")),
+                    enviadorSmtp.encolar(crearMensaje("b@proveedor.com")),
+                    enviadorSmtp.encolar(crearMensaje("c@proveedor.com")));
+            var conexion = enviadorSmtp.nuevaConexion();
+
+            // When
+            for (int i = 0; i < resultados.size(); i++) {
+                enviadorSmtp.procesarSiguiente(conexion, 0);
+            }
+
+            // Then
+            for (var resultado : resultados) {
+                assertNull(resultado.get());
+            }
+            assertEquals(1, TransporteFalso.conexiones);
+            assertEquals(3, TransporteFalso.enviados.size());
+            assertEquals(0, TransporteFalso.comprobaciones);
+            assertEquals(1.0, metricasSmtp.get("notificaciones.smtp.conexiones").gauge().value());
+        }
+
+        @Test
+        @DisplayName("Debe reconectar y reenviar una vez si el servidor cerró la conexión")
+        void debeReconectarSiElServidorCerroLaConexion() throws Exception {
+            // Given
+            var conexion = enviadorSmtp.nuevaConexion();
+            enviadorSmtp.encolar(crearMensaje("a@proveedor.com"));
+            enviadorSmtp.procesarSiguiente(conexion, 0);
+            TransporteFalso.cerrarEnSiguienteEnvio = true;
+            var resultado = enviadorSmtp.encolar(crearMensaje("b@proveedor.com"));
+
+            // When
+            enviadorSmtp.procesarSiguiente(conexion, 0);
+
+            // Then
+            assertNull(resultado.get());
+            assertEquals(2, TransporteFalso.conexiones);
+            assertEquals(2, TransporteFalso.enviados.size());
+        }
+
+        private MimeMessage crearMensaje(String destinatario) throws MessagingException {
+            var mensaje = new MimeMessage(sesion);
+            mensaje.setFrom("noreply@zonafranca.com");
+            mensaje.setRecipients(Message.RecipientType.TO, destinatario);
+            mensaje.setSubject("Cita");
+            mensaje.setText("Contenido");
+            return mensaje;
+        }
+    }
+
+    @Nested
+    @DisplayName("Fallos de envío")
+    class FallosEnvio {
+
+        @Test
+        @DisplayName("Debe fallar solo el mensaje rechazado por el servidor")
+        void debeFallarSoloMensajeRechazado() throws Exception {
+            // Given
+            var resultado1 = enviador.encolar(mensaje1);
+            var resultado2 = enviador.encolar(mensaje2);
+            doNothing().when(mailSender).send(mensaje1);
+            doThrow(new MailSendException("550 buzón inexistente")).when(mailSender).send(mensaje2);
+            var conexion = enviador.nuevaConexion();
+
+            // When
+            enviador.procesarSiguiente(conexion, 0);
+            enviador.procesarSiguiente(conexion, 0);
+
+            // Then
+            assertNull(resultado1.get());
+            var error = assertThrows(ExecutionException.class, resultado2::get);
+            assertInstanceOf(MailSendException.class, error.getCause());
+            assertEquals(1.0, metricas.counter("notificaciones.smtp.enviados").count());
+            assertEquals(1.0, metricas.counter("notificaciones.smtp.fallidos").count());
+        }
+
+        @Test
+        @DisplayName("Un mensaje cuya espera venció no debe enviarse después")
+        void noDebeEnviarMensajeConEsperaVencida() throws Exception {
+            // Given: ninguna conexión atiende la cola durante la espera
+            var impaciente = new EnviadorCorreoSmtp(mailSender, metricas, 1, Duration.ofSeconds(30), Duration.ofMillis(20));
+
+            // When
+            assertThrows(MailSendException.class, () -> impaciente.enviar(mensaje1));
+
+            // Then
+            assertFalse(impaciente.procesarSiguiente(impaciente.nuevaConexion(), 0));
+            verifyNoInteractions(mailSender);
+        }
+
+        @Test
+        @DisplayName("Debe descartar sin enviar un mensaje que ya fue resuelto")
+        void debeDescartarMensajeResuelto() throws Exception {
+            // Given
+            enviador.encolar(mensaje1).cancel(false);
+
+            // When
+            assertTrue(enviador.procesarSiguiente(enviador.nuevaConexion(), 0));
+
+            // Then
+            verifyNoInteractions(mailSender);
+            assertEquals(0.0, metricas.counter("notificaciones.smtp.enviados").count());
+        }
+
+        @Test
+        @DisplayName("Debe fallar los mensajes pendientes al detenerse")
+        void debeFallarPendientesAlDetenerse() {
+            var resultado = enviador.encolar(mensaje1);
+
+            enviador.detener();
+
+            assertTrue(resultado.isCompletedExceptionally());
+        }
+    }
+
+    /**
+     * Transporte SMTP simulado que registra conexiones, comprobaciones (NOOP) y envíos
+     */
+    public static class TransporteFalso extends Transport {
+
+        static int conexiones;
+        static int comprobaciones;
+        static boolean cerrarEnSiguienteEnvio;
+        static final List<Message> enviados = new ArrayList<>();
+
+        public TransporteFalso(Session sesion, URLName url) {
+            super(sesion, url);
+        }
+
+        static void reiniciar() {
+            conexiones = 0;
+            comprobaciones = 0;
+            cerrarEnSiguienteEnvio = false;
+            enviados.clear();
+        }
+
+        @Override
+        protected boolean protocolConnect(String host, int port, String user, String password) {
+            conexiones++;
+            return true;
+        }
+
+        @Override
+        public synchronized boolean isConnected() {
+            var conectado = super.isConnected();
+            if (conectado) {
+                comprobaciones++;
+            }
+            return conectado;
+        }
+
+        @Override
+        public void sendMessage(Message mensaje, Address[] destinatarios) throws MessagingException {
+            if (cerrarEnSiguienteEnvio) {
+                cerrarEnSiguienteEnvio = false;
+                setConnected(false);
+                throw new MessagingException("421 conexión cerrada por el servidor");
+            }
+            enviados.add(mensaje);
+        }
+    }
+}
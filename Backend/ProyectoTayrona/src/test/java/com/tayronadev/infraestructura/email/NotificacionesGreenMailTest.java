@@ -0,0 +1,119 @@
+package com.tayronadev.infraestructura.email;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.tayronadev.dominio.citas.modelo.*;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import com.tayronadev.dominio.notificacion.casosuso.NotificarCambioEstadoCitaUseCase;
+import com.tayronadev.dominio.notificacion.casosuso.ReintentarNotificacionesUseCase;
+import com.tayronadev.dominio.notificacion.modelo.TipoNotificacion;
+import com.tayronadev.dominio.notificacion.puertos.NotificacionPendienteRepositorio;
+import com.tayronadev.infraestructura.persistencia.PruebaIntegracionPostgres;
+import com.tayronadev.infraestructura.persistencia.repositorios.CitaJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Envío real de notificaciones contra un servidor SMTP local (GreenMail).
+ */
+@TestPropertySource(properties = {
+        "app.mail.enabled=true",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "spring.mail.properties.mail.smtp.starttls.required=false",
+        "app.notificaciones.reintentos.espera-base=PT0.001S",
+        "app.notificaciones.reintentos.espera-maxima=PT0.001S",
+        "app.notificaciones.reintentos.intervalo-ms=3600000"
+})
+@DisplayName("Notificaciones por correo - Integración con GreenMail")
+class NotificacionesGreenMailTest extends PruebaIntegracionPostgres {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private NotificarCambioEstadoCitaUseCase notificarCambioEstado;
+
+    @Autowired
+    private ReintentarNotificacionesUseCase reintentarNotificaciones;
+
+    @Autowired
+    private NotificacionPendienteRepositorio pendientes;
+
+    @Autowired
+    private CitaRepositorio citaRepositorio;
+
+    @Autowired
+    private CitaJpaRepository citaJpaRepository;
+
+    @BeforeEach
+    void setUp() {
+        citaJpaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Debe entregar el correo de confirmación en el ejecutor de notificaciones")
+    void debeEntregarCorreoDeConfirmacion() throws Exception {
+        // Given
+        var cita = guardarCitaConfirmada();
+
+        // When
+        notificarCambioEstado.ejecutar(cita, "Presentarse con la guía");
+
+        // Then
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 1));
+        var mensaje = greenMail.getReceivedMessages()[0];
+        assertEquals("juan@email.com", mensaje.getAllRecipients()[0].toString());
+        assertTrue(mensaje.getSubject().contains(TipoNotificacion.CITA_CONFIRMADA.getAsunto()));
+    }
+
+    @Test
+    @DisplayName("Debe entregar varias notificaciones simultáneas sobre las conexiones reutilizadas")
+    void debeEntregarNotificacionesSimultaneas() throws Exception {
+        // Given
+        var cita = guardarCitaConfirmada();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            notificarCambioEstado.ejecutar(cita, "Aviso " + i);
+        }
+
+        // Then
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 5));
+        assertEquals(5, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    @DisplayName("Debe entregar una notificación pendiente y sacarla de la cola")
+    void debeEntregarNotificacionPendiente() throws Exception {
+        // Given
+        var cita = guardarCitaConfirmada();
+        var pendiente = reintentarNotificaciones.programar(
+                cita.getId(), TipoNotificacion.CITA_CONFIRMADA, "Obs", "SMTP no disponible");
+        Thread.sleep(10);
+
+        // When
+        reintentarNotificaciones.procesarPendientes();
+
+        // Then
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 1));
+        assertTrue(pendientes.buscarPorId(pendiente.getId()).isEmpty());
+    }
+
+    // Métodos auxiliares
+
+    private Cita guardarCitaConfirmada() {
+        var cita = crearCita(TipoCita.ENTREGA, obtenerProximoDiaLaboral().withHour(10).withMinute(0).withSecond(0).withNano(0));
+        cita.confirmar("Confirmada");
+        return citaRepositorio.guardar(cita);
+    }
+}
@@ -0,0 +1,108 @@
+package com.tayronadev.infraestructura.email;
+
+import com.tayronadev.dominio.notificacion.modelo.NotificacionCita;
+import com.tayronadev.dominio.notificacion.modelo.TipoNotificacion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RenderizadorCorreo - Plantillas de notificación")
+class RenderizadorCorreoTest {
+
+    private SpringTemplateEngine templateEngine;
+
+    @BeforeEach
+    void setUp() {
+        var resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+    }
+
+    @Nested
+    @DisplayName("Pie de empresa")
+    class PieEmpresa {
+
+        @Test
+        @DisplayName("Debe incluir nombre, teléfono y dirección configurados en todas las plantillas")
+        void debeIncluirDatosDeEmpresa() {
+            // Given
+            var renderizador = new RenderizadorCorreo(templateEngine, "Zona Franca Test", "3001234567", "Calle 1 # 2-3");
+
+            for (TipoNotificacion tipo : TipoNotificacion.values()) {
+                // When
+                var html = renderizador.renderizar(crearNotificacion(tipo));
+
+                // Then
+                assertTrue(html.contains("Zona Franca Test"), tipo.name());
+                assertTrue(html.contains("📞 3001234567"), tipo.name());
+                assertTrue(html.contains("📍 Calle 1 # 2-3"), tipo.name());
+                assertTrue(html.contains("Juan Pérez"), tipo.name());
+            }
+        }
+
+        @Test
+        @DisplayName("Debe omitir los datos de contacto que no están configurados")
+        void debeOmitirContactoNoConfigurado() {
+            var renderizador = new RenderizadorCorreo(templateEngine, "Zona Franca Test", "", " ");
+
+            var html = renderizador.renderizar(crearNotificacion(TipoNotificacion.CITA_CONFIRMADA));
+
+            assertTrue(html.contains("Zona Franca Test"));
+            assertFalse(html.contains("📞"));
+            assertFalse(html.contains("📍"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Precalentamiento")
+    class Precalentamiento {
+
+        @Test
+        @DisplayName("Debe dejar en caché las tres plantillas y el fragmento base")
+        void debeDejarPlantillasEnCache() {
+            // Given
+            var renderizador = new RenderizadorCorreo(templateEngine, "Zona Franca", "", "");
+
+            // When
+            renderizador.precalentar();
+
+            // Then
+            var cache = templateEngine.getConfiguration().getCacheManager().getTemplateCache();
+            var plantillas = cache.keySet().stream().map(clave -> clave.getTemplate()).toList();
+            assertTrue(plantillas.containsAll(List.of(
+                    "email/cita-confirmada", "email/cita-rechazada", "email/cita-cancelada",
+                    "email/fragments/base")), plantillas.toString());
+        }
+    }
+
+    // Método auxiliar
+    private NotificacionCita crearNotificacion(TipoNotificacion tipo) {
+        return NotificacionCita.builder()
+                .destinatarioEmail("juan@email.com")
+                .destinatarioNombre("Juan Pérez")
+                .nombreProveedor("Proveedor ABC")
+                .nit("900123456-1")
+                .citaId("cita-123")
+                .tipoCita("ENTREGA")
+                .tipoCitaDescripcion("Entrega de mercancía")
+                .fechaHoraCita(LocalDateTime.of(2030, 1, 7, 10, 0))
+                .tipoNotificacion(tipo)
+                .observaciones("Observaciones de prueba")
+                .build();
+    }
+}
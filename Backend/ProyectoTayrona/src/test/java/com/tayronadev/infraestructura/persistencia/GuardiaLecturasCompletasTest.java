@@ -0,0 +1,75 @@
+package com.tayronadev.infraestructura.persistencia;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GuardiaLecturasCompletas - Detección de lecturas sin filtro")
+class GuardiaLecturasCompletasTest {
+
+    private static final String FIND_ALL = "select c1_0.id,c1_0.estado,c1_0.fecha_hora from citas c1_0";
+
+    private SimpleMeterRegistry metricas;
+    private GuardiaLecturasCompletas guardia;
+
+    @BeforeEach
+    void setUp() {
+        metricas = new SimpleMeterRegistry();
+        guardia = new GuardiaLecturasCompletas(metricas, Set.of("citas"), false);
+    }
+
+    @Nested
+    @DisplayName("Detección")
+    class Deteccion {
+
+        @Test
+        @DisplayName("Debe marcar un SELECT sin WHERE sobre una tabla vigilada")
+        void debeMarcarLecturaCompleta() {
+            // When
+            var sql = guardia.inspect(FIND_ALL);
+
+            // Then
+            assertEquals(FIND_ALL, sql);
+            assertEquals(1.0, metricas.counter("persistencia.lecturas.completas", "tabla", "citas").count());
+        }
+
+        @Test
+        @DisplayName("No debe marcar consultas filtradas, limitadas, de conteo o agrupadas")
+        void noDebeMarcarConsultasAcotadas() {
+            assertNull(guardia.tablaLeidaCompleta("select c1_0.id from citas c1_0 where c1_0.nit=? and c1_0.estado in (?,?)"));
+            assertNull(guardia.tablaLeidaCompleta("select c1_0.id from citas c1_0 order by c1_0.fecha_hora offset ? rows fetch first ? rows only"));
+            assertNull(guardia.tablaLeidaCompleta("select count(c1_0.id) from citas c1_0"));
+            assertNull(guardia.tablaLeidaCompleta("select c1_0.estado,count(c1_0.id) from citas c1_0 group by c1_0.estado"));
+            assertNull(guardia.tablaLeidaCompleta("update citas set estado=? where id=?"));
+        }
+
+        @Test
+        @DisplayName("No debe marcar tablas que no están vigiladas")
+        void noDebeMarcarTablasNoVigiladas() {
+            assertNull(guardia.tablaLeidaCompleta("select u1_0.id from usuarios u1_0"));
+            assertEquals("citas", guardia.tablaLeidaCompleta(FIND_ALL));
+        }
+    }
+
+    @Nested
+    @DisplayName("Rechazo")
+    class Rechazo {
+
+        @Test
+        @DisplayName("Debe impedir la lectura completa si está configurado para rechazar")
+        void debeRechazarLecturaCompleta() {
+            // Given
+            var estricta = new GuardiaLecturasCompletas(metricas, Set.of("citas"), true);
+
+            // When / Then
+            assertThrows(IllegalStateException.class, () -> estricta.inspect(FIND_ALL));
+            assertEquals(1.0, metricas.counter("persistencia.lecturas.completas", "tabla", "citas").count());
+        }
+    }
+}
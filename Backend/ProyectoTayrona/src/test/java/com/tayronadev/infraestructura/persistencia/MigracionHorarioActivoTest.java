@@ -0,0 +1,105 @@
+package com.tayronadev.infraestructura.persistencia;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra PostgreSQL que V3 se aplica sobre una base con citas activas duplicadas
+ * por horario: conserva una por horario, cancela y audita las demás, y crea el índice único.
+ * Las migraciones se aplican en un esquema propio para no tocar el de las demás pruebas.
+ */
+@DisplayName("Migración V3 - Integración")
+class MigracionHorarioActivoTest extends PruebaIntegracionPostgres {
+
+    private static final String ESQUEMA = "migracion_v3";
+    private static final LocalDateTime HORARIO = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + ESQUEMA + " CASCADE");
+        migrarHasta("2");
+    }
+
+    @Test
+    @DisplayName("Debe cancelar y auditar las citas activas duplicadas antes de crear el índice único")
+    void debeResolverDuplicadosAntesDeCrearIndice() {
+        // Given: tres citas activas en el mismo horario y una en otro
+        insertarCita("pendiente-antigua", "PENDIENTE", HORARIO, HORARIO.minusDays(3));
+        insertarCita("confirmada", "CONFIRMADA", HORARIO, HORARIO.minusDays(2));
+        insertarCita("pendiente", "PENDIENTE", HORARIO, HORARIO.minusDays(1));
+        insertarCita("otro-horario", "PENDIENTE", HORARIO.plusHours(1), HORARIO.minusDays(3));
+
+        // When
+        migrarHasta("3");
+
+        // Then
+        assertEquals(Map.of(
+                "pendiente-antigua", "CANCELADA",
+                "confirmada", "CONFIRMADA",
+                "pendiente", "CANCELADA",
+                "otro-horario", "PENDIENTE"), estados());
+        var auditoria = jdbcTemplate.queryForList(
+                "SELECT cita_id, estado_anterior, observaciones FROM " + ESQUEMA + ".auditoria_cambios_estado " +
+                "WHERE tipo_cambio = 'CANCELACION' ORDER BY cita_id");
+        assertEquals(List.of("pendiente", "pendiente-antigua"),
+                auditoria.stream().map(registro -> registro.get("cita_id")).toList());
+        auditoria.forEach(registro -> {
+            assertEquals("PENDIENTE", registro.get("estado_anterior"));
+            assertTrue(registro.get("observaciones").toString().endsWith("confirmada"));
+        });
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_indexes WHERE schemaname = ? AND indexname = 'uk_cita_horario_activo'",
+                Integer.class, ESQUEMA));
+    }
+
+    @Test
+    @DisplayName("No debe cancelar ni auditar nada si no hay duplicados")
+    void noDebeCambiarNadaSinDuplicados() {
+        insertarCita("c-1", "PENDIENTE", HORARIO, HORARIO.minusDays(1));
+        insertarCita("c-2", "CANCELADA", HORARIO, HORARIO.minusDays(1));
+
+        migrarHasta("3");
+
+        assertEquals(Map.of("c-1", "PENDIENTE", "c-2", "CANCELADA"), estados());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + ESQUEMA + ".auditoria_cambios_estado", Integer.class));
+    }
+
+    private void migrarHasta(String version) {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .schemas(ESQUEMA)
+                .target(version)
+                .load()
+                .migrate();
+    }
+
+    private void insertarCita(String id, String estado, LocalDateTime fechaHora, LocalDateTime fechaCreacion) {
+        jdbcTemplate.update("INSERT INTO " + ESQUEMA + ".citas (id, tipo_cita, estado, nombre_proveedor, nit, " +
+                        "numero_orden_compra, responsable_nombre, responsable_email, responsable_telefono, " +
+                        "tipo_transporte, nombre_transportadora, numero_guia, fecha_hora, fecha_creacion) " +
+                        "VALUES (?, 'ENTREGA', ?, 'Proveedor', '123', 'OC-1', 'Juan', 'juan@email.com', '123', " +
+                        "'TRANSPORTADORA', 'Trans', 'GUIA-1', ?, ?)",
+                id, estado, Timestamp.valueOf(fechaHora), Timestamp.valueOf(fechaCreacion));
+    }
+
+    private Map<String, String> estados() {
+        return jdbcTemplate.queryForList("SELECT id, estado FROM " + ESQUEMA + ".citas").stream()
+                .collect(Collectors.toMap(fila -> (String) fila.get("id"), fila -> (String) fila.get("estado")));
+    }
+}
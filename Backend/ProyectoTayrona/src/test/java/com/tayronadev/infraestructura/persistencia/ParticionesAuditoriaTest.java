@@ -0,0 +1,267 @@
+package com.tayronadev.infraestructura.persistencia;
+
+import com.tayronadev.dominio.auditoria.consultas.FiltroAuditoria;
+import com.tayronadev.dominio.auditoria.modelo.RegistroCambioEstado;
+import com.tayronadev.dominio.auditoria.repositorios.AuditoriaRepositorio;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import com.tayronadev.dominio.comun.SolicitudPagina;
+import com.tayronadev.infraestructura.persistencia.repositorios.CitaJpaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra PostgreSQL el particionado mensual de la auditoría (V10): la creación
+ * y el archivado de particiones, la partición DEFAULT (V14) y que las consultas por fecha
+ * lean solo las particiones de su rango.
+ */
+@DisplayName("Particiones de auditoría - Integración")
+@TestPropertySource(properties = "app.notificaciones.reintentos.intervalo-ms=3600000")
+class ParticionesAuditoriaTest extends PruebaIntegracionPostgres {
+
+    private static final String USUARIO_ID = "usuario-particiones";
+    private static final DateTimeFormatter SUFIJO = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private ParticionesAuditoria particiones;
+
+    @Autowired
+    private AuditoriaRepositorio auditoriaRepositorio;
+
+    @Autowired
+    private CitaRepositorio citaRepositorio;
+
+    @Autowired
+    private CitaJpaRepository citaJpaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry metricas;
+
+    private String citaId;
+
+    @BeforeEach
+    void setUp() {
+        // Borrar las citas elimina en cascada su auditoría
+        citaJpaRepository.deleteAll();
+        jdbcTemplate.update("""
+                INSERT INTO usuarios (id, nombre_usuario, correo_usuario, "contraseña_usuario", tipo_cuenta)
+                VALUES (?, 'Auditor', 'auditor@particiones.com', 'x', 'ADMINISTRADOR')
+                ON CONFLICT (id) DO NOTHING
+                """, USUARIO_ID);
+        citaId = citaRepositorio.registrar(crearCita()).getId();
+    }
+
+    @Nested
+    @DisplayName("Creación de particiones")
+    class Creacion {
+
+        @Test
+        @DisplayName("La tabla debe estar particionada y cubrir los próximos meses")
+        void debeCubrirProximosMeses() {
+            var tipo = jdbcTemplate.queryForObject(
+                    "SELECT relkind::text FROM pg_class WHERE oid = 'auditoria_cambios_estado'::regclass", String.class);
+
+            assertEquals("p", tipo);
+            for (int i = 0; i <= 3; i++) {
+                assertTrue(existeParticion("public", nombreParticion(YearMonth.now().plusMonths(i))));
+            }
+        }
+
+        @Test
+        @DisplayName("Crear una partición existente no debe fallar")
+        void debeSerIdempotente() {
+            var mes = YearMonth.now().plusMonths(1);
+
+            var primera = particiones.crearParticiones(mes, mes);
+            var segunda = particiones.crearParticiones(mes, mes);
+
+            assertEquals(List.of(nombreParticion(mes)), primera);
+            assertEquals(primera, segunda);
+        }
+
+        @Test
+        @DisplayName("Dos instancias que crean a la vez la misma partición no deben fallar")
+        void debeCrearParticionConcurrentemente() {
+            // Given: un mes sin partición
+            var mes = YearMonth.now().plusMonths(50);
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + nombreParticion(mes));
+
+            // When
+            var creaciones = IntStream.range(0, 4)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> particiones.crearParticiones(mes, mes)))
+                    .toList();
+
+            // Then
+            for (var creacion : creaciones) {
+                assertEquals(List.of(nombreParticion(mes)), creacion.join());
+            }
+            assertTrue(existeParticion("public", nombreParticion(mes)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Partición DEFAULT")
+    class ParticionDefault {
+
+        @Test
+        @DisplayName("Un registro de un mes sin partición debe guardarse y moverse al crearla")
+        void debeMoverRegistrosAlCrearParticion() {
+            // Given: un mes sin partición
+            var mes = YearMonth.now().plusMonths(40);
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + nombreParticion(mes));
+            var id = insertarRegistro(mes.atDay(3).atTime(11, 0));
+            assertEquals(1, contar("auditoria_cambios_estado_default", id));
+
+            // When
+            particiones.crearParticiones(mes, mes);
+
+            // Then
+            assertEquals(0, contar("auditoria_cambios_estado_default", id));
+            assertEquals(1, contar(nombreParticion(mes), id));
+        }
+
+        @Test
+        @DisplayName("Debe publicar los meses cubiertos y los registros sin partición")
+        void debePublicarCobertura() {
+            // Given: faltan las particiones de los meses siguientes
+            var actual = YearMonth.now();
+            particiones.crearParticiones(actual, actual.plusMonths(1));
+            var sinParticion = actual.plusMonths(2);
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + nombreParticion(sinParticion));
+            insertarRegistro(sinParticion.atDay(1).atTime(9, 0));
+
+            // When
+            particiones.vigilar(actual);
+
+            // Then
+            assertEquals(1.0, metricas.get("auditoria.particiones.meses-cubiertos").gauge().value());
+            assertTrue(metricas.get("auditoria.particiones.default.registros").gauge().value() >= 1.0);
+
+            // Al mantener se crean las que faltan y el registro sale de la DEFAULT
+            particiones.mantener(actual);
+            particiones.vigilar(actual);
+            assertEquals(3.0, metricas.get("auditoria.particiones.meses-cubiertos").gauge().value());
+        }
+    }
+
+    @Nested
+    @DisplayName("Consultas sobre varias particiones")
+    class Consultas {
+
+        @Test
+        @DisplayName("Una consulta por rango de fechas debe leer solo las particiones del rango")
+        void debePodarParticionesFueraDelRango() {
+            // Given
+            var mes = YearMonth.now().plusMonths(15);
+            particiones.crearParticiones(mes.minusMonths(1), mes.plusMonths(1));
+
+            // When
+            var plan = String.join("\n", jdbcTemplate.queryForList(
+                    "EXPLAIN SELECT * FROM auditoria_cambios_estado WHERE fecha_cambio >= TIMESTAMP '" + mes.atDay(1)
+                            + " 00:00' AND fecha_cambio <= TIMESTAMP '" + mes.atDay(10) + " 00:00'", String.class));
+
+            // Then
+            assertTrue(plan.contains(nombreParticion(mes)), plan);
+            assertFalse(plan.contains(nombreParticion(mes.minusMonths(1))), plan);
+            assertFalse(plan.contains(nombreParticion(mes.plusMonths(1))), plan);
+        }
+
+        @Test
+        @DisplayName("La paginación por cursor debe recorrer los registros de varios meses en orden")
+        void debePaginarEntreParticiones() {
+            // Given
+            var mesActual = YearMonth.now();
+            particiones.crearParticiones(mesActual.minusMonths(2), mesActual);
+            var antiguo = insertarRegistro(mesActual.minusMonths(2).atDay(5).atTime(9, 0));
+            var intermedio = insertarRegistro(mesActual.minusMonths(1).atDay(5).atTime(9, 0));
+            var reciente = insertarRegistro(mesActual.atDay(1).atTime(9, 0));
+            var filtro = FiltroAuditoria.builder().usuarioId(USUARIO_ID).build();
+
+            // When
+            var primera = auditoriaRepositorio.buscar(filtro, new SolicitudPagina(null, 2, true));
+            var segunda = auditoriaRepositorio.buscar(filtro,
+                    new SolicitudPagina(primera.getSiguiente().orElseThrow(), 2, true));
+
+            // Then
+            assertEquals(List.of(reciente, intermedio), ids(primera.getElementos()));
+            assertEquals(List.of(antiguo), ids(segunda.getElementos()));
+            assertFalse(segunda.tieneSiguiente());
+        }
+    }
+
+    @Nested
+    @DisplayName("Archivado")
+    class Archivado {
+
+        @Test
+        @DisplayName("Debe mover al esquema de archivo las particiones anteriores a la retención")
+        void debeArchivarParticionesAntiguas() {
+            // Given
+            var mesAntiguo = YearMonth.now().minusMonths(30);
+            particiones.crearParticiones(mesAntiguo, mesAntiguo);
+            insertarRegistro(mesAntiguo.atDay(15).atTime(10, 0));
+
+            // When
+            var archivadas = particiones.archivarAnteriores(YearMonth.now().minusMonths(24));
+
+            // Then
+            var nombre = nombreParticion(mesAntiguo);
+            assertTrue(archivadas.contains(nombre));
+            assertFalse(existeParticion("public", nombre));
+            assertTrue(existeParticion("auditoria_archivo", nombre));
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM auditoria_archivo." + nombre, Integer.class));
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM auditoria_cambios_estado WHERE cita_id = ?", Integer.class, citaId));
+        }
+    }
+
+    // Métodos auxiliares
+
+    private String insertarRegistro(LocalDateTime fechaCambio) {
+        var id = UUID.randomUUID().toString();
+        jdbcTemplate.update("""
+                INSERT INTO auditoria_cambios_estado
+                    (id, cita_id, usuario_id, usuario_nombre, tipo_cambio, estado_anterior, estado_nuevo, fecha_cambio)
+                VALUES (?, ?, ?, 'Auditor', 'CONFIRMACION', 'PENDIENTE', 'CONFIRMADA', ?)
+                """, id, citaId, USUARIO_ID, Timestamp.valueOf(fechaCambio));
+        return id;
+    }
+
+    private int contar(String tabla, String id) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + tabla + " WHERE id = ?", Integer.class, id);
+    }
+
+    private boolean existeParticion(String esquema, String nombre) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_tables WHERE schemaname = ? AND tablename = ?)",
+                Boolean.class, esquema, nombre));
+    }
+
+    private String nombreParticion(YearMonth mes) {
+        return "auditoria_cambios_estado_p" + mes.format(SUFIJO);
+    }
+
+    private List<String> ids(List<RegistroCambioEstado> registros) {
+        return registros.stream().map(RegistroCambioEstado::getId).toList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.tayronadev.infraestructura.persistencia;
+
+import com.tayronadev.dominio.citas.modelo.*;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+
+/**
+ * Base para pruebas de integración contra un PostgreSQL real en contenedor.
+ * Las migraciones de Flyway se aplican al iniciar el contexto.
+ * Las pruebas se omiten si Docker no está disponible. La expiración programada de citas
+ * vencidas se aplaza para que no modifique los datos de las pruebas; se invoca directamente.
+ * Ofrece los datos de prueba comunes: citas nuevas y horarios en días laborables.
+ */
+@SpringBootTest(properties = {
+        "application.security.jwt.secret-key=Y2xhdmUtc2VjcmV0YS1wYXJhLXBydWViYXMtZGUtaW50ZWdyYWNpb24tem9uYS1mcmFuY2E=",
+        "app.mail.enabled=false",
+        "app.citas.expiracion.intervalo-ms=3600000"
+})
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PruebaIntegracionPostgres {
+
+    @Container
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    /**
+     * Cita nueva en el primer muelle del horario
+     */
+    protected static Cita crearCita(TipoCita tipo, LocalDateTime fechaHora) {
+        return crearCita(tipo, fechaHora, 1);
+    }
+
+    /**
+     * Cita nueva en el muelle indicado del horario
+     */
+    protected static Cita crearCita(TipoCita tipo, LocalDateTime fechaHora, int muelle) {
+        var contacto = new DatosContacto("Juan", "juan@email.com", "123");
+        var proveedor = new InformacionProveedor("Proveedor", "123", "OC-1", contacto);
+        var transporte = new TransporteTransportadora("Trans", "GUIA-1");
+
+        return new Cita(tipo, proveedor, transporte, Horario.reconstruir(fechaHora), muelle);
+    }
+
+    /**
+     * Cita de entrega nueva a las 8:00 del próximo día laborable
+     */
+    protected static Cita crearCita() {
+        return crearCita(TipoCita.ENTREGA, obtenerProximoDiaLaboral().withHour(8).withMinute(0).withSecond(0).withNano(0));
+    }
+
+    /**
+     * Mañana, o el lunes siguiente si mañana cae en fin de semana
+     */
+    protected static LocalDateTime obtenerProximoDiaLaboral() {
+        return obtenerProximoDiaLaboral(LocalDateTime.now().plusDays(1));
+    }
+
+    /**
+     * La fecha indicada, o el lunes siguiente si cae en fin de semana
+     */
+    protected static LocalDateTime obtenerProximoDiaLaboral(LocalDateTime desde) {
+        var fecha = desde;
+        while (fecha.getDayOfWeek() == DayOfWeek.SATURDAY || fecha.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            fecha = fecha.plusDays(1);
+        }
+        return fecha;
+    }
+}
@@ -0,0 +1,479 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.citas.casosuso.ExpirarCitasVencidasUseCase;
+import com.tayronadev.dominio.citas.consultas.CitaResumen;
+import com.tayronadev.dominio.citas.consultas.ConteoCitas;
+import com.tayronadev.dominio.citas.consultas.FiltroCitas;
+import com.tayronadev.dominio.citas.consultas.HorarioOcupado;
+import com.tayronadev.dominio.citas.excepciones.ConflictoVersionCitaException;
+import com.tayronadev.dominio.citas.excepciones.HorarioNoDisponibleException;
+import com.tayronadev.dominio.citas.modelo.*;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import com.tayronadev.dominio.comun.Cursor;
+import com.tayronadev.dominio.comun.SolicitudPagina;
+import com.tayronadev.dominio.usuario.modelo.UsuarioSesion;
+import com.tayronadev.infraestructura.persistencia.PruebaIntegracionPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CitaRepositorioImpl - Integración")
+class CitaRepositorioImplTest extends PruebaIntegracionPostgres {
+
+    @Autowired
+    private CitaRepositorio citaRepositorio;
+
+    @Autowired
+    private CitaJpaRepository citaJpaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ExpirarCitasVencidasUseCase expirarCitasVencidas;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalDateTime fechaHora;
+
+    @BeforeEach
+    void setUp() {
+        citaJpaRepository.deleteAll();
+        fechaHora = obtenerProximoDiaLaboral().withHour(10).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Nested
+    @DisplayName("Muelles ocupados del horario")
+    class BuscarMuellesOcupados {
+
+        @Test
+        @DisplayName("Debe devolver los muelles de las citas activas del mismo tipo")
+        void debeDevolverMuellesDeCitasActivas() {
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora, 1));
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora, 3));
+
+            assertEquals(Set.of(1, 3), citaRepositorio.buscarMuellesOcupados(TipoCita.ENTREGA, fechaHora));
+        }
+
+        @Test
+        @DisplayName("No debe contar citas de diferente tipo")
+        void noDebeContarCitasDeDiferenteTipo() {
+            citaRepositorio.guardar(crearCita(TipoCita.RECOJO, fechaHora));
+
+            assertTrue(citaRepositorio.buscarMuellesOcupados(TipoCita.ENTREGA, fechaHora).isEmpty());
+        }
+
+        @Test
+        @DisplayName("No debe contar citas canceladas")
+        void noDebeContarCitasCanceladas() {
+            var cita = crearCita(TipoCita.ENTREGA, fechaHora);
+            cita.cancelar("Cambio de planes");
+            citaRepositorio.guardar(cita);
+
+            assertTrue(citaRepositorio.buscarMuellesOcupados(TipoCita.ENTREGA, fechaHora).isEmpty());
+        }
+
+        @Test
+        @DisplayName("No debe contar citas rechazadas")
+        void noDebeContarCitasRechazadas() {
+            var cita = crearCita(TipoCita.ENTREGA, fechaHora);
+            cita.rechazar("Sin cupo");
+            citaRepositorio.guardar(cita);
+
+            assertTrue(citaRepositorio.buscarMuellesOcupados(TipoCita.ENTREGA, fechaHora).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Debe rechazar una segunda cita activa en el mismo muelle")
+        void debeRechazarMismoMuelle() {
+            citaRepositorio.registrar(crearCita(TipoCita.ENTREGA, fechaHora, 2));
+
+            assertThrows(HorarioNoDisponibleException.class,
+                    () -> citaRepositorio.registrar(crearCita(TipoCita.ENTREGA, fechaHora, 2)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Resúmenes de citas")
+    class BuscarResumenes {
+
+        @Test
+        @DisplayName("Debe proyectar solo las citas que cumplen el filtro, ordenadas por fecha")
+        void debeProyectarCitasFiltradas() {
+            // Given
+            var tarde = fechaHora.withHour(14);
+            var segunda = citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, tarde));
+            var primera = citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora));
+            citaRepositorio.guardar(crearCita(TipoCita.RECOJO, fechaHora));
+            var cancelada = crearCita(TipoCita.ENTREGA, fechaHora.withHour(9));
+            cancelada.cancelar("Cambio de planes");
+            citaRepositorio.guardar(cancelada);
+
+            // When
+            var resumenes = citaRepositorio.buscarResumenes(
+                    FiltroCitas.activas().tipoCita(TipoCita.ENTREGA).build(), SolicitudPagina.primera()).getElementos();
+
+            // Then
+            assertEquals(2, resumenes.size());
+            assertEquals(primera.getId(), resumenes.get(0).getId());
+            assertEquals(segunda.getId(), resumenes.get(1).getId());
+            assertEquals("Proveedor", resumenes.get(0).getNombreProveedor());
+            assertEquals(EstadoCita.PENDIENTE, resumenes.get(0).getEstado());
+        }
+
+        @Test
+        @DisplayName("Debe limitar el filtro por día al rango [inicio, día siguiente)")
+        void debeLimitarFiltroPorDia() {
+            // Given
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora));
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, obtenerProximoDiaLaboral(fechaHora.plusDays(1))));
+
+            // When
+            var resumenes = citaRepositorio.buscarResumenes(
+                    FiltroCitas.delDia(fechaHora.toLocalDate()).build(), SolicitudPagina.primera()).getElementos();
+
+            // Then
+            assertEquals(1, resumenes.size());
+            assertEquals(fechaHora, resumenes.get(0).getFechaHora());
+        }
+
+        @Test
+        @DisplayName("Debe recorrer todas las citas por páginas sin repetir ni omitir")
+        void debeRecorrerTodasLasPaginas() {
+            // Given: dos citas por hora (tipos distintos) para forzar desempates por id
+            for (int hora : new int[]{8, 9, 10, 11}) {
+                citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(hora)));
+                citaRepositorio.guardar(crearCita(TipoCita.IMPORTACION, fechaHora.withHour(hora)));
+            }
+            var filtro = FiltroCitas.activas().build();
+
+            // When
+            List<String> recorridos = new ArrayList<>();
+            Cursor cursor = null;
+            int paginas = 0;
+            do {
+                var pagina = citaRepositorio.buscarResumenes(filtro, new SolicitudPagina(cursor, 3, false));
+                pagina.getElementos().forEach(resumen -> recorridos.add(resumen.getId()));
+                cursor = pagina.getSiguiente().orElse(null);
+                paginas++;
+            } while (cursor != null);
+
+            // Then
+            var esperados = citaRepositorio.buscarResumenes(filtro, new SolicitudPagina(null, 50, false))
+                    .getElementos().stream().map(CitaResumen::getId).toList();
+            assertEquals(3, paginas);
+            assertEquals(8, recorridos.size());
+            assertEquals(esperados, recorridos);
+        }
+
+        @Test
+        @DisplayName("Debe paginar en orden descendente")
+        void debePaginarEnOrdenDescendente() {
+            // Given
+            for (int hora : new int[]{8, 9, 10}) {
+                citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(hora)));
+            }
+
+            // When
+            var primera = citaRepositorio.buscarResumenes(FiltroCitas.activas().build(), new SolicitudPagina(null, 2, true));
+            var segunda = citaRepositorio.buscarResumenes(FiltroCitas.activas().build(),
+                    new SolicitudPagina(primera.getSiguiente().orElseThrow(), 2, true));
+
+            // Then
+            assertEquals(fechaHora.withHour(10), primera.getElementos().get(0).getFechaHora());
+            assertEquals(fechaHora.withHour(9), primera.getElementos().get(1).getFechaHora());
+            assertEquals(1, segunda.getElementos().size());
+            assertEquals(fechaHora.withHour(8), segunda.getElementos().get(0).getFechaHora());
+            assertFalse(segunda.tieneSiguiente());
+        }
+    }
+
+    @Nested
+    @DisplayName("Recorrido por rango de fechas")
+    class RecorrerPorRangoFechas {
+
+        @Test
+        @DisplayName("Debe entregar en orden solo las citas del rango [desde, hasta)")
+        void debeEntregarCitasDelRangoEnOrden() {
+            // Given
+            var primera = citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(8)));
+            var segunda = citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(9)));
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(10)));
+            List<String> recorridas = new ArrayList<>();
+
+            // When
+            var total = transactionTemplate.execute(estado -> citaRepositorio.recorrerPorRangoFechas(
+                    fechaHora.withHour(8), fechaHora.withHour(10), cita -> recorridas.add(cita.getId())));
+
+            // Then
+            assertEquals(2L, total);
+            assertEquals(List.of(primera.getId(), segunda.getId()), recorridas);
+        }
+    }
+
+    @Nested
+    @DisplayName("Horarios ocupados por rango")
+    class BuscarHorariosOcupados {
+
+        @Test
+        @DisplayName("Debe proyectar solo los horarios de citas activas dentro del rango")
+        void debeProyectarHorariosActivosDelRango() {
+            // Given
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora));
+            citaRepositorio.guardar(crearCita(TipoCita.RECOJO, fechaHora.withHour(15)));
+            var cancelada = crearCita(TipoCita.ENTREGA, fechaHora.withHour(9));
+            cancelada.cancelar("Cambio de planes");
+            citaRepositorio.guardar(cancelada);
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, obtenerProximoDiaLaboral(fechaHora.plusDays(1))));
+
+            // When
+            var ocupados = citaRepositorio.buscarHorariosOcupados(
+                    fechaHora.toLocalDate().atStartOfDay(), fechaHora.toLocalDate().plusDays(1).atStartOfDay());
+
+            // Then
+            assertEquals(2, ocupados.size());
+            assertTrue(ocupados.contains(new HorarioOcupado(TipoCita.ENTREGA, fechaHora)));
+            assertTrue(ocupados.contains(new HorarioOcupado(TipoCita.RECOJO, fechaHora.withHour(15))));
+        }
+
+        @Test
+        @DisplayName("Debe proyectar los horarios de citas activas desde la fecha, sin límite superior")
+        void debeProyectarHorariosActivosDesdeLaFecha() {
+            // Given
+            var siguiente = obtenerProximoDiaLaboral(fechaHora.plusDays(1));
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora));
+            citaRepositorio.guardar(crearCita(TipoCita.RECOJO, siguiente));
+            var cancelada = crearCita(TipoCita.ENTREGA, fechaHora.withHour(9));
+            cancelada.cancelar("Cambio de planes");
+            citaRepositorio.guardar(cancelada);
+
+            // When
+            var ocupados = citaRepositorio.buscarHorariosOcupadosDesde(fechaHora.toLocalDate().atStartOfDay());
+
+            // Then
+            assertEquals(2, ocupados.size());
+            assertTrue(ocupados.contains(new HorarioOcupado(TipoCita.ENTREGA, fechaHora)));
+            assertTrue(ocupados.contains(new HorarioOcupado(TipoCita.RECOJO, siguiente)));
+            assertTrue(citaRepositorio.buscarHorariosOcupadosDesde(siguiente.plusHours(1)).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Citas activas sin cargar la tabla")
+    class CitasActivas {
+
+        @Test
+        @DisplayName("Debe contar solo las citas activas del tipo")
+        void debeContarCitasActivasDelTipo() {
+            // Given
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(8)));
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(9)));
+            citaRepositorio.guardar(crearCita(TipoCita.RECOJO, fechaHora));
+            var cancelada = crearCita(TipoCita.ENTREGA, fechaHora);
+            cancelada.cancelar("Cambio de planes");
+            citaRepositorio.guardar(cancelada);
+
+            // When / Then
+            assertEquals(2, citaRepositorio.contarActivasPorTipo(TipoCita.ENTREGA));
+            assertEquals(0, citaRepositorio.contarActivasPorTipo(TipoCita.DEVOLUCION));
+        }
+
+        @Test
+        @DisplayName("Debe devolver las citas activas del proveedor ordenadas por fecha")
+        void debeDevolverCitasActivasDelProveedor() {
+            // Given
+            var tarde = citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(14)));
+            var temprano = citaRepositorio.guardar(crearCita(TipoCita.RECOJO, fechaHora.withHour(8)));
+            var rechazada = crearCita(TipoCita.ENTREGA, fechaHora.withHour(9));
+            rechazada.rechazar("Sin cupo");
+            citaRepositorio.guardar(rechazada);
+
+            // When
+            var activas = citaRepositorio.buscarResumenes(
+                    FiltroCitas.activas().nit("123").build(), SolicitudPagina.primera()).getElementos();
+
+            // Then
+            assertEquals(List.of(temprano.getId(), tarde.getId()), activas.stream().map(CitaResumen::getId).toList());
+            assertTrue(citaRepositorio.buscarResumenes(
+                    FiltroCitas.activas().nit("999").build(), SolicitudPagina.primera()).getElementos().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Debe contar las citas por estado, tipo y día en una consulta agrupada")
+        void debeContarPorEstadoTipoYDia() {
+            // Given
+            var dia = fechaHora.toLocalDate();
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(8)));
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(9)));
+            var cancelada = crearCita(TipoCita.ENTREGA, fechaHora.withHour(10));
+            cancelada.cancelar("Cambio de planes");
+            citaRepositorio.guardar(cancelada);
+
+            // When
+            var conteos = citaRepositorio.contarPorEstadoTipoYDia();
+
+            // Then
+            assertEquals(2, conteos.size());
+            assertTrue(conteos.contains(new ConteoCitas(EstadoCita.PENDIENTE, TipoCita.ENTREGA, dia, 2)));
+            assertTrue(conteos.contains(new ConteoCitas(EstadoCita.CANCELADA, TipoCita.ENTREGA, dia, 1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Cambio de estado en lote")
+    class GuardadoEnLote {
+
+        @Test
+        @DisplayName("Debe bloquear por IDs y guardar en lote las citas modificadas")
+        void debeCargarYGuardarEnLote() {
+            // Given
+            var primera = citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(8)));
+            var segunda = citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(9)));
+
+            // When
+            var guardadas = transactionTemplate.execute(estado -> {
+                var citas = citaRepositorio.bloquearPorIds(List.of(segunda.getId(), primera.getId(), "no-existe"));
+                citas.forEach(cita -> cita.confirmar("Lote"));
+                return citaRepositorio.guardarTodas(citas);
+            });
+
+            // Then
+            assertEquals(2, guardadas.size());
+            assertEquals(EstadoCita.CONFIRMADA, citaRepositorio.buscarPorId(primera.getId()).orElseThrow().getEstado());
+            assertEquals(EstadoCita.CONFIRMADA, citaRepositorio.buscarPorId(segunda.getId()).orElseThrow().getEstado());
+        }
+
+        @Test
+        @DisplayName("Debe bloquear las citas en orden de ID, omitiendo las inexistentes")
+        void debeBloquearEnOrdenDeId() {
+            // Given
+            var primera = citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(8)));
+            var segunda = citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(9)));
+            var ordenados = Stream.of(primera.getId(), segunda.getId()).sorted().toList();
+
+            // When
+            var bloqueadas = transactionTemplate.execute(estado ->
+                    citaRepositorio.bloquearPorIds(List.of(ordenados.get(1), "no-existe", ordenados.get(0))));
+
+            // Then
+            assertEquals(ordenados, bloqueadas.stream().map(Cita::getId).toList());
+        }
+    }
+
+    @Nested
+    @DisplayName("Citas pendientes vencidas")
+    class PendientesVencidas {
+
+        @Test
+        @DisplayName("Debe bloquear solo las pendientes anteriores al límite, las más antiguas primero")
+        void debeBloquearPendientesAnterioresAlLimite() {
+            // Given
+            var antigua = citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(8)));
+            var reciente = citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(9)));
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(11)));
+            var confirmada = crearCita(TipoCita.RECOJO, fechaHora.withHour(8));
+            confirmada.confirmar("Confirmada");
+            citaRepositorio.guardar(confirmada);
+
+            // When
+            var vencidas = transactionTemplate.execute(estado ->
+                    citaRepositorio.bloquearPendientesVencidas(fechaHora, 10));
+
+            // Then
+            assertEquals(List.of(antigua.getId(), reciente.getId()), vencidas.stream().map(Cita::getId).toList());
+        }
+
+        @Test
+        @DisplayName("Debe omitir las citas que otra transacción ya tiene bloqueadas")
+        void debeOmitirCitasBloqueadas() {
+            // Given
+            citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(8)));
+            var segunda = citaRepositorio.guardar(crearCita(TipoCita.ENTREGA, fechaHora.withHour(9)));
+
+            // When: mientras una transacción mantiene bloqueada la primera, otra pide todas
+            var bloqueadasPorOtra = transactionTemplate.execute(estado -> {
+                citaRepositorio.bloquearPendientesVencidas(fechaHora, 1);
+                return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(otra ->
+                        citaRepositorio.bloquearPendientesVencidas(fechaHora, 10))).join();
+            });
+
+            // Then
+            assertEquals(List.of(segunda.getId()), bloqueadasPorOtra.stream().map(Cita::getId).toList());
+        }
+
+        @Test
+        @DisplayName("La expiración debe cancelar las vencidas y auditarlas a nombre del sistema")
+        void debeExpirarYAuditarVencidas() {
+            // Given
+            var pasada = obtenerProximoDiaLaboral(LocalDateTime.now().minusDays(7))
+                    .withHour(8).withMinute(0).withSecond(0).withNano(0);
+            var vencida = citaRepositorio.registrar(crearCita(TipoCita.ENTREGA, pasada));
+            var futura = citaRepositorio.registrar(crearCita(TipoCita.ENTREGA, fechaHora));
+
+            // When
+            expirarCitasVencidas.expirarVencidas();
+
+            // Then: solo la vencida se expiró y se auditó a nombre del sistema
+            assertEquals(EstadoCita.CANCELADA, citaRepositorio.buscarPorId(vencida.getId()).orElseThrow().getEstado());
+            assertEquals(EstadoCita.PENDIENTE, citaRepositorio.buscarPorId(futura.getId()).orElseThrow().getEstado());
+            var auditadas = jdbcTemplate.query(
+                    "SELECT cita_id, usuario_id FROM auditoria_cambios_estado " +
+                    "WHERE tipo_cambio = 'EXPIRACION' AND cita_id IN (?, ?)",
+                    (fila, i) -> List.of(fila.getString("cita_id"), fila.getString("usuario_id")),
+                    vencida.getId(), futura.getId());
+            assertEquals(List.of(List.of(vencida.getId(), UsuarioSesion.SISTEMA.getId())), auditadas);
+        }
+    }
+
+    @Nested
+    @DisplayName("Bloqueo optimista")
+    class BloqueoOptimista {
+
+        @Test
+        @DisplayName("Debe incrementar la versión en cada actualización")
+        void debeIncrementarVersion() {
+            // Given
+            var registrada = citaRepositorio.registrar(crearCita(TipoCita.ENTREGA, fechaHora));
+            registrada.confirmar("Confirmada");
+
+            // When
+            var guardada = citaRepositorio.guardar(registrada);
+
+            // Then
+            assertEquals(0L, registrada.getVersion());
+            assertEquals(1L, guardada.getVersion());
+        }
+
+        @Test
+        @DisplayName("Debe rechazar el guardado de una copia leída antes del último cambio")
+        void debeRechazarCopiaDesactualizada() {
+            // Given: dos coordinadores leen la misma cita
+            var id = citaRepositorio.registrar(crearCita(TipoCita.ENTREGA, fechaHora)).getId();
+            var primeraLectura = citaRepositorio.buscarPorId(id).orElseThrow();
+            var segundaLectura = citaRepositorio.buscarPorId(id).orElseThrow();
+            primeraLectura.confirmar("Confirmada");
+            citaRepositorio.guardar(primeraLectura);
+
+            // When
+            segundaLectura.cancelar("Cancelada");
+
+            // Then
+            assertThrows(ConflictoVersionCitaException.class, () -> citaRepositorio.guardar(segundaLectura));
+            assertEquals(EstadoCita.CONFIRMADA, citaRepositorio.buscarPorId(id).orElseThrow().getEstado());
+        }
+    }
+}
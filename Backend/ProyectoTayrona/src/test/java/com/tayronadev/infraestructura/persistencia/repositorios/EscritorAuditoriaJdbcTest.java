@@ -0,0 +1,223 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.auditoria.modelo.RegistroCambioEstado;
+import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EscritorAuditoriaJdbc - Escritura en lote")
+class EscritorAuditoriaJdbcTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry metricas;
+
+    @BeforeEach
+    void setUp() {
+        metricas = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void limpiarSincronizacion() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Nested
+    @DisplayName("Modo GARANTIZADO")
+    class ModoGarantizado {
+
+        @Test
+        @DisplayName("Debe escribir los registros de la transacción en un solo lote antes del commit")
+        void debeEscribirUnLoteAntesDelCommit() {
+            // Given
+            var escritor = crearEscritor(ModoEscrituraAuditoria.GARANTIZADO, 100);
+            TransactionSynchronizationManager.initSynchronization();
+
+            // When
+            escritor.registrar(crearRegistro("cita-1"));
+            escritor.registrar(crearRegistro("cita-2"));
+
+            // Then
+            verifyNoInteractions(jdbcTemplate);
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            verify(jdbcTemplate).batchUpdate(eq(EscritorAuditoriaJdbc.SQL_INSERTAR), loteDe(2), eq(2), any(ParameterizedPreparedStatementSetter.class));
+            TransactionSynchronizationUtils.triggerAfterCompletion(0);
+        }
+
+        @Test
+        @DisplayName("Debe escribir de inmediato si no hay transacción activa")
+        void debeEscribirSinTransaccion() {
+            var escritor = crearEscritor(ModoEscrituraAuditoria.GARANTIZADO, 100);
+
+            escritor.registrar(crearRegistro("cita-1"));
+
+            verify(jdbcTemplate).batchUpdate(eq(EscritorAuditoriaJdbc.SQL_INSERTAR), loteDe(1), eq(1), any(ParameterizedPreparedStatementSetter.class));
+            assertEquals(1.0, metricas.counter("auditoria.registros.escritos").count());
+        }
+    }
+
+    @Nested
+    @DisplayName("Modo ASINCRONO")
+    class ModoAsincrono {
+
+        @Test
+        @DisplayName("Debe encolar sin escribir y vaciar la cola en lotes del tamaño configurado")
+        void debeVaciarColaEnLotes() {
+            // Given
+            var escritor = crearEscritor(ModoEscrituraAuditoria.ASINCRONO, 2);
+            for (int i = 0; i < 5; i++) {
+                escritor.registrar(crearRegistro("cita-" + i));
+            }
+            verifyNoInteractions(jdbcTemplate);
+            assertEquals(5.0, metricas.get("auditoria.cola.pendientes").gauge().value());
+
+            // When
+            escritor.vaciarCola();
+
+            // Then
+            verify(jdbcTemplate, times(2)).batchUpdate(eq(EscritorAuditoriaJdbc.SQL_INSERTAR), loteDe(2), eq(2), any(ParameterizedPreparedStatementSetter.class));
+            verify(jdbcTemplate).batchUpdate(eq(EscritorAuditoriaJdbc.SQL_INSERTAR), loteDe(1), eq(1), any(ParameterizedPreparedStatementSetter.class));
+            assertEquals(0, escritor.pendientes());
+            assertEquals(3, metricas.timer("auditoria.lote.escritura").count());
+        }
+
+        @Test
+        @DisplayName("Debe encolar solo después del commit de la transacción")
+        void debeEncolarDespuesDelCommit() {
+            var escritor = crearEscritor(ModoEscrituraAuditoria.ASINCRONO, 100);
+            TransactionSynchronizationManager.initSynchronization();
+
+            escritor.registrar(crearRegistro("cita-1"));
+            assertEquals(0, escritor.pendientes());
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.triggerAfterCompletion(0);
+            assertEquals(1, escritor.pendientes());
+        }
+
+        @Test
+        @DisplayName("Debe reintentar registro por registro si el lote falla y descartar solo el defectuoso")
+        void debeReintentarRegistroPorRegistro() {
+            // Given
+            var escritor = crearEscritor(ModoEscrituraAuditoria.ASINCRONO, 100);
+            lenient().when(jdbcTemplate.batchUpdate(eq(EscritorAuditoriaJdbc.SQL_INSERTAR), loteDe(3), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                    .thenThrow(new DataIntegrityViolationException("fk_auditoria_cita"));
+            lenient().when(jdbcTemplate.batchUpdate(eq(EscritorAuditoriaJdbc.SQL_INSERTAR), loteConCita("cita-inexistente"), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                    .thenThrow(new DataIntegrityViolationException("fk_auditoria_cita"));
+            escritor.registrar(crearRegistro("cita-1"));
+            escritor.registrar(crearRegistro("cita-inexistente"));
+            escritor.registrar(crearRegistro("cita-2"));
+
+            // When
+            escritor.vaciarCola();
+
+            // Then
+            verify(jdbcTemplate, times(3)).batchUpdate(eq(EscritorAuditoriaJdbc.SQL_INSERTAR), loteDe(1), eq(1), any(ParameterizedPreparedStatementSetter.class));
+            assertEquals(2.0, metricas.counter("auditoria.registros.escritos").count());
+            assertEquals(1.0, metricas.counter("auditoria.registros.fallidos").count());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conteos precalculados")
+    class Conteos {
+
+        @Test
+        @DisplayName("Debe sumar los conteos del lote en la misma transacción que los registros")
+        void debeSumarConteosDelLote() {
+            var escritor = crearEscritor(ModoEscrituraAuditoria.GARANTIZADO, 100);
+
+            escritor.registrar(crearRegistro("cita-1"));
+
+            var orden = inOrder(transactionManager, jdbcTemplate);
+            orden.verify(transactionManager).getTransaction(any());
+            orden.verify(jdbcTemplate).batchUpdate(eq(EscritorAuditoriaJdbc.SQL_INSERTAR), loteDe(1), eq(1), any(ParameterizedPreparedStatementSetter.class));
+            orden.verify(jdbcTemplate).batchUpdate(eq(EscritorAuditoriaJdbc.SQL_SUMAR_DIARIO), anyCollection(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+            orden.verify(jdbcTemplate).batchUpdate(eq(EscritorAuditoriaJdbc.SQL_SUMAR_USUARIO), anyCollection(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+            orden.verify(transactionManager).commit(any());
+        }
+
+        @Test
+        @DisplayName("Debe agrupar los registros por usuario, tipo de cambio y día")
+        void debeAgruparPorUsuarioTipoYDia() {
+            // Given
+            var lunes = LocalDateTime.of(2026, 3, 2, 9, 0);
+            var lote = List.of(
+                    crearRegistro("usuario-2", TipoCambio.RECHAZO, lunes),
+                    crearRegistro("usuario-1", TipoCambio.CONFIRMACION, lunes),
+                    crearRegistro("usuario-1", TipoCambio.CONFIRMACION, lunes.plusHours(3)),
+                    crearRegistro("usuario-1", TipoCambio.CONFIRMACION, lunes.plusDays(1)));
+
+            // When
+            var diarios = EscritorAuditoriaJdbc.agruparPorDia(lote);
+            var totales = EscritorAuditoriaJdbc.agruparPorUsuario(diarios);
+
+            // Then
+            assertEquals(List.of(
+                    new EscritorAuditoriaJdbc.Incremento("usuario-1", TipoCambio.CONFIRMACION,
+                            lunes.toLocalDate(), 2, lunes.plusHours(3)),
+                    new EscritorAuditoriaJdbc.Incremento("usuario-1", TipoCambio.CONFIRMACION,
+                            lunes.toLocalDate().plusDays(1), 1, lunes.plusDays(1)),
+                    new EscritorAuditoriaJdbc.Incremento("usuario-2", TipoCambio.RECHAZO,
+                            lunes.toLocalDate(), 1, lunes)), diarios);
+            assertEquals(List.of(
+                    new EscritorAuditoriaJdbc.Incremento("usuario-1", TipoCambio.CONFIRMACION, null, 3, lunes.plusDays(1)),
+                    new EscritorAuditoriaJdbc.Incremento("usuario-2", TipoCambio.RECHAZO, null, 1, lunes)), totales);
+        }
+    }
+
+    // Métodos auxiliares
+
+    private EscritorAuditoriaJdbc crearEscritor(ModoEscrituraAuditoria modo, int tamanoLote) {
+        return new EscritorAuditoriaJdbc(jdbcTemplate, new TransactionTemplate(transactionManager), metricas, modo, tamanoLote, 1000);
+    }
+
+    private RegistroCambioEstado crearRegistro(String citaId) {
+        return new RegistroCambioEstado(citaId, "usuario-1", "Admin", TipoCambio.CONFIRMACION,
+                "PENDIENTE", "CONFIRMADA", null);
+    }
+
+    private RegistroCambioEstado crearRegistro(String usuarioId, TipoCambio tipoCambio, LocalDateTime fechaCambio) {
+        return new RegistroCambioEstado(UUID.randomUUID().toString(), "cita-1", usuarioId, "Admin", tipoCambio,
+                "PENDIENTE", "CONFIRMADA", null, fechaCambio);
+    }
+
+    private static Collection<RegistroCambioEstado> loteDe(int tamano) {
+        return argThat(lote -> lote != null && lote.size() == tamano);
+    }
+
+    private static Collection<RegistroCambioEstado> loteConCita(String citaId) {
+        return argThat(lote -> lote != null && lote.size() == 1
+                && lote.iterator().next().getCitaId().equals(citaId));
+    }
+}
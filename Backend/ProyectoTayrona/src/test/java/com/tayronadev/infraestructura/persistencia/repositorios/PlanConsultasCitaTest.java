@@ -0,0 +1,141 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.citas.modelo.EstadoCita;
+import com.tayronadev.dominio.citas.modelo.TipoCita;
+import com.tayronadev.infraestructura.persistencia.GuardiaLecturasCompletas;
+import com.tayronadev.infraestructura.persistencia.PruebaIntegracionPostgres;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifica con EXPLAIN que las consultas por día sobre citas usen índices.
+ * El SQL se toma tal como lo genera Hibernate, a través del {@code StatementInspector}
+ * de la aplicación, de modo que un cambio en la consulta JPQL o en el mapeo se refleja
+ * en el plan verificado. Con enable_seqscan desactivado, PostgreSQL solo elige un
+ * Seq Scan si ningún índice puede resolver el predicado.
+ */
+@DisplayName("Planes de consulta de citas - Integración")
+class PlanConsultasCitaTest extends PruebaIntegracionPostgres {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2030, 1, 7, 0, 0);
+    private static final LocalDateTime FIN = INICIO.plusDays(1);
+    private static final LocalDateTime HORARIO = INICIO.withHour(10);
+
+    @MockitoSpyBean
+    private GuardiaLecturasCompletas inspector;
+
+    @Autowired
+    private CitaJpaRepository citaJpaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Cada caso ejecuta la consulta real del repositorio y da los valores de sus
+     * parámetros en el orden en que aparecen en el SQL generado
+     */
+    static Stream<Arguments> consultasPorDia() {
+        return Stream.of(
+                Arguments.of("findHorariosOcupados",
+                        (Consumer<CitaJpaRepository>) repositorio -> repositorio.findHorariosOcupados(INICIO, FIN),
+                        List.of(INICIO, FIN)),
+                Arguments.of("findHorariosOcupadosDesde",
+                        (Consumer<CitaJpaRepository>) repositorio -> repositorio.findHorariosOcupadosDesde(INICIO),
+                        List.of(INICIO)),
+                Arguments.of("findMuellesOcupados",
+                        (Consumer<CitaJpaRepository>) repositorio -> repositorio.findMuellesOcupados(
+                                TipoCita.ENTREGA, HORARIO, List.of(EstadoCita.PENDIENTE, EstadoCita.CONFIRMADA)),
+                        List.of(TipoCita.ENTREGA, HORARIO, EstadoCita.PENDIENTE, EstadoCita.CONFIRMADA))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("consultasPorDia")
+    @DisplayName("Las consultas por día no deben recurrir a un Seq Scan")
+    void consultasPorDiaNoDebenUsarSeqScan(String nombre, Consumer<CitaJpaRepository> consulta, List<Object> parametros) {
+        // Given
+        clearInvocations(inspector);
+
+        // When
+        consulta.accept(citaJpaRepository);
+        var sql = sqlGenerado();
+        assertEquals(parametros.size(), sql.chars().filter(c -> c == '?').count(), () -> "Parámetros de " + sql);
+        var plan = explicar(sql, parametros);
+
+        // Then
+        assertFalse(plan.contains("Seq Scan"), () -> "Plan con Seq Scan para " + sql + ":\n" + plan);
+    }
+
+    /**
+     * Última sentencia sobre citas que Hibernate preparó desde que se limpiaron las invocaciones
+     */
+    private String sqlGenerado() {
+        var captor = ArgumentCaptor.forClass(String.class);
+        verify(inspector, atLeastOnce()).inspect(captor.capture());
+        var sentencias = captor.getAllValues().stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).contains(" from citas "))
+                .toList();
+        assertFalse(sentencias.isEmpty(), "Hibernate no generó ninguna consulta sobre citas");
+        return sentencias.get(sentencias.size() - 1);
+    }
+
+    private String explicar(String sql, List<Object> parametros) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) conexion -> {
+            try (var sentencia = conexion.createStatement()) {
+                sentencia.execute("SET enable_seqscan = off");
+            }
+            try (var explain = conexion.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parametros.size(); i++) {
+                    explain.setObject(i + 1, valorJdbc(parametros.get(i)));
+                }
+                try (var resultado = explain.executeQuery()) {
+                    var plan = new StringBuilder();
+                    while (resultado.next()) {
+                        plan.append(resultado.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            } finally {
+                restaurarSeqScan(conexion);
+            }
+        });
+    }
+
+    /**
+     * Los enumerados se mapean como texto y las fechas como TIMESTAMP, igual que en las entidades
+     */
+    private static Object valorJdbc(Object valor) {
+        if (valor instanceof Enum<?> enumerado) {
+            return enumerado.name();
+        }
+        if (valor instanceof LocalDateTime fecha) {
+            return Timestamp.valueOf(fecha);
+        }
+        return valor;
+    }
+
+    private void restaurarSeqScan(Connection conexion) throws SQLException {
+        try (var sentencia = conexion.createStatement()) {
+            sentencia.execute("RESET enable_seqscan");
+        }
+    }
+}
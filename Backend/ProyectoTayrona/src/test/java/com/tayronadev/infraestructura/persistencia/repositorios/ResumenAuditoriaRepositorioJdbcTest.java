@@ -0,0 +1,129 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.auditoria.consultas.ActividadDiaria;
+import com.tayronadev.dominio.auditoria.modelo.RegistroCambioEstado;
+import com.tayronadev.dominio.auditoria.modelo.TipoCambio;
+import com.tayronadev.dominio.auditoria.repositorios.EscritorAuditoria;
+import com.tayronadev.dominio.auditoria.repositorios.ResumenAuditoriaRepositorio;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import com.tayronadev.infraestructura.persistencia.ParticionesAuditoria;
+import com.tayronadev.infraestructura.persistencia.PruebaIntegracionPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica contra PostgreSQL que los conteos de auditoría precalculados (V11) se
+ * actualizan con cada escritura del {@link EscritorAuditoria} y se revierten con ella.
+ */
+@DisplayName("Conteos de auditoría precalculados - Integración")
+@TestPropertySource(properties = "app.notificaciones.reintentos.intervalo-ms=3600000")
+class ResumenAuditoriaRepositorioJdbcTest extends PruebaIntegracionPostgres {
+
+    private static final String USUARIO_ID = "usuario-resumen";
+
+    @Autowired
+    private EscritorAuditoria escritorAuditoria;
+
+    @Autowired
+    private ResumenAuditoriaRepositorio resumenAuditoriaRepositorio;
+
+    @Autowired
+    private CitaRepositorio citaRepositorio;
+
+    @Autowired
+    private CitaJpaRepository citaJpaRepository;
+
+    @Autowired
+    private ParticionesAuditoria particiones;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String citaId;
+    private LocalDateTime ahora;
+
+    @BeforeEach
+    void setUp() {
+        citaJpaRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM auditoria_resumen_diario WHERE usuario_id = ?", USUARIO_ID);
+        jdbcTemplate.update("DELETE FROM auditoria_resumen_usuario WHERE usuario_id = ?", USUARIO_ID);
+        jdbcTemplate.update("""
+                INSERT INTO usuarios (id, nombre_usuario, correo_usuario, "contraseña_usuario", tipo_cuenta)
+                VALUES (?, 'Auditor', 'auditor@resumen.com', 'x', 'ADMINISTRADOR')
+                ON CONFLICT (id) DO NOTHING
+                """, USUARIO_ID);
+        citaId = citaRepositorio.registrar(crearCita()).getId();
+        ahora = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Nested
+    @DisplayName("Escritura")
+    class Escritura {
+
+        @Test
+        @DisplayName("Debe sumar los cambios por tipo y por día en la misma transacción")
+        void debeSumarCambiosPorTipoYDia() {
+            // Given
+            var ayer = ahora.minusDays(1);
+            particiones.crearParticiones(YearMonth.from(ayer), YearMonth.from(ahora));
+
+            // When
+            transactionTemplate.executeWithoutResult(estado -> {
+                escritorAuditoria.registrar(crearRegistro(TipoCambio.CONFIRMACION, ayer));
+                escritorAuditoria.registrar(crearRegistro(TipoCambio.CONFIRMACION, ahora));
+                escritorAuditoria.registrar(crearRegistro(TipoCambio.RECHAZO, ahora));
+            });
+            escritorAuditoria.registrar(crearRegistro(TipoCambio.CONFIRMACION, ahora));
+
+            // Then
+            var resumen = resumenAuditoriaRepositorio.obtenerResumenUsuario(USUARIO_ID);
+            assertEquals(Map.of(TipoCambio.CONFIRMACION, 3L, TipoCambio.RECHAZO, 1L), resumen.getCambiosPorTipo());
+            assertEquals(4, resumen.getTotalCambios());
+            assertEquals(ahora, resumen.getUltimoCambio());
+            assertEquals(List.of(
+                    new ActividadDiaria(ayer.toLocalDate(), TipoCambio.CONFIRMACION, 1),
+                    new ActividadDiaria(ahora.toLocalDate(), TipoCambio.CONFIRMACION, 2),
+                    new ActividadDiaria(ahora.toLocalDate(), TipoCambio.RECHAZO, 1)),
+                    resumenAuditoriaRepositorio.obtenerActividadDiaria(USUARIO_ID,
+                            ayer.toLocalDate(), ahora.toLocalDate()));
+        }
+
+        @Test
+        @DisplayName("Si la transacción del negocio se revierte los conteos no deben cambiar")
+        void debeRevertirConteosConLaTransaccion() {
+            assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(estado -> {
+                escritorAuditoria.registrar(crearRegistro(TipoCambio.CANCELACION, ahora));
+                throw new IllegalStateException("falla del negocio");
+            }));
+
+            var resumen = resumenAuditoriaRepositorio.obtenerResumenUsuario(USUARIO_ID);
+            assertTrue(resumen.getCambiosPorTipo().isEmpty());
+            assertNull(resumen.getUltimoCambio());
+        }
+    }
+
+    // Métodos auxiliares
+
+    private RegistroCambioEstado crearRegistro(TipoCambio tipoCambio, LocalDateTime fechaCambio) {
+        return new RegistroCambioEstado(UUID.randomUUID().toString(), citaId, USUARIO_ID, "Auditor", tipoCambio,
+                "PENDIENTE", "CONFIRMADA", null, fechaCambio);
+    }
+}
@@ -0,0 +1,127 @@
+package com.tayronadev.infraestructura.persistencia.repositorios;
+
+import com.tayronadev.dominio.citas.modelo.*;
+import com.tayronadev.dominio.citas.repositorios.CitaRepositorio;
+import com.tayronadev.infraestructura.persistencia.PruebaIntegracionPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cuenta las sentencias SQL que emite cada escritura de citas con las
+ * estadísticas de Hibernate: una inserción no debe consultar antes, una
+ * actualización de una cita ya cargada no debe volver a leerla y los
+ * guardados múltiples deben viajar en un único lote JDBC.
+ */
+@DisplayName("Sentencias de escritura de citas - Integración")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.notificaciones.reintentos.intervalo-ms=3600000"
+})
+class SentenciasEscrituraCitaTest extends PruebaIntegracionPostgres {
+
+    @Autowired
+    private CitaRepositorio citaRepositorio;
+
+    @Autowired
+    private CitaJpaRepository citaJpaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+    private LocalDateTime fechaHora;
+
+    @BeforeEach
+    void setUp() {
+        citaJpaRepository.deleteAll();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        fechaHora = obtenerProximoDiaLaboral().withHour(8).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Nested
+    @DisplayName("Inserción")
+    class Insercion {
+
+        @Test
+        @DisplayName("Registrar una cita debe emitir solo el INSERT")
+        void registrarDebeEmitirSoloInsert() {
+            // Given
+            var cita = crearCita(TipoCita.ENTREGA, fechaHora);
+            estadisticas.clear();
+
+            // When
+            citaRepositorio.registrar(cita);
+
+            // Then
+            assertEquals(1, estadisticas.getPrepareStatementCount());
+            assertEquals(1, estadisticas.getEntityInsertCount());
+            assertEquals(0, estadisticas.getEntityLoadCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Actualización")
+    class Actualizacion {
+
+        @Test
+        @DisplayName("Cambiar el estado de una cita cargada debe emitir solo el SELECT inicial y el UPDATE")
+        void cambioDeEstadoDebeEmitirSelectYUpdate() {
+            // Given
+            var id = citaRepositorio.registrar(crearCita(TipoCita.ENTREGA, fechaHora)).getId();
+            estadisticas.clear();
+
+            // When
+            transactionTemplate.executeWithoutResult(estado -> {
+                var cita = citaRepositorio.buscarPorId(id).orElseThrow();
+                cita.confirmar("Confirmada");
+                citaRepositorio.guardar(cita);
+            });
+
+            // Then
+            assertEquals(2, estadisticas.getPrepareStatementCount());
+            assertEquals(1, estadisticas.getEntityLoadCount());
+            assertEquals(1, estadisticas.getEntityUpdateCount());
+            assertEquals(EstadoCita.CONFIRMADA, citaRepositorio.buscarPorId(id).orElseThrow().getEstado());
+        }
+
+        @Test
+        @DisplayName("Guardar varias citas cargadas debe agrupar los UPDATE en un lote")
+        void guardadoMultipleDebeAgruparUpdates() {
+            // Given
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                ids.add(citaRepositorio.registrar(crearCita(TipoCita.ENTREGA, fechaHora.plusHours(i))).getId());
+            }
+            estadisticas.clear();
+
+            // When
+            transactionTemplate.executeWithoutResult(estado -> {
+                var citas = citaRepositorio.buscarPorIds(ids);
+                citas.forEach(cita -> cita.confirmar("Lote"));
+                citaRepositorio.guardarTodas(citas);
+            });
+
+            // Then: un SELECT para cargar y una sola sentencia UPDATE en lote
+            assertEquals(2, estadisticas.getPrepareStatementCount());
+            assertEquals(5, estadisticas.getEntityLoadCount());
+            assertEquals(5, estadisticas.getEntityUpdateCount());
+        }
+    }
+}